@@ -0,0 +1,101 @@
+package com.wallet.wallet.benchmark;
+
+import com.opencsv.CSVReader;
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.service.ExternalTransactionFileParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the previous opencsv path (a String[] and a BigDecimal built from a String per line) with the
+ * memory-mapped parallel parser on generated settlement files of up to 10M rows (about 300 MB).
+ * Each invocation reads the whole file once; the OS page cache is warm after the first iteration for both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExternalFileParserBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private Path file;
+    private ExternalTransactionFileParser parser;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = Files.createTempFile("external_transactions_", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("transaction_id,amount\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write("TXN-");
+                writer.write(Integer.toString(i));
+                writer.write(',');
+                writer.write(Integer.toString(i % 100_000));
+                writer.write('.');
+                writer.write(Integer.toString(10 + i % 90));
+                writer.write('\n');
+            }
+        }
+        parser = new ExternalTransactionFileParser(new WalletProperties());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        parser.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long opencsv(Blackhole blackhole) throws Exception {
+        long count = 0;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             CSVReader csvReader = new CSVReader(reader)) {
+            csvReader.readNext();
+            String[] line;
+            while ((line = csvReader.readNext()) != null) {
+                blackhole.consume(new ExternalTransaction(line[0], new BigDecimal(line[1])));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long mappedParallel(Blackhole blackhole) {
+        long[] count = {0};
+        try (Stream<ExternalTransaction> transactions = parser.parse(file)) {
+            transactions.forEach(transaction -> {
+                blackhole.consume(transaction);
+                count[0]++;
+            });
+        }
+        return count[0];
+    }
+}
@@ -0,0 +1,109 @@
+package com.wallet.wallet.benchmark;
+
+import com.wallet.wallet.model.Money;
+import com.wallet.wallet.model.Wallet;
+import com.wallet.wallet.repository.OutboxEventRepository;
+import com.wallet.wallet.repository.TransactionKeyRepository;
+import com.wallet.wallet.repository.TransactionRepository;
+import com.wallet.wallet.repository.WalletRepository;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map-backed stand-ins for the repositories the wallet write path uses, so benchmarks measure the service
+ * logic rather than a database. Only the methods {@code WalletService} calls are implemented; the ledger
+ * and the outbox only count what they are given.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static WalletRepository wallets(Map<Long, Wallet> wallets) {
+        return proxy(WalletRepository.class, (name, args) -> switch (name) {
+            case "findById" -> Optional.ofNullable(wallets.get((Long) args[0]));
+            case "existsById" -> wallets.containsKey((Long) args[0]);
+            case "getReferenceById" -> wallets.get((Long) args[0]);
+            case "save", "saveAndFlush" -> {
+                Wallet wallet = (Wallet) args[0];
+                wallets.put(wallet.getId(), wallet);
+                yield wallet;
+            }
+            case "creditOrCreate" -> {
+                Wallet wallet = wallets.computeIfAbsent((Long) args[0], id -> newWallet(id));
+                synchronized (wallet) {
+                    wallet.setBalance(wallet.getBalance().plus(Money.of((BigDecimal) args[1])));
+                }
+                yield 1;
+            }
+            case "debitIfSufficient" -> {
+                Wallet wallet = wallets.get((Long) args[0]);
+                if (wallet == null) {
+                    yield 0;
+                }
+                synchronized (wallet) {
+                    if (wallet.getBalance().isLessThan((Money) args[1])) {
+                        yield 0;
+                    }
+                    wallet.setBalance(wallet.getBalance().minus((Money) args[1]));
+                    yield 1;
+                }
+            }
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    static TransactionRepository transactions() {
+        return proxy(TransactionRepository.class, (name, args) -> switch (name) {
+            case "save", "saveAndFlush" -> args[0];
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    static TransactionKeyRepository transactionKeys() {
+        return proxy(TransactionKeyRepository.class, (name, args) -> switch (name) {
+            case "save" -> args[0];
+            case "existsById" -> false;
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    static OutboxEventRepository outboxEvents() {
+        return proxy(OutboxEventRepository.class, (name, args) -> switch (name) {
+            case "save" -> args[0];
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    static Map<Long, Wallet> walletMap() {
+        return new ConcurrentHashMap<>();
+    }
+
+    private static Wallet newWallet(Long id) {
+        Wallet wallet = new Wallet();
+        wallet.setId(id);
+        return wallet;
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stand-in";
+                };
+            }
+            return handler.handle(method.getName(), args);
+        }));
+    }
+}
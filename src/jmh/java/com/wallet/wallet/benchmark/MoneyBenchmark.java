@@ -0,0 +1,54 @@
+package com.wallet.wallet.benchmark;
+
+import com.wallet.wallet.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The balance arithmetic of a topup followed by a checked consume, as the read-modify-write path and the
+ * batch writer do it: on BigDecimal before, on {@link Money} now. Run with {@code -prof gc} for the allocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final BigDecimal TOPUP = new BigDecimal("10.00");
+    private static final BigDecimal CONSUME = new BigDecimal("9.99");
+    private static final Money TOPUP_MONEY = Money.of(TOPUP);
+    private static final Money CONSUME_MONEY = Money.of(CONSUME);
+
+    private BigDecimal decimalBalance = new BigDecimal("1000.00");
+    private Money balance = Money.of("1000.00");
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        decimalBalance = decimalBalance.add(TOPUP);
+        if (decimalBalance.compareTo(CONSUME) >= 0) {
+            decimalBalance = decimalBalance.subtract(CONSUME);
+        }
+        return decimalBalance;
+    }
+
+    @Benchmark
+    public Money money() {
+        balance = balance.plus(TOPUP_MONEY);
+        if (!balance.isLessThan(CONSUME_MONEY)) {
+            balance = balance.minus(CONSUME_MONEY);
+        }
+        return balance;
+    }
+}
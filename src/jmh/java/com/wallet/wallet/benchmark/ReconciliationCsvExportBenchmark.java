@@ -0,0 +1,100 @@
+package com.wallet.wallet.benchmark;
+
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationSummary;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.service.ReconciliationCsvExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * CSV export of a reconciled day, plain and gzipped, with the reconciliation replaced by prepared records
+ * so only row formatting, encoding and compression are measured. Output is counted and discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReconciliationCsvExportBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 9, 12);
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ReconciliationCsvExporter exporter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime createdAt = DATE.atTime(12, 0);
+        List<ReconciliationRecord> records = IntStream.range(0, rows)
+                .mapToObj(i -> {
+                    String transactionId = String.format("TXN-%08d", i);
+                    BigDecimal amount = BigDecimal.valueOf(i % 100_000, 2);
+                    TransactionDTO internal = i % 100 == 1 ? null : TransactionDTO.builder()
+                            .transactionId(transactionId)
+                            .amount(amount)
+                            .type(i % 2 == 0 ? TransactionType.TOPUP : TransactionType.CONSUME)
+                            .createdAt(createdAt.plusSeconds(i % 86_400))
+                            .walletId((long) i % 1_000)
+                            .build();
+                    ExternalTransaction external = i % 100 == 2 ? null
+                            : new ExternalTransaction(transactionId, i % 100 == 3 ? amount.add(BigDecimal.ONE) : amount);
+                    return ReconciliationRecord.of(transactionId, internal, external);
+                })
+                .toList();
+        exporter = new ReconciliationCsvExporter((date, sink) -> {
+            for (ReconciliationRecord record : records) {
+                sink.accept(record);
+            }
+            return ReconciliationSummary.builder().reportDate(date.toString()).build();
+        });
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        exporter.export(DATE, out, gzip);
+        return out.bytes;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
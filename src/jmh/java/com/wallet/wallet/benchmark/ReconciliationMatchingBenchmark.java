@@ -0,0 +1,165 @@
+package com.wallet.wallet.benchmark;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationReport;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.service.CompactTransactionIndex;
+import com.wallet.wallet.service.ExternalTransactionSorter;
+import com.wallet.wallet.service.ReconciliationMatcher;
+import com.wallet.wallet.service.ReconciliationMerger;
+import com.wallet.wallet.service.ReconciliationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The matching step of a day's reconciliation with both sides already loaded: the compact index join behind
+ * {@code generateReport}, the same join with every tolerant matching rule enabled, the {@code HashMap} join it
+ * replaced, and the sort and merge join of the streaming engine. Per 100 IDs, one is external only, one internal
+ * only and one differs in amount. The 10M case needs an 8 GB heap for the {@code HashMap} join. Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ReconciliationMatchingBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 9, 12);
+    private static final int SCRAMBLE = 7_919;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private List<TransactionDTO> internal;
+    private List<ExternalTransaction> external;
+    private ExternalTransactionSorter sorter;
+    private ReconciliationMatcher tolerantMatcher;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        LocalDateTime createdAt = DATE.atTime(12, 0);
+        internal = IntStream.range(0, rows)
+                .filter(i -> i % 100 != 1)
+                .mapToObj(i -> TransactionDTO.builder()
+                        .transactionId(id(i))
+                        .amount(amount(i))
+                        .type(TransactionType.TOPUP)
+                        .createdAt(createdAt)
+                        .walletId((long) i % 1_000)
+                        .build())
+                .toList();
+        // Settlement files are not in transaction ID order
+        external = IntStream.range(0, rows)
+                .map(i -> (int) ((long) i * SCRAMBLE % rows))
+                .filter(i -> i % 100 != 2)
+                .mapToObj(i -> new ExternalTransaction(id(i), i % 100 == 3 ? amount(i).add(BigDecimal.ONE) : amount(i)))
+                .toList();
+
+        WalletProperties properties = new WalletProperties();
+        properties.getReconciliation().setSortChunkSize(rows);
+        sorter = new ExternalTransactionSorter(properties);
+        tolerantMatcher = new ReconciliationMatcher(EnumSet.allOf(ReconciliationReport.MatchRule.class), new BigDecimal("0.01"));
+    }
+
+    @Benchmark
+    public ReconciliationReport compactIndexJoin() {
+        return ReconciliationService.buildReport(DATE, internal, external);
+    }
+
+    /**
+     * The leftovers of the exact pass also go through normalized IDs and unique amounts; the mismatches are
+     * outside the tolerance, so the difference to {@link #compactIndexJoin()} is mostly the cost of those stages.
+     */
+    @Benchmark
+    public ReconciliationReport tolerantPipeline() {
+        CompactTransactionIndex index = new CompactTransactionIndex(external.size(), false);
+        external.forEach(externalTx -> index.add(externalTx.getTransactionId(), externalTx.getAmount(), null, null));
+        return tolerantMatcher.match(DATE, internal, index);
+    }
+
+    /**
+     * The previous {@code buildReport}: both sides keyed by transaction ID in {@code HashMap}s.
+     */
+    @Benchmark
+    public ReconciliationReport hashMapJoin() {
+        Map<String, TransactionDTO> internalMap = internal.stream()
+                .collect(Collectors.toMap(TransactionDTO::getTransactionId, Function.identity()));
+        Map<String, ExternalTransaction> externalMap = external.stream()
+                .collect(Collectors.toMap(ExternalTransaction::getTransactionId, Function.identity()));
+
+        List<TransactionDTO> matched = new ArrayList<>();
+        Map<String, ReconciliationReport.MismatchDetail> mismatched = new HashMap<>();
+        List<TransactionDTO> missingInExternal = new ArrayList<>();
+        List<ExternalTransaction> missingInInternal = new ArrayList<>();
+        internalMap.forEach((id, internalTx) -> {
+            ExternalTransaction externalTx = externalMap.get(id);
+            if (externalTx == null) {
+                missingInExternal.add(internalTx);
+            } else if (internalTx.getAmount().compareTo(externalTx.getAmount()) == 0) {
+                matched.add(internalTx);
+            } else {
+                mismatched.put(id, ReconciliationReport.MismatchDetail.builder()
+                        .internalAmount(internalTx.getAmount())
+                        .externalAmount(externalTx.getAmount())
+                        .build());
+            }
+        });
+        externalMap.forEach((id, externalTx) -> {
+            if (!internalMap.containsKey(id)) {
+                missingInInternal.add(externalTx);
+            }
+        });
+        return ReconciliationReport.builder()
+                .matched(matched)
+                .mismatched(mismatched)
+                .missingInExternal(missingInExternal)
+                .missingInInternal(missingInInternal)
+                .build();
+    }
+
+    @Benchmark
+    public long sortMergeJoin() {
+        long[] counts = new long[ReconciliationRecord.Status.values().length];
+        try (Stream<ExternalTransaction> sorted = sorter.sort(external.iterator())) {
+            ReconciliationMerger merger = new ReconciliationMerger(internal.iterator(), sorted.iterator());
+            merger.forEachRemaining(record -> counts[record.getStatus().ordinal()]++);
+        }
+        return counts[ReconciliationRecord.Status.MATCHED.ordinal()];
+    }
+
+    private static String id(int i) {
+        return String.format("TXN-%08d", i);
+    }
+
+    private static BigDecimal amount(int i) {
+        return BigDecimal.valueOf(i % 100_000, 2);
+    }
+}
@@ -0,0 +1,134 @@
+package com.wallet.wallet.benchmark;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRangeReport;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationSummary;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.service.ExternalTransactionSorter;
+import com.wallet.wallet.service.ReconciliationMerger;
+import com.wallet.wallet.service.ReconciliationRangeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Month-end reconciliation of 31 synthetic days through the real external sort and merge join, with the
+ * database and the file replaced by generated rows. Compare {@code parallelism=1} with the core count.
+ * Every day has transactions created in the last seconds before midnight that the processor settled on
+ * the next day, so the boundary pass has work too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReconciliationRangeBenchmark {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 8, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 8, 31);
+    private static final int SCRAMBLE = 7_919;
+    private static final int LATE_PER_DAY = 100;
+
+    @Param("200000")
+    public int rowsPerDay;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private ReconciliationRangeService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        WalletProperties properties = new WalletProperties();
+        properties.getReconciliation().setRangeParallelism(parallelism);
+        properties.getReconciliation().setSortChunkSize(rowsPerDay);
+        ExternalTransactionSorter sorter = new ExternalTransactionSorter(properties);
+        service = new ReconciliationRangeService((date, sink) -> {
+            long[] counts = new long[ReconciliationRecord.Status.values().length];
+            int day = date.getDayOfMonth();
+            try (Stream<ExternalTransaction> external = sorter.sort(external(day))) {
+                ReconciliationMerger merger = new ReconciliationMerger(internal(date, day), external.iterator());
+                while (merger.hasNext()) {
+                    ReconciliationRecord record = merger.next();
+                    counts[record.getStatus().ordinal()]++;
+                    sink.accept(record);
+                }
+            }
+            return ReconciliationSummary.builder()
+                    .reportDate(date.toString())
+                    .matchedCount(counts[ReconciliationRecord.Status.MATCHED.ordinal()])
+                    .missingInExternalCount(counts[ReconciliationRecord.Status.MISSING_IN_EXTERNAL.ordinal()])
+                    .missingInInternalCount(counts[ReconciliationRecord.Status.MISSING_IN_INTERNAL.ordinal()])
+                    .build();
+        }, properties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public ReconciliationRangeReport monthEnd() {
+        return service.reconcile(FROM, TO);
+    }
+
+    /**
+     * The day's ledger in transaction ID order; the last {@link #LATE_PER_DAY} rows are created a second before midnight.
+     */
+    private Iterator<TransactionDTO> internal(LocalDate date, int day) {
+        LocalDateTime noon = date.atTime(12, 0);
+        LocalDateTime lastSecond = date.plusDays(1).atStartOfDay().minusSeconds(1);
+        return IntStream.range(0, rowsPerDay)
+                .mapToObj(i -> TransactionDTO.builder()
+                        .transactionId(id(day, i))
+                        .amount(amount(i))
+                        .type(TransactionType.TOPUP)
+                        .createdAt(i >= rowsPerDay - LATE_PER_DAY ? lastSecond : noon)
+                        .walletId((long) i % 1_000)
+                        .build())
+                .iterator();
+    }
+
+    /**
+     * The day's file in scrambled order: the day's rows except the late ones, plus the previous day's late ones.
+     */
+    private Iterator<ExternalTransaction> external(int day) {
+        Stream<ExternalTransaction> own = IntStream.range(0, rowsPerDay - LATE_PER_DAY)
+                .map(i -> (int) ((long) i * SCRAMBLE % (rowsPerDay - LATE_PER_DAY)))
+                .mapToObj(i -> new ExternalTransaction(id(day, i), amount(i)));
+        Stream<ExternalTransaction> previousDaysLate = day == 1 ? Stream.empty()
+                : IntStream.range(rowsPerDay - LATE_PER_DAY, rowsPerDay).mapToObj(i -> new ExternalTransaction(id(day - 1, i), amount(i)));
+        return Stream.concat(own, previousDaysLate).iterator();
+    }
+
+    private static String id(int day, int i) {
+        return String.format("TXN-%02d-%08d", day, i);
+    }
+
+    private static BigDecimal amount(int i) {
+        return BigDecimal.valueOf(i % 100_000, 2);
+    }
+}
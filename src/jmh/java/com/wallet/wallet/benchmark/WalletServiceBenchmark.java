@@ -0,0 +1,90 @@
+package com.wallet.wallet.benchmark;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.model.Wallet;
+import com.wallet.wallet.service.BalanceCache;
+import com.wallet.wallet.service.LiveReconciliation;
+import com.wallet.wallet.service.OutboxWriter;
+import com.wallet.wallet.service.RecentTransactionIdFilter;
+import com.wallet.wallet.service.WalletMetrics;
+import com.wallet.wallet.service.WalletService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code WalletService.topup/consume} over in-memory repositories, in both balance update modes.
+ * Covers the duplicate filter, cache invalidation, ledger entry construction and outbox message
+ * conversion; no database, transaction or broker is involved. The modes under contention against a
+ * database are compared by {@code BalanceUpdateModeLoadTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalletServiceBenchmark {
+
+    private static final int WALLETS = 1_000;
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Param({"ATOMIC", "READ_MODIFY_WRITE"})
+    public WalletProperties.BalanceUpdateMode mode;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private WalletService walletService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Per-operation INFO lines would turn this into a console benchmark
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+        WalletProperties properties = new WalletProperties();
+        properties.setBalanceUpdateMode(mode);
+        Map<Long, Wallet> wallets = InMemoryRepositories.walletMap();
+        walletService = new WalletService(
+                InMemoryRepositories.wallets(wallets),
+                InMemoryRepositories.transactions(),
+                InMemoryRepositories.transactionKeys(),
+                new OutboxWriter(InMemoryRepositories.outboxEvents(), new Jackson2JsonMessageConverter()),
+                properties,
+                new RecentTransactionIdFilter(properties),
+                new BalanceCache(properties, null, new SimpleMeterRegistry()),
+                new WalletMetrics(new SimpleMeterRegistry()),
+                new LiveReconciliation(InMemoryRepositories.transactions(), properties));
+        // Enough funds that consumes never run dry during a run
+        for (long walletId = 0; walletId < WALLETS; walletId++) {
+            walletService.topup(walletId, new BigDecimal("1000000000.00"), "seed-" + walletId);
+        }
+    }
+
+    @Benchmark
+    public void topup() {
+        long n = sequence.incrementAndGet();
+        walletService.topup(n % WALLETS, AMOUNT, "topup-" + n);
+    }
+
+    @Benchmark
+    public void consume() {
+        long n = sequence.incrementAndGet();
+        walletService.consume(n % WALLETS, AMOUNT, "consume-" + n);
+    }
+}
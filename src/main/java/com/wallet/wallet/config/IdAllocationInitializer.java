@@ -0,0 +1,65 @@
+package com.wallet.wallet.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves the id allocators in {@code id_allocations} past the ids already stored in their tables.
+ * Rows written before the switch from AUTO_INCREMENT would otherwise collide with newly allocated ids.
+ * This is a no-op once the allocators are ahead, and safe to run from several nodes at once.
+ */
+@Component
+@Slf4j
+public class IdAllocationInitializer {
+
+    /**
+     * Tables whose ids come from {@code id_allocations}; the allocator row is named after the table.
+     */
+    private static final List<String> ALLOCATED_TABLES = List.of("transactions", "outbox_events");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Depends on the EntityManagerFactory so that Hibernate has created or updated the schema first.
+     */
+    public IdAllocationInitializer(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignAllocators() {
+        ALLOCATED_TABLES.forEach(this::alignAllocator);
+    }
+
+    private void alignAllocator(String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        if (maxId == null || maxId == 0) {
+            return;
+        }
+        // Blocks are handed out above next_val
+        long floor = maxId;
+        int updated = jdbcTemplate.update(
+                "UPDATE id_allocations SET next_val = ? WHERE sequence_name = ? AND next_val < ?", floor, table, floor);
+        if (updated > 0) {
+            log.info("Advanced id allocator for {} to {}", table, floor);
+            return;
+        }
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM id_allocations WHERE sequence_name = ?", Integer.class, table);
+        if (rows != null && rows == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO id_allocations (sequence_name, next_val) VALUES (?, ?)", table, floor);
+                log.info("Initialized id allocator for {} at {}", table, floor);
+            } catch (DuplicateKeyException e) {
+                // Another node initialized it concurrently; the next startup re-checks the floor.
+                log.debug("Id allocator for {} was initialized concurrently", table);
+            }
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package com.wallet.wallet.config;
 
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,11 +25,71 @@ public class RabbitMQConfig {
 
     public static final String QUEUE_NAME = "transactions.queue";
 
+    public static final String BALANCE_INVALIDATION_EXCHANGE = "wallet.balance.invalidations";
+
+    /**
+     * Settlement records ({@code transactionId}, {@code amount}) as the processor reports them, for the live reconciliation.
+     */
+    public static final String SETTLEMENT_QUEUE_NAME = "settlements.queue";
+
+    public static final String TRANSACTION_EVENT_CONTAINER_FACTORY = "transactionEventContainerFactory";
+
     @Bean
     public Queue queue() {
         return new Queue(QUEUE_NAME, true);
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.live-reconciliation", name = "enabled", havingValue = "true")
+    public Queue settlementQueue() {
+        return new Queue(SETTLEMENT_QUEUE_NAME, true);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.balance-cache", name = "broadcast-invalidations", havingValue = "true")
+    public FanoutExchange balanceInvalidationExchange() {
+        return new FanoutExchange(BALANCE_INVALIDATION_EXCHANGE, false, false);
+    }
+
+    /**
+     * Every node gets its own short-lived queue on the invalidation exchange; missed messages only matter
+     * while the node is up, and the cache starts empty after a restart anyway.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.balance-cache", name = "broadcast-invalidations", havingValue = "true")
+    public AnonymousQueue balanceInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.balance-cache", name = "broadcast-invalidations", havingValue = "true")
+    public Binding balanceInvalidationBinding(AnonymousQueue balanceInvalidationQueue, FanoutExchange balanceInvalidationExchange) {
+        return BindingBuilder.bind(balanceInvalidationQueue).to(balanceInvalidationExchange);
+    }
+
+    /**
+     * Listener containers for the transaction events: the consumer gets up to batch-size messages at a time,
+     * or fewer once flush-interval has passed, and the batch is acknowledged with one multiple-ack after the
+     * listener returns. Prefetch is kept at or above the batch size so a batch never waits on the broker.
+     */
+    @Bean(TRANSACTION_EVENT_CONTAINER_FACTORY)
+    @ConditionalOnProperty(prefix = "wallet.aggregates", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SimpleRabbitListenerContainerFactory transactionEventContainerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                                 ConnectionFactory connectionFactory,
+                                                                                 WalletProperties walletProperties) {
+        WalletProperties.Aggregates settings = walletProperties.getAggregates();
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(settings.getBatchSize());
+        factory.setBatchReceiveTimeout(settings.getFlushInterval().toMillis());
+        factory.setPrefetchCount(Math.max(settings.getPrefetch(), settings.getBatchSize()));
+        factory.setConcurrentConsumers(settings.getConcurrency());
+        return factory;
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
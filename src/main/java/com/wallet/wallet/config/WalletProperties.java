@@ -0,0 +1,423 @@
+package com.wallet.wallet.config;
+
+import com.wallet.wallet.dto.ReconciliationReport;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tunable settings for the wallet write path, bound from the {@code wallet.*} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "wallet")
+public class WalletProperties {
+
+    /**
+     * How topup/consume change the stored balance.
+     */
+    private BalanceUpdateMode balanceUpdateMode = BalanceUpdateMode.ATOMIC;
+
+    private final Batching batching = new Batching();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Outbox outbox = new Outbox();
+
+    private final BalanceCaching balanceCache = new BalanceCaching();
+
+    private final Reconciliation reconciliation = new Reconciliation();
+
+    private final Admission admission = new Admission();
+
+    private final Audit audit = new Audit();
+
+    private final Partitioning partitioning = new Partitioning();
+
+    private final History history = new History();
+
+    private final Aggregates aggregates = new Aggregates();
+
+    private final LiveReconciliation liveReconciliation = new LiveReconciliation();
+
+    private final IdAllocation idAllocation = new IdAllocation();
+
+    public enum BalanceUpdateMode {
+        /**
+         * Funds check and balance change in a single conditional UPDATE; safe under concurrent writers.
+         */
+        ATOMIC,
+        /**
+         * Legacy path: load the wallet, compute the new balance in Java and save it back.
+         * Concurrent writers on the same wallet can lose updates.
+         */
+        READ_MODIFY_WRITE
+    }
+
+    /**
+     * Group-commit settings for hot wallets, see {@link com.wallet.wallet.service.HotWalletBatcher}.
+     */
+    @Data
+    public static class Batching {
+        private boolean enabled = false;
+
+        /**
+         * How long the first operation in a batch may wait for others to join it.
+         */
+        private Duration window = Duration.ofMillis(5);
+
+        /**
+         * A batch is flushed as soon as it reaches this many operations, even before the window ends.
+         */
+        private int maxBatchSize = 200;
+
+        private int flushThreads = 2;
+
+        /**
+         * How long a caller waits for its batch to commit before it is turned away with 503. Hot wallets
+         * bypass the admission bulkhead, so this is what keeps a stalled flush from holding request threads.
+         */
+        private Duration maxWait = Duration.ofSeconds(2);
+
+        /**
+         * Wallet IDs whose operations are coalesced; all other wallets use the regular per-request path.
+         */
+        private Set<Long> hotWallets = new HashSet<>();
+    }
+
+    @Data
+    public static class Idempotency {
+        /**
+         * How many recently committed transaction IDs each node remembers to reject retries without a query.
+         * Set to 0 to always rely on the database unique constraint alone.
+         */
+        private int recentIdCapacity = 100_000;
+    }
+
+    /**
+     * Settings for the transactional outbox relay, see {@link com.wallet.wallet.service.OutboxRelay}.
+     */
+    @Data
+    public static class Outbox {
+        /**
+         * Whether this node drains the outbox. Events are always written; relays on several nodes share the work.
+         */
+        private boolean relayEnabled = true;
+
+        private int batchSize = 100;
+
+        /**
+         * Pause between relay runs once the outbox has been drained.
+         */
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        /**
+         * How long to wait for the broker to confirm a published batch before retrying it.
+         */
+        private Duration confirmTimeout = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Settings for the read-through balance cache, see {@link com.wallet.wallet.service.BalanceCache}.
+     */
+    @Data
+    public static class BalanceCaching {
+        private boolean enabled = true;
+
+        private long maximumSize = 100_000;
+
+        /**
+         * Upper bound on how long a balance is served from memory. Writes on this node invalidate immediately;
+         * this only bounds staleness after writes on other nodes whose invalidations were missed.
+         */
+        private Duration expireAfterWrite = Duration.ofSeconds(30);
+
+        /**
+         * Whether committed writes are announced to the other nodes over RabbitMQ so they evict the wallet too.
+         */
+        private boolean broadcastInvalidations = false;
+    }
+
+    /**
+     * Settings for the streaming reconciliation engine.
+     */
+    @Data
+    public static class Reconciliation {
+        /**
+         * JDBC fetch size for the internal transaction cursor. {@code Integer.MIN_VALUE} makes MySQL
+         * Connector/J stream rows one at a time instead of buffering the whole result set.
+         */
+        private int fetchSize = Integer.MIN_VALUE;
+
+        /**
+         * External rows sorted in memory at a time; larger files are sorted in runs spilled to disk and merged.
+         */
+        private int sortChunkSize = 100_000;
+
+        /**
+         * Where sorted runs are spilled; defaults to the JVM temp directory.
+         */
+        private String spillDirectory;
+
+        /**
+         * Directory holding the processors' {@code external_transactions_<date>.csv} files. Dates without
+         * a file there, or all dates when unset, fall back to the classpath.
+         */
+        private String externalDirectory;
+
+        /**
+         * External files are split into line-aligned chunks of about this size that are parsed in parallel.
+         */
+        private int parseChunkBytes = 8 * 1024 * 1024;
+
+        /**
+         * Chunks parsed concurrently, which also bounds how many parsed chunks are held in memory.
+         */
+        private int parseParallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Whether report requests are served from stored results, brought up to date incrementally,
+         * instead of reconciling the whole day on every request.
+         */
+        private boolean persistResults = true;
+
+        /**
+         * Ledger rows are stamped when written, but a write started just before midnight can commit after it.
+         * A stored day refreshed this long after it ended no longer checks the ledger for new rows.
+         */
+        private Duration settleGrace = Duration.ofMinutes(5);
+
+        /**
+         * How long a refresh waits for another node refreshing the same day, rounded up to whole seconds,
+         * before it is turned away with 503. A first full reconciliation of a large day can take a while.
+         */
+        private Duration refreshLockWait = Duration.ofSeconds(30);
+
+        /**
+         * NDJSON and SSE report streams open at once. Each holds a database connection and a thread for as
+         * long as its client reads, so keep this well below the connection pool size.
+         */
+        private int maxConcurrentStreams = 2;
+
+        /**
+         * Days of a range reconciled concurrently. Each holds a database connection while its cursor is open.
+         */
+        private int rangeParallelism = Runtime.getRuntime().availableProcessors();
+
+        private int maxRangeDays = 31;
+
+        /**
+         * How close to midnight a ledger transaction must be created for a processor that settled it
+         * in the adjacent day's file to still count as a match.
+         */
+        private Duration crossMidnightTolerance = Duration.ofMinutes(5);
+
+        /**
+         * Whether the in-memory report keeps the external file's transaction IDs in direct buffers outside
+         * the Java heap; size {@code -XX:MaxDirectMemorySize} for the largest day when enabled.
+         */
+        private boolean offHeapIndex = false;
+
+        /**
+         * Stages of the in-memory matching pipeline, see {@link com.wallet.wallet.service.ReconciliationMatcher}.
+         * EXACT_ID always runs. Stored results pair by transaction ID only, so with any other rule enabled
+         * reports are generated in memory instead, and the range, CSV and streamed outputs answer 409.
+         */
+        private Set<ReconciliationReport.MatchRule> matchRules = EnumSet.of(ReconciliationReport.MatchRule.EXACT_ID);
+
+        /**
+         * Largest absolute difference between the two amounts of a pair still counted as a match once
+         * AMOUNT_TOLERANCE is enabled; UNIQUE_AMOUNT then looks for candidates within it too.
+         */
+        private BigDecimal amountTolerance = BigDecimal.ZERO;
+    }
+
+    /**
+     * Bulkhead in front of the wallet's database work, see {@link com.wallet.wallet.service.AdmissionControl}.
+     */
+    @Data
+    public static class Admission {
+        private boolean enabled = true;
+
+        /**
+         * Requests allowed to work against the database at once. 0 uses the connection pool's maximum size
+         * less {@code reserved-connections}, so admitted requests never queue inside the pool.
+         */
+        private int maxConcurrent = 0;
+
+        /**
+         * Pooled connections kept from requests when {@code max-concurrent} is 0, for the work that takes
+         * connections of its own: the outbox relay, the audit's run lock and chunk workers, day refresh
+         * locks, report streams and the aggregate consumer. At least one request is always admitted.
+         */
+        private int reservedConnections = 4;
+
+        /**
+         * Requests allowed to wait for a slot; beyond this they are turned away with 429 straight away.
+         */
+        private int maxQueued = 100;
+
+        /**
+         * How long a queued request waits for a slot before it is turned away with 503.
+         */
+        private Duration maxWait = Duration.ofMillis(200);
+    }
+
+    /**
+     * Settings for the ledger snapshot and audit jobs, see {@link com.wallet.wallet.service.LedgerAuditService}.
+     */
+    @Data
+    public static class Audit {
+        /**
+         * Whether this node runs the scheduled jobs. Several nodes may; a database lock per job lets one of
+         * them drive each run and the others skip it.
+         */
+        private boolean enabled = true;
+
+        private String snapshotCron = "0 0 2 * * *";
+
+        private String auditCron = "0 0 3 * * *";
+
+        /**
+         * Wallets per chunk; each chunk is one set-based query.
+         */
+        private int chunkSize = 1_000;
+
+        /**
+         * Chunks processed at once, which bounds the connections the jobs take from the pool.
+         */
+        private int parallelism = 4;
+
+        /**
+         * Snapshots only cover ledger rows at least this old, so no transaction that wrote an earlier
+         * row can still be uncommitted. Must exceed the longest wallet transaction plus clock skew between nodes.
+         */
+        private Duration settleGrace = Duration.ofMinutes(5);
+
+        /**
+         * Most discrepancies returned by the report endpoint; all of them are stored.
+         */
+        private int maxReportedDiscrepancies = 1_000;
+    }
+
+    /**
+     * Day partitions of the ledger and archival of cold days, see {@link com.wallet.wallet.service.TransactionPartitionManager}.
+     * Only applies on MySQL.
+     */
+    @Data
+    public static class Partitioning {
+        private boolean enabled = true;
+
+        private String cron = "0 30 1 * * *";
+
+        /**
+         * Days ahead for which empty partitions are kept ready, so no write ever has to wait for one to be created.
+         */
+        private int premakeDays = 7;
+
+        /**
+         * Days older than this are moved out of the database into the archive directory.
+         */
+        private Duration retention = Duration.ofDays(90);
+
+        /**
+         * Where archived days are written, as {@code transactions_<date>.csv.gz}, and read back from by reconciliation.
+         * Must be shared by every node that serves reports. Nothing is archived while unset.
+         */
+        private String archiveDirectory;
+    }
+
+    /**
+     * Page sizes of the wallet transaction history, see {@link com.wallet.wallet.service.TransactionHistoryService}.
+     */
+    @Data
+    public static class History {
+        private int defaultPageSize = 50;
+
+        /**
+         * Larger requested pages are cut to this size. The export reads the history in pages of this size too.
+         */
+        private int maxPageSize = 500;
+    }
+
+    /**
+     * Consumption of the transaction events into daily aggregates, see {@link com.wallet.wallet.service.TransactionEventConsumer}.
+     */
+    @Data
+    public static class Aggregates {
+        private boolean enabled = true;
+
+        /**
+         * Most events folded into one upsert.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Longest a partial batch waits for more events before it is written.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Unacknowledged events the broker may push ahead; raised to the batch size if lower.
+         */
+        private int prefetch = 1_000;
+
+        private int concurrency = 1;
+
+        /**
+         * Longest day range one activity report may cover.
+         */
+        private int maxRangeDays = 366;
+    }
+
+    /**
+     * Continuous matching of settlement records against this node's commits, see {@link com.wallet.wallet.service.LiveReconciliation}.
+     */
+    @Data
+    public static class LiveReconciliation {
+        /**
+         * Whether commits are indexed and {@code settlements.queue} is consumed. Only for a single-node
+         * deployment: the index and counts are node-local and nodes would split the queue between them.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long a transaction or settlement record waits for its counterpart before it counts as missing.
+         */
+        private Duration grace = Duration.ofMinutes(30);
+
+        private Duration sweepInterval = Duration.ofSeconds(10);
+
+        /**
+         * Most unmatched items held; beyond it new ones are counted as dropped instead of indexed. Aged-out
+         * items are remembered up to the same number; past it a late counterpart is counted afresh.
+         */
+        private int maxPending = 1_000_000;
+
+        /**
+         * How far back the ledger is searched for a settlement record that aged out unmatched, e.g. one
+         * for a transaction committed on another node or before this node started.
+         */
+        private Duration ledgerLookback = Duration.ofDays(2);
+
+        /**
+         * Days of counts kept for queries.
+         */
+        private int retainDays = 7;
+    }
+
+    /**
+     * Entity id blocks, see {@link com.wallet.wallet.repository.IdAllocationJdbcRepository}.
+     */
+    @Data
+    public static class IdAllocation {
+        /**
+         * Ids reserved per round trip to {@code id_allocations}; ids of a block not used before shutdown are skipped.
+         */
+        private int blockSize = 100;
+    }
+}
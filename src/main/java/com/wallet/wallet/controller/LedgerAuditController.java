@@ -0,0 +1,29 @@
+package com.wallet.wallet.controller;
+
+import com.wallet.wallet.dto.LedgerAuditReport;
+import com.wallet.wallet.model.LedgerAuditRun;
+import com.wallet.wallet.service.LedgerAuditService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/ledger-audit")
+@RequiredArgsConstructor
+public class LedgerAuditController {
+
+    private final LedgerAuditService ledgerAuditService;
+
+    /**
+     * Endpoint to get the latest ledger audit (or snapshot) run, with the wallets whose balance disagreed with their ledger.
+     * @param kind AUDIT (default) or SNAPSHOT.
+     */
+    @GetMapping("/latest")
+    public ResponseEntity<LedgerAuditReport> getLatestRun(
+            @RequestParam(value = "kind", defaultValue = "AUDIT") LedgerAuditRun.Kind kind) {
+        return ResponseEntity.of(ledgerAuditService.latest(kind));
+    }
+}
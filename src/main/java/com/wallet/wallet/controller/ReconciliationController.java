@@ -1,17 +1,29 @@
 package com.wallet.wallet.controller;
 
+import com.wallet.wallet.dto.LiveReconciliationStatus;
+import com.wallet.wallet.dto.ReconciliationRangeReport;
+import com.wallet.wallet.dto.ReconciliationRecord;
 import com.wallet.wallet.dto.ReconciliationReport;
+import com.wallet.wallet.service.LiveReconciliation;
+import com.wallet.wallet.service.ReconciliationCsvExporter;
+import com.wallet.wallet.service.ReconciliationRangeService;
+import com.wallet.wallet.service.ReconciliationResultService;
 import com.wallet.wallet.service.ReconciliationService;
-import jakarta.servlet.http.HttpServletResponse;
+import com.wallet.wallet.service.ReconciliationStreamService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
-import java.io.IOException;
 import java.time.LocalDate;
 
 @RestController
@@ -20,28 +32,110 @@ import java.time.LocalDate;
 public class ReconciliationController {
 
     private final ReconciliationService reconciliationService;
+    private final ReconciliationResultService reconciliationResultService;
+    private final ReconciliationRangeService reconciliationRangeService;
+    private final ReconciliationCsvExporter reconciliationCsvExporter;
+    private final ReconciliationStreamService reconciliationStreamService;
+    private final LiveReconciliation liveReconciliation;
 
+    /**
+     * Endpoint to get the reconciliation report for a date.
+     * Served from the stored results of earlier requests, updated with whatever changed since.
+     * @param date The date for which to get the report.
+     */
     @GetMapping("/report")
     public ResponseEntity<ReconciliationReport> getReconciliationReport(
             @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        ReconciliationReport report = reconciliationService.generateReport(date);
+        ReconciliationReport report = reconciliationResultService.getReport(date);
         return ResponseEntity.ok(report);
     }
 
+    /**
+     * Endpoint to reconcile a range of days, e.g. a month, including transactions created near midnight
+     * that the processor settled on the adjacent day. Pairs by exact transaction ID, so it answers 409
+     * while tolerant match rules are configured.
+     * @param from The first day of the range.
+     * @param to The last day of the range, inclusive.
+     */
+    @GetMapping("/report/range")
+    public ResponseEntity<ReconciliationRangeReport> getReconciliationRangeReport(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        reconciliationService.requireExactMatching("/report/range");
+        return ResponseEntity.ok(reconciliationRangeService.reconcile(from, to));
+    }
+
     /**
      * Endpoint to export the reconciliation report as a CSV file.
+     * The file is streamed while the reconciliation runs, so the download starts immediately and the
+     * report is never held in memory. It is gzip-encoded when the client accepts it. Like the other streamed
+     * outputs it pairs by exact transaction ID, so it answers 409 while tolerant match rules are configured.
      * @param date The date for which to generate the report.
-     * @param response The HTTP response object, used to write the file content.
-     * @throws IOException If an error occurs while writing the file.
+     * @param acceptEncoding The client's Accept-Encoding header, if any.
      */
     @GetMapping("/report/csv")
-    public void exportReconciliationReportAsCsv(
+    public ResponseEntity<StreamingResponseBody> exportReconciliationReportAsCsv(
             @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
-            HttpServletResponse response) throws IOException {
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        response.setContentType("text/csv");
-        response.setHeader("Content-Disposition", "attachment; filename=\"reconciliation_report_" + date + ".csv\"");
+        reconciliationService.requireExactMatching("/report/csv");
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reconciliation_report_" + date + ".csv\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(out -> reconciliationCsvExporter.export(date, out, gzip));
+    }
+
+    /**
+     * Endpoint to stream the reconciliation records as newline-delimited JSON, in transaction ID order.
+     * Records are produced only as fast as the client reads them and no request thread is held meanwhile.
+     * Streams share a small limit ({@code wallet.reconciliation.max-concurrent-streams}); beyond it the
+     * request is answered with 429.
+     * @param date The date to reconcile.
+     */
+    @GetMapping(value = "/report/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ReconciliationRecord> streamReconciliationReport(
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        reconciliationService.requireExactMatching("/report/stream");
+        return reconciliationStreamService.records(date);
+    }
+
+    /**
+     * Endpoint to stream the reconciliation as Server-Sent Events: a "record" event per record,
+     * then a "summary" event with the day's counts. Counts against the same stream limit as /report/stream.
+     * @param date The date to reconcile.
+     */
+    @GetMapping(value = "/report/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamReconciliationEvents(
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        reconciliationService.requireExactMatching("/report/events");
+        return reconciliationStreamService.events(date);
+    }
+
+    /**
+     * Endpoint to get the live reconciliation counts of a day as they stand right now, without running a report.
+     * @param date The day, today by default.
+     */
+    @GetMapping("/live")
+    public ResponseEntity<LiveReconciliationStatus> getLiveReconciliationStatus(
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(liveReconciliation.status(date == null ? LocalDate.now() : date));
+    }
 
-        reconciliationService.writeReconciliationReportToCsv(date, response.getWriter());
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
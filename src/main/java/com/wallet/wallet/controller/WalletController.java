@@ -1,13 +1,31 @@
 package com.wallet.wallet.controller;
 
+import com.wallet.wallet.dto.BatchOperationRequest;
+import com.wallet.wallet.dto.BatchOperationResult;
 import com.wallet.wallet.dto.ConsumeRequest;
 import com.wallet.wallet.dto.TopupRequest;
+import com.wallet.wallet.dto.TransactionHistoryEntry;
+import com.wallet.wallet.dto.TransactionHistoryPage;
+import com.wallet.wallet.dto.WalletDailyActivity;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.service.AdmissionControl;
+import com.wallet.wallet.service.HotWalletBatcher;
+import com.wallet.wallet.service.TransactionHistoryService;
+import com.wallet.wallet.service.WalletActivityService;
+import com.wallet.wallet.service.WalletBatchService;
 import com.wallet.wallet.service.WalletService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
 
 /**
  * REST Controller for all wallet-related operations.
@@ -18,22 +36,91 @@ import java.math.BigDecimal;
 public class WalletController {
 
     private final   WalletService walletService;
+    private final HotWalletBatcher hotWalletBatcher;
+    private final WalletBatchService walletBatchService;
+    private final AdmissionControl admissionControl;
+    private final TransactionHistoryService transactionHistoryService;
+    private final WalletActivityService walletActivityService;
 
     @PostMapping("/{walletId}/topup")
     public ResponseEntity<String> topupWallet(@PathVariable Long walletId, @Valid @RequestBody TopupRequest request) {
-        walletService.topup(walletId, request.getAmount(), request.getTransactionId());
+        if (hotWalletBatcher.isHot(walletId)) {
+            hotWalletBatcher.topup(walletId, request.getAmount(), request.getTransactionId());
+        } else {
+            admissionControl.run(() -> walletService.topup(walletId, request.getAmount(), request.getTransactionId()));
+        }
         return ResponseEntity.ok("Top-up successful");
     }
 
     @PostMapping("/{walletId}/consume")
     public ResponseEntity<String> consume(@PathVariable Long walletId, @Valid @RequestBody ConsumeRequest request) {
-        walletService.consume(walletId, request.getAmount(), request.getTransactionId());
+        if (hotWalletBatcher.isHot(walletId)) {
+            hotWalletBatcher.consume(walletId, request.getAmount(), request.getTransactionId());
+        } else {
+            admissionControl.run(() -> walletService.consume(walletId, request.getAmount(), request.getTransactionId()));
+        }
         return ResponseEntity.ok("Consumption successful");
     }
 
+    /**
+     * The lookup runs on the bounded elastic scheduler, so the request thread is released while
+     * the balance is read from the cache or the database.
+     */
     @GetMapping("/{walletId}/balance")
-    public ResponseEntity<BigDecimal> getBalance(@PathVariable Long walletId) {
-        BigDecimal balance = walletService.getBalance(walletId);
-        return ResponseEntity.ok(balance);
+    public Mono<ResponseEntity<BigDecimal>> getBalance(@PathVariable Long walletId) {
+        return Mono.fromCallable(() -> admissionControl.call(() -> walletService.getBalance(walletId)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
     }
-}
\ No newline at end of file
+
+    /**
+     * Applies many topups/consumes in one request. Each operation gets its own result, in request order.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchOperationResult>> processBatch(@Valid @RequestBody BatchOperationRequest request) {
+        return ResponseEntity.ok(admissionControl.call(() -> walletBatchService.process(request.getOperations())));
+    }
+
+    /**
+     * Lists a wallet's transactions newest first, one page at a time. Pass the returned {@code nextCursor}
+     * to get the following page; it is null on the last page.
+     * @param from First day to include, inclusive.
+     * @param to Last day to include, inclusive.
+     */
+    @GetMapping("/{walletId}/transactions")
+    public ResponseEntity<TransactionHistoryPage> getTransactions(
+            @PathVariable Long walletId,
+            @RequestParam(value = "type", required = false) TransactionType type,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        TransactionHistoryService.Filter filter = new TransactionHistoryService.Filter(type, from, to);
+        return ResponseEntity.ok(admissionControl.call(() -> transactionHistoryService.page(walletId, filter, cursor, limit)));
+    }
+
+    /**
+     * Streams all of a wallet's matching transactions as newline-delimited JSON, newest first.
+     * Pages are read only as fast as the client consumes them and no request thread is held meanwhile.
+     */
+    @GetMapping(value = "/{walletId}/transactions/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TransactionHistoryEntry> exportTransactions(
+            @PathVariable Long walletId,
+            @RequestParam(value = "type", required = false) TransactionType type,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return transactionHistoryService.export(walletId, new TransactionHistoryService.Filter(type, from, to));
+    }
+
+    /**
+     * Per-day transaction counts and totals of a wallet, read from the daily aggregates.
+     * @param to Last day to include, inclusive.
+     */
+    @GetMapping("/{walletId}/activity")
+    public ResponseEntity<List<WalletDailyActivity>> getDailyActivity(
+            @PathVariable Long walletId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(admissionControl.call(() -> walletActivityService.daily(walletId, from, to)));
+    }
+}
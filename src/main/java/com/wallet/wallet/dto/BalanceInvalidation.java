@@ -0,0 +1,21 @@
+package com.wallet.wallet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Broadcast after a commit so other nodes evict the written wallets from their balance cache.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceInvalidation {
+    /**
+     * Identifies the publishing node, which already evicted the wallets itself.
+     */
+    private String origin;
+    private List<Long> walletIds;
+}
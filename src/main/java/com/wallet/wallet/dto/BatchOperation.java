@@ -0,0 +1,32 @@
+package com.wallet.wallet.dto;
+
+import com.wallet.wallet.model.TransactionType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * A single topup or consume inside a bulk request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperation {
+    @NotNull(message = "Wallet ID cannot be null")
+    private Long walletId;
+
+    @NotNull(message = "Type cannot be null")
+    private TransactionType type;
+
+    @NotNull(message = "Amount cannot be null")
+    @Positive(message = "Amount must be positive")
+    private BigDecimal amount;
+
+    @NotBlank(message = "Transaction ID cannot be blank")
+    private String transactionId;
+}
@@ -0,0 +1,22 @@
+package com.wallet.wallet.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for bulk wallet operations. Operations are applied in the order given.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationRequest {
+    @NotEmpty(message = "Operations cannot be empty")
+    @Size(max = 10_000, message = "A batch cannot contain more than 10000 operations")
+    private List<@Valid BatchOperation> operations;
+}
@@ -0,0 +1,26 @@
+package com.wallet.wallet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one operation of a bulk request, returned in the same order as the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationResult {
+    private String transactionId;
+    private Long walletId;
+    private Status status;
+    private String message;
+
+    public enum Status {
+        SUCCESS,
+        DUPLICATE_TRANSACTION,
+        INSUFFICIENT_BALANCE,
+        WALLET_NOT_FOUND,
+        INVALID_AMOUNT
+    }
+}
@@ -0,0 +1,24 @@
+package com.wallet.wallet.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outcome of a ledger snapshot or audit run; {@code discrepancies} is capped, {@code discrepancyCount} is not.
+ */
+@Data
+@Builder
+public class LedgerAuditReport {
+    private Long runId;
+    private String kind;
+    private String status;
+    private LocalDateTime cutoff;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long walletsProcessed;
+    private long discrepancyCount;
+    private List<LedgerDiscrepancyView> discrepancies;
+}
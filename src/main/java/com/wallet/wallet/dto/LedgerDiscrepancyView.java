@@ -0,0 +1,9 @@
+package com.wallet.wallet.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A wallet's stored balance next to the balance its ledger implies.
+ */
+public record LedgerDiscrepancyView(Long walletId, BigDecimal balance, BigDecimal expectedBalance) {
+}
@@ -0,0 +1,25 @@
+package com.wallet.wallet.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Counts of the live reconciliation for one day at the moment of the request. Matched and missing
+ * counts only grow; pending items are still waiting for their counterpart.
+ */
+@Data
+@Builder
+public class LiveReconciliationStatus {
+    private String date;
+    private boolean enabled;
+    private long matchedCount;
+    private long mismatchedCount;
+    private long missingInExternalCount;
+    private long missingInInternalCount;
+    private long pendingInternalCount;
+    private long pendingExternalCount;
+    /**
+     * Items not indexed because the pending limit was reached; they are left to the batch reconciliation.
+     */
+    private long droppedCount;
+}
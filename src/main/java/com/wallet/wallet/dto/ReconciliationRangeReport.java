@@ -0,0 +1,43 @@
+package com.wallet.wallet.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reconciliation of a range of days. {@code days} holds each day's own counts; the range totals
+ * additionally count every cross-day match once as matched or mismatched instead of as missing
+ * on both of its days.
+ */
+@Data
+@Builder
+public class ReconciliationRangeReport {
+    private LocalDate from;
+    private LocalDate to;
+    private List<ReconciliationSummary> days;
+    private List<CrossDayMatch> crossDayMatches;
+
+    private long matchedCount;
+    private long mismatchedCount;
+    private long missingInExternalCount;
+    private long missingInInternalCount;
+
+    /**
+     * A ledger transaction created close to midnight that the processor settled in the adjacent day's file.
+     */
+    @Data
+    @Builder
+    public static class CrossDayMatch {
+        private String transactionId;
+        private ReconciliationRecord.Status status;
+        private LocalDate internalDate;
+        private LocalDate externalDate;
+        private LocalDateTime createdAt;
+        private BigDecimal internalAmount;
+        private BigDecimal externalAmount;
+    }
+}
@@ -0,0 +1,41 @@
+package com.wallet.wallet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One outcome of a streaming reconciliation, emitted in transaction ID order.
+ * {@code internal} is null for MISSING_IN_INTERNAL and {@code external} is null for MISSING_IN_EXTERNAL.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRecord {
+    private Status status;
+    private String transactionId;
+    private TransactionDTO internal;
+    private ExternalTransaction external;
+
+    /**
+     * Classifies a transaction ID from whichever sides list it; at least one side must be present.
+     */
+    public static ReconciliationRecord of(String transactionId, TransactionDTO internal, ExternalTransaction external) {
+        Status status;
+        if (external == null) {
+            status = Status.MISSING_IN_EXTERNAL;
+        } else if (internal == null) {
+            status = Status.MISSING_IN_INTERNAL;
+        } else {
+            status = internal.getAmount().compareTo(external.getAmount()) == 0 ? Status.MATCHED : Status.MISMATCHED;
+        }
+        return new ReconciliationRecord(status, transactionId, internal, external);
+    }
+
+    public enum Status {
+        MATCHED,
+        MISMATCHED,
+        MISSING_IN_EXTERNAL,
+        MISSING_IN_INTERNAL
+    }
+}
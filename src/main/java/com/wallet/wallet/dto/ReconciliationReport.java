@@ -25,10 +25,45 @@ public class ReconciliationReport {
     private List<TransactionDTO> missingInExternal;
     private List<ExternalTransaction> missingInInternal;
 
+    /**
+     * Matched transactions per rule that paired them; the counts add up to {@code matchedCount}.
+     */
+    private Map<MatchRule, Integer> matchedCountByRule;
+
+    /**
+     * Every match not made by {@link MatchRule#EXACT_ID}, with the rule that made it.
+     */
+    private List<TolerantMatch> tolerantMatches;
+
     @Data
     @Builder
     public static class MismatchDetail {
         private java.math.BigDecimal internalAmount;
         private java.math.BigDecimal externalAmount;
+        /**
+         * Set when the settlement record was paired by normalized ID and so carries a different ID.
+         */
+        private String externalTransactionId;
+    }
+
+    @Data
+    @Builder
+    public static class TolerantMatch {
+        private String internalTransactionId;
+        private String externalTransactionId;
+        private MatchRule rule;
+        private java.math.BigDecimal internalAmount;
+        private java.math.BigDecimal externalAmount;
+    }
+
+    /**
+     * Stages of the in-memory matching pipeline, in the order they run, see
+     * {@link com.wallet.wallet.service.ReconciliationMatcher}.
+     */
+    public enum MatchRule {
+        EXACT_ID,
+        NORMALIZED_ID,
+        AMOUNT_TOLERANCE,
+        UNIQUE_AMOUNT
     }
-}
\ No newline at end of file
+}
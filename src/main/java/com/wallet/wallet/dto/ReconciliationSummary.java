@@ -0,0 +1,19 @@
+package com.wallet.wallet.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Counts of a streaming reconciliation; the records themselves went to the sink.
+ */
+@Data
+@Builder
+public class ReconciliationSummary {
+    private String reportDate;
+    private long totalInternalTransactions;
+    private long totalExternalTransactions;
+    private long matchedCount;
+    private long mismatchedCount;
+    private long missingInExternalCount;
+    private long missingInInternalCount;
+}
@@ -0,0 +1,37 @@
+package com.wallet.wallet.dto;
+
+import com.wallet.wallet.model.Transaction;
+import com.wallet.wallet.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published to {@code transactions.queue} for every ledger row written, with everything a consumer needs
+ * to act on it without reading the ledger back.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionEvent {
+    private Long walletId;
+    private String transactionId;
+    private TransactionType type;
+    private BigDecimal amount;
+    private LocalDateTime createdAt;
+
+    public static TransactionEvent of(Transaction transaction) {
+        return TransactionEvent.builder()
+                .walletId(transaction.getWallet().getId())
+                .transactionId(transaction.getTransactionId())
+                .type(transaction.getType())
+                .amount(transaction.getAmount().toBigDecimal())
+                .createdAt(transaction.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.wallet.wallet.dto;
+
+import com.wallet.wallet.model.Money;
+import com.wallet.wallet.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of a wallet's transaction history; (createdAt, id) is its position in the history.
+ */
+public record TransactionHistoryEntry(Long id, String transactionId, BigDecimal amount, TransactionType type, LocalDateTime createdAt) {
+
+    /**
+     * Used by the JPQL constructor expression, which selects the converted amount.
+     */
+    public TransactionHistoryEntry(Long id, String transactionId, Money amount, TransactionType type, LocalDateTime createdAt) {
+        this(id, transactionId, amount.toBigDecimal(), type, createdAt);
+    }
+}
@@ -0,0 +1,16 @@
+package com.wallet.wallet.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A page of a wallet's history, newest first. {@code nextCursor} fetches the next older page and is null on the last one.
+ */
+@Data
+@Builder
+public class TransactionHistoryPage {
+    private List<TransactionHistoryEntry> transactions;
+    private String nextCursor;
+}
@@ -0,0 +1,33 @@
+package com.wallet.wallet.dto;
+
+import com.wallet.wallet.model.Money;
+import com.wallet.wallet.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a ledger row, built by a JPQL constructor expression.
+ * Unlike a loaded {@code Transaction} it is never managed by the persistence context,
+ * and the wallet is read from the foreign key column instead of through the lazy proxy.
+ */
+public record TransactionView(String transactionId, BigDecimal amount, TransactionType type,
+                              LocalDateTime createdAt, Long walletId) {
+
+    /**
+     * Used by the JPQL constructor expressions, which select the converted amount.
+     */
+    public TransactionView(String transactionId, Money amount, TransactionType type, LocalDateTime createdAt, Long walletId) {
+        this(transactionId, amount.toBigDecimal(), type, createdAt, walletId);
+    }
+
+    public TransactionDTO toDTO() {
+        return TransactionDTO.builder()
+                .transactionId(transactionId)
+                .amount(amount)
+                .type(type)
+                .createdAt(createdAt)
+                .walletId(walletId)
+                .build();
+    }
+}
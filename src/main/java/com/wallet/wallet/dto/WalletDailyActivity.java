@@ -0,0 +1,10 @@
+package com.wallet.wallet.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A wallet's transaction counts and totals on one day, by type.
+ */
+public record WalletDailyActivity(LocalDate date, long topupCount, BigDecimal topupTotal, long consumeCount, BigDecimal consumeTotal) {
+}
@@ -0,0 +1,19 @@
+package com.wallet.wallet.exception;
+
+/**
+ * Exception thrown when a request is shed because the database work it needs cannot be admitted.
+ * Results in an HTTP 429 Too Many Requests response when the wait queue is full,
+ * or 503 Service Unavailable when the request waited too long for a slot or for its hot-wallet batch.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+    private final boolean queueFull;
+
+    public AdmissionRejectedException(String message, boolean queueFull) {
+        super(message);
+        this.queueFull = queueFull;
+    }
+
+    public boolean isQueueFull() {
+        return queueFull;
+    }
+}
@@ -0,0 +1,12 @@
+package com.wallet.wallet.exception;
+
+/**
+ * Exception thrown when a reconciliation output that pairs by exact transaction ID is requested while
+ * tolerant match rules are configured, so it would classify the day differently from the report.
+ * Results in an HTTP 409 Conflict response.
+ */
+public class ExactMatchingRequiredException extends RuntimeException {
+    public ExactMatchingRequiredException(String message) {
+        super(message);
+    }
+}
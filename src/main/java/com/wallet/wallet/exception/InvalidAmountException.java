@@ -0,0 +1,11 @@
+package com.wallet.wallet.exception;
+
+/**
+ * Exception thrown when an amount, or the balance it would produce, does not fit in a stored balance.
+ * Results in an HTTP 400 Bad Request response.
+ */
+public class InvalidAmountException extends RuntimeException {
+    public InvalidAmountException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.wallet.wallet.exception;
+
+/**
+ * Exception thrown when a pagination cursor was not issued by this service.
+ * Results in an HTTP 400 Bad Request response.
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
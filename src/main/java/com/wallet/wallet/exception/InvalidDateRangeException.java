@@ -0,0 +1,11 @@
+package com.wallet.wallet.exception;
+
+/**
+ * Exception thrown when a requested reconciliation range is empty or too long.
+ * Results in an HTTP 400 Bad Request response.
+ */
+public class InvalidDateRangeException extends RuntimeException {
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package com.wallet.wallet.exception;
+
+import java.util.List;
+
+/**
+ * Exception thrown when an external settlement file contains lines that cannot be parsed.
+ * Results in an HTTP 422 Unprocessable Entity response.
+ */
+public class MalformedExternalFileException extends RuntimeException {
+
+    private static final int LISTED_PROBLEMS = 10;
+
+    private final List<String> problems;
+
+    public MalformedExternalFileException(String fileName, List<String> problems) {
+        super("Malformed external transaction file " + fileName + ": " + summarize(problems));
+        this.problems = List.copyOf(problems);
+    }
+
+    /**
+     * Each problem names its line, e.g. {@code "line 12: invalid amount 'abc'"}.
+     */
+    public List<String> getProblems() {
+        return problems;
+    }
+
+    private static String summarize(List<String> problems) {
+        String listed = String.join("; ", problems.subList(0, Math.min(LISTED_PROBLEMS, problems.size())));
+        return problems.size() > LISTED_PROBLEMS ? listed + " (and " + (problems.size() - LISTED_PROBLEMS) + " more)" : listed;
+    }
+}
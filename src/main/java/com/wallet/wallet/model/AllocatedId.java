@@ -0,0 +1,22 @@
+package com.wallet.wallet.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an id as allocated in blocks from {@code id_allocations} rather than by AUTO_INCREMENT, which
+ * lets Hibernate batch inserts into the table. See {@link AllocatedIdGenerator}.
+ */
+@IdGeneratorType(AllocatedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface AllocatedId {
+    /**
+     * The sequence's row in {@code id_allocations}, named after the table by convention.
+     */
+    String value();
+}
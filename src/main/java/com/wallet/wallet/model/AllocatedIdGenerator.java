@@ -0,0 +1,34 @@
+package com.wallet.wallet.model;
+
+import com.wallet.wallet.repository.IdAllocationJdbcRepository;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.resource.beans.spi.ManagedBeanRegistry;
+
+import java.lang.reflect.Member;
+
+/**
+ * Takes ids for {@link AllocatedId} fields from the {@link IdAllocationJdbcRepository} bean, which Hibernate
+ * looks up through Spring's bean container the first time an id is needed.
+ */
+public class AllocatedIdGenerator implements IdentifierGenerator {
+
+    private final String sequence;
+    private volatile IdAllocationJdbcRepository allocator;
+
+    public AllocatedIdGenerator(AllocatedId config, Member member, CustomIdGeneratorCreationContext context) {
+        this.sequence = config.value();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        IdAllocationJdbcRepository current = allocator;
+        if (current == null) {
+            current = session.getFactory().getServiceRegistry().requireService(ManagedBeanRegistry.class)
+                    .getBean(IdAllocationJdbcRepository.class).getBeanInstance();
+            allocator = current;
+        }
+        return current.next(sequence);
+    }
+}
@@ -0,0 +1,23 @@
+package com.wallet.wallet.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * One id sequence in {@code id_allocations}: the last id reserved so far. Mapped only so the schema is
+ * created with the rest; reservations go through {@link com.wallet.wallet.repository.IdAllocationJdbcRepository}.
+ */
+@Entity
+@Table(name = "id_allocations")
+@Data
+public class IdAllocation {
+    @Id
+    @Column(name = "sequence_name")
+    private String sequenceName;
+
+    @Column(name = "next_val")
+    private Long nextVal;
+}
@@ -0,0 +1,58 @@
+package com.wallet.wallet.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one snapshot or audit pass over all wallets. Wallets are processed in id-ordered chunks and
+ * {@code resumeAfterWalletId} only moves past a chunk once it and every chunk before it are done, so an
+ * interrupted run picks up from there with the same cutoff.
+ */
+@Entity
+@Table(name = "ledger_audit_runs")
+@Data
+public class LedgerAuditRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    /**
+     * Snapshots cover ledger rows created before this time.
+     */
+    @Column(nullable = false)
+    private LocalDateTime cutoff;
+
+    @Column(nullable = false)
+    private long resumeAfterWalletId = Long.MIN_VALUE;
+
+    private long walletsProcessed;
+
+    private long discrepancyCount;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    public enum Kind {
+        SNAPSHOT,
+        AUDIT
+    }
+
+    public enum Status {
+        RUNNING,
+        FAILED,
+        COMPLETED
+    }
+}
@@ -0,0 +1,39 @@
+package com.wallet.wallet.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * A wallet whose stored balance differs from its snapshot plus the ledger rows since, as found by one audit run.
+ */
+@Entity
+@Table(name = "ledger_audit_discrepancies")
+@IdClass(LedgerDiscrepancy.Key.class)
+@Data
+public class LedgerDiscrepancy {
+
+    @Id
+    private Long runId;
+
+    @Id
+    private Long walletId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal expectedBalance;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long runId;
+        private Long walletId;
+    }
+}
@@ -0,0 +1,55 @@
+package com.wallet.wallet.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount as a whole number of minor units at the fixed scale of the {@code DECIMAL(19,2)} amount and
+ * balance columns. Arithmetic is plain long arithmetic that fails with an {@link ArithmeticException} on
+ * overflow instead of wrapping, so the hot path no longer allocates a BigDecimal per add, subtract or compare.
+ * Amounts cross the HTTP and JDBC boundaries as BigDecimal, see {@link MoneyConverter}.
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * Rounds half up to {@link #SCALE}, as the columns do on write.
+     * @throws ArithmeticException if the amount does not fit in a long of minor units
+     */
+    public static Money of(BigDecimal amount) {
+        return new Money(amount.setScale(SCALE, RoundingMode.HALF_UP).scaleByPowerOfTen(SCALE).longValueExact());
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
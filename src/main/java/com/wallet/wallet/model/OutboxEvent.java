@@ -0,0 +1,38 @@
+package com.wallet.wallet.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A message waiting to be published to RabbitMQ.
+ * Written in the same database transaction as the change it describes and deleted by the
+ * relay once the broker has confirmed it, so events are never lost and never emitted for rolled-back work.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+public class OutboxEvent {
+    @Id
+    @AllocatedId("outbox_events")
+    private Long id;
+
+    /**
+     * Routing key on the default exchange, i.e. the target queue name.
+     */
+    @Column(nullable = false)
+    private String destination;
+
+    /**
+     * Type id header expected by the JSON message converter on the consuming side.
+     */
+    @Column(nullable = false)
+    private String payloadType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
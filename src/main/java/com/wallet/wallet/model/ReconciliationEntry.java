@@ -0,0 +1,58 @@
+package com.wallet.wallet.model;
+
+import com.wallet.wallet.dto.ReconciliationRecord;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The stored status of one transaction ID on one reconciled day. The internal columns are null when the
+ * ledger has no such transaction, {@code externalAmount} when the processor's file does not list it.
+ * Keyed by (report_date, transaction_id), so a day's report is a single primary key range read.
+ */
+@Entity
+@Table(name = "reconciliation_entries")
+@IdClass(ReconciliationEntry.Key.class)
+@Data
+public class ReconciliationEntry {
+
+    @Id
+    private LocalDate reportDate;
+
+    @Id
+    private String transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReconciliationRecord.Status status;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal internalAmount;
+
+    /**
+     * Wider than ledger amounts so a processor amount with extra decimals is kept exactly.
+     */
+    @Column(precision = 38, scale = 10)
+    private BigDecimal externalAmount;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    private Long walletId;
+
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate reportDate;
+        private String transactionId;
+    }
+}
@@ -0,0 +1,40 @@
+package com.wallet.wallet.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The stored outcome of reconciling one day: summary counts plus what the per-transaction
+ * {@link ReconciliationEntry} rows were last brought up to date with.
+ */
+@Entity
+@Table(name = "reconciliation_runs")
+@Data
+public class ReconciliationRun {
+
+    @Id
+    private LocalDate reportDate;
+
+    private long matchedCount;
+
+    private long mismatchedCount;
+
+    private long missingInExternalCount;
+
+    private long missingInInternalCount;
+
+    /**
+     * Size and last-modified time of the external file the entries reflect, or {@code none} if there was no file.
+     */
+    @Column(nullable = false)
+    private String externalFingerprint;
+
+    @Column(nullable = false)
+    private LocalDateTime reconciledAt;
+
+    @Version
+    private Long version;
+}
@@ -4,31 +4,50 @@ import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * A ledger row. On MySQL the table is range-partitioned by day of {@code created_at}, see
+ * {@link com.wallet.wallet.service.TransactionPartitionManager}: its primary key is (id, created_at) and it has
+ * no foreign key to wallets, since partitioned InnoDB tables support neither a unique key without the
+ * partitioning column nor foreign keys.
+ */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Reconciliation reads a day at a time by creation time
+        @Index(name = "idx_transactions_created_at", columnList = "created_at"),
+        // Wallet history pages in (created_at, id) order; ledger snapshots and audits sum a wallet range's rows
+        // since each wallet's snapshot cutoff
+        @Index(name = "idx_transactions_wallet_created_at_id", columnList = "wallet_id, created_at, id"),
+        // Not unique: uniqueness is enforced by transaction_keys, see TransactionKey
+        @Index(name = "idx_transactions_transaction_id", columnList = "transaction_id")
+})
 @Data
 public class Transaction {
+    /**
+     * Allocated in blocks from the id_allocations table rather than by AUTO_INCREMENT,
+     * which lets Hibernate batch inserts into this table.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AllocatedId("transactions")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "wallet_id", nullable = false)
+    @JoinColumn(name = "wallet_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Wallet wallet;
 
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private TransactionType type;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String transactionId;
 
     @CreationTimestamp
+    @Column(nullable = false)
     private LocalDateTime createdAt;
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.wallet.wallet.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Claims a client transaction ID, written in the same database transaction as its ledger row.
+ * The primary key is what rejects retries: {@code transactions} is partitioned by creation time, and MySQL
+ * only enforces unique keys on a partitioned table if they include the partitioning column. Keys outlive
+ * their ledger rows when old partitions are archived, so a very late retry is still rejected.
+ */
+@Entity
+@Table(name = "transaction_keys")
+@Getter
+@NoArgsConstructor
+public class TransactionKey implements Persistable<String> {
+
+    @Id
+    private String transactionId;
+
+    public TransactionKey(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    @Override
+    public String getId() {
+        return transactionId;
+    }
+
+    /**
+     * Always new, so saving one is a plain INSERT that fails on a duplicate instead of a merge that reads first.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
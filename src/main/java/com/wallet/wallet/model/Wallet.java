@@ -3,8 +3,6 @@ package com.wallet.wallet.model;
 import jakarta.persistence.*;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Entity
 @Table(name = "wallets")
 @Data
@@ -14,5 +12,6 @@ public class Wallet {
     private Long id;
 
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal balance = BigDecimal.ZERO;
+    @Convert(converter = MoneyConverter.class)
+    private Money balance = Money.ZERO;
 }
\ No newline at end of file
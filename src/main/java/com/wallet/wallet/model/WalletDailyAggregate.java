@@ -0,0 +1,57 @@
+package com.wallet.wallet.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Counts and totals of one wallet's transactions on one day, by type, maintained from the transaction
+ * events. One row per wallet and active day, so reports over a wallet's activity never scan the ledger.
+ */
+@Entity
+@Table(name = "wallet_daily_aggregates")
+@IdClass(WalletDailyAggregate.Key.class)
+@Data
+public class WalletDailyAggregate {
+
+    @Id
+    private Long walletId;
+
+    @Id
+    private LocalDate activityDate;
+
+    @Column(nullable = false)
+    private long topupCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal topupTotal = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private long consumeCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal consumeTotal = BigDecimal.ZERO;
+
+    public void add(TransactionType type, BigDecimal amount) {
+        if (type == TransactionType.TOPUP) {
+            topupCount++;
+            topupTotal = topupTotal.add(amount);
+        } else {
+            consumeCount++;
+            consumeTotal = consumeTotal.add(amount);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long walletId;
+        private LocalDate activityDate;
+    }
+}
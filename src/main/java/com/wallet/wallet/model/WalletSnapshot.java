@@ -0,0 +1,33 @@
+package com.wallet.wallet.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A wallet's balance as implied by its ledger up to a cutoff: the sum of all TOPUP minus CONSUME rows
+ * created before {@code coveredUntil}. The ledger audit only has to add the rows created since.
+ * Ledger ids are allocated in pooled blocks per node and do not follow commit order, so coverage is
+ * defined by creation time; {@code lastTransactionId} is the highest ledger row id included, for reference.
+ */
+@Entity
+@Table(name = "wallet_snapshots")
+@Data
+public class WalletSnapshot {
+
+    @Id
+    private Long walletId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    private Long lastTransactionId;
+
+    @Column(nullable = false)
+    private LocalDateTime coveredUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+}
@@ -0,0 +1,136 @@
+package com.wallet.wallet.repository;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hands out entity ids from blocks reserved in {@code id_allocations}, one row per sequence.
+ * A block is reserved on a connection of its own, outside the shared pool: ids are needed while a request
+ * holds a pooled connection and a wallet row lock, and waiting on the pool for a second connection then
+ * deadlocks once every connection is held by such a request. The next block is reserved in the background
+ * when half of the current one is used, so requests rarely wait for a reservation at all.
+ * A block is {@code (next_val, next_val + block-size]}, which is also what the pooled table generator
+ * used before handed out, so nodes on either allocator never overlap.
+ */
+@Repository
+public class IdAllocationJdbcRepository {
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final ExecutorService prefetcher;
+    private final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+
+    public IdAllocationJdbcRepository(DataSourceProperties dataSourceProperties, WalletProperties walletProperties) {
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.dataSource.setPoolName("wallet-id-allocation");
+        this.dataSource.setMaximumPoolSize(1);
+        this.dataSource.setMinimumIdle(0);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.blockSize = walletProperties.getIdAllocation().getBlockSize();
+        this.prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "id-allocation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the next id of {@code sequence}, unique across nodes
+     */
+    public long next(String sequence) {
+        return sequences.computeIfAbsent(sequence, Sequence::new).next();
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    @PreDestroy
+    public void close() {
+        prefetcher.shutdownNow();
+        dataSource.close();
+    }
+
+    /**
+     * Reserves the next block of {@code sequence}, creating its row on first use.
+     * @return the id just below the block
+     */
+    private long reserveBlock(String sequence) {
+        return transactionTemplate.execute(status -> {
+            List<Long> current = jdbcTemplate.queryForList(
+                    "SELECT next_val FROM id_allocations WHERE sequence_name = ? FOR UPDATE", Long.class, sequence);
+            if (current.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO id_allocations (sequence_name, next_val) VALUES (?, ?)", sequence, blockSize);
+                return 0L;
+            }
+            jdbcTemplate.update("UPDATE id_allocations SET next_val = ? WHERE sequence_name = ?", current.get(0) + blockSize, sequence);
+            return current.get(0);
+        });
+    }
+
+    private long reserveBlockRetryingCreation(String sequence) {
+        try {
+            return reserveBlock(sequence);
+        } catch (DuplicateKeyException e) {
+            // Another node created the row at the same time; it exists now
+            return reserveBlock(sequence);
+        }
+    }
+
+    /**
+     * The block being handed out and the one reserved after it, if any.
+     */
+    private final class Sequence {
+        private final String name;
+        private long next = 1;
+        private long last = 0;
+        private CompletableFuture<Long> upcoming;
+
+        Sequence(String name) {
+            this.name = name;
+        }
+
+        synchronized long next() {
+            if (next > last) {
+                long base = upcoming != null ? awaitUpcoming() : reserveBlockRetryingCreation(name);
+                next = base + 1;
+                last = base + blockSize;
+            }
+            if (upcoming == null && last - next < blockSize / 2) {
+                upcoming = CompletableFuture.supplyAsync(() -> reserveBlockRetryingCreation(name), prefetcher);
+            }
+            return next++;
+        }
+
+        private long awaitUpcoming() {
+            CompletableFuture<Long> reserving = upcoming;
+            upcoming = null;
+            try {
+                return reserving.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.wallet.wallet.repository;
+
+import com.wallet.wallet.dto.LedgerDiscrepancyView;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Set-based reads and writes for the ledger snapshot and audit jobs, one wallet-id range at a time.
+ * Nothing here locks {@code wallets} rows: the audit is a single consistent (non-locking) read of the
+ * wallets, their snapshots and the ledger, and snapshots lock only their own rows.
+ */
+@Repository
+public class LedgerAuditJdbcRepository {
+
+    private static final String LEDGER_DELTA = "CASE WHEN t.type = 'TOPUP' THEN t.amount ELSE -t.amount END";
+
+    private static final String NEXT_CHUNK_END = """
+            SELECT MAX(c.id), COUNT(*) FROM (
+                SELECT id FROM wallets WHERE id > ? ORDER BY id LIMIT ?
+            ) c""";
+
+    private static final String LOCK_SNAPSHOTS = """
+            SELECT wallet_id FROM wallet_snapshots WHERE wallet_id > ? AND wallet_id <= ? FOR UPDATE""";
+
+    private static final String SNAPSHOT_DELTAS = """
+            SELECT t.wallet_id, SUM(%s), MAX(t.id)
+            FROM transactions t
+            LEFT JOIN wallet_snapshots s ON s.wallet_id = t.wallet_id
+            WHERE t.wallet_id > ? AND t.wallet_id <= ?
+              AND (s.covered_until IS NULL OR t.created_at >= s.covered_until)
+              AND t.created_at < ?
+            GROUP BY t.wallet_id""".formatted(LEDGER_DELTA);
+
+    private static final String ADVANCE_SNAPSHOT = """
+            INSERT INTO wallet_snapshots (wallet_id, balance, last_transaction_id, covered_until, taken_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                balance = balance + VALUES(balance),
+                last_transaction_id = GREATEST(COALESCE(last_transaction_id, 0), VALUES(last_transaction_id)),
+                covered_until = VALUES(covered_until),
+                taken_at = VALUES(taken_at)""";
+
+    private static final String DISCREPANCIES = """
+            SELECT w.id, w.balance, COALESCE(s.balance, 0) + COALESCE(SUM(%1$s), 0)
+            FROM wallets w
+            LEFT JOIN wallet_snapshots s ON s.wallet_id = w.id
+            LEFT JOIN transactions t ON t.wallet_id = w.id AND (s.covered_until IS NULL OR t.created_at >= s.covered_until)
+            WHERE w.id > ? AND w.id <= ?
+            GROUP BY w.id, w.balance, s.balance
+            HAVING w.balance <> COALESCE(s.balance, 0) + COALESCE(SUM(%1$s), 0)""".formatted(LEDGER_DELTA);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LedgerAuditJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * @return the next {@code chunkSize} wallets after {@code afterWalletId} as an id range, or null if there are none
+     */
+    public WalletRange nextRange(long afterWalletId, int chunkSize) {
+        return jdbcTemplate.queryForObject(NEXT_CHUNK_END, (rs, rowNum) -> {
+            long lastWalletId = rs.getLong(1);
+            return rs.wasNull() ? null : new WalletRange(afterWalletId, lastWalletId, rs.getLong(2));
+        }, afterWalletId, chunkSize);
+    }
+
+    /**
+     * Folds the ledger rows created before {@code cutoff} and not yet covered into the range's snapshots.
+     * Must run in a transaction: the range's snapshot rows are locked first so two runs cannot fold the
+     * same rows twice. Running it again with the same cutoff changes nothing.
+     * @return the number of wallets whose snapshot moved
+     */
+    public int advanceSnapshots(WalletRange range, LocalDateTime cutoff, LocalDateTime takenAt) {
+        jdbcTemplate.query(LOCK_SNAPSHOTS, rs -> { }, range.afterWalletId(), range.lastWalletId());
+        Timestamp coveredUntil = Timestamp.valueOf(cutoff);
+        List<SnapshotDelta> deltas = jdbcTemplate.query(SNAPSHOT_DELTAS, (rs, rowNum) -> new SnapshotDelta(
+                rs.getLong(1), rs.getBigDecimal(2), rs.getLong(3)), range.afterWalletId(), range.lastWalletId(), coveredUntil);
+        Timestamp taken = Timestamp.valueOf(takenAt);
+        jdbcTemplate.batchUpdate(ADVANCE_SNAPSHOT, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.walletId());
+            ps.setBigDecimal(2, delta.amount());
+            ps.setLong(3, delta.lastTransactionId());
+            ps.setTimestamp(4, coveredUntil);
+            ps.setTimestamp(5, taken);
+        });
+        return deltas.size();
+    }
+
+    public List<LedgerDiscrepancyView> findDiscrepancies(WalletRange range) {
+        return jdbcTemplate.query(DISCREPANCIES, (rs, rowNum) -> new LedgerDiscrepancyView(
+                rs.getLong(1), rs.getBigDecimal(2), rs.getBigDecimal(3)), range.afterWalletId(), range.lastWalletId());
+    }
+
+    /**
+     * Replaces what a run recorded for the range, so a chunk redone after a resume is not reported twice.
+     */
+    public void replaceDiscrepancies(long runId, WalletRange range, List<LedgerDiscrepancyView> discrepancies) {
+        jdbcTemplate.update("DELETE FROM ledger_audit_discrepancies WHERE run_id = ? AND wallet_id > ? AND wallet_id <= ?",
+                runId, range.afterWalletId(), range.lastWalletId());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO ledger_audit_discrepancies (run_id, wallet_id, balance, expected_balance) VALUES (?, ?, ?, ?)",
+                discrepancies, discrepancies.size(), (ps, discrepancy) -> {
+                    ps.setLong(1, runId);
+                    ps.setLong(2, discrepancy.walletId());
+                    ps.setBigDecimal(3, discrepancy.balance());
+                    ps.setBigDecimal(4, discrepancy.expectedBalance());
+                });
+    }
+
+    public List<LedgerDiscrepancyView> findRecordedDiscrepancies(long runId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT wallet_id, balance, expected_balance FROM ledger_audit_discrepancies WHERE run_id = ? ORDER BY wallet_id LIMIT ?",
+                (rs, rowNum) -> new LedgerDiscrepancyView(rs.getLong(1), rs.getBigDecimal(2), rs.getBigDecimal(3)), runId, limit);
+    }
+
+    /**
+     * Wallets with ids in ({@code afterWalletId}, {@code lastWalletId}], {@code wallets} of them.
+     */
+    public record WalletRange(long afterWalletId, long lastWalletId, long wallets) {
+    }
+
+    private record SnapshotDelta(long walletId, BigDecimal amount, long lastTransactionId) {
+    }
+}
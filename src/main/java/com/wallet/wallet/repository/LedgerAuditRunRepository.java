@@ -0,0 +1,15 @@
+package com.wallet.wallet.repository;
+
+import com.wallet.wallet.model.LedgerAuditRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LedgerAuditRunRepository extends JpaRepository<LedgerAuditRun, Long> {
+
+    Optional<LedgerAuditRun> findFirstByKindOrderByIdDesc(LedgerAuditRun.Kind kind);
+
+    Optional<LedgerAuditRun> findFirstByKindAndStatusOrderByIdDesc(LedgerAuditRun.Kind kind, LedgerAuditRun.Status status);
+}
@@ -0,0 +1,98 @@
+package com.wallet.wallet.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Mutual exclusion across nodes through MySQL named locks ({@code GET_LOCK}).
+ * A named lock belongs to the connection that took it, so that connection stays out of the pool while the
+ * work runs; the work can use it through the {@link JdbcTemplate} it is given or take connections of its
+ * own. Other databases, used only for single-node local runs, fall back to a lock inside this JVM.
+ */
+@Repository
+public class NamedLockJdbcRepository {
+
+    private static final int MAX_NAME_LENGTH = 64;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, ReentrantLock> localLocks = new ConcurrentHashMap<>();
+    private volatile Boolean mySql;
+
+    public NamedLockJdbcRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Runs {@code work} while holding the lock {@code name}, waiting up to {@code wait} (whole seconds on
+     * MySQL) for another holder to release it.
+     * @return the work's result, which must not be null, or empty without running it if the lock was not acquired in time
+     */
+    public <T> Optional<T> withLock(String name, Duration wait, Function<JdbcTemplate, T> work) {
+        if (name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Lock name longer than " + MAX_NAME_LENGTH + " characters: " + name);
+        }
+        if (!isMySql()) {
+            return withLocalLock(name, wait, () -> work.apply(jdbcTemplate));
+        }
+        long waitSeconds = (wait.toMillis() + 999) / 1000;
+        return jdbcTemplate.execute((ConnectionCallback<Optional<T>>) connection -> {
+            JdbcTemplate locked = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            Integer acquired = locked.queryForObject("SELECT GET_LOCK(?, ?)", Integer.class, name, waitSeconds);
+            if (acquired == null || acquired != 1) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(Objects.requireNonNull(work.apply(locked), "work result"));
+            } finally {
+                locked.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, name);
+            }
+        });
+    }
+
+    private <T> Optional<T> withLocalLock(String name, Duration wait, Supplier<T> work) {
+        ReentrantLock lock = localLocks.computeIfAbsent(name, n -> new ReentrantLock());
+        try {
+            if (!lock.tryLock(wait.toNanos(), TimeUnit.NANOSECONDS)) {
+                return Optional.empty();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Objects.requireNonNull(work.get(), "work result"));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isMySql() {
+        if (mySql == null) {
+            try {
+                mySql = "MySQL".equals(JdbcUtils.commonDatabaseName(
+                        JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName)));
+            } catch (MetaDataAccessException e) {
+                throw new IllegalStateException("Cannot tell which database holds the locks", e);
+            }
+        }
+        return mySql;
+    }
+}
@@ -0,0 +1,157 @@
+package com.wallet.wallet.repository;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Bulk reads and writes of {@link com.wallet.wallet.model.ReconciliationEntry} rows. A day can hold
+ * millions of entries, so they are written in JDBC batches and read as records without entity management.
+ */
+@Repository
+public class ReconciliationEntryJdbcRepository {
+
+    private static final String INSERT = """
+            INSERT INTO reconciliation_entries
+                (report_date, transaction_id, status, internal_amount, external_amount, type, wallet_id, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final String EXTERNAL_SIDE_ORDER_BY_TRANSACTION_ID = """
+            SELECT e.transaction_id, e.external_amount
+            FROM reconciliation_entries e
+            WHERE e.report_date = ? AND e.external_amount IS NOT NULL
+            ORDER BY e.transaction_id""";
+
+    private static final RowMapper<ReconciliationRecord> RECONCILIATION_RECORD = (rs, rowNum) -> {
+        String transactionId = rs.getString(2);
+        BigDecimal internalAmount = rs.getBigDecimal(3);
+        BigDecimal externalAmount = rs.getBigDecimal(4);
+        TransactionDTO internal = internalAmount == null ? null : TransactionDTO.builder()
+                .transactionId(transactionId)
+                .amount(internalAmount)
+                .type(TransactionType.valueOf(rs.getString(5)))
+                .walletId(rs.getLong(6))
+                .createdAt(rs.getObject(7, LocalDateTime.class))
+                .build();
+        ExternalTransaction external = externalAmount == null ? null
+                : new ExternalTransaction(transactionId, normalize(externalAmount));
+        return new ReconciliationRecord(ReconciliationRecord.Status.valueOf(rs.getString(1)), transactionId, internal, external);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final String externalSideOrderByTransactionId;
+
+    public ReconciliationEntryJdbcRepository(DataSource dataSource, WalletProperties walletProperties) throws MetaDataAccessException {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(walletProperties.getReconciliation().getFetchSize());
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.externalSideOrderByTransactionId = EXTERNAL_SIDE_ORDER_BY_TRANSACTION_ID
+                + TransactionCursorRepository.binaryOrder(dataSource);
+    }
+
+    public void insert(LocalDate reportDate, List<ReconciliationRecord> records) {
+        Date date = Date.valueOf(reportDate);
+        jdbcTemplate.batchUpdate(INSERT, records, records.size(), (ps, record) -> {
+            TransactionDTO internal = record.getInternal();
+            ps.setDate(1, date);
+            ps.setString(2, record.getTransactionId());
+            ps.setString(3, record.getStatus().name());
+            ps.setBigDecimal(4, internal == null ? null : internal.getAmount());
+            ps.setBigDecimal(5, record.getExternal() == null ? null : record.getExternal().getAmount());
+            ps.setString(6, internal == null ? null : internal.getType().name());
+            ps.setObject(7, internal == null ? null : internal.getWalletId());
+            ps.setTimestamp(8, internal == null || internal.getCreatedAt() == null ? null : Timestamp.valueOf(internal.getCreatedAt()));
+        });
+    }
+
+    public void delete(LocalDate reportDate, Collection<String> transactionIds) {
+        if (transactionIds.isEmpty()) {
+            return;
+        }
+        namedParameterJdbcTemplate.update(
+                "DELETE FROM reconciliation_entries WHERE report_date = :reportDate AND transaction_id IN (:transactionIds)",
+                Map.of("reportDate", Date.valueOf(reportDate), "transactionIds", transactionIds));
+    }
+
+    public void deleteDay(LocalDate reportDate) {
+        jdbcTemplate.update("DELETE FROM reconciliation_entries WHERE report_date = ?", Date.valueOf(reportDate));
+    }
+
+    /**
+     * Returns the stored external amounts of the given transaction IDs; IDs the file did not list are absent.
+     */
+    public Map<String, BigDecimal> findExternalAmounts(LocalDate reportDate, Collection<String> transactionIds) {
+        Map<String, BigDecimal> amounts = new HashMap<>();
+        if (transactionIds.isEmpty()) {
+            return amounts;
+        }
+        namedParameterJdbcTemplate.query("""
+                        SELECT transaction_id, external_amount FROM reconciliation_entries
+                        WHERE report_date = :reportDate AND transaction_id IN (:transactionIds) AND external_amount IS NOT NULL""",
+                Map.of("reportDate", Date.valueOf(reportDate), "transactionIds", transactionIds),
+                (RowCallbackHandler) rs -> {
+                    amounts.put(rs.getString(1), normalize(rs.getBigDecimal(2)));
+                });
+        return amounts;
+    }
+
+    /**
+     * Streams the external side of the stored day ordered by transaction ID, the order the external file is
+     * sorted into. The stream holds a database connection until it is closed.
+     */
+    public Stream<ExternalTransaction> streamExternalSideOrderByTransactionId(LocalDate reportDate) {
+        return cursorJdbcTemplate.queryForStream(externalSideOrderByTransactionId,
+                (rs, rowNum) -> new ExternalTransaction(rs.getString(1), normalize(rs.getBigDecimal(2))),
+                Date.valueOf(reportDate));
+    }
+
+    public List<ReconciliationRecord> findRecords(LocalDate reportDate) {
+        return jdbcTemplate.query("""
+                        SELECT status, transaction_id, internal_amount, external_amount, type, wallet_id, created_at
+                        FROM reconciliation_entries WHERE report_date = ?""",
+                RECONCILIATION_RECORD, Date.valueOf(reportDate));
+    }
+
+    /**
+     * @return the number of entries per status, indexed by {@link ReconciliationRecord.Status#ordinal()}
+     */
+    public long[] countByStatus(LocalDate reportDate) {
+        long[] counts = new long[ReconciliationRecord.Status.values().length];
+        jdbcTemplate.query("SELECT status, COUNT(*) FROM reconciliation_entries WHERE report_date = ? GROUP BY status",
+                (RowCallbackHandler) rs -> {
+                    counts[ReconciliationRecord.Status.valueOf(rs.getString(1)).ordinal()] = rs.getLong(2);
+                }, Date.valueOf(reportDate));
+        return counts;
+    }
+
+    /**
+     * External amounts are stored with ten decimals; give them back the way a processor writes them.
+     */
+    private static BigDecimal normalize(BigDecimal amount) {
+        BigDecimal stripped = amount.stripTrailingZeros();
+        return stripped.scale() < 2 ? stripped.setScale(2) : stripped;
+    }
+}
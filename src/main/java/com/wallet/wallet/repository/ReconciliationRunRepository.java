@@ -0,0 +1,11 @@
+package com.wallet.wallet.repository;
+
+import com.wallet.wallet.model.ReconciliationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, LocalDate> {
+}
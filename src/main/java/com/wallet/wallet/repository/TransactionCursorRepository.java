@@ -0,0 +1,69 @@
+package com.wallet.wallet.repository;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Forward-only reads of the ledger for jobs that must not hold a whole day in memory.
+ * Rows are mapped straight to DTOs, bypassing the persistence context.
+ */
+@Repository
+public class TransactionCursorRepository {
+
+    private static final String CREATED_BETWEEN_ORDER_BY_TRANSACTION_ID = """
+            SELECT t.transaction_id, t.amount, t.type, t.created_at, t.wallet_id
+            FROM transactions t
+            WHERE t.created_at >= ? AND t.created_at < ?
+            ORDER BY t.transaction_id""";
+
+    /**
+     * MySQL's default collation is case-insensitive; the binary one orders transaction IDs the same
+     * way {@link String#compareTo} does, which the merge join relies on.
+     */
+    static final String MYSQL_BINARY_ORDER = " COLLATE utf8mb4_bin";
+
+    private static final RowMapper<TransactionDTO> TRANSACTION_DTO = (rs, rowNum) -> TransactionDTO.builder()
+            .transactionId(rs.getString(1))
+            .amount(rs.getBigDecimal(2))
+            .type(TransactionType.valueOf(rs.getString(3)))
+            .createdAt(rs.getObject(4, LocalDateTime.class))
+            .walletId(rs.getLong(5))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String createdBetweenOrderByTransactionId;
+
+    public TransactionCursorRepository(DataSource dataSource, WalletProperties walletProperties) throws MetaDataAccessException {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(walletProperties.getReconciliation().getFetchSize());
+        this.createdBetweenOrderByTransactionId = CREATED_BETWEEN_ORDER_BY_TRANSACTION_ID + binaryOrder(dataSource);
+    }
+
+    /**
+     * The collation clause that makes an {@code ORDER BY} on a string column match {@link String#compareTo}.
+     */
+    static String binaryOrder(DataSource dataSource) throws MetaDataAccessException {
+        String database = JdbcUtils.commonDatabaseName(
+                JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        return "MySQL".equals(database) ? MYSQL_BINARY_ORDER : "";
+    }
+
+    /**
+     * Streams the transactions created in {@code [from, to)} ordered by transaction ID.
+     * The stream holds a database connection until it is closed.
+     */
+    public Stream<TransactionDTO> streamCreatedBetweenOrderByTransactionId(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.queryForStream(createdBetweenOrderByTransactionId, TRANSACTION_DTO, from, to);
+    }
+}
@@ -0,0 +1,20 @@
+package com.wallet.wallet.repository;
+
+import com.wallet.wallet.model.TransactionKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Set;
+
+@Repository
+public interface TransactionKeyRepository extends JpaRepository<TransactionKey, String> {
+
+    /**
+     * Returns which of the given transaction IDs are already claimed, in a single primary key lookup.
+     */
+    @Query("SELECT k.transactionId FROM TransactionKey k WHERE k.transactionId IN :transactionIds")
+    Set<String> findExistingTransactionIds(@Param("transactionIds") Collection<String> transactionIds);
+}
@@ -0,0 +1,196 @@
+package com.wallet.wallet.repository;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * MySQL DDL and reads for the day partitions of {@code transactions}.
+ * Day partitions are named {@code pYYYYMMDD} and hold rows created before the next day; the last
+ * partition, {@code pfuture}, catches anything beyond the days created so far.
+ */
+@Repository
+public class TransactionPartitionJdbcRepository {
+
+    public static final String FUTURE_PARTITION = "pfuture";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+    private static final String LOCK_NAME = "wallet.transactions.partitioning";
+
+    private static final RowMapper<TransactionDTO> TRANSACTION_DTO = (rs, rowNum) -> TransactionDTO.builder()
+            .transactionId(rs.getString(1))
+            .amount(rs.getBigDecimal(2))
+            .type(TransactionType.valueOf(rs.getString(3)))
+            .createdAt(rs.getObject(4, LocalDateTime.class))
+            .walletId(rs.getLong(5))
+            .build();
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedLockJdbcRepository namedLocks;
+    private final int fetchSize;
+
+    public TransactionPartitionJdbcRepository(DataSource dataSource, NamedLockJdbcRepository namedLocks,
+                                              WalletProperties walletProperties) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedLocks = namedLocks;
+        this.fetchSize = walletProperties.getReconciliation().getFetchSize();
+    }
+
+    public boolean isMySql() throws MetaDataAccessException {
+        return "MySQL".equals(JdbcUtils.commonDatabaseName(
+                JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName)));
+    }
+
+    /**
+     * Runs {@code work} on one connection while holding a MySQL named lock, so only one node changes the
+     * partitions at a time. Returns null without running it if another node holds the lock.
+     */
+    public <T> T withPartitionLock(Function<Session, T> work) {
+        return namedLocks.withLock(LOCK_NAME, Duration.ZERO, jdbc -> work.apply(new Session(jdbc))).orElse(null);
+    }
+
+    public static String partitionName(LocalDate day) {
+        return PARTITION_NAME.format(day);
+    }
+
+    /**
+     * The day a {@code pYYYYMMDD} partition was created for, or null for any other partition.
+     */
+    public static LocalDate partitionDay(String name) {
+        try {
+            return LocalDate.parse(name, PARTITION_NAME);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * DDL and reads on the connection that holds the partitioning lock.
+     */
+    public final class Session {
+
+        private final JdbcTemplate jdbc;
+
+        private Session(JdbcTemplate jdbc) {
+            this.jdbc = jdbc;
+            this.jdbc.setFetchSize(fetchSize);
+        }
+
+        /**
+         * @return the partition names in order; empty if the table is not partitioned
+         */
+        public List<String> partitions() {
+            return jdbc.queryForList("""
+                    SELECT PARTITION_NAME FROM information_schema.PARTITIONS
+                    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND PARTITION_NAME IS NOT NULL
+                    ORDER BY PARTITION_ORDINAL_POSITION""", String.class);
+        }
+
+        /**
+         * Names of unique indexes on {@code transaction_id} left from before uniqueness moved to {@code transaction_keys}.
+         */
+        public List<String> legacyUniqueIndexes() {
+            return jdbc.queryForList("""
+                    SELECT DISTINCT INDEX_NAME FROM information_schema.STATISTICS
+                    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions'
+                      AND COLUMN_NAME = 'transaction_id' AND NON_UNIQUE = 0""", String.class);
+        }
+
+        public List<String> foreignKeys() {
+            return jdbc.queryForList("""
+                    SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS
+                    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND CONSTRAINT_TYPE = 'FOREIGN KEY'""", String.class);
+        }
+
+        /**
+         * Claims the transaction IDs of ledger rows written while {@code transactions.transaction_id} was still unique.
+         */
+        public int backfillTransactionKeys() {
+            return jdbc.update("INSERT IGNORE INTO transaction_keys (transaction_id) SELECT transaction_id FROM transactions");
+        }
+
+        public void dropIndex(String name) {
+            jdbc.execute("ALTER TABLE transactions DROP INDEX " + quote(name));
+        }
+
+        public void dropForeignKey(String name) {
+            jdbc.execute("ALTER TABLE transactions DROP FOREIGN KEY " + quote(name));
+        }
+
+        public LocalDate oldestDay() {
+            LocalDateTime oldest = jdbc.queryForObject("SELECT MIN(created_at) FROM transactions", LocalDateTime.class);
+            return oldest == null ? null : oldest.toLocalDate();
+        }
+
+        /**
+         * Rebuilds the table with one partition per day in {@code [first, last]} plus the catch-all.
+         * The partitioning column must be part of the primary key, so the key becomes (id, created_at).
+         */
+        public void partitionByDay(LocalDate first, LocalDate last) {
+            jdbc.execute("ALTER TABLE transactions MODIFY created_at DATETIME(6) NOT NULL, "
+                    + "DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at)");
+            jdbc.execute("ALTER TABLE transactions PARTITION BY RANGE COLUMNS (created_at) ("
+                    + dayPartitions(first, last) + ", " + futurePartition() + ")");
+        }
+
+        /**
+         * Splits days {@code [first, last]} off the front of the catch-all partition.
+         */
+        public void addDays(LocalDate first, LocalDate last) {
+            jdbc.execute("ALTER TABLE transactions REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                    + dayPartitions(first, last) + ", " + futurePartition() + ")");
+        }
+
+        /**
+         * Streams a partition's rows grouped by day and, within a day, in transaction ID order.
+         * The stream must be closed before the session is used again.
+         */
+        public Stream<TransactionDTO> streamPartition(String name) {
+            return jdbc.queryForStream("SELECT transaction_id, amount, type, created_at, wallet_id FROM transactions PARTITION ("
+                    + quote(name) + ") ORDER BY DATE(created_at), transaction_id" + TransactionCursorRepository.MYSQL_BINARY_ORDER,
+                    TRANSACTION_DTO);
+        }
+
+        public long countPartition(String name) {
+            Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM transactions PARTITION (" + quote(name) + ")", Long.class);
+            return Objects.requireNonNullElse(rows, 0L);
+        }
+
+        public void dropPartition(String name) {
+            jdbc.execute("ALTER TABLE transactions DROP PARTITION " + quote(name));
+        }
+
+        private String dayPartitions(LocalDate first, LocalDate last) {
+            return first.datesUntil(last.plusDays(1))
+                    .map(day -> "PARTITION " + partitionName(day) + " VALUES LESS THAN ('" + day.plusDays(1) + "')")
+                    .collect(Collectors.joining(", "));
+        }
+
+        private String futurePartition() {
+            return "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE)";
+        }
+    }
+
+    private static String quote(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+}
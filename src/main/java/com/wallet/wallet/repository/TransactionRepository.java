@@ -1,10 +1,18 @@
 package com.wallet.wallet.repository;
 
+import com.wallet.wallet.dto.TransactionHistoryEntry;
+import com.wallet.wallet.dto.TransactionView;
 import com.wallet.wallet.model.Transaction;
+import com.wallet.wallet.model.TransactionType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +20,48 @@ import java.util.Optional;
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     Optional<Transaction> findByTransactionId(String transactionId);
 
-    List<Transaction> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+    /**
+     * Returns the transactions created in {@code [from, to)} as unmanaged projections, read through
+     * the created_at index without loading entities or their wallets.
+     */
+    @Query("SELECT new com.wallet.wallet.dto.TransactionView(t.transactionId, t.amount, t.type, t.createdAt, t.wallet.id) "
+            + "FROM Transaction t WHERE t.createdAt >= :from AND t.createdAt < :to")
+    List<TransactionView> findViewsCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Returns the transactions created in {@code [from, to)} that the stored reconciliation of
+     * {@code reportDate} does not include yet, i.e. ledger rows that committed after it ran.
+     */
+    @Query("SELECT new com.wallet.wallet.dto.TransactionView(t.transactionId, t.amount, t.type, t.createdAt, t.wallet.id) "
+            + "FROM Transaction t WHERE t.createdAt >= :from AND t.createdAt < :to AND NOT EXISTS ("
+            + "SELECT e.transactionId FROM ReconciliationEntry e "
+            + "WHERE e.reportDate = :reportDate AND e.transactionId = t.transactionId AND e.internalAmount IS NOT NULL)")
+    List<TransactionView> findViewsCreatedBetweenNotReconciled(@Param("reportDate") LocalDate reportDate,
+                                                               @Param("from") LocalDateTime from,
+                                                               @Param("to") LocalDateTime to,
+                                                               Limit limit);
+
+    @Query("SELECT new com.wallet.wallet.dto.TransactionView(t.transactionId, t.amount, t.type, t.createdAt, t.wallet.id) "
+            + "FROM Transaction t WHERE t.transactionId IN :transactionIds AND t.createdAt >= :from AND t.createdAt < :to")
+    List<TransactionView> findViewsByTransactionIdInCreatedBetween(@Param("transactionIds") Collection<String> transactionIds,
+                                                                   @Param("from") LocalDateTime from,
+                                                                   @Param("to") LocalDateTime to);
+
+    /**
+     * Returns a wallet's transactions created in {@code [from, to)} that come after the position
+     * ({@code beforeCreatedAt}, {@code beforeId}) in newest-first order. This is a range read of the
+     * (wallet_id, created_at, id) index that starts at the position, so every page costs the same however
+     * deep it is. Pass {@code to} and {@link Long#MIN_VALUE} as the position for the first page.
+     */
+    @Query("SELECT new com.wallet.wallet.dto.TransactionHistoryEntry(t.id, t.transactionId, t.amount, t.type, t.createdAt) "
+            + "FROM Transaction t WHERE t.wallet.id = :walletId AND (:type IS NULL OR t.type = :type) "
+            + "AND t.createdAt >= :from AND t.createdAt <= :beforeCreatedAt "
+            + "AND (t.createdAt < :beforeCreatedAt OR t.id < :beforeId) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TransactionHistoryEntry> findHistoryPage(@Param("walletId") Long walletId,
+                                                  @Param("type") TransactionType type,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                                  @Param("beforeId") long beforeId,
+                                                  Limit limit);
 }
@@ -0,0 +1,46 @@
+package com.wallet.wallet.repository;
+
+import com.wallet.wallet.model.WalletDailyAggregate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * Adds folded transaction events to the daily aggregates in one batched upsert.
+ */
+@Repository
+public class WalletDailyAggregateJdbcRepository {
+
+    private static final String ADD = """
+            INSERT INTO wallet_daily_aggregates (wallet_id, activity_date, topup_count, topup_total, consume_count, consume_total)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                topup_count = topup_count + VALUES(topup_count),
+                topup_total = topup_total + VALUES(topup_total),
+                consume_count = consume_count + VALUES(consume_count),
+                consume_total = consume_total + VALUES(consume_total)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WalletDailyAggregateJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Adds each delta to its (wallet, day) row, creating the row if needed. Deltas should be in key order,
+     * so concurrent callers lock rows in the same order and cannot deadlock.
+     */
+    public void add(List<WalletDailyAggregate> deltas) {
+        jdbcTemplate.batchUpdate(ADD, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.getWalletId());
+            ps.setDate(2, Date.valueOf(delta.getActivityDate()));
+            ps.setLong(3, delta.getTopupCount());
+            ps.setBigDecimal(4, delta.getTopupTotal());
+            ps.setLong(5, delta.getConsumeCount());
+            ps.setBigDecimal(6, delta.getConsumeTotal());
+        });
+    }
+}
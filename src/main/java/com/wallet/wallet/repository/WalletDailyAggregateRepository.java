@@ -0,0 +1,14 @@
+package com.wallet.wallet.repository;
+
+import com.wallet.wallet.model.WalletDailyAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WalletDailyAggregateRepository extends JpaRepository<WalletDailyAggregate, WalletDailyAggregate.Key> {
+
+    List<WalletDailyAggregate> findByWalletIdAndActivityDateBetweenOrderByActivityDate(Long walletId, LocalDate from, LocalDate to);
+}
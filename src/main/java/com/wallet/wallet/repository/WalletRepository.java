@@ -1,9 +1,43 @@
 package com.wallet.wallet.repository;
 
+import com.wallet.wallet.model.Money;
 import com.wallet.wallet.model.Wallet;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Debits the wallet in a single statement, but only if it holds at least {@code amount}.
+     * @return 1 if the wallet was debited, 0 if it does not exist or has insufficient funds
+     */
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = w.balance - :amount WHERE w.id = :walletId AND w.balance >= :amount")
+    int debitIfSufficient(@Param("walletId") Long walletId, @Param("amount") Money amount);
+
+    /**
+     * Credits the wallet in a single statement, creating it with {@code amount} as its balance if it does not exist yet.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO wallets (id, balance) VALUES (:walletId, :amount) " +
+            "ON DUPLICATE KEY UPDATE balance = balance + :amount", nativeQuery = true)
+    int creditOrCreate(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Loads the wallets holding row locks (SELECT ... FOR UPDATE) until the surrounding transaction ends.
+     * Rows are locked in ascending ID order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.id IN :walletIds ORDER BY w.id")
+    List<Wallet> findAllByIdForUpdate(@Param("walletIds") Collection<Long> walletIds);
+}
@@ -0,0 +1,121 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.exception.AdmissionRejectedException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead in front of the wallet's database work.
+ * At most as many requests as the connection pool can serve run at once, less the connections kept back
+ * for background work; the next few wait briefly for a slot, and anything beyond that is turned away immediately. Under a burst callers get a fast 429/503
+ * instead of every request piling up on the pool until connection timeouts cascade.
+ */
+@Service
+@Slf4j
+public class AdmissionControl {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final WalletProperties.Admission settings;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Timer waitTime;
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    public AdmissionControl(WalletProperties walletProperties, DataSource dataSource, MeterRegistry meterRegistry) {
+        this.settings = walletProperties.getAdmission();
+        this.maxConcurrent = resolveMaxConcurrent(settings, dataSource);
+        this.permits = new Semaphore(maxConcurrent, true);
+
+        Gauge.builder("wallet.admission.queue.depth", queued, AtomicInteger::get)
+                .description("Requests waiting for a database slot")
+                .register(meterRegistry);
+        Gauge.builder("wallet.admission.active", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Requests currently admitted")
+                .register(meterRegistry);
+        this.waitTime = Timer.builder("wallet.admission.wait")
+                .description("Time a request waited before it was admitted or turned away")
+                .register(meterRegistry);
+        this.queueFullRejections = Counter.builder("wallet.admission.rejected")
+                .tag("reason", "queue_full")
+                .description("Requests shed without waiting because the queue was full")
+                .register(meterRegistry);
+        this.timeoutRejections = Counter.builder("wallet.admission.rejected")
+                .tag("reason", "timeout")
+                .description("Requests shed after waiting too long for a slot")
+                .register(meterRegistry);
+        log.info("Admitting up to {} concurrent wallet requests, {} queued", maxConcurrent, settings.getMaxQueued());
+    }
+
+    public <T> T call(Supplier<T> work) {
+        if (!settings.isEnabled()) {
+            return work.get();
+        }
+        acquire();
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private void acquire() {
+        if (permits.tryAcquire()) {
+            waitTime.record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+        if (queued.incrementAndGet() > settings.getMaxQueued()) {
+            queued.decrementAndGet();
+            queueFullRejections.increment();
+            throw new AdmissionRejectedException("Too many concurrent requests, try again shortly.", true);
+        }
+        long started = System.nanoTime();
+        try {
+            boolean admitted = permits.tryAcquire(settings.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+            waitTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (!admitted) {
+                timeoutRejections.increment();
+                throw new AdmissionRejectedException("Service is busy, try again shortly.", false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AdmissionRejectedException("Interrupted while waiting for a database slot.", false);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    private static int resolveMaxConcurrent(WalletProperties.Admission settings, DataSource dataSource) {
+        if (settings.getMaxConcurrent() > 0) {
+            return settings.getMaxConcurrent();
+        }
+        int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+        return Math.max(1, poolSize - settings.getReservedConnections());
+    }
+}
@@ -0,0 +1,173 @@
+package com.wallet.wallet.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wallet.wallet.config.RabbitMQConfig;
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.BalanceInvalidation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded, node-local read-through cache of wallet balances.
+ * Writers announce a wallet before touching it and evict it once their transaction completes. While a
+ * write is in flight, reads of that wallet bypass the cache, and a value loaded before the write
+ * completed is never stored, so this node never serves a balance older than its last committed write.
+ * Wallets share 1024 stripes of bookkeeping, so a write may occasionally make a neighbouring wallet skip the cache too.
+ */
+@Component
+@Slf4j
+public class BalanceCache {
+
+    private static final int STRIPES = 1024;
+
+    private final WalletProperties.BalanceCaching settings;
+    private final RabbitTemplate rabbitTemplate;
+    private final Cache<Long, BigDecimal> cache;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** Bumped whenever a stripe's wallets are evicted; a load only fills the cache if its stripe did not move meanwhile. */
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+    /** Writes that have started but not completed, per stripe. */
+    private final AtomicIntegerArray pendingWrites = new AtomicIntegerArray(STRIPES);
+
+    private final Counter bypasses;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+
+    public BalanceCache(WalletProperties walletProperties, RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry) {
+        this.settings = walletProperties.getBalanceCache();
+        this.rabbitTemplate = rabbitTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getExpireAfterWrite())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "wallet.balance");
+        this.bypasses = Counter.builder("wallet.balance.cache.bypass")
+                .description("Balance reads sent to the database because a write to the wallet was in flight")
+                .register(meterRegistry);
+        this.localInvalidations = Counter.builder("wallet.balance.cache.invalidations")
+                .tag("source", "local")
+                .register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("wallet.balance.cache.invalidations")
+                .tag("source", "remote")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached balance or loads it with {@code loader}. Exceptions from the loader (e.g. an
+     * unknown wallet) are passed through and nothing is cached.
+     */
+    public BigDecimal get(Long walletId, Function<Long, BigDecimal> loader) {
+        if (!settings.isEnabled()) {
+            return loader.apply(walletId);
+        }
+        int stripe = stripe(walletId);
+        if (pendingWrites.get(stripe) > 0) {
+            bypasses.increment();
+            return loader.apply(walletId);
+        }
+        BigDecimal cached = cache.getIfPresent(walletId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = versions.get(stripe);
+        BigDecimal loaded = loader.apply(walletId);
+        // The check runs under the entry's lock, so an eviction racing with it either sees the new
+        // entry and removes it, or has already moved the version and the load is discarded.
+        cache.asMap().compute(walletId, (id, current) ->
+                pendingWrites.get(stripe) == 0 && versions.get(stripe) == version ? loaded : current);
+        return loaded;
+    }
+
+    public void invalidateOnCompletion(Long walletId) {
+        invalidateOnCompletion(List.of(walletId));
+    }
+
+    /**
+     * Must be called before the wallets are written. Reads of these wallets bypass the cache until the
+     * surrounding transaction commits or rolls back; then they are evicted and, after a commit,
+     * announced to the other nodes. Without an active transaction they are evicted right away.
+     */
+    public void invalidateOnCompletion(Collection<Long> walletIds) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        Set<Long> distinctIds = new TreeSet<>(walletIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(distinctIds);
+            broadcast(distinctIds);
+            return;
+        }
+        distinctIds.forEach(walletId -> pendingWrites.incrementAndGet(stripe(walletId)));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(distinctIds);
+                distinctIds.forEach(walletId -> pendingWrites.decrementAndGet(stripe(walletId)));
+                if (status == STATUS_COMMITTED) {
+                    broadcast(distinctIds);
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies an invalidation broadcast by another node.
+     */
+    public void onRemoteInvalidation(BalanceInvalidation invalidation) {
+        if (!settings.isEnabled() || nodeId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        invalidation.getWalletIds().forEach(walletId -> {
+            versions.incrementAndGet(stripe(walletId));
+            cache.invalidate(walletId);
+            remoteInvalidations.increment();
+        });
+    }
+
+    private void evict(Collection<Long> walletIds) {
+        walletIds.forEach(walletId -> {
+            versions.incrementAndGet(stripe(walletId));
+            cache.invalidate(walletId);
+            localInvalidations.increment();
+        });
+    }
+
+    private void broadcast(Collection<Long> walletIds) {
+        if (!settings.isBroadcastInvalidations()) {
+            return;
+        }
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.BALANCE_INVALIDATION_EXCHANGE, "",
+                    new BalanceInvalidation(nodeId, List.copyOf(walletIds)));
+        } catch (AmqpException e) {
+            // Other nodes fall back to expire-after-write for these wallets
+            log.warn("Could not broadcast balance invalidation for wallets {}: {}", walletIds, e.getMessage());
+        }
+    }
+
+    private static int stripe(Long walletId) {
+        return Math.floorMod(Long.hashCode(walletId), STRIPES);
+    }
+}
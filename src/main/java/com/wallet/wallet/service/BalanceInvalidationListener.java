@@ -0,0 +1,23 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.dto.BalanceInvalidation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts wallets written on other nodes from this node's balance cache.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "wallet.balance-cache", name = "broadcast-invalidations", havingValue = "true")
+public class BalanceInvalidationListener {
+
+    private final BalanceCache balanceCache;
+
+    @RabbitListener(queues = "#{balanceInvalidationQueue.name}")
+    public void onInvalidation(BalanceInvalidation invalidation) {
+        balanceCache.onRemoteInvalidation(invalidation);
+    }
+}
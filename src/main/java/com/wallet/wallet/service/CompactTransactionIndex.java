@@ -0,0 +1,303 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactions of a day keyed by transaction ID, stored column-wise in primitive arrays instead of as
+ * objects: IDs as length-prefixed UTF-8 in large byte pages (optionally direct, outside the heap), amounts
+ * as an unscaled long plus scale, wallet and type as primitives, and an open-addressing table of entry
+ * numbers with linear probing. About 30 bytes per entry plus the ID bytes, 46 in all for a million
+ * 12-character IDs without wallet or type, against well over 200 for a {@code HashMap} of DTOs.
+ * Amounts that do not fit a long are kept as BigDecimal on the side.
+ * Entries are numbered from 0 in insertion order. Not thread-safe.
+ */
+public final class CompactTransactionIndex {
+
+    private static final int PAGE_SIZE = 1 << 22;
+    private static final int MAX_ID_BYTES = 0xFFFF;
+    private static final long NO_WALLET = Long.MIN_VALUE;
+    private static final byte NO_TYPE = -1;
+    private static final byte INEXACT_SCALE = Byte.MIN_VALUE;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final boolean offHeap;
+    private final List<ByteBuffer> pages = new ArrayList<>();
+    private ByteBuffer page;
+
+    /** Entry number + 1 per slot, 0 when empty; the length is a power of two. */
+    private int[] slots;
+    private int[] hashes;
+    private long[] idRefs;
+    private long[] unscaledAmounts;
+    private byte[] scales;
+    private long[] walletIds;
+    private byte[] types;
+    private long[] paired;
+    private final Map<Integer, BigDecimal> inexactAmounts = new HashMap<>();
+    private int size;
+
+    /**
+     * @param expectedSize entries to size the arrays for; they grow as needed
+     * @param offHeap keep the ID bytes in direct buffers outside the Java heap
+     */
+    public CompactTransactionIndex(int expectedSize, boolean offHeap) {
+        this.offHeap = offHeap;
+        int capacity = Math.max(16, expectedSize);
+        this.slots = new int[Integer.highestOneBit(Math.max(32, capacity * 2 - 1)) << 1];
+        this.hashes = new int[capacity];
+        this.idRefs = new long[capacity];
+        this.unscaledAmounts = new long[capacity];
+        this.scales = new byte[capacity];
+        this.paired = new long[(capacity + 63) >>> 6];
+    }
+
+    /**
+     * Adds a transaction; {@code type} and {@code walletId} may be null.
+     * @return the new entry's number
+     * @throws IllegalStateException if the transaction ID is already present
+     */
+    public int add(String transactionId, BigDecimal amount, TransactionType type, Long walletId) {
+        int entry = addIfAbsent(transactionId, amount, type, walletId);
+        if (entry < 0) {
+            throw new IllegalStateException("Duplicate transaction ID " + transactionId);
+        }
+        return entry;
+    }
+
+    /**
+     * Adds a transaction unless its ID is already present, in which case the index is left as it was.
+     * @return the new entry's number, or -1 if the transaction ID is already present
+     */
+    public int addIfAbsent(String transactionId, BigDecimal amount, TransactionType type, Long walletId) {
+        int hash = hash(transactionId);
+        int slot = probe(transactionId, hash);
+        if (slots[slot] != 0) {
+            return -1;
+        }
+        long idRef = writeId(transactionId);
+        if (size == hashes.length) {
+            growEntries();
+        }
+        int entry = size++;
+        slots[slot] = entry + 1;
+        hashes[entry] = hash;
+        idRefs[entry] = idRef;
+        setAmount(entry, amount);
+        if (type != null) {
+            types()[entry] = (byte) type.ordinal();
+        }
+        if (walletId != null) {
+            walletIds()[entry] = walletId;
+        }
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return entry;
+    }
+
+    /**
+     * @return the entry number of the transaction ID, or -1 if it is not present
+     */
+    public int find(String transactionId) {
+        return slots[probe(transactionId, hash(transactionId))] - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String transactionId(int entry) {
+        long ref = idRefs[entry];
+        ByteBuffer buffer = pages.get((int) (ref >>> 32));
+        int offset = (int) ref;
+        return new String(readId(buffer, offset, Short.toUnsignedInt(buffer.getShort(offset))), StandardCharsets.UTF_8);
+    }
+
+    public BigDecimal amount(int entry) {
+        return scales[entry] == INEXACT_SCALE ? inexactAmounts.get(entry) : BigDecimal.valueOf(unscaledAmounts[entry], scales[entry]);
+    }
+
+    /**
+     * Compares numerically like {@link BigDecimal#compareTo}, so 10.5 equals 10.50.
+     */
+    public boolean amountEquals(int entry, BigDecimal amount) {
+        return amount(entry).compareTo(amount) == 0;
+    }
+
+    public TransactionType type(int entry) {
+        return types == null || types[entry] == NO_TYPE ? null : TYPES[types[entry]];
+    }
+
+    public Long walletId(int entry) {
+        return walletIds == null || walletIds[entry] == NO_WALLET ? null : walletIds[entry];
+    }
+
+    public void markPaired(int entry) {
+        paired[entry >>> 6] |= 1L << entry;
+    }
+
+    public boolean isPaired(int entry) {
+        return (paired[entry >>> 6] & (1L << entry)) != 0;
+    }
+
+    /**
+     * Bytes held by the index: the arrays, the ID pages (on or off heap) and any inexact amounts.
+     */
+    public long footprintBytes() {
+        long bytes = 4L * slots.length + 4L * hashes.length + 8L * idRefs.length + 8L * unscaledAmounts.length
+                + scales.length + 8L * paired.length + (long) PAGE_SIZE * pages.size();
+        if (walletIds != null) {
+            bytes += 8L * walletIds.length;
+        }
+        if (types != null) {
+            bytes += types.length;
+        }
+        return bytes + 100L * inexactAmounts.size();
+    }
+
+    private int probe(String id, int hash) {
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (entry < 0 || (hashes[entry] == hash && idEquals(entry, id))) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Compares ASCII IDs, the usual case, character by character against the stored bytes; an ASCII
+     * prefix encodes to the same bytes, so only IDs with other characters need encoding first.
+     */
+    private boolean idEquals(int entry, String id) {
+        long ref = idRefs[entry];
+        ByteBuffer buffer = pages.get((int) (ref >>> 32));
+        int offset = (int) ref;
+        int length = Short.toUnsignedInt(buffer.getShort(offset));
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c >= 0x80) {
+                return Arrays.equals(id.getBytes(StandardCharsets.UTF_8), readId(buffer, offset, length));
+            }
+            if (i >= length || buffer.get(offset + 2 + i) != c) {
+                return false;
+            }
+        }
+        return length == id.length();
+    }
+
+    private long writeId(String transactionId) {
+        byte[] id = isAscii(transactionId) ? null : transactionId.getBytes(StandardCharsets.UTF_8);
+        int length = id == null ? transactionId.length() : id.length;
+        if (length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Transaction ID longer than " + MAX_ID_BYTES + " bytes: " + transactionId);
+        }
+        if (page == null || page.remaining() < length + 2) {
+            page = offHeap ? ByteBuffer.allocateDirect(PAGE_SIZE) : ByteBuffer.allocate(PAGE_SIZE);
+            pages.add(page);
+        }
+        long ref = ((long) (pages.size() - 1) << 32) | page.position();
+        page.putShort((short) length);
+        if (id != null) {
+            page.put(id);
+        } else {
+            for (int i = 0; i < length; i++) {
+                page.put((byte) transactionId.charAt(i));
+            }
+        }
+        return ref;
+    }
+
+    private static byte[] readId(ByteBuffer buffer, int offset, int length) {
+        byte[] id = new byte[length];
+        buffer.get(offset + 2, id);
+        return id;
+    }
+
+    private static boolean isAscii(String id) {
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Up to 18 digits always fit a long; the scale is stripped by moving the point, not through BigInteger.
+     */
+    private void setAmount(int entry, BigDecimal amount) {
+        if (amount.precision() <= 18 && amount.scale() > INEXACT_SCALE && amount.scale() <= Byte.MAX_VALUE) {
+            unscaledAmounts[entry] = amount.scaleByPowerOfTen(amount.scale()).longValueExact();
+            scales[entry] = (byte) amount.scale();
+        } else {
+            scales[entry] = INEXACT_SCALE;
+            inexactAmounts.put(entry, amount);
+        }
+    }
+
+    private byte[] types() {
+        if (types == null) {
+            types = new byte[hashes.length];
+            Arrays.fill(types, NO_TYPE);
+        }
+        return types;
+    }
+
+    private long[] walletIds() {
+        if (walletIds == null) {
+            walletIds = new long[hashes.length];
+            Arrays.fill(walletIds, NO_WALLET);
+        }
+        return walletIds;
+    }
+
+    private void growEntries() {
+        int capacity = hashes.length + (hashes.length >> 1);
+        hashes = Arrays.copyOf(hashes, capacity);
+        idRefs = Arrays.copyOf(idRefs, capacity);
+        unscaledAmounts = Arrays.copyOf(unscaledAmounts, capacity);
+        scales = Arrays.copyOf(scales, capacity);
+        paired = Arrays.copyOf(paired, (capacity + 63) >>> 6);
+        if (types != null) {
+            int from = types.length;
+            types = Arrays.copyOf(types, capacity);
+            Arrays.fill(types, from, capacity, NO_TYPE);
+        }
+        if (walletIds != null) {
+            int from = walletIds.length;
+            walletIds = Arrays.copyOf(walletIds, capacity);
+            Arrays.fill(walletIds, from, capacity, NO_WALLET);
+        }
+    }
+
+    private void rehash() {
+        int[] rehashed = new int[slots.length << 1];
+        int mask = rehashed.length - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hashes[entry] & mask;
+            while (rehashed[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            rehashed[slot] = entry + 1;
+        }
+        slots = rehashed;
+    }
+
+    /**
+     * String hash codes are cached and cheap, but cluster on sequential IDs; spread them before masking.
+     */
+    private static int hash(String transactionId) {
+        int h = transactionId.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
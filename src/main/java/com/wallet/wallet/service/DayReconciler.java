@@ -0,0 +1,15 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.dto.ReconciliationSummary;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Reconciles one day, handing every record to the sink; see {@link ReconciliationService#reconcile}.
+ */
+@FunctionalInterface
+public interface DayReconciler {
+
+    ReconciliationSummary reconcile(LocalDate date, ReconciliationSink sink) throws IOException;
+}
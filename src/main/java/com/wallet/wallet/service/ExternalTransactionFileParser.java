@@ -0,0 +1,366 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.exception.MalformedExternalFileException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parses {@code transaction_id,amount} settlement files through memory-mapped NIO channels.
+ * The file is cut into line-aligned chunks that are parsed in parallel, a bounded number at a time,
+ * and handed out in file order. Amounts are read straight from the bytes into an unscaled long and a
+ * scale, without an intermediate String. Fields may be wrapped in double quotes but may not contain
+ * commas or quotes themselves; blank lines are skipped and a leading header line is recognised.
+ * Malformed lines fail the parse with their line numbers.
+ */
+@Component
+@Slf4j
+public class ExternalTransactionFileParser {
+
+    private static final int BOUNDARY_SCAN_BYTES = 4_096;
+    /** 18 digits always fit in a long. */
+    private static final int MAX_FAST_DIGITS = 18;
+
+    private final int chunkBytes;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public ExternalTransactionFileParser(WalletProperties walletProperties) {
+        WalletProperties.Reconciliation settings = walletProperties.getReconciliation();
+        this.chunkBytes = settings.getParseChunkBytes();
+        this.parallelism = Math.max(1, settings.getParseParallelism());
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "external-file-parser-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Streams the file's transactions in file order. The stream must be closed to release the file.
+     * @throws MalformedExternalFileException while streaming, at the first chunk containing malformed lines
+     */
+    public Stream<ExternalTransaction> parse(Path file) {
+        FileChannel channel;
+        List<long[]> chunks;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open external transaction file " + file, e);
+        }
+        try {
+            chunks = split(channel);
+        } catch (IOException e) {
+            closeQuietly(channel, file);
+            throw new UncheckedIOException("Cannot read external transaction file " + file, e);
+        }
+        log.info("Parsing external transaction file {} ({} bytes) in {} chunks", file, sizeOf(chunks), chunks.size());
+
+        ChunkIterator transactions = new ChunkIterator(file, channel, chunks);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(transactions, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(transactions::close);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Cuts the file into [start, end) ranges of roughly {@code chunkBytes}, each ending right after a line break.
+     */
+    private List<long[]> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+        long start = 0;
+        ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_BYTES);
+        while (start < size) {
+            long end = Math.min(size, start + chunkBytes);
+            while (end < size) {
+                scan.clear();
+                int read = channel.read(scan, end);
+                int newline = -1;
+                for (int i = 0; i < read && newline < 0; i++) {
+                    if (scan.get(i) == '\n') {
+                        newline = i;
+                    }
+                }
+                if (newline >= 0) {
+                    end += newline + 1;
+                    break;
+                }
+                end += Math.max(read, 0);
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private ParsedChunk parseChunk(FileChannel channel, long[] range, boolean first) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, range[0], range[1] - range[0]);
+        int limit = buffer.limit();
+        List<ExternalTransaction> transactions = new ArrayList<>(limit / 24 + 1);
+        List<LineProblem> problems = new ArrayList<>();
+        int lines = 0;
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            lines++;
+            int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            boolean header = first && lines == 1 && isHeader(buffer, lineStart, contentEnd);
+            if (!header && !isBlank(buffer, lineStart, contentEnd)) {
+                try {
+                    transactions.add(parseLine(buffer, lineStart, contentEnd));
+                } catch (IllegalArgumentException e) {
+                    problems.add(new LineProblem(lines, e.getMessage()));
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return new ParsedChunk(transactions, lines, problems);
+    }
+
+    private static ExternalTransaction parseLine(ByteBuffer buffer, int from, int to) {
+        int comma = indexOf(buffer, from, to, (byte) ',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("expected transaction_id,amount but found no comma");
+        }
+        if (indexOf(buffer, comma + 1, to, (byte) ',') >= 0) {
+            throw new IllegalArgumentException("expected 2 fields but found more");
+        }
+        int[] id = unquote(buffer, from, comma);
+        if (id[0] == id[1]) {
+            throw new IllegalArgumentException("missing transaction_id");
+        }
+        int[] amount = unquote(buffer, comma + 1, to);
+        byte[] idBytes = new byte[id[1] - id[0]];
+        buffer.get(id[0], idBytes);
+        return new ExternalTransaction(new String(idBytes, StandardCharsets.UTF_8), parseAmount(buffer, amount[0], amount[1]));
+    }
+
+    /**
+     * Parses {@code [-+]digits[.digits]} into unscaled value and scale; only numbers too long for a long
+     * take the slow path through a String.
+     */
+    static BigDecimal parseAmount(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                if (++digits > MAX_FAST_DIGITS) {
+                    return parseLongAmount(buffer, from, to);
+                }
+                unscaled = unscaled * 10 + (b - '0');
+                if (point) {
+                    scale++;
+                }
+            } else if (b == '.' && !point) {
+                point = true;
+            } else {
+                throw new IllegalArgumentException("invalid amount '" + text(buffer, from, to) + "'");
+            }
+        }
+        if (digits == 0) {
+            throw new IllegalArgumentException(from == to ? "missing amount" : "invalid amount '" + text(buffer, from, to) + "'");
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+    }
+
+    private static BigDecimal parseLongAmount(ByteBuffer buffer, int from, int to) {
+        String amount = text(buffer, from, to);
+        try {
+            return new BigDecimal(amount);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid amount '" + amount + "'");
+        }
+    }
+
+    private static boolean isHeader(ByteBuffer buffer, int from, int to) {
+        int comma = indexOf(buffer, from, to, (byte) ',');
+        if (comma < 0) {
+            return false;
+        }
+        int[] first = unquote(buffer, from, comma);
+        return text(buffer, first[0], first[1]).equalsIgnoreCase("transaction_id");
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) != ' ' && buffer.get(i) != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Trims blanks and one pair of surrounding double quotes.
+     */
+    private static int[] unquote(ByteBuffer buffer, int from, int to) {
+        while (from < to && (buffer.get(from) == ' ' || buffer.get(from) == '\t')) {
+            from++;
+        }
+        while (to > from && (buffer.get(to - 1) == ' ' || buffer.get(to - 1) == '\t')) {
+            to--;
+        }
+        if (to - from >= 2 && buffer.get(from) == '"' && buffer.get(to - 1) == '"') {
+            from++;
+            to--;
+        }
+        return new int[]{from, to};
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String text(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long sizeOf(List<long[]> chunks) {
+        return chunks.isEmpty() ? 0 : chunks.get(chunks.size() - 1)[1];
+    }
+
+    private static void closeQuietly(FileChannel channel, Path file) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close external transaction file {}", file, e);
+        }
+    }
+
+    private record LineProblem(int line, String message) {
+    }
+
+    private record ParsedChunk(List<ExternalTransaction> transactions, int lines, List<LineProblem> problems) {
+    }
+
+    /**
+     * Keeps up to {@code parallelism} chunks parsing ahead of the consumer and hands their
+     * transactions out in file order, translating chunk-local line numbers into file line numbers.
+     */
+    private final class ChunkIterator implements Iterator<ExternalTransaction> {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final List<long[]> chunks;
+        private final Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        private int nextToSubmit;
+        private long linesBefore;
+        private Iterator<ExternalTransaction> current = Collections.emptyIterator();
+
+        private ChunkIterator(Path file, FileChannel channel, List<long[]> chunks) {
+            this.file = file;
+            this.channel = channel;
+            this.chunks = chunks;
+            fillPipeline();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (inFlight.isEmpty()) {
+                    return false;
+                }
+                ParsedChunk chunk = await(inFlight.poll());
+                fillPipeline();
+                if (!chunk.problems().isEmpty()) {
+                    long offset = linesBefore;
+                    throw new MalformedExternalFileException(file.getFileName().toString(), chunk.problems().stream()
+                            .map(problem -> "line " + (offset + problem.line()) + ": " + problem.message())
+                            .toList());
+                }
+                linesBefore += chunk.lines();
+                current = chunk.transactions().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public ExternalTransaction next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private void fillPipeline() {
+            while (inFlight.size() < parallelism && nextToSubmit < chunks.size()) {
+                long[] range = chunks.get(nextToSubmit);
+                boolean first = nextToSubmit == 0;
+                inFlight.add(executor.submit(() -> parseChunk(channel, range, first)));
+                nextToSubmit++;
+            }
+        }
+
+        private ParsedChunk await(Future<ParsedChunk> chunk) {
+            try {
+                return chunk.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while parsing " + file, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw new UncheckedIOException("Cannot read external transaction file " + file, io);
+                }
+                throw new IllegalStateException("Failed to parse " + file, e.getCause());
+            }
+        }
+
+        private void close() {
+            inFlight.forEach(chunk -> chunk.cancel(false));
+            inFlight.clear();
+            closeQuietly(channel, file);
+        }
+    }
+}
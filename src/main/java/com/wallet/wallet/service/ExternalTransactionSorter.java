@@ -0,0 +1,198 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sorts external transactions by transaction ID with bounded memory.
+ * Input that fits in one chunk is sorted in memory; anything larger is cut into sorted runs spilled to
+ * temporary files, which are then merged lazily while the result is consumed. At most one chunk, or
+ * one buffered record per run, is held at a time.
+ */
+@Component
+@Slf4j
+public class ExternalTransactionSorter {
+
+    static final Comparator<ExternalTransaction> BY_TRANSACTION_ID = Comparator.comparing(ExternalTransaction::getTransactionId);
+
+    private final int chunkSize;
+    private final Path spillDirectory;
+
+    public ExternalTransactionSorter(WalletProperties walletProperties) {
+        WalletProperties.Reconciliation settings = walletProperties.getReconciliation();
+        this.chunkSize = settings.getSortChunkSize();
+        this.spillDirectory = Path.of(settings.getSpillDirectory() != null
+                ? settings.getSpillDirectory()
+                : System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Consumes {@code unsorted} completely and returns its transactions ordered by transaction ID.
+     * The returned stream must be closed to release and delete any spilled runs.
+     */
+    public Stream<ExternalTransaction> sort(Iterator<ExternalTransaction> unsorted) {
+        List<Path> runs = new ArrayList<>();
+        List<ExternalTransaction> chunk = new ArrayList<>(Math.min(chunkSize, 16_384));
+        try {
+            while (unsorted.hasNext()) {
+                chunk.add(unsorted.next());
+                if (chunk.size() == chunkSize) {
+                    runs.add(spill(chunk));
+                    chunk.clear();
+                }
+            }
+            if (runs.isEmpty()) {
+                chunk.sort(BY_TRANSACTION_ID);
+                return chunk.stream();
+            }
+            if (!chunk.isEmpty()) {
+                runs.add(spill(chunk));
+                chunk.clear();
+            }
+            log.info("Merging {} sorted runs of external transactions", runs.size());
+            RunMerger merger = new RunMerger(runs);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merger, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(merger::close);
+        } catch (IOException e) {
+            runs.forEach(ExternalTransactionSorter::deleteQuietly);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            runs.forEach(ExternalTransactionSorter::deleteQuietly);
+            throw e;
+        }
+    }
+
+    private Path spill(List<ExternalTransaction> chunk) throws IOException {
+        chunk.sort(BY_TRANSACTION_ID);
+        Path run = Files.createTempFile(spillDirectory, "reconciliation-run-", ".bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+            for (ExternalTransaction transaction : chunk) {
+                out.writeUTF(transaction.getTransactionId());
+                out.writeUTF(transaction.getAmount().toString());
+            }
+        } catch (IOException e) {
+            deleteQuietly(run);
+            throw e;
+        }
+        return run;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete reconciliation run {}", file, e);
+        }
+    }
+
+    /**
+     * K-way merge over the spilled runs, keeping one buffered record per run in a heap.
+     */
+    private static final class RunMerger implements Iterator<ExternalTransaction>, Closeable {
+
+        private final List<RunReader> readers = new ArrayList<>();
+        private final PriorityQueue<RunReader> heads = new PriorityQueue<>(Comparator.comparing(RunReader::head, BY_TRANSACTION_ID));
+
+        private RunMerger(List<Path> runs) throws IOException {
+            try {
+                for (Path run : runs) {
+                    RunReader reader = new RunReader(run);
+                    readers.add(reader);
+                    if (reader.advance()) {
+                        heads.add(reader);
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public ExternalTransaction next() {
+            RunReader reader = heads.poll();
+            if (reader == null) {
+                throw new NoSuchElementException();
+            }
+            ExternalTransaction next = reader.head();
+            try {
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return next;
+        }
+
+        @Override
+        public void close() {
+            readers.forEach(RunReader::close);
+        }
+    }
+
+    private static final class RunReader implements Closeable {
+
+        private final Path run;
+        private final DataInputStream in;
+        private ExternalTransaction head;
+
+        private RunReader(Path run) throws IOException {
+            this.run = run;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+        }
+
+        private ExternalTransaction head() {
+            return head;
+        }
+
+        private boolean advance() throws IOException {
+            try {
+                head = new ExternalTransaction(in.readUTF(), new BigDecimal(in.readUTF()));
+                return true;
+            } catch (EOFException e) {
+                head = null;
+                return false;
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                log.warn("Could not close reconciliation run {}", run, e);
+            }
+            deleteQuietly(run);
+        }
+    }
+}
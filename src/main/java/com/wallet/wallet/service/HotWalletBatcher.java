@@ -0,0 +1,226 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.BatchOperation;
+import com.wallet.wallet.exception.AdmissionRejectedException;
+import com.wallet.wallet.model.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opt-in group-commit executor for hot wallets.
+ * Operations on the same wallet that arrive within a short window are applied together in one database
+ * transaction by the {@link LedgerBatchWriter}: one locked read of the wallet, one balance update and a
+ * batched insert of the ledger entries, instead of one transaction per request queueing on the same row
+ * lock. Each caller still gets its own outcome, and consumes are checked against the running balance in
+ * arrival order. Hot wallets bypass the admission bulkhead, so a caller waits at most {@code max-wait}
+ * for its batch and is then turned away with 503.
+ */
+@Service
+@Slf4j
+public class HotWalletBatcher {
+
+    private final LedgerBatchWriter ledgerBatchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletProperties.Batching settings;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Long, WalletLane> lanes = new ConcurrentHashMap<>();
+
+    private final DistributionSummary batchSize;
+    private final Timer queueDelay;
+    private final Timer flushDuration;
+    private final Counter awaitTimeouts;
+
+    public HotWalletBatcher(LedgerBatchWriter ledgerBatchWriter,
+                            PlatformTransactionManager transactionManager,
+                            WalletProperties walletProperties,
+                            MeterRegistry meterRegistry) {
+        this.ledgerBatchWriter = ledgerBatchWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = walletProperties.getBatching();
+        this.scheduler = Executors.newScheduledThreadPool(settings.getFlushThreads());
+
+        this.batchSize = DistributionSummary.builder("wallet.batch.size")
+                .description("Operations applied per group commit")
+                .register(meterRegistry);
+        this.queueDelay = Timer.builder("wallet.batch.queue.delay")
+                .description("Time an operation waits before its batch starts flushing")
+                .register(meterRegistry);
+        this.flushDuration = Timer.builder("wallet.batch.flush")
+                .description("Time spent applying one batch")
+                .register(meterRegistry);
+        this.awaitTimeouts = Counter.builder("wallet.batch.await.timeout")
+                .description("Callers turned away because their batch did not commit within max-wait")
+                .register(meterRegistry);
+    }
+
+    public boolean isHot(Long walletId) {
+        return settings.isEnabled() && settings.getHotWallets().contains(walletId);
+    }
+
+    public void topup(Long walletId, BigDecimal amount, String transactionId) {
+        await(walletId, enqueue(walletId, TransactionType.TOPUP, amount, transactionId));
+    }
+
+    public void consume(Long walletId, BigDecimal amount, String transactionId) {
+        await(walletId, enqueue(walletId, TransactionType.CONSUME, amount, transactionId));
+    }
+
+    /**
+     * Queues an operation for the wallet's next batch.
+     * @return a future completed once the batch has committed, or completed exceptionally with the
+     * operation's own failure (duplicate, insufficient balance, unknown wallet) or the batch's failure
+     */
+    public CompletableFuture<Void> submit(Long walletId, TransactionType type, BigDecimal amount, String transactionId) {
+        return enqueue(walletId, type, amount, transactionId).result;
+    }
+
+    private PendingOperation enqueue(Long walletId, TransactionType type, BigDecimal amount, String transactionId) {
+        PendingOperation operation = new PendingOperation(type, amount, transactionId, System.nanoTime(), new CompletableFuture<>());
+        WalletLane lane = lanes.computeIfAbsent(walletId, WalletLane::new);
+        lane.queue.add(operation);
+        int queued = lane.size.incrementAndGet();
+        scheduleFlush(lane, queued >= settings.getMaxBatchSize() ? 0 : settings.getWindow().toNanos());
+        return operation;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private void scheduleFlush(WalletLane lane, long delayNanos) {
+        if (delayNanos == 0) {
+            scheduler.execute(() -> flush(lane));
+        } else if (lane.scheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> flush(lane), delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Drains and applies up to one batch. Only one flush per wallet runs at a time; a flush that finds
+     * another one in progress returns, and the running flush picks up whatever is still queued.
+     */
+    private void flush(WalletLane lane) {
+        lane.scheduled.set(false);
+        if (!lane.flushLock.tryLock()) {
+            return;
+        }
+        try {
+            List<PendingOperation> batch = new ArrayList<>();
+            PendingOperation operation;
+            while (batch.size() < settings.getMaxBatchSize() && (operation = lane.queue.poll()) != null) {
+                lane.size.decrementAndGet();
+                batch.add(operation);
+            }
+            if (!batch.isEmpty()) {
+                apply(lane.walletId, batch);
+            }
+        } finally {
+            lane.flushLock.unlock();
+        }
+
+        int remaining = lane.size.get();
+        if (remaining > 0) {
+            scheduleFlush(lane, remaining >= settings.getMaxBatchSize() ? 0 : settings.getWindow().toNanos());
+        }
+    }
+
+    private void apply(Long walletId, List<PendingOperation> batch) {
+        long flushStarted = System.nanoTime();
+        batch.forEach(operation -> queueDelay.record(flushStarted - operation.enqueuedAt, TimeUnit.NANOSECONDS));
+        batchSize.record(batch.size());
+
+        List<BatchOperation> operations = batch.stream()
+                .map(operation -> new BatchOperation(walletId, operation.type, operation.amount, operation.transactionId))
+                .toList();
+        List<RuntimeException> failures;
+        try {
+            failures = flushDuration.record(() -> transactionTemplate.execute(status -> ledgerBatchWriter.apply(operations)));
+        } catch (RuntimeException e) {
+            log.error("Batch of {} operations for wallet {} failed", batch.size(), walletId, e);
+            batch.forEach(operation -> operation.result.completeExceptionally(e));
+            return;
+        }
+
+        int rejected = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            RuntimeException failure = failures.get(i);
+            if (failure == null) {
+                batch.get(i).result.complete(null);
+            } else {
+                rejected++;
+                batch.get(i).result.completeExceptionally(failure);
+            }
+        }
+        log.info("Wallet {} applied batch of {} operations ({} rejected)", walletId, batch.size(), rejected);
+    }
+
+    /**
+     * Waits up to {@code max-wait} for the operation's batch. An operation still queued when the wait ends is
+     * withdrawn and never applied; one already being applied may still commit, and a retry with the same
+     * transaction ID then tells which.
+     */
+    private void await(Long walletId, PendingOperation operation) {
+        try {
+            operation.result.get(settings.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            awaitTimeouts.increment();
+            WalletLane lane = lanes.get(walletId);
+            if (lane.queue.remove(operation)) {
+                lane.size.decrementAndGet();
+                throw new AdmissionRejectedException("Wallet " + walletId + " is busy, try again shortly.", false);
+            }
+            throw new AdmissionRejectedException("Transaction " + operation.transactionId
+                    + " is still being applied; retry with the same transaction ID to learn its outcome.", false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AdmissionRejectedException("Interrupted while waiting for the wallet's batch.", false);
+        }
+    }
+
+    private record PendingOperation(TransactionType type, BigDecimal amount, String transactionId,
+                                    long enqueuedAt, CompletableFuture<Void> result) {
+    }
+
+    private static final class WalletLane {
+        private final Long walletId;
+        private final Queue<PendingOperation> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final ReentrantLock flushLock = new ReentrantLock();
+
+        private WalletLane(Long walletId) {
+            this.walletId = walletId;
+        }
+    }
+}
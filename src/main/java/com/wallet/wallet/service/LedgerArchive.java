@@ -0,0 +1,163 @@
+package com.wallet.wallet.service;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Days of the ledger moved out of the database, one gzipped CSV per day in transaction ID order,
+ * so reconciliation can merge-join an archived day exactly like one read from the database.
+ */
+@Component
+public class LedgerArchive {
+
+    private static final String[] HEADER = {"transaction_id", "amount", "type", "created_at", "wallet_id"};
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WalletProperties.Partitioning settings;
+
+    public LedgerArchive(WalletProperties walletProperties) {
+        this.settings = walletProperties.getPartitioning();
+    }
+
+    public boolean isEnabled() {
+        return StringUtils.hasText(settings.getArchiveDirectory());
+    }
+
+    public boolean contains(LocalDate date) {
+        return isEnabled() && Files.isRegularFile(file(date));
+    }
+
+    /**
+     * Streams an archived day in transaction ID order. The stream must be closed to release the file.
+     */
+    public Stream<TransactionDTO> read(LocalDate date) {
+        Path file = file(date);
+        try {
+            CSVReader reader = new CSVReader(new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE), StandardCharsets.UTF_8)));
+            Iterator<String[]> rows = reader.iterator();
+            if (rows.hasNext()) {
+                rows.next();
+            }
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .map(LedgerArchive::toTransaction)
+                    .onClose(() -> {
+                        try {
+                            reader.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading ledger archive: " + file, e);
+        }
+    }
+
+    /**
+     * Starts writing a day. Nothing is visible until {@link DayWriter#commit()}, which replaces any earlier archive of the day.
+     */
+    public DayWriter write(LocalDate date) throws IOException {
+        Path target = file(date);
+        Files.createDirectories(target.getParent());
+        return new DayWriter(date, target, Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp"));
+    }
+
+    private Path file(LocalDate date) {
+        return Path.of(settings.getArchiveDirectory(), "transactions_" + date + ".csv.gz");
+    }
+
+    private static TransactionDTO toTransaction(String[] row) {
+        return TransactionDTO.builder()
+                .transactionId(row[0])
+                .amount(new BigDecimal(row[1]))
+                .type(TransactionType.valueOf(row[2]))
+                .createdAt(LocalDateTime.parse(row[3]))
+                .walletId(Long.parseLong(row[4]))
+                .build();
+    }
+
+    /**
+     * Writes one day to a temporary file next to its archive; rows must be added in transaction ID order.
+     */
+    public static final class DayWriter implements Closeable {
+
+        private final LocalDate day;
+        private final Path target;
+        private final Path temporary;
+        private final CSVWriter csvWriter;
+        private long rows;
+        private boolean committed;
+
+        private DayWriter(LocalDate day, Path target, Path temporary) throws IOException {
+            this.day = day;
+            this.target = target;
+            this.temporary = temporary;
+            this.csvWriter = new CSVWriter(new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE), StandardCharsets.UTF_8)));
+            csvWriter.writeNext(HEADER, false);
+        }
+
+        public void add(TransactionDTO transaction) {
+            csvWriter.writeNext(new String[]{
+                    transaction.getTransactionId(),
+                    transaction.getAmount().toPlainString(),
+                    transaction.getType().name(),
+                    transaction.getCreatedAt().toString(),
+                    String.valueOf(transaction.getWalletId())
+            });
+            rows++;
+        }
+
+        public LocalDate day() {
+            return day;
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        /**
+         * Finishes the file and moves it into place in one step, so readers never see a partial day.
+         */
+        public void commit() throws IOException {
+            csvWriter.close();
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                csvWriter.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.LedgerAuditReport;
+import com.wallet.wallet.dto.LedgerDiscrepancyView;
+import com.wallet.wallet.model.LedgerAuditRun;
+import com.wallet.wallet.repository.LedgerAuditJdbcRepository;
+import com.wallet.wallet.repository.LedgerAuditJdbcRepository.WalletRange;
+import com.wallet.wallet.repository.LedgerAuditRunRepository;
+import com.wallet.wallet.repository.NamedLockJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Verifies every wallet's stored balance against its ledger without summing whole histories.
+ * The snapshot job folds ledger rows older than a settle cutoff into per-wallet {@code wallet_snapshots};
+ * the audit job then checks {@code balance == snapshot + sum(TOPUP) - sum(CONSUME) since the snapshot}.
+ * Both walk the wallets in id-ordered chunks, a bounded number at a time on their own pool, never lock
+ * {@code wallets} rows, and record progress after every chunk so an interrupted run resumes where it stopped.
+ * Scheduled runs are driven from a thread of the service's own, so the shared scheduler thread that also
+ * drives the outbox relay and the live reconciliation sweep is never held for a whole run.
+ */
+@Service
+@Slf4j
+public class LedgerAuditService {
+
+    private static final String LOCK_NAME_PREFIX = "wallet.audit.";
+
+    private final LedgerAuditJdbcRepository ledgerAuditJdbcRepository;
+    private final LedgerAuditRunRepository ledgerAuditRunRepository;
+    private final NamedLockJdbcRepository namedLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletProperties.Audit settings;
+    private final ExecutorService executor;
+    private final ExecutorService runner;
+    private final Map<LedgerAuditRun.Kind, ReentrantLock> running = new EnumMap<>(LedgerAuditRun.Kind.class);
+
+    private final Map<LedgerAuditRun.Kind, Timer> chunkDuration = new EnumMap<>(LedgerAuditRun.Kind.class);
+    private final Counter discrepanciesFound;
+
+    public LedgerAuditService(LedgerAuditJdbcRepository ledgerAuditJdbcRepository,
+                              LedgerAuditRunRepository ledgerAuditRunRepository,
+                              NamedLockJdbcRepository namedLocks,
+                              PlatformTransactionManager transactionManager,
+                              WalletProperties walletProperties,
+                              MeterRegistry meterRegistry) {
+        this.ledgerAuditJdbcRepository = ledgerAuditJdbcRepository;
+        this.ledgerAuditRunRepository = ledgerAuditRunRepository;
+        this.namedLocks = namedLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = walletProperties.getAudit();
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, settings.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "ledger-audit-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-audit-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (LedgerAuditRun.Kind kind : LedgerAuditRun.Kind.values()) {
+            running.put(kind, new ReentrantLock());
+            chunkDuration.put(kind, Timer.builder("wallet.audit.chunk")
+                    .description("Time to snapshot or audit one chunk of wallets")
+                    .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        this.discrepanciesFound = Counter.builder("wallet.audit.discrepancies")
+                .description("Wallets whose balance disagreed with their ledger")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${wallet.audit.snapshot-cron:0 0 2 * * *}")
+    public void scheduledSnapshot() {
+        if (settings.isEnabled()) {
+            runInBackground(LedgerAuditRun.Kind.SNAPSHOT, this::snapshot);
+        }
+    }
+
+    @Scheduled(cron = "${wallet.audit.audit-cron:0 0 3 * * *}")
+    public void scheduledAudit() {
+        if (settings.isEnabled()) {
+            runInBackground(LedgerAuditRun.Kind.AUDIT, this::audit);
+        }
+    }
+
+    /**
+     * Brings every wallet's snapshot up to a cutoff {@code settle-grace} in the past, or finishes an interrupted snapshot run.
+     */
+    public LedgerAuditReport snapshot() {
+        return run(LedgerAuditRun.Kind.SNAPSHOT, (run, range) -> {
+            transactionTemplate.executeWithoutResult(status ->
+                    ledgerAuditJdbcRepository.advanceSnapshots(range, run.getCutoff(), LocalDateTime.now()));
+            return 0;
+        });
+    }
+
+    /**
+     * Checks every wallet against its snapshot and the ledger since, or finishes an interrupted audit run.
+     */
+    public LedgerAuditReport audit() {
+        return run(LedgerAuditRun.Kind.AUDIT, (run, range) -> {
+            List<LedgerDiscrepancyView> discrepancies = ledgerAuditJdbcRepository.findDiscrepancies(range);
+            transactionTemplate.executeWithoutResult(status ->
+                    ledgerAuditJdbcRepository.replaceDiscrepancies(run.getId(), range, discrepancies));
+            discrepancies.forEach(discrepancy -> log.warn("Wallet {} holds {} but its ledger implies {}",
+                    discrepancy.walletId(), discrepancy.balance(), discrepancy.expectedBalance()));
+            discrepanciesFound.increment(discrepancies.size());
+            return discrepancies.size();
+        });
+    }
+
+    public Optional<LedgerAuditReport> latest(LedgerAuditRun.Kind kind) {
+        return ledgerAuditRunRepository.findFirstByKindOrderByIdDesc(kind).map(this::toReport);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a scheduled run on the runner thread; an audit due while the snapshot still runs starts after it.
+     */
+    private void runInBackground(LedgerAuditRun.Kind kind, Runnable job) {
+        runner.execute(() -> {
+            try {
+                job.run();
+            } catch (RuntimeException e) {
+                log.error("Scheduled ledger {} run did not complete", kind, e);
+            }
+        });
+    }
+
+    /**
+     * Runs or resumes the latest run of {@code kind}, unless one is already in progress on this or another
+     * node; then reports that run as it stands. A database lock per kind makes one node the run's only driver.
+     */
+    private LedgerAuditReport run(LedgerAuditRun.Kind kind, ChunkWork work) {
+        ReentrantLock lock = running.get(kind);
+        if (!lock.tryLock()) {
+            log.info("Ledger {} run already in progress on this node", kind);
+            return inProgress(kind);
+        }
+        try {
+            return namedLocks.withLock(LOCK_NAME_PREFIX + kind.name().toLowerCase(Locale.ROOT), Duration.ZERO,
+                            jdbc -> runLocked(kind, work))
+                    .orElseGet(() -> {
+                        log.info("Ledger {} run already in progress on another node", kind);
+                        return inProgress(kind);
+                    });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private LedgerAuditReport runLocked(LedgerAuditRun.Kind kind, ChunkWork work) {
+        LedgerAuditRun run = startOrResume(kind);
+        try {
+            processChunks(run, work);
+            run.setStatus(LedgerAuditRun.Status.COMPLETED);
+            run.setFinishedAt(LocalDateTime.now());
+            log.info("Ledger {} run {} completed: {} wallets, {} discrepancies",
+                    kind, run.getId(), run.getWalletsProcessed(), run.getDiscrepancyCount());
+        } catch (RuntimeException e) {
+            run.setStatus(LedgerAuditRun.Status.FAILED);
+            log.error("Ledger {} run {} failed after wallet {}; the next run resumes from there",
+                    kind, run.getId(), run.getResumeAfterWalletId(), e);
+            throw e;
+        } finally {
+            ledgerAuditRunRepository.save(run);
+        }
+        return toReport(run);
+    }
+
+    /**
+     * The run in progress elsewhere may not have saved its first state yet.
+     */
+    private LedgerAuditReport inProgress(LedgerAuditRun.Kind kind) {
+        return latest(kind)
+                .filter(report -> LedgerAuditRun.Status.RUNNING.name().equals(report.getStatus()))
+                .orElseGet(() -> LedgerAuditReport.builder()
+                        .kind(kind.name())
+                        .status(LedgerAuditRun.Status.RUNNING.name())
+                        .discrepancies(List.of())
+                        .build());
+    }
+
+    /**
+     * Only called under the run lock, so a run that is not COMPLETED, even one still marked RUNNING, was left
+     * behind by a node that failed or stopped.
+     */
+    private LedgerAuditRun startOrResume(LedgerAuditRun.Kind kind) {
+        Optional<LedgerAuditRun> unfinished = ledgerAuditRunRepository.findFirstByKindOrderByIdDesc(kind)
+                .filter(run -> run.getStatus() != LedgerAuditRun.Status.COMPLETED);
+        if (unfinished.isPresent()) {
+            LedgerAuditRun run = unfinished.get();
+            log.info("Resuming ledger {} run {} after wallet {}", kind, run.getId(), run.getResumeAfterWalletId());
+            run.setStatus(LedgerAuditRun.Status.RUNNING);
+            return ledgerAuditRunRepository.save(run);
+        }
+        LedgerAuditRun run = new LedgerAuditRun();
+        run.setKind(kind);
+        run.setStatus(LedgerAuditRun.Status.RUNNING);
+        run.setStartedAt(LocalDateTime.now());
+        run.setCutoff(kind == LedgerAuditRun.Kind.SNAPSHOT ? run.getStartedAt().minus(settings.getSettleGrace()) : run.getStartedAt());
+        return ledgerAuditRunRepository.save(run);
+    }
+
+    /**
+     * Keeps up to {@code parallelism} chunks in flight and completes them in wallet-id order, so the
+     * saved resume point never skips a chunk that has not finished.
+     */
+    private void processChunks(LedgerAuditRun run, ChunkWork work) {
+        int parallelism = Math.max(1, settings.getParallelism());
+        Timer timer = chunkDuration.get(run.getKind());
+        Deque<Chunk> inFlight = new ArrayDeque<>();
+        long after = run.getResumeAfterWalletId();
+        boolean more = true;
+        try {
+            while (true) {
+                while (more && inFlight.size() < parallelism) {
+                    WalletRange range = ledgerAuditJdbcRepository.nextRange(after, settings.getChunkSize());
+                    if (range == null) {
+                        more = false;
+                    } else {
+                        inFlight.add(new Chunk(range, CompletableFuture.supplyAsync(
+                                () -> timer.record(() -> work.apply(run, range)), executor)));
+                        after = range.lastWalletId();
+                    }
+                }
+                Chunk done = inFlight.poll();
+                if (done == null) {
+                    return;
+                }
+                int discrepancies = done.result.join();
+                run.setResumeAfterWalletId(done.range.lastWalletId());
+                run.setWalletsProcessed(run.getWalletsProcessed() + done.range.wallets());
+                run.setDiscrepancyCount(run.getDiscrepancyCount() + discrepancies);
+                ledgerAuditRunRepository.save(run);
+            }
+        } catch (CompletionException e) {
+            inFlight.forEach(chunk -> chunk.result.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private LedgerAuditReport toReport(LedgerAuditRun run) {
+        List<LedgerDiscrepancyView> discrepancies = run.getKind() == LedgerAuditRun.Kind.AUDIT
+                ? ledgerAuditJdbcRepository.findRecordedDiscrepancies(run.getId(), settings.getMaxReportedDiscrepancies())
+                : List.of();
+        return LedgerAuditReport.builder()
+                .runId(run.getId())
+                .kind(run.getKind().name())
+                .status(run.getStatus().name())
+                .cutoff(run.getCutoff())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .walletsProcessed(run.getWalletsProcessed())
+                .discrepancyCount(run.getDiscrepancyCount())
+                .discrepancies(discrepancies)
+                .build();
+    }
+
+    /**
+     * Processes one chunk of a run and returns the discrepancies it found.
+     */
+    @FunctionalInterface
+    private interface ChunkWork {
+        int apply(LedgerAuditRun run, WalletRange range);
+    }
+
+    private record Chunk(WalletRange range, CompletableFuture<Integer> result) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.RabbitMQConfig;
+import com.wallet.wallet.dto.BatchOperation;
+import com.wallet.wallet.dto.TransactionEvent;
+import com.wallet.wallet.exception.InsufficientBalanceException;
+import com.wallet.wallet.exception.InvalidAmountException;
+import com.wallet.wallet.exception.TransactionAlreadyExistsException;
+import com.wallet.wallet.exception.WalletNotFoundException;
+import com.wallet.wallet.model.Money;
+import com.wallet.wallet.model.Transaction;
+import com.wallet.wallet.model.TransactionKey;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.model.Wallet;
+import com.wallet.wallet.repository.TransactionKeyRepository;
+import com.wallet.wallet.repository.TransactionRepository;
+import com.wallet.wallet.repository.WalletRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Applies many wallet operations inside one database transaction with a fixed number of round trips:
+ * chunked duplicate lookups, one locking read of all touched wallets, then JDBC-batched wallet updates,
+ * ledger inserts and outbox inserts at flush time.
+ * Operations are validated in order against each wallet's running balance, so a consume can spend
+ * funds credited by an earlier topup in the same batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerBatchWriter {
+
+    private static final int LOOKUP_CHUNK_SIZE = 1_000;
+
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionKeyRepository transactionKeyRepository;
+    private final OutboxWriter outboxWriter;
+    private final RecentTransactionIdFilter recentTransactionIdFilter;
+    private final BalanceCache balanceCache;
+    private final LiveReconciliation liveReconciliation;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @return one entry per operation, in order: {@code null} if it was applied, otherwise the exception
+     * explaining why it was rejected. Rejected operations leave no trace; the others commit with the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<RuntimeException> apply(List<BatchOperation> operations) {
+        Set<String> seenTransactionIds = findExistingTransactionIds(operations);
+        balanceCache.invalidateOnCompletion(operations.stream().map(BatchOperation::getWalletId).toList());
+        Map<Long, Wallet> wallets = lockWallets(operations);
+        Set<Long> newWalletIds = new HashSet<>();
+        Map<Long, Money> balances = new HashMap<>();
+        wallets.forEach((id, wallet) -> balances.put(id, wallet.getBalance()));
+
+        List<RuntimeException> failures = new ArrayList<>(Collections.nCopies(operations.size(), null));
+        List<Transaction> transactions = new ArrayList<>(operations.size());
+        List<TransactionEvent> events = new ArrayList<>(operations.size());
+
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            Long walletId = operation.getWalletId();
+            String transactionId = operation.getTransactionId();
+
+            if (recentTransactionIdFilter.contains(transactionId) || seenTransactionIds.contains(transactionId)) {
+                failures.set(i, new TransactionAlreadyExistsException("Transaction with ID " + transactionId + " already exists."));
+                continue;
+            }
+            Money amount;
+            Money credited;
+            Money balance = balances.get(walletId);
+            try {
+                amount = Money.of(operation.getAmount());
+                credited = operation.getType() == TransactionType.TOPUP ? (balance == null ? Money.ZERO : balance).plus(amount) : null;
+            } catch (ArithmeticException e) {
+                // Only this operation is rejected; its transaction ID stays free for a corrected retry
+                failures.set(i, new InvalidAmountException("Amount " + operation.getAmount() + " is out of range for wallet ID " + walletId));
+                continue;
+            }
+            seenTransactionIds.add(transactionId);
+            if (operation.getType() == TransactionType.TOPUP) {
+                if (balance == null) {
+                    wallets.put(walletId, createNewWallet(walletId));
+                    newWalletIds.add(walletId);
+                }
+                balances.put(walletId, credited);
+            } else if (balance == null) {
+                failures.set(i, new WalletNotFoundException("Wallet with ID " + walletId + " not found."));
+                continue;
+            } else if (balance.isLessThan(amount)) {
+                failures.set(i, new InsufficientBalanceException("Insufficient balance for wallet ID " + walletId));
+                continue;
+            } else {
+                balances.put(walletId, balance.minus(amount));
+            }
+
+            Transaction transaction = toTransaction(wallets.get(walletId), operation, amount);
+            transactions.add(transaction);
+            TransactionEvent event = TransactionEvent.of(transaction);
+            events.add(event);
+            outboxWriter.enqueue(RabbitMQConfig.QUEUE_NAME, event);
+        }
+
+        balances.forEach((walletId, balance) -> {
+            Wallet wallet = wallets.get(walletId);
+            wallet.setBalance(balance);
+            if (newWalletIds.contains(walletId)) {
+                entityManager.persist(wallet);
+            }
+        });
+        transactionKeyRepository.saveAll(transactions.stream().map(t -> new TransactionKey(t.getTransactionId())).toList());
+        transactionRepository.saveAll(transactions);
+        recentTransactionIdFilter.rememberAllAfterCommit(transactions.stream().map(Transaction::getTransactionId).toList());
+        liveReconciliation.recordAllAfterCommit(events);
+        return failures;
+    }
+
+    private Set<String> findExistingTransactionIds(List<BatchOperation> operations) {
+        List<String> transactionIds = operations.stream().map(BatchOperation::getTransactionId).toList();
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < transactionIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = transactionIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, transactionIds.size()));
+            existing.addAll(transactionKeyRepository.findExistingTransactionIds(chunk));
+        }
+        return existing;
+    }
+
+    /**
+     * Locks every wallet touched by the batch in ascending ID order, so two batches sharing wallets cannot deadlock.
+     */
+    private Map<Long, Wallet> lockWallets(List<BatchOperation> operations) {
+        Set<Long> walletIds = new TreeSet<>();
+        operations.forEach(operation -> walletIds.add(operation.getWalletId()));
+        Map<Long, Wallet> wallets = new HashMap<>();
+        walletRepository.findAllByIdForUpdate(walletIds).forEach(wallet -> wallets.put(wallet.getId(), wallet));
+        return wallets;
+    }
+
+    private Wallet createNewWallet(Long walletId) {
+        Wallet newWallet = new Wallet();
+        newWallet.setId(walletId);
+        newWallet.setBalance(Money.ZERO);
+        return newWallet;
+    }
+
+    private Transaction toTransaction(Wallet wallet, BatchOperation operation, Money amount) {
+        Transaction transaction = new Transaction();
+        transaction.setWallet(wallet);
+        transaction.setAmount(amount);
+        transaction.setTransactionId(operation.getTransactionId());
+        transaction.setType(operation.getType());
+        transaction.setCreatedAt(LocalDateTime.now());
+        return transaction;
+    }
+}
@@ -0,0 +1,327 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.LiveReconciliationStatus;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.dto.TransactionEvent;
+import com.wallet.wallet.dto.TransactionView;
+import com.wallet.wallet.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reconciles continuously instead of a day after the fact: every commit on this node and every settlement
+ * record received is looked up by transaction ID in one index of unmatched items, and a pair is classified
+ * the moment its second half arrives, exactly as the batch report would. Items still alone after the grace
+ * period age out as missing; a settlement record is first looked up in the ledger, which covers commits
+ * made on other nodes or before this node started. Counts are kept per day (the transaction's creation day,
+ * or the receipt day of a settlement record without one) and can be read at any time.
+ * Items that aged out are remembered for as long as their day, so a counterpart arriving after the grace
+ * moves the item's count to the pair's outcome rather than adding a second one.
+ * The batch report stays authoritative: this view starts empty on every restart.
+ * <p>
+ * Single node only. The index and counts live in this JVM and settlement records come from one queue with
+ * competing consumers, so with several nodes each sees only some of the commits and some of the records,
+ * and the counts it reports are neither its own share nor the whole day.
+ */
+@Component
+@Slf4j
+public class LiveReconciliation {
+
+    private static final int LOOKUP_CHUNK_SIZE = 1_000;
+
+    private final TransactionRepository transactionRepository;
+    private final WalletProperties.LiveReconciliation settings;
+    private final ConcurrentMap<String, Pending> pending = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AgedOut> agedOut = new ConcurrentHashMap<>();
+    private final ConcurrentMap<LocalDate, DayCounts> days = new ConcurrentHashMap<>();
+
+    public LiveReconciliation(TransactionRepository transactionRepository, WalletProperties walletProperties) {
+        this.transactionRepository = transactionRepository;
+        this.settings = walletProperties.getLiveReconciliation();
+    }
+
+    public void recordAfterCommit(TransactionEvent event) {
+        recordAllAfterCommit(List.of(event));
+    }
+
+    /**
+     * Indexes ledger rows once the surrounding transaction has committed; rolled-back work is never seen.
+     */
+    public void recordAllAfterCommit(Collection<TransactionEvent> events) {
+        if (!settings.isEnabled() || events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            events.forEach(this::recordInternal);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.forEach(LiveReconciliation.this::recordInternal);
+            }
+        });
+    }
+
+    public void recordExternal(ExternalTransaction external) {
+        if (settings.isEnabled()) {
+            arrive(external.getTransactionId(), null, external, LocalDate.now(), Instant.now());
+        }
+    }
+
+    void recordInternal(TransactionEvent event) {
+        TransactionDTO internal = TransactionDTO.builder()
+                .transactionId(event.getTransactionId())
+                .amount(event.getAmount())
+                .type(event.getType())
+                .createdAt(event.getCreatedAt())
+                .walletId(event.getWalletId())
+                .build();
+        arrive(event.getTransactionId(), internal, null, event.getCreatedAt().toLocalDate(), Instant.now());
+    }
+
+    /**
+     * Pairs the item with its waiting counterpart or leaves it waiting. A settlement record repeating one
+     * that is still waiting is missing in internal straight away, as in the batch report. A counterpart
+     * arriving after its item aged out moves that item's count to the pair's outcome.
+     */
+    private void arrive(String transactionId, TransactionDTO internal, ExternalTransaction external, LocalDate day, Instant now) {
+        Pending arriving = new Pending(internal, external, day, now);
+        Pending[] paired = new Pending[1];
+        AgedOut[] moved = new AgedOut[2];
+        Arrival[] arrival = new Arrival[1];
+        pending.compute(transactionId, (id, waiting) -> {
+            if (waiting == null) {
+                arrival[0] = arriveAfterAgeOut(id, internal, external, moved);
+                if (arrival[0] == null) {
+                    arrival[0] = pending.size() < settings.getMaxPending() ? Arrival.WAITING : Arrival.DROPPED;
+                    return arrival[0] == Arrival.WAITING ? arriving : null;
+                }
+                return null;
+            }
+            if (waiting.internal() == null && internal == null) {
+                arrival[0] = Arrival.REPEATED;
+                return waiting;
+            }
+            arrival[0] = Arrival.PAIRED;
+            paired[0] = waiting;
+            return null;
+        });
+
+        switch (arrival[0]) {
+            case WAITING -> counts(day).pending(internal != null).increment();
+            case DROPPED -> counts(day).dropped.increment();
+            case REPEATED -> counts(day).missingInInternal.increment();
+            case DUPLICATE -> log.debug("Ignored a repeated commit of {}", transactionId);
+            case PAIRED -> {
+                Pending waiting = paired[0];
+                counts(waiting.day()).pending(waiting.internal() != null).decrement();
+                TransactionDTO in = internal != null ? internal : waiting.internal();
+                ExternalTransaction ex = external != null ? external : waiting.external();
+                counts(in.getCreatedAt().toLocalDate()).outcome(ReconciliationRecord.of(transactionId, in, ex).getStatus()).increment();
+            }
+            case LATE -> {
+                AgedOut before = moved[0];
+                AgedOut after = moved[1];
+                if (before.status() != null) {
+                    counts(before.day()).outcome(before.status()).decrement();
+                }
+                counts(after.day()).outcome(after.status()).increment();
+            }
+        }
+    }
+
+    /**
+     * Settles an arrival against the record of an item that already aged out, if there is one.
+     * Runs under the pending entry's lock, so a sweep cannot age out the same ID meanwhile.
+     * @param moved receives the aged-out record before and after a late counterpart joins it
+     * @return how the arrival counts, or null if nothing with this ID aged out
+     */
+    private Arrival arriveAfterAgeOut(String transactionId, TransactionDTO internal, ExternalTransaction external, AgedOut[] moved) {
+        Arrival[] arrival = new Arrival[1];
+        agedOut.computeIfPresent(transactionId, (id, aged) -> {
+            if (internal == null && aged.external() != null) {
+                arrival[0] = Arrival.REPEATED;
+                return aged;
+            }
+            if (internal != null && aged.internal() != null) {
+                arrival[0] = Arrival.DUPLICATE;
+                return aged;
+            }
+            TransactionDTO in = internal != null ? internal : aged.internal();
+            ExternalTransaction ex = external != null ? external : aged.external();
+            arrival[0] = Arrival.LATE;
+            moved[0] = aged;
+            moved[1] = new AgedOut(in, ex, in.getCreatedAt().toLocalDate(), ReconciliationRecord.of(id, in, ex).getStatus());
+            return moved[1];
+        });
+        return arrival[0];
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.live-reconciliation.sweep-interval:10s}")
+    public void sweep() {
+        if (settings.isEnabled()) {
+            sweep(Instant.now());
+        }
+    }
+
+    /**
+     * Ages out everything that has waited longer than the grace period and forgets days past retention.
+     */
+    void sweep(Instant now) {
+        Instant cutoff = now.minus(settings.getGrace());
+        Map<String, Pending> agedExternal = new LinkedHashMap<>();
+        pending.forEach((transactionId, waiting) -> {
+            if (waiting.since().isBefore(cutoff)) {
+                pending.computeIfPresent(transactionId, (id, current) -> {
+                    if (current != waiting) {
+                        return current;
+                    }
+                    ageOut(id, waiting, agedExternal);
+                    return null;
+                });
+            }
+        });
+        resolveAgainstLedger(agedExternal);
+
+        LocalDate oldest = LocalDate.now().minusDays(settings.getRetainDays());
+        days.keySet().removeIf(day -> day.isBefore(oldest));
+        agedOut.values().removeIf(aged -> aged.day().isBefore(oldest));
+    }
+
+    /**
+     * Counts an internal item as missing in external, or queues a settlement record for the ledger lookup,
+     * and remembers it so a late counterpart can move the count.
+     */
+    private void ageOut(String transactionId, Pending waiting, Map<String, Pending> agedExternal) {
+        DayCounts counts = counts(waiting.day());
+        counts.pending(waiting.internal() != null).decrement();
+        ReconciliationRecord.Status status = null;
+        if (waiting.internal() != null) {
+            status = ReconciliationRecord.Status.MISSING_IN_EXTERNAL;
+            counts.missingInExternal.increment();
+        } else {
+            agedExternal.put(transactionId, waiting);
+        }
+        if (agedOut.size() < settings.getMaxPending()) {
+            agedOut.put(transactionId, new AgedOut(waiting.internal(), waiting.external(), waiting.day(), status));
+        }
+    }
+
+    private void resolveAgainstLedger(Map<String, Pending> agedExternal) {
+        if (agedExternal.isEmpty()) {
+            return;
+        }
+        LocalDateTime from = LocalDateTime.now().minus(settings.getLedgerLookback());
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        List<String> transactionIds = new ArrayList<>(agedExternal.keySet());
+        for (int start = 0; start < transactionIds.size(); start += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = transactionIds.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, transactionIds.size()));
+            Map<String, TransactionView> found = transactionRepository.findViewsByTransactionIdInCreatedBetween(chunk, from, to).stream()
+                    .collect(Collectors.toMap(TransactionView::transactionId, Function.identity()));
+            for (String transactionId : chunk) {
+                Pending waiting = agedExternal.get(transactionId);
+                TransactionView view = found.get(transactionId);
+                TransactionDTO internal = view == null ? null : view.toDTO();
+                LocalDate day = view == null ? waiting.day() : view.createdAt().toLocalDate();
+                ReconciliationRecord.Status status = ReconciliationRecord.of(transactionId, internal, waiting.external()).getStatus();
+                boolean[] settled = {false};
+                agedOut.computeIfPresent(transactionId, (id, aged) -> {
+                    if (aged.internal() != null) {
+                        settled[0] = true;
+                        return aged;
+                    }
+                    return new AgedOut(internal, aged.external(), day, status);
+                });
+                if (!settled[0]) {
+                    counts(day).outcome(status).increment();
+                }
+            }
+        }
+        log.debug("Aged out {} unmatched settlement records", agedExternal.size());
+    }
+
+    public LiveReconciliationStatus status(LocalDate date) {
+        DayCounts counts = days.getOrDefault(date, new DayCounts());
+        return LiveReconciliationStatus.builder()
+                .date(date.toString())
+                .enabled(settings.isEnabled())
+                .matchedCount(counts.matched.sum())
+                .mismatchedCount(counts.mismatched.sum())
+                .missingInExternalCount(counts.missingInExternal.sum())
+                .missingInInternalCount(counts.missingInInternal.sum())
+                .pendingInternalCount(counts.pendingInternal.sum())
+                .pendingExternalCount(counts.pendingExternal.sum())
+                .droppedCount(counts.dropped.sum())
+                .build();
+    }
+
+    private DayCounts counts(LocalDate day) {
+        return days.computeIfAbsent(day, d -> new DayCounts());
+    }
+
+    /**
+     * One side of a transaction waiting for the other; exactly one of {@code internal} and {@code external} is set.
+     */
+    private record Pending(TransactionDTO internal, ExternalTransaction external, LocalDate day, Instant since) {
+    }
+
+    /**
+     * An item that aged out and the outcome it is counted under; {@code status} is null while a settlement
+     * record's ledger lookup is under way. Kept as long as its day so a late counterpart replaces the count.
+     */
+    private record AgedOut(TransactionDTO internal, ExternalTransaction external, LocalDate day, ReconciliationRecord.Status status) {
+    }
+
+    private enum Arrival {
+        WAITING,
+        PAIRED,
+        LATE,
+        REPEATED,
+        DUPLICATE,
+        DROPPED
+    }
+
+    private static final class DayCounts {
+        final LongAdder matched = new LongAdder();
+        final LongAdder mismatched = new LongAdder();
+        final LongAdder missingInExternal = new LongAdder();
+        final LongAdder missingInInternal = new LongAdder();
+        final LongAdder pendingInternal = new LongAdder();
+        final LongAdder pendingExternal = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+
+        LongAdder pending(boolean internal) {
+            return internal ? pendingInternal : pendingExternal;
+        }
+
+        LongAdder outcome(ReconciliationRecord.Status status) {
+            return switch (status) {
+                case MATCHED -> matched;
+                case MISMATCHED -> mismatched;
+                case MISSING_IN_EXTERNAL -> missingInExternal;
+                case MISSING_IN_INTERNAL -> missingInInternal;
+            };
+        }
+    }
+}
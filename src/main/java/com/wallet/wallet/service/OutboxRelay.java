@@ -0,0 +1,94 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.model.OutboxEvent;
+import com.wallet.wallet.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Background publisher draining the outbox table to RabbitMQ.
+ * Each batch is claimed with SKIP LOCKED, published on one channel, confirmed by the broker and only
+ * then deleted in the same database transaction. If the broker is slow or down the rows simply stay
+ * put and are retried on the next tick, which gives at-least-once delivery; consumers can use the
+ * message id (the outbox row id) to drop the occasional duplicate.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletProperties.Outbox settings;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       PlatformTransactionManager transactionManager,
+                       WalletProperties walletProperties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = walletProperties.getOutbox();
+    }
+
+    /**
+     * Publishes full batches back to back until the outbox is drained or the broker fails.
+     */
+    @Scheduled(fixedDelayString = "${wallet.outbox.flush-interval:200ms}")
+    public void relay() {
+        if (!settings.isRelayEnabled()) {
+            return;
+        }
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> relayBatch());
+            } while (published != null && published == settings.getBatchSize());
+        } catch (AmqpException e) {
+            log.warn("Outbox relay could not publish, will retry on the next run: {}", e.getMessage());
+        }
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findByOrderByIdAsc(Limit.of(settings.getBatchSize()));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : batch) {
+                operations.send(event.getDestination(), toMessage(event));
+            }
+            operations.waitForConfirmsOrDie(settings.getConfirmTimeout().toMillis());
+            return null;
+        });
+
+        outboxEventRepository.deleteAllInBatch(batch);
+        log.debug("Relayed {} outbox events", batch.size());
+        return batch.size();
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setMessageId(String.valueOf(event.getId()));
+        properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getPayloadType());
+        return new Message(event.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -0,0 +1,40 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.model.OutboxEvent;
+import com.wallet.wallet.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Records outgoing messages in the outbox table as part of the caller's database transaction.
+ * Messages are converted with the same converter the RabbitTemplate uses, so consumers see the
+ * same payload and type headers as a direct publish would have produced.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MessageConverter messageConverter;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String destination, Object payload) {
+        Message message = messageConverter.toMessage(payload, new MessageProperties());
+
+        OutboxEvent event = new OutboxEvent();
+        event.setDestination(destination);
+        event.setPayloadType(message.getMessageProperties().getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME));
+        event.setPayload(new String(message.getBody(), StandardCharsets.UTF_8));
+        event.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+}
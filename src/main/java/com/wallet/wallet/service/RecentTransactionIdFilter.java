@@ -0,0 +1,72 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, node-local memory of recently committed transaction IDs.
+ * Only committed IDs are remembered, so a hit is always a real duplicate; a miss proves nothing and
+ * leaves the decision to the primary key of {@code transaction_keys}.
+ * Once full, the oldest remembered ID is forgotten first.
+ */
+@Component
+public class RecentTransactionIdFilter {
+
+    private final int capacity;
+    private final Set<String> ids = ConcurrentHashMap.newKeySet();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public RecentTransactionIdFilter(WalletProperties walletProperties) {
+        this.capacity = walletProperties.getIdempotency().getRecentIdCapacity();
+    }
+
+    public boolean contains(String transactionId) {
+        return capacity > 0 && ids.contains(transactionId);
+    }
+
+    public void remember(String transactionId) {
+        if (capacity <= 0 || !ids.add(transactionId)) {
+            return;
+        }
+        insertionOrder.add(transactionId);
+        if (size.incrementAndGet() > capacity) {
+            String eldest = insertionOrder.poll();
+            if (eldest != null) {
+                ids.remove(eldest);
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Remembers the ID once the surrounding database transaction commits, so a rolled-back attempt
+     * (e.g. insufficient funds) can still be retried with the same ID.
+     */
+    public void rememberAfterCommit(String transactionId) {
+        rememberAllAfterCommit(List.of(transactionId));
+    }
+
+    public void rememberAllAfterCommit(Collection<String> transactionIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionIds.forEach(this::remember);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                transactionIds.forEach(RecentTransactionIdFilter.this::remember);
+            }
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package com.wallet.wallet.service;
+
+import com.opencsv.CSVWriter;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationSummary;
+import com.wallet.wallet.dto.TransactionDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a reconciliation report as CSV while the reconciliation is still running.
+ * Records are written in transaction ID order with a status column, and the summary counts follow
+ * as a trailer once they are known. The header goes out immediately and the output is flushed
+ * regularly, so clients start receiving data at once and memory stays constant.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReconciliationCsvExporter {
+
+    private static final int FLUSH_EVERY_RECORDS = 1_000;
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
+    private final DayReconciler dayReconciler;
+
+    /**
+     * @param gzip whether to gzip the output; the caller sets the matching Content-Encoding
+     */
+    public void export(LocalDate date, OutputStream out, boolean gzip) throws IOException {
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE, true) : null;
+        OutputStream target = gzip ? gzipStream : out;
+        CSVWriter csvWriter = new CSVWriter(new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8)));
+
+        csvWriter.writeNext(new String[]{"Reconciliation Report"});
+        csvWriter.writeNext(new String[]{"Report Date:", date.toString()});
+        csvWriter.writeNext(new String[]{});
+        csvWriter.writeNext(new String[]{"Status", "Transaction ID", "Internal Amount", "External Amount", "Type", "Timestamp", "Wallet ID"});
+        csvWriter.flush();
+
+        ReconciliationSummary summary;
+        try {
+            long[] written = {0};
+            summary = dayReconciler.reconcile(date, record -> {
+                csvWriter.writeNext(toRow(record));
+                if (++written[0] % FLUSH_EVERY_RECORDS == 0) {
+                    csvWriter.flush();
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            // The status line is long gone; leave a marker so the truncated report is not mistaken for a complete one
+            log.error("Reconciliation export for {} failed", date, e);
+            csvWriter.writeNext(new String[]{});
+            csvWriter.writeNext(new String[]{"Reconciliation Failed", "The report above is incomplete."});
+            finish(csvWriter, gzipStream);
+            throw e;
+        }
+
+        // --- Summary Trailer ---
+        csvWriter.writeNext(new String[]{});
+        csvWriter.writeNext(new String[]{"Reconciliation Summary"});
+        csvWriter.writeNext(new String[]{"Total Internal Transactions:", String.valueOf(summary.getTotalInternalTransactions())});
+        csvWriter.writeNext(new String[]{"Total External Transactions:", String.valueOf(summary.getTotalExternalTransactions())});
+        csvWriter.writeNext(new String[]{"Matched:", String.valueOf(summary.getMatchedCount())});
+        csvWriter.writeNext(new String[]{"Mismatched:", String.valueOf(summary.getMismatchedCount())});
+        csvWriter.writeNext(new String[]{"Missing in External:", String.valueOf(summary.getMissingInExternalCount())});
+        csvWriter.writeNext(new String[]{"Missing in Internal:", String.valueOf(summary.getMissingInInternalCount())});
+        finish(csvWriter, gzipStream);
+    }
+
+    /**
+     * Flushes everything and completes the gzip trailer without closing the response stream,
+     * which belongs to the servlet container.
+     */
+    private static void finish(CSVWriter csvWriter, GZIPOutputStream gzipStream) throws IOException {
+        csvWriter.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+    }
+
+    private static String[] toRow(ReconciliationRecord record) {
+        TransactionDTO internal = record.getInternal();
+        ExternalTransaction external = record.getExternal();
+        return new String[]{
+                record.getStatus().name(),
+                record.getTransactionId(),
+                internal == null ? "" : internal.getAmount().toString(),
+                external == null ? "" : external.getAmount().toString(),
+                internal == null ? "" : internal.getType().toString(),
+                internal == null || internal.getCreatedAt() == null ? "" : internal.getCreatedAt().toString(),
+                internal == null ? "" : String.valueOf(internal.getWalletId())
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationSummary;
+import com.wallet.wallet.dto.TransactionDTO;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * An open, pull-based reconciliation of one day: records come out in transaction ID order only as fast as
+ * the caller asks for them. The internal side holds a database connection until the cursor is closed.
+ */
+public class ReconciliationCursor implements Iterator<ReconciliationRecord>, AutoCloseable {
+
+    private final LocalDate date;
+    private final Stream<TransactionDTO> internal;
+    private final Stream<ExternalTransaction> external;
+    private final ReconciliationMerger merger;
+    private final long[] counts = new long[ReconciliationRecord.Status.values().length];
+
+    ReconciliationCursor(LocalDate date, Stream<TransactionDTO> internal, Stream<ExternalTransaction> external) {
+        this.date = date;
+        this.internal = internal;
+        this.external = external;
+        try {
+            this.merger = new ReconciliationMerger(internal.iterator(), external.iterator());
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return merger.hasNext();
+    }
+
+    @Override
+    public ReconciliationRecord next() {
+        ReconciliationRecord record = merger.next();
+        counts[record.getStatus().ordinal()]++;
+        return record;
+    }
+
+    /**
+     * Counts of the records returned so far; the day's totals once the cursor is exhausted.
+     */
+    public ReconciliationSummary summary() {
+        long matched = counts[ReconciliationRecord.Status.MATCHED.ordinal()];
+        long mismatched = counts[ReconciliationRecord.Status.MISMATCHED.ordinal()];
+        long missingInExternal = counts[ReconciliationRecord.Status.MISSING_IN_EXTERNAL.ordinal()];
+        long missingInInternal = counts[ReconciliationRecord.Status.MISSING_IN_INTERNAL.ordinal()];
+        return ReconciliationSummary.builder()
+                .reportDate(date.toString())
+                .totalInternalTransactions(matched + mismatched + missingInExternal)
+                .totalExternalTransactions(matched + mismatched + missingInInternal)
+                .matchedCount(matched)
+                .mismatchedCount(mismatched)
+                .missingInExternalCount(missingInExternal)
+                .missingInInternalCount(missingInInternal)
+                .build();
+    }
+
+    @Override
+    public void close() {
+        try (external) {
+            internal.close();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationReport;
+import com.wallet.wallet.dto.ReconciliationReport.MatchRule;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.Money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Pairs a day's ledger transactions with the indexed settlement records in stages, each looking only at
+ * what the earlier ones left unpaired:
+ * <ol>
+ *     <li>{@code EXACT_ID}: the same transaction ID. Always applied.</li>
+ *     <li>{@code NORMALIZED_ID}: the same ID once case, whitespace and punctuation are ignored, so
+ *     {@code txn_00042} pairs with {@code TXN-00042}. IDs that normalize alike on either side are left alone.</li>
+ *     <li>{@code AMOUNT_TOLERANCE}: a pair found by ID whose amounts differ by at most the tolerance, such as
+ *     a processor fee or a rounding difference, is a match rather than a mismatch.</li>
+ *     <li>{@code UNIQUE_AMOUNT}: a leftover ledger transaction and a leftover settlement record pair when each
+ *     is the other's only candidate within the tolerance. Settlement files carry no times, so the day the
+ *     report covers is the only time window.</li>
+ * </ol>
+ * ID stages look candidates up by hash and {@code UNIQUE_AMOUNT} through buckets as wide as the tolerance,
+ * never by scanning one side for each item of the other, so a day costs close to linear time in its size.
+ * Not thread-safe: it marks entries of the index it is given.
+ */
+public final class ReconciliationMatcher {
+
+    private static final int AMBIGUOUS = -1;
+
+    private final Set<MatchRule> rules;
+    private final BigDecimal tolerance;
+    private final long bucketWidth;
+
+    /**
+     * @param amountTolerance largest absolute amount difference still matched, when {@code AMOUNT_TOLERANCE} is enabled
+     */
+    public ReconciliationMatcher(Collection<MatchRule> rules, BigDecimal amountTolerance) {
+        this.rules = rules.isEmpty() ? EnumSet.of(MatchRule.EXACT_ID) : EnumSet.copyOf(rules);
+        this.rules.add(MatchRule.EXACT_ID);
+        this.tolerance = this.rules.contains(MatchRule.AMOUNT_TOLERANCE) ? amountTolerance.abs() : BigDecimal.ZERO;
+        this.bucketWidth = Math.max(1, clampedMinorUnits(tolerance));
+    }
+
+    /**
+     * Pairs by transaction ID and exact amount only.
+     */
+    public static ReconciliationMatcher exact() {
+        return new ReconciliationMatcher(EnumSet.of(MatchRule.EXACT_ID), BigDecimal.ZERO);
+    }
+
+    /**
+     * Whether anything beyond exact ID pairing is enabled.
+     */
+    public boolean isTolerant() {
+        return rules.size() > 1;
+    }
+
+    public ReconciliationReport match(LocalDate date, List<TransactionDTO> internalTransactions, CompactTransactionIndex external) {
+        return match(date, internalTransactions, external, List.of());
+    }
+
+    /**
+     * @param repeatedExternal settlement records whose ID is already in {@code external}; as in the streaming
+     *                         merge, only the first is paired and these are all missing in internal
+     */
+    public ReconciliationReport match(LocalDate date, List<TransactionDTO> internalTransactions, CompactTransactionIndex external,
+                                      List<ExternalTransaction> repeatedExternal) {
+        Pairing pairing = new Pairing();
+        List<Integer> unpaired = new ArrayList<>();
+        for (int i = 0; i < internalTransactions.size(); i++) {
+            TransactionDTO internalTx = internalTransactions.get(i);
+            int entry = external.find(internalTx.getTransactionId());
+            if (entry < 0) {
+                unpaired.add(i);
+            } else {
+                pairing.pairById(internalTx, external, entry, MatchRule.EXACT_ID);
+            }
+        }
+        if (rules.contains(MatchRule.NORMALIZED_ID) && !unpaired.isEmpty()) {
+            unpaired = matchNormalizedIds(internalTransactions, unpaired, external, pairing);
+        }
+        if (rules.contains(MatchRule.UNIQUE_AMOUNT) && !unpaired.isEmpty()) {
+            unpaired = matchUniqueAmounts(internalTransactions, unpaired, external, pairing);
+        }
+
+        List<TransactionDTO> missingInExternal = new ArrayList<>(unpaired.size());
+        unpaired.forEach(i -> missingInExternal.add(internalTransactions.get(i)));
+        List<ExternalTransaction> missingInInternal = new ArrayList<>();
+        for (int entry = 0; entry < external.size(); entry++) {
+            if (!external.isPaired(entry)) {
+                missingInInternal.add(new ExternalTransaction(external.transactionId(entry), external.amount(entry)));
+            }
+        }
+        missingInInternal.addAll(repeatedExternal);
+
+        return ReconciliationReport.builder()
+                .reportDate(date.toString())
+                .totalInternalTransactions(internalTransactions.size())
+                .totalExternalTransactions(external.size() + repeatedExternal.size())
+                .matchedCount(pairing.matched.size())
+                .mismatchedCount(pairing.mismatched.size())
+                .missingInExternalCount(missingInExternal.size())
+                .missingInInternalCount(missingInInternal.size())
+                .matched(pairing.matched)
+                .mismatched(pairing.mismatched)
+                .missingInExternal(missingInExternal)
+                .missingInInternal(missingInInternal)
+                .matchedCountByRule(pairing.countsByRule)
+                .tolerantMatches(pairing.tolerantMatches)
+                .build();
+    }
+
+    private List<Integer> matchNormalizedIds(List<TransactionDTO> internalTransactions, List<Integer> unpaired,
+                                             CompactTransactionIndex external, Pairing pairing) {
+        Map<String, Integer> externalByKey = new HashMap<>();
+        for (int entry = 0; entry < external.size(); entry++) {
+            if (!external.isPaired(entry)) {
+                externalByKey.merge(normalize(external.transactionId(entry)), entry, (a, b) -> AMBIGUOUS);
+            }
+        }
+        Map<String, Integer> internalByKey = new HashMap<>();
+        unpaired.forEach(i -> internalByKey.merge(normalize(internalTransactions.get(i).getTransactionId()), i, (a, b) -> AMBIGUOUS));
+
+        List<Integer> stillUnpaired = new ArrayList<>();
+        for (int i : unpaired) {
+            TransactionDTO internalTx = internalTransactions.get(i);
+            String key = normalize(internalTx.getTransactionId());
+            Integer entry = externalByKey.get(key);
+            if (entry != null && entry != AMBIGUOUS && internalByKey.get(key) == i) {
+                pairing.pairById(internalTx, external, entry, MatchRule.NORMALIZED_ID);
+            } else {
+                stillUnpaired.add(i);
+            }
+        }
+        return stillUnpaired;
+    }
+
+    private List<Integer> matchUniqueAmounts(List<TransactionDTO> internalTransactions, List<Integer> unpaired,
+                                             CompactTransactionIndex external, Pairing pairing) {
+        AmountBuckets externalBuckets = new AmountBuckets(external::amount);
+        for (int entry = 0; entry < external.size(); entry++) {
+            if (!external.isPaired(entry)) {
+                externalBuckets.add(entry);
+            }
+        }
+        AmountBuckets internalBuckets = new AmountBuckets(i -> internalTransactions.get(i).getAmount());
+        unpaired.forEach(internalBuckets::add);
+
+        List<Integer> stillUnpaired = new ArrayList<>();
+        for (int i : unpaired) {
+            TransactionDTO internalTx = internalTransactions.get(i);
+            int entry = externalBuckets.onlyCandidate(internalTx.getAmount());
+            if (entry >= 0 && internalBuckets.onlyCandidate(external.amount(entry)) == i) {
+                external.markPaired(entry);
+                pairing.matched(internalTx, external.transactionId(entry), external.amount(entry), MatchRule.UNIQUE_AMOUNT);
+            } else {
+                stillUnpaired.add(i);
+            }
+        }
+        return stillUnpaired;
+    }
+
+    private boolean withinTolerance(BigDecimal a, BigDecimal b) {
+        return a.subtract(b).abs().compareTo(tolerance) <= 0;
+    }
+
+    /**
+     * Minor units of {@code amount}, clamped to the range of a long; the index keeps amounts beyond it exactly,
+     * and they all land in the outermost buckets, where {@link #withinTolerance} still compares them exactly.
+     */
+    private static long clampedMinorUnits(BigDecimal amount) {
+        BigInteger minorUnits = amount.setScale(Money.SCALE, RoundingMode.HALF_UP).unscaledValue();
+        if (minorUnits.bitLength() < Long.SIZE) {
+            return minorUnits.longValue();
+        }
+        return minorUnits.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+    }
+
+    static String normalize(String transactionId) {
+        StringBuilder key = new StringBuilder(transactionId.length());
+        transactionId.codePoints()
+                .filter(Character::isLetterOrDigit)
+                .map(Character::toUpperCase)
+                .forEach(key::appendCodePoint);
+        return key.toString();
+    }
+
+    /**
+     * Outcomes collected across the stages.
+     */
+    private final class Pairing {
+        final List<TransactionDTO> matched = new ArrayList<>();
+        final Map<String, ReconciliationReport.MismatchDetail> mismatched = new HashMap<>();
+        final Map<MatchRule, Integer> countsByRule = new EnumMap<>(MatchRule.class);
+        final List<ReconciliationReport.TolerantMatch> tolerantMatches = new ArrayList<>();
+
+        void pairById(TransactionDTO internalTx, CompactTransactionIndex external, int entry, MatchRule rule) {
+            external.markPaired(entry);
+            if (external.amountEquals(entry, internalTx.getAmount())) {
+                matched(internalTx, rule == MatchRule.EXACT_ID ? null : external.transactionId(entry), null, rule);
+            } else if (withinTolerance(internalTx.getAmount(), external.amount(entry))) {
+                matched(internalTx, external.transactionId(entry), external.amount(entry), MatchRule.AMOUNT_TOLERANCE);
+            } else {
+                mismatched.put(internalTx.getTransactionId(), ReconciliationReport.MismatchDetail.builder()
+                        .internalAmount(internalTx.getAmount())
+                        .externalAmount(external.amount(entry))
+                        .externalTransactionId(rule == MatchRule.EXACT_ID ? null : external.transactionId(entry))
+                        .build());
+            }
+        }
+
+        void matched(TransactionDTO internalTx, String externalTransactionId, BigDecimal externalAmount, MatchRule rule) {
+            matched.add(internalTx);
+            countsByRule.merge(rule, 1, Integer::sum);
+            if (rule != MatchRule.EXACT_ID) {
+                tolerantMatches.add(ReconciliationReport.TolerantMatch.builder()
+                        .internalTransactionId(internalTx.getTransactionId())
+                        .externalTransactionId(externalTransactionId)
+                        .rule(rule)
+                        .internalAmount(internalTx.getAmount())
+                        .externalAmount(externalAmount == null ? internalTx.getAmount() : externalAmount)
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * Items of one side bucketed by amount in minor units; a bucket is as wide as the tolerance, so every
+     * candidate within the tolerance of an amount is in its bucket or one of the two beside it.
+     */
+    private final class AmountBuckets {
+        private final Map<Long, List<Integer>> buckets = new HashMap<>();
+        private final IntFunction<BigDecimal> amountOf;
+
+        AmountBuckets(IntFunction<BigDecimal> amountOf) {
+            this.amountOf = amountOf;
+        }
+
+        void add(int item) {
+            buckets.computeIfAbsent(bucket(amountOf.apply(item)), b -> new ArrayList<>(1)).add(item);
+        }
+
+        /**
+         * @return the single item within the tolerance of {@code amount}, or -1 if there is none or more than one
+         */
+        int onlyCandidate(BigDecimal amount) {
+            long bucket = bucket(amount);
+            int found = -1;
+            // bucket + offset may wrap at the ends of the range, which only adds candidates that fail the tolerance check
+            for (int offset = -1; offset <= 1; offset++) {
+                for (int item : buckets.getOrDefault(bucket + offset, List.of())) {
+                    if (withinTolerance(amount, amountOf.apply(item))) {
+                        if (found >= 0) {
+                            return -1;
+                        }
+                        found = item;
+                    }
+                }
+            }
+            return found;
+        }
+
+        private long bucket(BigDecimal amount) {
+            return Math.floorDiv(clampedMinorUnits(amount), bucketWidth);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.TransactionDTO;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Merge-joins internal and external transactions, both sorted by transaction ID, into reconciliation
+ * records. Only the current head of each side is held, so memory does not depend on the size of the day.
+ * Out-of-order input fails fast instead of silently producing wrong results; repeated external IDs are
+ * reported as missing in internal after the first one has been paired.
+ */
+public class ReconciliationMerger implements Iterator<ReconciliationRecord> {
+
+    private final Iterator<TransactionDTO> internal;
+    private final Iterator<ExternalTransaction> external;
+
+    private TransactionDTO internalHead;
+    private ExternalTransaction externalHead;
+
+    public ReconciliationMerger(Iterator<TransactionDTO> internal, Iterator<ExternalTransaction> external) {
+        this.internal = internal;
+        this.external = external;
+        this.internalHead = nextInternal(null);
+        this.externalHead = nextExternal(null);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return internalHead != null || externalHead != null;
+    }
+
+    @Override
+    public ReconciliationRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int order = internalHead == null ? 1
+                : externalHead == null ? -1
+                : internalHead.getTransactionId().compareTo(externalHead.getTransactionId());
+
+        ReconciliationRecord record;
+        if (order < 0) {
+            record = ReconciliationRecord.of(internalHead.getTransactionId(), internalHead, null);
+            internalHead = nextInternal(internalHead);
+        } else if (order > 0) {
+            record = ReconciliationRecord.of(externalHead.getTransactionId(), null, externalHead);
+            externalHead = nextExternal(externalHead);
+        } else {
+            record = ReconciliationRecord.of(internalHead.getTransactionId(), internalHead, externalHead);
+            internalHead = nextInternal(internalHead);
+            externalHead = nextExternal(externalHead);
+        }
+        return record;
+    }
+
+    private TransactionDTO nextInternal(TransactionDTO previous) {
+        if (!internal.hasNext()) {
+            return null;
+        }
+        TransactionDTO next = internal.next();
+        if (previous != null && previous.getTransactionId().compareTo(next.getTransactionId()) >= 0) {
+            throw new IllegalStateException("Internal transactions are not sorted by transaction ID: "
+                    + next.getTransactionId() + " after " + previous.getTransactionId());
+        }
+        return next;
+    }
+
+    private ExternalTransaction nextExternal(ExternalTransaction previous) {
+        if (!external.hasNext()) {
+            return null;
+        }
+        ExternalTransaction next = external.next();
+        if (previous != null && previous.getTransactionId().compareTo(next.getTransactionId()) > 0) {
+            throw new IllegalStateException("External transactions are not sorted by transaction ID: "
+                    + next.getTransactionId() + " after " + previous.getTransactionId());
+        }
+        return next;
+    }
+}
@@ -0,0 +1,46 @@
+package com.wallet.wallet.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-phase timers for {@link ReconciliationService}, registered up front and tagged {@code phase}.
+ */
+@Component
+public class ReconciliationMetrics {
+
+    public enum Phase {
+        /** Reading the processor's settlement file into memory (in-memory report). */
+        FILE_READ,
+        /** Loading the day's ledger rows (in-memory report). */
+        DB_LOAD,
+        /** Turning ledger rows into DTOs (in-memory report). */
+        DTO_MAPPING,
+        /** Matching both sides by transaction ID (in-memory report). */
+        MATCHING,
+        /** Reading and sorting the settlement file, spilling to disk for large days (streaming modes). */
+        EXTERNAL_SORT,
+        /** Merge-joining the sorted file with the ledger cursor, including the consumer's time (streaming modes). */
+        MERGE
+    }
+
+    private final Map<Phase, Timer> timers = new EnumMap<>(Phase.class);
+
+    public ReconciliationMetrics(MeterRegistry meterRegistry) {
+        for (Phase phase : Phase.values()) {
+            timers.put(phase, Timer.builder("reconciliation.phase")
+                    .description("Time spent in one phase of a reconciliation")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    public Timer phase(Phase phase) {
+        return timers.get(phase);
+    }
+}
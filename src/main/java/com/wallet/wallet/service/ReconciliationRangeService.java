@@ -0,0 +1,197 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRangeReport;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationSummary;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.exception.InvalidDateRangeException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Reconciles a range of days, several at a time on a bounded pool, then runs a boundary pass over each
+ * pair of adjacent days. A ledger transaction created within the tolerance window of midnight that one
+ * day reports as missing in external is paired with the same ID reported missing in internal on the
+ * other side of midnight. Only the missing records of each day are kept for that pass; external rows
+ * carry no timestamp, so every missing-in-internal row of a day is a candidate.
+ */
+@Service
+@Slf4j
+public class ReconciliationRangeService {
+
+    private final DayReconciler dayReconciler;
+    private final int maxRangeDays;
+    private final Duration tolerance;
+    private final ExecutorService executor;
+
+    public ReconciliationRangeService(DayReconciler dayReconciler, WalletProperties walletProperties) {
+        WalletProperties.Reconciliation settings = walletProperties.getReconciliation();
+        this.dayReconciler = dayReconciler;
+        this.maxRangeDays = settings.getMaxRangeDays();
+        this.tolerance = settings.getCrossMidnightTolerance();
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, settings.getRangeParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "reconciliation-range-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param from first day of the range
+     * @param to last day of the range, inclusive
+     * @throws InvalidDateRangeException if {@code to} is before {@code from} or the range is longer than allowed
+     */
+    public ReconciliationRangeReport reconcile(LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days < 1 || days > maxRangeDays) {
+            throw new InvalidDateRangeException("A reconciliation range must cover 1 to " + maxRangeDays + " days, not " + days);
+        }
+        log.info("Reconciling {} days from {} to {}", days, from, to);
+
+        List<CompletableFuture<DayResult>> futures = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            LocalDate day = date;
+            futures.add(CompletableFuture.supplyAsync(() -> reconcileDay(day), executor));
+        }
+        List<DayResult> results = new ArrayList<>(futures.size());
+        try {
+            futures.forEach(future -> results.add(future.join()));
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        List<ReconciliationRangeReport.CrossDayMatch> crossDayMatches = new ArrayList<>();
+        for (int i = 0; i + 1 < results.size(); i++) {
+            DayResult earlier = results.get(i);
+            DayResult later = results.get(i + 1);
+            LocalDateTime midnight = later.date.atStartOfDay();
+            // Created just before midnight, settled on the next day's file
+            pair(earlier, later, transaction -> !transaction.getCreatedAt().isBefore(midnight.minus(tolerance)), crossDayMatches);
+            // Created just after midnight, settled on the previous day's file
+            pair(later, earlier, transaction -> transaction.getCreatedAt().isBefore(midnight.plus(tolerance)), crossDayMatches);
+        }
+
+        long matched = 0;
+        long mismatched = 0;
+        long missingInExternal = 0;
+        long missingInInternal = 0;
+        for (DayResult result : results) {
+            matched += result.summary.getMatchedCount();
+            mismatched += result.summary.getMismatchedCount();
+            missingInExternal += result.summary.getMissingInExternalCount();
+            missingInInternal += result.summary.getMissingInInternalCount();
+        }
+        for (ReconciliationRangeReport.CrossDayMatch match : crossDayMatches) {
+            if (match.getStatus() == ReconciliationRecord.Status.MATCHED) {
+                matched++;
+            } else {
+                mismatched++;
+            }
+            missingInExternal--;
+            missingInInternal--;
+        }
+
+        return ReconciliationRangeReport.builder()
+                .from(from)
+                .to(to)
+                .days(results.stream().map(result -> result.summary).toList())
+                .crossDayMatches(crossDayMatches)
+                .matchedCount(matched)
+                .mismatchedCount(mismatched)
+                .missingInExternalCount(missingInExternal)
+                .missingInInternalCount(missingInInternal)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private DayResult reconcileDay(LocalDate date) {
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
+        DayResult result = new DayResult(date);
+        try {
+            result.summary = dayReconciler.reconcile(date, record -> {
+                if (record.getStatus() == ReconciliationRecord.Status.MISSING_IN_INTERNAL) {
+                    result.missingInInternal.putIfAbsent(record.getTransactionId(), record.getExternal());
+                } else if (record.getStatus() == ReconciliationRecord.Status.MISSING_IN_EXTERNAL) {
+                    LocalDateTime createdAt = record.getInternal().getCreatedAt();
+                    if (createdAt.isBefore(dayStart.plus(tolerance)) || !createdAt.isBefore(dayEnd.minus(tolerance))) {
+                        result.missingInExternal.put(record.getTransactionId(), record.getInternal());
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reconciling " + date, e);
+        }
+        return result;
+    }
+
+    /**
+     * Pairs the internal day's boundary candidates accepted by {@code nearMidnight} with the external
+     * day's missing external rows of the same ID. Paired rows are removed from both days.
+     */
+    private static void pair(DayResult internalDay, DayResult externalDay,
+                             Predicate<TransactionDTO> nearMidnight,
+                             List<ReconciliationRangeReport.CrossDayMatch> matches) {
+        internalDay.missingInExternal.values().removeIf(transaction -> {
+            if (!nearMidnight.test(transaction)) {
+                return false;
+            }
+            ExternalTransaction external = externalDay.missingInInternal.remove(transaction.getTransactionId());
+            if (external == null) {
+                return false;
+            }
+            matches.add(ReconciliationRangeReport.CrossDayMatch.builder()
+                    .transactionId(transaction.getTransactionId())
+                    .status(transaction.getAmount().compareTo(external.getAmount()) == 0
+                            ? ReconciliationRecord.Status.MATCHED
+                            : ReconciliationRecord.Status.MISMATCHED)
+                    .internalDate(internalDay.date)
+                    .externalDate(externalDay.date)
+                    .createdAt(transaction.getCreatedAt())
+                    .internalAmount(transaction.getAmount())
+                    .externalAmount(external.getAmount())
+                    .build());
+            return true;
+        });
+    }
+
+    private static final class DayResult {
+        private final LocalDate date;
+        private final Map<String, TransactionDTO> missingInExternal = new HashMap<>();
+        private final Map<String, ExternalTransaction> missingInInternal = new HashMap<>();
+        private ReconciliationSummary summary;
+
+        private DayResult(LocalDate date) {
+            this.date = date;
+        }
+    }
+}
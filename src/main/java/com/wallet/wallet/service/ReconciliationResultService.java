@@ -0,0 +1,327 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationReport;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.dto.TransactionView;
+import com.wallet.wallet.exception.AdmissionRejectedException;
+import com.wallet.wallet.model.ReconciliationRun;
+import com.wallet.wallet.repository.NamedLockJdbcRepository;
+import com.wallet.wallet.repository.ReconciliationEntryJdbcRepository;
+import com.wallet.wallet.repository.ReconciliationRunRepository;
+import com.wallet.wallet.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serves reconciliation reports from stored per-day results.
+ * The first request for a day reconciles it in full with the streaming engine and stores one
+ * entry per transaction ID. Later requests only re-reconcile what changed since: ledger rows that
+ * committed after the last run (until the day has settled) and, when the external file's fingerprint
+ * changed, the IDs whose external amount differs from the stored one. A settled day with an unchanged
+ * file is read back without touching the ledger or the file.
+ */
+@Service
+@Slf4j
+public class ReconciliationResultService {
+
+    private static final int CHUNK_SIZE = 1_000;
+    private static final String LOCK_NAME_PREFIX = "wallet.reconciliation.";
+
+    private final ReconciliationService reconciliationService;
+    private final ExternalTransactionSorter externalTransactionSorter;
+    private final TransactionRepository transactionRepository;
+    private final LedgerArchive ledgerArchive;
+    private final ReconciliationRunRepository reconciliationRunRepository;
+    private final ReconciliationEntryJdbcRepository reconciliationEntryRepository;
+    private final NamedLockJdbcRepository namedLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletProperties.Reconciliation settings;
+    private final Map<LocalDate, ReentrantLock> dayLocks = new ConcurrentHashMap<>();
+
+    public ReconciliationResultService(ReconciliationService reconciliationService,
+                                       ExternalTransactionSorter externalTransactionSorter,
+                                       TransactionRepository transactionRepository,
+                                       LedgerArchive ledgerArchive,
+                                       ReconciliationRunRepository reconciliationRunRepository,
+                                       ReconciliationEntryJdbcRepository reconciliationEntryRepository,
+                                       NamedLockJdbcRepository namedLocks,
+                                       PlatformTransactionManager transactionManager,
+                                       WalletProperties walletProperties) {
+        this.reconciliationService = reconciliationService;
+        this.externalTransactionSorter = externalTransactionSorter;
+        this.transactionRepository = transactionRepository;
+        this.ledgerArchive = ledgerArchive;
+        this.reconciliationRunRepository = reconciliationRunRepository;
+        this.reconciliationEntryRepository = reconciliationEntryRepository;
+        this.namedLocks = namedLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = walletProperties.getReconciliation();
+    }
+
+    public ReconciliationReport getReport(LocalDate date) {
+        // Stored results pair by transaction ID only; tolerant rules need the whole day in memory
+        if (!settings.isPersistResults() || reconciliationService.matcher().isTolerant()) {
+            return reconciliationService.generateReport(date);
+        }
+        ReconciliationRun run = refresh(date);
+        return toReport(run, reconciliationEntryRepository.findRecords(date));
+    }
+
+    /**
+     * Brings the stored results for {@code date} up to date, reconciling it in full the first time.
+     * Refreshes of the same day run one at a time across all nodes, under a database lock per day; on each
+     * node they first queue in memory, so a node holds at most one connection per day waiting for that lock.
+     * @throws AdmissionRejectedException if another node kept the day locked for longer than {@code refresh-lock-wait}
+     */
+    public ReconciliationRun refresh(LocalDate date) {
+        ReentrantLock lock = dayLocks.computeIfAbsent(date, d -> new ReentrantLock());
+        lock.lock();
+        try {
+            return namedLocks.withLock(LOCK_NAME_PREFIX + date, settings.getRefreshLockWait(), jdbc -> refreshLocked(date))
+                    .orElseThrow(() -> new AdmissionRejectedException(
+                            "Reconciliation of " + date + " is in progress on another node, try again shortly.", false));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReconciliationRun refreshLocked(LocalDate date) {
+        try {
+            // Fingerprint before reading, so a file replaced mid-refresh is picked up by the next one
+            String fingerprint = reconciliationService.externalFingerprint(date);
+            Optional<ReconciliationRun> stored = reconciliationRunRepository.findById(date);
+            if (stored.isEmpty()) {
+                return reconcileFully(date, fingerprint);
+            }
+
+            ReconciliationRun run = stored.get();
+            boolean settled = run.getReconciledAt().isAfter(date.plusDays(1).atStartOfDay().plus(settings.getSettleGrace()));
+            boolean fileChanged = !fingerprint.equals(run.getExternalFingerprint());
+            if (settled && !fileChanged) {
+                return run;
+            }
+
+            long changed = settled ? 0 : applyNewInternalTransactions(date);
+            if (fileChanged) {
+                changed += applyExternalChanges(date);
+                run.setExternalFingerprint(fingerprint);
+            }
+            log.info("Refreshed stored reconciliation for {}: {} transaction IDs re-reconciled", date, changed);
+            return save(run, date);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reconciling " + date, e);
+        }
+    }
+
+    private ReconciliationRun reconcileFully(LocalDate date, String fingerprint) throws IOException {
+        // Leftovers of a full run that did not finish
+        reconciliationEntryRepository.deleteDay(date);
+        List<ReconciliationRecord> batch = new ArrayList<>(CHUNK_SIZE);
+        String[] previousId = {null};
+        reconciliationService.reconcile(date, record -> {
+            // A repeated external ID is stored once, with its first amount
+            if (record.getTransactionId().equals(previousId[0])) {
+                return;
+            }
+            previousId[0] = record.getTransactionId();
+            batch.add(record);
+            if (batch.size() == CHUNK_SIZE) {
+                reconciliationEntryRepository.insert(date, batch);
+                batch.clear();
+            }
+        });
+        reconciliationEntryRepository.insert(date, batch);
+
+        ReconciliationRun run = new ReconciliationRun();
+        run.setReportDate(date);
+        run.setExternalFingerprint(fingerprint);
+        return save(run, date);
+    }
+
+    /**
+     * Adds ledger rows of the day that the stored results do not include yet, pairing them with any
+     * external amount already stored under their ID.
+     */
+    private long applyNewInternalTransactions(LocalDate date) {
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = date.plusDays(1).atStartOfDay();
+        long applied = 0;
+        List<TransactionView> views;
+        do {
+            views = transactionRepository.findViewsCreatedBetweenNotReconciled(date, from, to, Limit.of(CHUNK_SIZE));
+            if (views.isEmpty()) {
+                break;
+            }
+            List<String> transactionIds = views.stream().map(TransactionView::transactionId).toList();
+            Map<String, BigDecimal> externalAmounts = reconciliationEntryRepository.findExternalAmounts(date, transactionIds);
+            List<ReconciliationRecord> records = views.stream()
+                    .map(view -> {
+                        BigDecimal externalAmount = externalAmounts.get(view.transactionId());
+                        return ReconciliationRecord.of(view.transactionId(), view.toDTO(),
+                                externalAmount == null ? null : new ExternalTransaction(view.transactionId(), externalAmount));
+                    })
+                    .toList();
+            replace(date, transactionIds, records);
+            applied += records.size();
+        } while (views.size() == CHUNK_SIZE);
+        return applied;
+    }
+
+    /**
+     * Merge-joins the sorted external file with the stored external amounts and re-reconciles every ID
+     * that was added, removed or changed in amount.
+     */
+    private long applyExternalChanges(LocalDate date) {
+        Map<String, BigDecimal> changes = new LinkedHashMap<>();
+        long applied = 0;
+        Stream<ExternalTransaction> sortedFile;
+        try (Stream<ExternalTransaction> file = reconciliationService.openExternalTransactions(date)) {
+            sortedFile = externalTransactionSorter.sort(file.iterator());
+        }
+        try (sortedFile;
+             Stream<ExternalTransaction> stored = reconciliationEntryRepository.streamExternalSideOrderByTransactionId(date)) {
+            Iterator<ExternalTransaction> fileRows = sortedFile.iterator();
+            Iterator<ExternalTransaction> storedRows = stored.iterator();
+            ExternalTransaction fileHead = fileRows.hasNext() ? fileRows.next() : null;
+            ExternalTransaction storedHead = storedRows.hasNext() ? storedRows.next() : null;
+            while (fileHead != null || storedHead != null) {
+                int order = fileHead == null ? 1
+                        : storedHead == null ? -1
+                        : fileHead.getTransactionId().compareTo(storedHead.getTransactionId());
+                if (order < 0) {
+                    changes.put(fileHead.getTransactionId(), fileHead.getAmount());
+                } else if (order > 0) {
+                    changes.put(storedHead.getTransactionId(), null);
+                } else if (fileHead.getAmount().compareTo(storedHead.getAmount()) != 0) {
+                    changes.put(fileHead.getTransactionId(), fileHead.getAmount());
+                }
+
+                if (order <= 0) {
+                    String transactionId = fileHead.getTransactionId();
+                    do {
+                        fileHead = fileRows.hasNext() ? fileRows.next() : null;
+                    } while (fileHead != null && fileHead.getTransactionId().equals(transactionId));
+                }
+                if (order >= 0) {
+                    storedHead = storedRows.hasNext() ? storedRows.next() : null;
+                }
+                if (changes.size() == CHUNK_SIZE) {
+                    applied += applyExternalAmounts(date, changes);
+                    changes.clear();
+                }
+            }
+        }
+        return applied + applyExternalAmounts(date, changes);
+    }
+
+    /**
+     * Re-reconciles the given IDs against their current external amount, {@code null} meaning the file
+     * no longer lists the ID. IDs on neither side any more are dropped.
+     */
+    private long applyExternalAmounts(LocalDate date, Map<String, BigDecimal> externalAmounts) {
+        if (externalAmounts.isEmpty()) {
+            return 0;
+        }
+        Map<String, TransactionDTO> internal = findInternalTransactions(date, externalAmounts.keySet());
+        List<ReconciliationRecord> records = new ArrayList<>(externalAmounts.size());
+        externalAmounts.forEach((transactionId, externalAmount) -> {
+            TransactionDTO internalTransaction = internal.get(transactionId);
+            if (internalTransaction != null || externalAmount != null) {
+                records.add(ReconciliationRecord.of(transactionId, internalTransaction,
+                        externalAmount == null ? null : new ExternalTransaction(transactionId, externalAmount)));
+            }
+        });
+        replace(date, externalAmounts.keySet(), records);
+        return externalAmounts.size();
+    }
+
+    /**
+     * Looks the IDs up in the day's ledger rows, scanning the archived day if it is no longer in the database.
+     */
+    private Map<String, TransactionDTO> findInternalTransactions(LocalDate date, Set<String> transactionIds) {
+        if (ledgerArchive.contains(date)) {
+            try (Stream<TransactionDTO> archived = ledgerArchive.read(date)) {
+                return archived.filter(transaction -> transactionIds.contains(transaction.getTransactionId()))
+                        .collect(Collectors.toMap(TransactionDTO::getTransactionId, Function.identity()));
+            }
+        }
+        return transactionRepository.findViewsByTransactionIdInCreatedBetween(
+                        transactionIds, date.atStartOfDay(), date.plusDays(1).atStartOfDay()).stream()
+                .collect(Collectors.toMap(TransactionView::transactionId, TransactionView::toDTO));
+    }
+
+    private void replace(LocalDate date, Collection<String> transactionIds, List<ReconciliationRecord> records) {
+        transactionTemplate.executeWithoutResult(status -> {
+            reconciliationEntryRepository.delete(date, transactionIds);
+            reconciliationEntryRepository.insert(date, records);
+        });
+    }
+
+    private ReconciliationRun save(ReconciliationRun run, LocalDate date) {
+        long[] counts = reconciliationEntryRepository.countByStatus(date);
+        run.setMatchedCount(counts[ReconciliationRecord.Status.MATCHED.ordinal()]);
+        run.setMismatchedCount(counts[ReconciliationRecord.Status.MISMATCHED.ordinal()]);
+        run.setMissingInExternalCount(counts[ReconciliationRecord.Status.MISSING_IN_EXTERNAL.ordinal()]);
+        run.setMissingInInternalCount(counts[ReconciliationRecord.Status.MISSING_IN_INTERNAL.ordinal()]);
+        run.setReconciledAt(LocalDateTime.now());
+        return reconciliationRunRepository.save(run);
+    }
+
+    private static ReconciliationReport toReport(ReconciliationRun run, List<ReconciliationRecord> records) {
+        List<TransactionDTO> matched = new ArrayList<>();
+        Map<String, ReconciliationReport.MismatchDetail> mismatched = new LinkedHashMap<>();
+        List<TransactionDTO> missingInExternal = new ArrayList<>();
+        List<ExternalTransaction> missingInInternal = new ArrayList<>();
+        for (ReconciliationRecord record : records) {
+            switch (record.getStatus()) {
+                case MATCHED -> matched.add(record.getInternal());
+                case MISMATCHED -> mismatched.put(record.getTransactionId(), ReconciliationReport.MismatchDetail.builder()
+                        .internalAmount(record.getInternal().getAmount())
+                        .externalAmount(record.getExternal().getAmount())
+                        .build());
+                case MISSING_IN_EXTERNAL -> missingInExternal.add(record.getInternal());
+                case MISSING_IN_INTERNAL -> missingInInternal.add(record.getExternal());
+            }
+        }
+        return ReconciliationReport.builder()
+                .reportDate(run.getReportDate().toString())
+                .totalInternalTransactions((int) (run.getMatchedCount() + run.getMismatchedCount() + run.getMissingInExternalCount()))
+                .totalExternalTransactions((int) (run.getMatchedCount() + run.getMismatchedCount() + run.getMissingInInternalCount()))
+                .matchedCount((int) run.getMatchedCount())
+                .mismatchedCount((int) run.getMismatchedCount())
+                .missingInExternalCount((int) run.getMissingInExternalCount())
+                .missingInInternalCount((int) run.getMissingInInternalCount())
+                .matched(matched)
+                .mismatched(mismatched)
+                .missingInExternal(missingInExternal)
+                .missingInInternal(missingInInternal)
+                .matchedCountByRule(matched.isEmpty() ? Map.of() : Map.of(ReconciliationReport.MatchRule.EXACT_ID, matched.size()))
+                .tolerantMatches(List.of())
+                .build();
+    }
+}
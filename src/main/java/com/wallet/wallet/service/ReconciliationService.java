@@ -1,182 +1,303 @@
 package com.wallet.wallet.service;
 
+import com.wallet.wallet.config.WalletProperties;
 import com.wallet.wallet.dto.ExternalTransaction;
 import com.wallet.wallet.dto.ReconciliationReport;
+import com.wallet.wallet.dto.ReconciliationSummary;
 import com.wallet.wallet.dto.TransactionDTO;
-import com.wallet.wallet.model.Transaction;
+import com.wallet.wallet.dto.TransactionView;
+import com.wallet.wallet.exception.ExactMatchingRequiredException;
+import com.wallet.wallet.exception.MalformedExternalFileException;
+import com.wallet.wallet.repository.TransactionCursorRepository;
 import com.wallet.wallet.repository.TransactionRepository;
 import com.opencsv.CSVReader;
-import com.opencsv.CSVWriter;
 import com.opencsv.exceptions.CsvValidationException;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class ReconciliationService {
+public class ReconciliationService implements DayReconciler {
+
+    private static final int INITIAL_INDEX_SIZE = 1 << 16;
 
     private final TransactionRepository transactionRepository;
+    private final TransactionCursorRepository transactionCursorRepository;
+    private final LedgerArchive ledgerArchive;
+    private final ExternalTransactionSorter externalTransactionSorter;
+    private final ExternalTransactionFileParser externalTransactionFileParser;
+    private final WalletProperties walletProperties;
+    private final ReconciliationMetrics reconciliationMetrics;
 
     public ReconciliationReport generateReport(LocalDate date) {
         log.info("Generating reconciliation report for date: {}", date);
 
-        List<ExternalTransaction> externalTransactions = readExternalTransactions(date);
-        List<Transaction> internalTransactions = transactionRepository.findByCreatedAtBetween(
-                date.atStartOfDay(),
-                date.atTime(LocalTime.MAX)
-        );
-
-        // Convert internal transactions to DTOs for clean processing
-        List<TransactionDTO> internalTransactionDTOs = internalTransactions.stream()
-                .map(this::toTransactionDTO)
-                .collect(Collectors.toList());
-
-        Map<String, TransactionDTO> internalMap = internalTransactionDTOs.stream()
-                .collect(Collectors.toMap(TransactionDTO::getTransactionId, Function.identity()));
-
-        Map<String, ExternalTransaction> externalMap = externalTransactions.stream()
-                .collect(Collectors.toMap(ExternalTransaction::getTransactionId, Function.identity()));
-
-        List<TransactionDTO> matched = new ArrayList<>();
-        Map<String, ReconciliationReport.MismatchDetail> mismatched = new java.util.HashMap<>();
-        List<TransactionDTO> missingInExternal = new ArrayList<>();
-        List<ExternalTransaction> missingInInternal = new ArrayList<>();
-
-        internalMap.forEach((id, internalTx) -> {
-            if (externalMap.containsKey(id)) {
-                ExternalTransaction externalTx = externalMap.get(id);
-                if (internalTx.getAmount().compareTo(externalTx.getAmount()) == 0) {
-                    matched.add(internalTx);
-                } else {
-                    mismatched.put(id, ReconciliationReport.MismatchDetail.builder()
-                            .internalAmount(internalTx.getAmount())
-                            .externalAmount(externalTx.getAmount())
-                            .build());
-                }
-            } else {
-                missingInExternal.add(internalTx);
+        IndexedExternal external = reconciliationMetrics.phase(ReconciliationMetrics.Phase.FILE_READ)
+                .record(() -> indexExternalTransactions(date));
+        List<TransactionDTO> internalTransactionDTOs;
+        if (ledgerArchive.contains(date)) {
+            internalTransactionDTOs = reconciliationMetrics.phase(ReconciliationMetrics.Phase.DB_LOAD)
+                    .record(() -> {
+                        try (Stream<TransactionDTO> archived = ledgerArchive.read(date)) {
+                            return archived.toList();
+                        }
+                    });
+        } else {
+            List<TransactionView> internalTransactions = reconciliationMetrics.phase(ReconciliationMetrics.Phase.DB_LOAD)
+                    .record(() -> transactionRepository.findViewsCreatedBetween(
+                            date.atStartOfDay(),
+                            date.plusDays(1).atStartOfDay()
+                    ));
+
+            // Convert internal transactions to DTOs for clean processing
+            internalTransactionDTOs = reconciliationMetrics.phase(ReconciliationMetrics.Phase.DTO_MAPPING)
+                    .record(() -> internalTransactions.stream()
+                            .map(TransactionView::toDTO)
+                            .collect(Collectors.toList()));
+        }
+
+        return reconciliationMetrics.phase(ReconciliationMetrics.Phase.MATCHING)
+                .record(() -> matcher().match(date, internalTransactionDTOs, external.index(), external.repeated()));
+    }
+
+    /**
+     * Matches both sides of a day held in memory by transaction ID.
+     */
+    public static ReconciliationReport buildReport(LocalDate date, List<TransactionDTO> internalTransactions,
+                                                   List<ExternalTransaction> externalTransactions) {
+        IndexedExternal external = new IndexedExternal(new CompactTransactionIndex(externalTransactions.size(), false), new ArrayList<>());
+        externalTransactions.forEach(external::add);
+        return ReconciliationMatcher.exact().match(date, internalTransactions, external.index(), external.repeated());
+    }
+
+    /**
+     * The matching pipeline configured by {@code wallet.reconciliation.match-rules}.
+     */
+    public ReconciliationMatcher matcher() {
+        WalletProperties.Reconciliation settings = walletProperties.getReconciliation();
+        return new ReconciliationMatcher(settings.getMatchRules(), settings.getAmountTolerance());
+    }
+
+    /**
+     * Streaming mode: merge-joins the day's internal transactions, read through a forward-only cursor
+     * ordered by transaction ID, with the external file sorted the same way, and hands every record to
+     * {@code sink} as soon as it is known. Heap usage does not depend on the size of the day.
+     * @param date The date to reconcile.
+     * @param sink Receives matched, mismatched and missing records in transaction ID order.
+     * @return the counts of the records passed to the sink
+     */
+    @Override
+    public ReconciliationSummary reconcile(LocalDate date, ReconciliationSink sink) throws IOException {
+        log.info("Streaming reconciliation for date: {}", date);
+        try (ReconciliationCursor cursor = openCursor(date)) {
+            while (cursor.hasNext()) {
+                sink.accept(cursor.next());
             }
-        });
+            return cursor.summary();
+        }
+    }
 
-        externalMap.forEach((id, externalTx) -> {
-            if (!internalMap.containsKey(id)) {
-                missingInInternal.add(externalTx);
+    /**
+     * Pull-based form of {@link #reconcile}: the external file is sorted up front, then the ledger cursor is
+     * opened and records are merged one at a time as the caller asks for them. The caller must close the
+     * returned cursor, which releases its database connection.
+     */
+    public ReconciliationCursor openCursor(LocalDate date) {
+        // Sort the external side first so the cursor holds its connection only while merging
+        Stream<ExternalTransaction> sortedExternal = reconciliationMetrics.phase(ReconciliationMetrics.Phase.EXTERNAL_SORT).record(() -> {
+            try (Stream<ExternalTransaction> external = openExternalTransactions(date)) {
+                return externalTransactionSorter.sort(external.iterator());
             }
         });
+        try {
+            Timer.Sample merge = Timer.start();
+            Stream<TransactionDTO> internal = openInternalTransactions(date)
+                    .onClose(() -> merge.stop(reconciliationMetrics.phase(ReconciliationMetrics.Phase.MERGE)));
+            return new ReconciliationCursor(date, internal, sortedExternal);
+        } catch (RuntimeException e) {
+            sortedExternal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Streams the day's ledger rows in transaction ID order, from the {@link LedgerArchive} once the day
+     * has been moved out of the database. The stream must be closed.
+     */
+    private Stream<TransactionDTO> openInternalTransactions(LocalDate date) {
+        if (ledgerArchive.contains(date)) {
+            return ledgerArchive.read(date);
+        }
+        return transactionCursorRepository.streamCreatedBetweenOrderByTransactionId(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Checks that {@code wallet.reconciliation.match-rules} pairs by exact transaction ID only. The streamed outputs merge by transaction ID and cannot apply tolerant rules, so rather than classify
+     * the day differently from {@code /report} they refuse while such rules are configured.
+     * @throws ExactMatchingRequiredException if tolerant rules are configured
+     */
+    public void requireExactMatching(String output) {
+        if (matcher().isTolerant()) {
+            throw new ExactMatchingRequiredException(output + " pairs by exact transaction ID only, but match rules "
+                    + walletProperties.getReconciliation().getMatchRules() + " are configured; use /report instead.");
+        }
+    }
+
+    /**
+     * Reads the external file straight into a compact index, without holding its rows as objects.
+     */
+    private IndexedExternal indexExternalTransactions(LocalDate date) {
+        IndexedExternal indexed = new IndexedExternal(
+                new CompactTransactionIndex(INITIAL_INDEX_SIZE, walletProperties.getReconciliation().isOffHeapIndex()), new ArrayList<>());
+        try (Stream<ExternalTransaction> external = openExternalTransactions(date)) {
+            external.forEach(indexed::add);
+        }
+        return indexed;
+    }
+
+    /**
+     * A day's settlement records: the first record of each ID in the index, later ones with the same ID
+     * in file order.
+     */
+    private record IndexedExternal(CompactTransactionIndex index, List<ExternalTransaction> repeated) {
+        void add(ExternalTransaction transaction) {
+            if (index.addIfAbsent(transaction.getTransactionId(), transaction.getAmount(), null, null) < 0) {
+                repeated.add(transaction);
+            }
+        }
+    }
 
-        return ReconciliationReport.builder()
-                .reportDate(date.toString())
-                .totalInternalTransactions(internalTransactions.size())
-                .totalExternalTransactions(externalTransactions.size())
-                .matchedCount(matched.size())
-                .mismatchedCount(mismatched.size())
-                .missingInExternalCount(missingInExternal.size())
-                .missingInInternalCount(missingInInternal.size())
-                .matched(matched)
-                .mismatched(mismatched)
-                .missingInExternal(missingInExternal)
-                .missingInInternal(missingInInternal)
-                .build();
+    /**
+     * Lazily reads {@code external_transactions_<date>.csv}, preferring the configured external directory
+     * over the classpath. A missing file yields an empty stream; malformed lines fail with their line
+     * numbers. The stream must be closed to release the file.
+     */
+    public Stream<ExternalTransaction> openExternalTransactions(LocalDate date) {
+        String fileName = externalFileName(date);
+        Path file = externalDirectoryFile(fileName);
+        if (file != null) {
+            return externalTransactionFileParser.parse(file);
+        }
+        return openClasspathExternalTransactions(fileName);
     }
 
     /**
-     * Generates a reconciliation report and writes it directly to a CSV stream.
-     * @param date The date for the report.
-     * @param writer The PrintWriter to write the CSV content to.
-     * @throws IOException if an I/O error occurs
+     * Identifies the current version of the day's external file by its size and modification time,
+     * without reading it; {@code none} when there is no file.
      */
-    public void writeReconciliationReportToCsv(LocalDate date, PrintWriter writer) throws IOException {
-        ReconciliationReport report = generateReport(date);
-
-        try (CSVWriter csvWriter = new CSVWriter(writer)) {
-            // --- Summary Section ---
-            csvWriter.writeNext(new String[]{"Reconciliation Summary Report"});
-            csvWriter.writeNext(new String[]{"Report Date:", report.getReportDate()});
-            csvWriter.writeNext(new String[]{});
-            csvWriter.writeNext(new String[]{"Total Internal Transactions:", String.valueOf(report.getTotalInternalTransactions())});
-            csvWriter.writeNext(new String[]{"Total External Transactions:", String.valueOf(report.getTotalExternalTransactions())});
-            csvWriter.writeNext(new String[]{"Matched:", String.valueOf(report.getMatchedCount())});
-            csvWriter.writeNext(new String[]{"Mismatched:", String.valueOf(report.getMismatchedCount())});
-            csvWriter.writeNext(new String[]{"Missing in External:", String.valueOf(report.getMissingInExternalCount())});
-            csvWriter.writeNext(new String[]{"Missing in Internal:", String.valueOf(report.getMissingInInternalCount())});
-            csvWriter.writeNext(new String[]{});
-
-            // --- Matched Transactions ---
-            csvWriter.writeNext(new String[]{"Matched Transactions"});
-            csvWriter.writeNext(new String[]{"Transaction ID", "Amount", "Type", "Timestamp"});
-            for (TransactionDTO tx : report.getMatched()) {
-                csvWriter.writeNext(new String[]{tx.getTransactionId(), tx.getAmount().toString(), tx.getType().toString(), tx.getCreatedAt().toString()});
+    public String externalFingerprint(LocalDate date) {
+        String fileName = externalFileName(date);
+        try {
+            Path file = externalDirectoryFile(fileName);
+            if (file != null) {
+                return Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis();
             }
-            csvWriter.writeNext(new String[]{});
-
-            // --- Mismatched Transactions ---
-            csvWriter.writeNext(new String[]{"Mismatched Transactions"});
-            csvWriter.writeNext(new String[]{"Transaction ID", "Internal Amount", "External Amount"});
-            report.getMismatched().forEach((id, detail) -> csvWriter.writeNext(new String[]{id, detail.getInternalAmount().toString(), detail.getExternalAmount().toString()}));
-            csvWriter.writeNext(new String[]{});
-
-            // --- Missing in External Report (Internal Only) ---
-            csvWriter.writeNext(new String[]{"Missing in External Report (Internal Only)"});
-            csvWriter.writeNext(new String[]{"Transaction ID", "Amount", "Type", "Timestamp"});
-            for (TransactionDTO tx : report.getMissingInExternal()) {
-                csvWriter.writeNext(new String[]{tx.getTransactionId(), tx.getAmount().toString(), tx.getType().toString(), tx.getCreatedAt().toString()});
+            URL resource = getClass().getClassLoader().getResource(fileName);
+            if (resource == null) {
+                return "none";
             }
-            csvWriter.writeNext(new String[]{});
+            URLConnection connection = resource.openConnection();
+            return connection.getContentLengthLong() + ":" + connection.getLastModified();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading external transaction file: " + fileName, e);
+        }
+    }
+
+    private static String externalFileName(LocalDate date) {
+        return "external_transactions_" + date + ".csv";
+    }
 
-            // --- Missing in Internal Report (External Only) ---
-            csvWriter.writeNext(new String[]{"Missing in Internal Report (External Only)"});
-            csvWriter.writeNext(new String[]{"Transaction ID", "Amount"});
-            for (ExternalTransaction tx : report.getMissingInInternal()) {
-                csvWriter.writeNext(new String[]{tx.getTransactionId(), tx.getAmount().toString()});
+    private Path externalDirectoryFile(String fileName) {
+        String directory = walletProperties.getReconciliation().getExternalDirectory();
+        if (StringUtils.hasText(directory)) {
+            Path file = Path.of(directory, fileName);
+            if (Files.isRegularFile(file)) {
+                return file;
             }
         }
+        return null;
     }
 
+    private Stream<ExternalTransaction> openClasspathExternalTransactions(String fileName) {
+        InputStream is = getClass().getClassLoader().getResourceAsStream(fileName);
+        if (is == null) {
+            log.warn("External transaction file not found: {}", fileName);
+            return Stream.empty();
+        }
+        CSVReader reader = new CSVReader(new InputStreamReader(is));
+        Iterator<ExternalTransaction> lines = new Iterator<>() {
+            private String[] next = readLine(reader, fileName, true);
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
 
-    private List<ExternalTransaction> readExternalTransactions(LocalDate date) {
-        List<ExternalTransaction> transactions = new ArrayList<>();
-        String fileName = "external_transactions_" + date + ".csv";
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream(fileName);
-             com.opencsv.CSVReader reader = new com.opencsv.CSVReader(new InputStreamReader(is))) {
-            reader.readNext();
-            String[] line;
-            while ((line = reader.readNext()) != null) {
-                transactions.add(new ExternalTransaction(line[0], new BigDecimal(line[1])));
+            @Override
+            public ExternalTransaction next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                ExternalTransaction transaction = toExternalTransaction(next, reader.getLinesRead(), fileName);
+                next = readLine(reader, fileName, false);
+                return transaction;
             }
-        } catch (IOException | CsvValidationException | NullPointerException e) {
-            log.error("Error reading external transaction file: {}", fileName, e);
-            // Return empty list if file not found or error occurs
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(lines, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        log.warn("Could not close external transaction file: {}", fileName, e);
+                    }
+                });
+    }
+
+    private static ExternalTransaction toExternalTransaction(String[] line, long lineNumber, String fileName) {
+        if (line.length != 2) {
+            throw new MalformedExternalFileException(fileName, List.of("line " + lineNumber + ": expected 2 fields but found " + line.length));
+        }
+        try {
+            return new ExternalTransaction(line[0].trim(), new BigDecimal(line[1].trim()));
+        } catch (NumberFormatException e) {
+            throw new MalformedExternalFileException(fileName, List.of("line " + lineNumber + ": invalid amount '" + line[1] + "'"));
         }
-        return transactions;
     }
 
-    /**
-     * Converts a Transaction entity to a TransactionDTO.
-     * This is the key to preventing the JSON serialization error.
-     */
-    private TransactionDTO toTransactionDTO(Transaction transaction) {
-        return TransactionDTO.builder()
-                .transactionId(transaction.getTransactionId())
-                .amount(transaction.getAmount())
-                .type(transaction.getType())
-                .createdAt(transaction.getCreatedAt())
-                .walletId(transaction.getWallet().getId())
-                .build();
+    private static String[] readLine(CSVReader reader, String fileName, boolean skipHeader) {
+        try {
+            if (skipHeader) {
+                reader.readNext();
+            }
+            return reader.readNext();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading external transaction file: " + fileName, e);
+        } catch (CsvValidationException e) {
+            throw new MalformedExternalFileException(fileName, List.of("line " + e.getLineNumber() + ": " + e.getMessage()));
+        }
     }
 }
-
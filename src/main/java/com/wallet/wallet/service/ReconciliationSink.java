@@ -0,0 +1,14 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.dto.ReconciliationRecord;
+
+import java.io.IOException;
+
+/**
+ * Receives reconciliation records one at a time, in transaction ID order, as they are produced.
+ */
+@FunctionalInterface
+public interface ReconciliationSink {
+
+    void accept(ReconciliationRecord record) throws IOException;
+}
@@ -0,0 +1,84 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationSummary;
+import com.wallet.wallet.exception.AdmissionRejectedException;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Publishes a day's reconciliation as a reactive stream with backpressure.
+ * Records are pulled from a {@link ReconciliationCursor} one demand at a time, so a slow client slows the
+ * merge down instead of making the server buffer the report. The blocking cursor runs on the bounded
+ * elastic scheduler and is closed when the stream completes, fails or is cancelled.
+ * An open stream holds a database connection and a scheduler thread for as long as the client reads, outside
+ * the wallet admission bulkhead, so at most {@code max-concurrent-streams} are open at once; further
+ * requests are turned away with 429 instead of draining the connection pool.
+ */
+@Service
+public class ReconciliationStreamService {
+
+    private final ReconciliationService reconciliationService;
+    private final Semaphore streams;
+
+    public ReconciliationStreamService(ReconciliationService reconciliationService, WalletProperties walletProperties) {
+        this.reconciliationService = reconciliationService;
+        this.streams = new Semaphore(walletProperties.getReconciliation().getMaxConcurrentStreams());
+    }
+
+    public Flux<ReconciliationRecord> records(LocalDate date) {
+        return records(date, summary -> { });
+    }
+
+    /**
+     * Takes a stream slot straight away, so a rejection surfaces before the response starts; the slot is
+     * returned when the flux completes, fails or is cancelled, so it must be subscribed to.
+     * @param onSummary receives the day's counts once the last record has been emitted
+     * @throws AdmissionRejectedException if {@code max-concurrent-streams} streams are already open
+     */
+    public Flux<ReconciliationRecord> records(LocalDate date, Consumer<ReconciliationSummary> onSummary) {
+        if (!streams.tryAcquire()) {
+            throw new AdmissionRejectedException("Too many reconciliation streams open, try again shortly.", true);
+        }
+        return Flux.<ReconciliationRecord, ReconciliationCursor>generate(
+                        () -> reconciliationService.openCursor(date),
+                        (cursor, sink) -> {
+                            if (cursor.hasNext()) {
+                                sink.next(cursor.next());
+                            } else {
+                                onSummary.accept(cursor.summary());
+                                // Closed before completing, so the connection is free before the client sees the end
+                                cursor.close();
+                                sink.complete();
+                            }
+                            return cursor;
+                        },
+                        ReconciliationCursor::close)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doFinally(signal -> streams.release());
+    }
+
+    /**
+     * Server-Sent Events form: one "record" event per record, keyed by transaction ID, then a "summary" event.
+     */
+    public Flux<ServerSentEvent<Object>> events(LocalDate date) {
+        AtomicReference<ReconciliationSummary> summary = new AtomicReference<>();
+        Flux<ServerSentEvent<Object>> records = records(date, summary::set)
+                .map(record -> ServerSentEvent.<Object>builder(record)
+                        .id(record.getTransactionId())
+                        .event("record")
+                        .build());
+        return records.concatWith(Mono.fromSupplier(() -> ServerSentEvent.<Object>builder(summary.get())
+                .event("summary")
+                .build()));
+    }
+}
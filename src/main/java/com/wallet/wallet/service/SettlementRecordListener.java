@@ -0,0 +1,25 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.RabbitMQConfig;
+import com.wallet.wallet.dto.ExternalTransaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds settlement records published by the processor integration into the live reconciliation.
+ * The queue has competing consumers, which is why the live reconciliation is single-node only.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "wallet.live-reconciliation", name = "enabled", havingValue = "true")
+public class SettlementRecordListener {
+
+    private final LiveReconciliation liveReconciliation;
+
+    @RabbitListener(queues = RabbitMQConfig.SETTLEMENT_QUEUE_NAME)
+    public void onSettlement(ExternalTransaction settlement) {
+        liveReconciliation.recordExternal(settlement);
+    }
+}
@@ -0,0 +1,74 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.RabbitMQConfig;
+import com.wallet.wallet.dto.TransactionEvent;
+import com.wallet.wallet.model.WalletDailyAggregate;
+import com.wallet.wallet.repository.WalletDailyAggregateJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consumes {@code transactions.queue} in batches and keeps the per-wallet daily aggregates up to date.
+ * A batch is folded in memory into one delta per (wallet, day) and written in a single upsert, and the
+ * container acknowledges the whole batch only after that commit; a failed write requeues the batch.
+ * Delivery is at least once, so an event redelivered after its batch committed is counted twice: the
+ * aggregates serve reporting, the ledger stays the source of truth.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "wallet.aggregates", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionEventConsumer {
+
+    private static final Comparator<WalletDailyAggregate.Key> KEY_ORDER = Comparator
+            .comparing(WalletDailyAggregate.Key::getWalletId)
+            .thenComparing(WalletDailyAggregate.Key::getActivityDate);
+
+    private final WalletDailyAggregateJdbcRepository walletDailyAggregateJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public TransactionEventConsumer(WalletDailyAggregateJdbcRepository walletDailyAggregateJdbcRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.walletDailyAggregateJdbcRepository = walletDailyAggregateJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.QUEUE_NAME, containerFactory = RabbitMQConfig.TRANSACTION_EVENT_CONTAINER_FACTORY)
+    public void onEvents(List<TransactionEvent> events) {
+        List<WalletDailyAggregate> deltas = fold(events);
+        if (!deltas.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> walletDailyAggregateJdbcRepository.add(deltas));
+        }
+        log.debug("Folded {} transaction events into {} daily aggregates", events.size(), deltas.size());
+    }
+
+    /**
+     * One delta per (wallet, day) in key order. Events published before they carried a wallet are skipped.
+     */
+    static List<WalletDailyAggregate> fold(List<TransactionEvent> events) {
+        Map<WalletDailyAggregate.Key, WalletDailyAggregate> deltas = new TreeMap<>(KEY_ORDER);
+        for (TransactionEvent event : events) {
+            if (event.getWalletId() == null || event.getType() == null || event.getCreatedAt() == null) {
+                log.warn("Skipping transaction event {} without wallet, type or creation time", event.getTransactionId());
+                continue;
+            }
+            WalletDailyAggregate.Key key = new WalletDailyAggregate.Key(event.getWalletId(), event.getCreatedAt().toLocalDate());
+            deltas.computeIfAbsent(key, k -> {
+                WalletDailyAggregate delta = new WalletDailyAggregate();
+                delta.setWalletId(k.getWalletId());
+                delta.setActivityDate(k.getActivityDate());
+                return delta;
+            }).add(event.getType(), event.getAmount());
+        }
+        return new ArrayList<>(deltas.values());
+    }
+}
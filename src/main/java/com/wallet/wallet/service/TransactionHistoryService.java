@@ -0,0 +1,139 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.TransactionHistoryEntry;
+import com.wallet.wallet.dto.TransactionHistoryPage;
+import com.wallet.wallet.exception.InvalidCursorException;
+import com.wallet.wallet.exception.InvalidDateRangeException;
+import com.wallet.wallet.exception.WalletNotFoundException;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.repository.TransactionRepository;
+import com.wallet.wallet.repository.WalletRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads a wallet's transaction history newest first with keyset pagination: a cursor is the (createdAt, id)
+ * of the last row returned, and the next page is the index range right after it. Unlike OFFSET, page N
+ * costs the same as page 1 and rows written between requests neither shift nor repeat entries.
+ * Only days still in the database are covered; archived days are not part of the history.
+ */
+@Service
+public class TransactionHistoryService {
+
+    /**
+     * The DATETIME range MySQL can store, used when the request leaves an end of the range open.
+     */
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final TransactionRepository transactionRepository;
+    private final WalletRepository walletRepository;
+    private final WalletProperties.History settings;
+
+    public TransactionHistoryService(TransactionRepository transactionRepository,
+                                     WalletRepository walletRepository,
+                                     WalletProperties walletProperties) {
+        this.transactionRepository = transactionRepository;
+        this.walletRepository = walletRepository;
+        this.settings = walletProperties.getHistory();
+    }
+
+    /**
+     * @param cursor {@code nextCursor} of the previous page, or null for the newest page
+     * @param limit  page size; the configured default when null, at most the configured maximum
+     * @throws WalletNotFoundException if the wallet does not exist
+     */
+    public TransactionHistoryPage page(Long walletId, Filter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? settings.getDefaultPageSize() : Math.max(1, Math.min(limit, settings.getMaxPageSize()));
+        Position position = cursor == null ? filter.start() : Position.decode(cursor);
+        List<TransactionHistoryEntry> transactions = fetch(walletId, filter, position, pageSize);
+        if (transactions.isEmpty() && cursor == null && !walletRepository.existsById(walletId)) {
+            throw new WalletNotFoundException("Wallet with ID " + walletId + " not found.");
+        }
+        String nextCursor = transactions.size() < pageSize ? null : Position.after(transactions.get(transactions.size() - 1)).encode();
+        return TransactionHistoryPage.builder()
+                .transactions(transactions)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Streams the whole filtered history, newest first, one page query per page the client is ready for.
+     * No connection is held between pages, so a slow client does not pin one.
+     */
+    public Flux<TransactionHistoryEntry> export(Long walletId, Filter filter) {
+        int pageSize = settings.getMaxPageSize();
+        return Flux.<List<TransactionHistoryEntry>, Position>generate(filter::start, (position, sink) -> {
+                    List<TransactionHistoryEntry> transactions = fetch(walletId, filter, position, pageSize);
+                    if (!transactions.isEmpty()) {
+                        sink.next(transactions);
+                    }
+                    if (transactions.size() < pageSize) {
+                        sink.complete();
+                        return position;
+                    }
+                    return Position.after(transactions.get(transactions.size() - 1));
+                })
+                .flatMapIterable(Function.identity(), 1)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private List<TransactionHistoryEntry> fetch(Long walletId, Filter filter, Position position, int pageSize) {
+        return transactionRepository.findHistoryPage(walletId, filter.type(), filter.createdFrom(),
+                position.createdAt(), position.id(), Limit.of(pageSize));
+    }
+
+    /**
+     * Which transactions to list: optionally one type, and days {@code from} to {@code to}, inclusive.
+     */
+    public record Filter(TransactionType type, LocalDate from, LocalDate to) {
+
+        public Filter {
+            if (from != null && to != null && to.isBefore(from)) {
+                throw new InvalidDateRangeException("A history range must not end before it starts: " + from + " to " + to);
+            }
+        }
+
+        LocalDateTime createdFrom() {
+            return from == null ? EARLIEST : from.atStartOfDay();
+        }
+
+        Position start() {
+            return new Position(to == null ? LATEST : to.plusDays(1).atStartOfDay(), Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * A place in the newest-first order: everything created before {@code createdAt}, or at it with a lower id.
+     */
+    private record Position(LocalDateTime createdAt, long id) {
+
+        static Position after(TransactionHistoryEntry last) {
+            return new Position(last.createdAt(), last.id());
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Position decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                return new Position(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+}
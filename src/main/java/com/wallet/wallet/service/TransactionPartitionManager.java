@@ -0,0 +1,223 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.LedgerAuditRun;
+import com.wallet.wallet.repository.LedgerAuditRunRepository;
+import com.wallet.wallet.repository.TransactionPartitionJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps {@code transactions} range-partitioned by day on MySQL, so a day's reconciliation reads only that
+ * day's partition and dropping old history is a metadata operation instead of a mass DELETE.
+ * On startup the table is partitioned if it is not yet (a one-off rebuild) and empty partitions are made
+ * for the coming days. The nightly run also moves days older than the retention into the {@link LedgerArchive}
+ * and drops their partitions. Only days that ledger snapshots already cover are archived, so the ledger
+ * audit never needs rows that are no longer in the database. The nightly run is driven from a thread of its own,
+ * as archiving a day can take long, and the shared scheduler thread also drives the outbox relay.
+ */
+@Service
+@Slf4j
+public class TransactionPartitionManager {
+
+    private final TransactionPartitionJdbcRepository partitionRepository;
+    private final LedgerArchive ledgerArchive;
+    private final LedgerAuditRunRepository ledgerAuditRunRepository;
+    private final WalletProperties.Partitioning settings;
+    private final boolean mySql;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ledger-partitioning");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Depends on the EntityManagerFactory so that Hibernate has created or updated the schema first.
+     */
+    public TransactionPartitionManager(EntityManagerFactory entityManagerFactory,
+                                       TransactionPartitionJdbcRepository partitionRepository,
+                                       LedgerArchive ledgerArchive,
+                                       LedgerAuditRunRepository ledgerAuditRunRepository,
+                                       WalletProperties walletProperties) throws MetaDataAccessException {
+        this.partitionRepository = partitionRepository;
+        this.ledgerArchive = ledgerArchive;
+        this.ledgerAuditRunRepository = ledgerAuditRunRepository;
+        this.settings = walletProperties.getPartitioning();
+        this.mySql = partitionRepository.isMySql();
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (mySql) {
+            maintain(false);
+        }
+    }
+
+    @Scheduled(cron = "${wallet.partitioning.cron:0 30 1 * * *}")
+    public void scheduledMaintenance() {
+        if (!mySql) {
+            return;
+        }
+        runner.execute(() -> {
+            try {
+                maintain(true);
+            } catch (RuntimeException e) {
+                log.error("Ledger partition maintenance failed; the next run retries", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Brings the partitions up to date and, if {@code archive}, archives cold days. Does nothing if another
+     * node is already at it.
+     */
+    public void maintain(boolean archive) {
+        Boolean done = partitionRepository.withPartitionLock(session -> {
+            migrateLegacyConstraints(session);
+            if (!settings.isEnabled()) {
+                return true;
+            }
+            LocalDate today = LocalDate.now();
+            if (!ensureDayPartitions(session, today) || !archive) {
+                return true;
+            }
+            archiveColdDays(session, today);
+            return true;
+        });
+        if (done == null) {
+            log.info("Ledger partitions are being maintained by another node");
+        }
+    }
+
+    /**
+     * Moves transaction ID uniqueness to {@code transaction_keys} and drops the wallet foreign key, neither of
+     * which a partitioned table can keep. Only finds something to do on a database created by an older version.
+     */
+    private void migrateLegacyConstraints(TransactionPartitionJdbcRepository.Session session) {
+        List<String> uniqueIndexes = session.legacyUniqueIndexes();
+        if (!uniqueIndexes.isEmpty()) {
+            int claimed = session.backfillTransactionKeys();
+            log.info("Claimed {} existing transaction IDs in transaction_keys", claimed);
+            uniqueIndexes.forEach(session::dropIndex);
+        }
+        session.foreignKeys().forEach(session::dropForeignKey);
+    }
+
+    /**
+     * @return false if the table is partitioned some other way and was left alone
+     */
+    private boolean ensureDayPartitions(TransactionPartitionJdbcRepository.Session session, LocalDate today) {
+        LocalDate lastNeeded = today.plusDays(settings.getPremakeDays());
+        List<String> partitions = session.partitions();
+        if (partitions.isEmpty()) {
+            // Older rows all land in the first partition and are archived together once it is old enough
+            LocalDate oldest = session.oldestDay();
+            LocalDate retainFrom = today.minusDays(settings.getRetention().toDays());
+            LocalDate first = oldest == null || oldest.isAfter(today) ? today
+                    : oldest.isBefore(retainFrom) ? retainFrom : oldest;
+            log.info("Partitioning transactions by day from {} to {}; this rebuilds the table once", first, lastNeeded);
+            session.partitionByDay(first, lastNeeded);
+            return true;
+        }
+
+        LocalDate lastDay = partitions.size() < 2 ? null
+                : TransactionPartitionJdbcRepository.partitionDay(partitions.get(partitions.size() - 2));
+        if (lastDay == null || !TransactionPartitionJdbcRepository.FUTURE_PARTITION.equals(partitions.get(partitions.size() - 1))) {
+            log.warn("transactions is partitioned but not by day as expected ({}); leaving it alone", partitions);
+            return false;
+        }
+        if (lastDay.isBefore(lastNeeded)) {
+            session.addDays(lastDay.plusDays(1), lastNeeded);
+            log.info("Added ledger partitions up to {}", lastNeeded);
+        }
+        return true;
+    }
+
+    private void archiveColdDays(TransactionPartitionJdbcRepository.Session session, LocalDate today) {
+        if (!ledgerArchive.isEnabled()) {
+            return;
+        }
+        LocalDateTime coveredUntil = ledgerAuditRunRepository
+                .findFirstByKindAndStatusOrderByIdDesc(LedgerAuditRun.Kind.SNAPSHOT, LedgerAuditRun.Status.COMPLETED)
+                .map(LedgerAuditRun::getCutoff)
+                .orElse(null);
+        if (coveredUntil == null) {
+            log.warn("No completed ledger snapshot yet; not archiving ledger partitions");
+            return;
+        }
+        LocalDate retainFrom = today.minusDays(settings.getRetention().toDays());
+        for (String partition : session.partitions()) {
+            LocalDate day = TransactionPartitionJdbcRepository.partitionDay(partition);
+            if (day == null || !day.isBefore(retainFrom) || day.plusDays(1).atStartOfDay().isAfter(coveredUntil)) {
+                return;
+            }
+            archivePartition(session, partition);
+        }
+    }
+
+    /**
+     * Writes the partition's rows to one archive file per day, then drops the partition. A run interrupted
+     * before the drop simply rewrites the same files next time.
+     */
+    private void archivePartition(TransactionPartitionJdbcRepository.Session session, String partition) {
+        long expected = session.countPartition(partition);
+        long written = 0;
+        try (Stream<TransactionDTO> rows = session.streamPartition(partition)) {
+            Iterator<TransactionDTO> iterator = rows.iterator();
+            LedgerArchive.DayWriter writer = null;
+            try {
+                while (iterator.hasNext()) {
+                    TransactionDTO transaction = iterator.next();
+                    LocalDate day = transaction.getCreatedAt().toLocalDate();
+                    if (writer == null || !day.equals(writer.day())) {
+                        written += commit(writer);
+                        writer = ledgerArchive.write(day);
+                    }
+                    writer.add(transaction);
+                }
+                written += commit(writer);
+            } finally {
+                if (writer != null) {
+                    writer.close();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error archiving ledger partition " + partition, e);
+        }
+        if (written != expected) {
+            throw new IllegalStateException("Archived " + written + " of " + expected + " rows of ledger partition " + partition + "; keeping it");
+        }
+        session.dropPartition(partition);
+        log.info("Archived {} ledger rows of partition {} and dropped it", written, partition);
+    }
+
+    private static long commit(LedgerArchive.DayWriter writer) throws IOException {
+        if (writer == null) {
+            return 0;
+        }
+        writer.commit();
+        writer.close();
+        return writer.rows();
+    }
+}
@@ -0,0 +1,42 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.WalletDailyActivity;
+import com.wallet.wallet.exception.InvalidDateRangeException;
+import com.wallet.wallet.repository.WalletDailyAggregateRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Reports a wallet's activity per day from the daily aggregates, a primary key range read of at most one
+ * row per day, instead of summing the ledger. The figures trail the ledger by the event consumer's lag.
+ */
+@Service
+public class WalletActivityService {
+
+    private final WalletDailyAggregateRepository walletDailyAggregateRepository;
+    private final int maxRangeDays;
+
+    public WalletActivityService(WalletDailyAggregateRepository walletDailyAggregateRepository, WalletProperties walletProperties) {
+        this.walletDailyAggregateRepository = walletDailyAggregateRepository;
+        this.maxRangeDays = walletProperties.getAggregates().getMaxRangeDays();
+    }
+
+    /**
+     * @param to last day of the range, inclusive
+     * @return one entry per day with transactions, in date order
+     * @throws InvalidDateRangeException if {@code to} is before {@code from} or the range is longer than allowed
+     */
+    public List<WalletDailyActivity> daily(Long walletId, LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days < 1 || days > maxRangeDays) {
+            throw new InvalidDateRangeException("An activity range must cover 1 to " + maxRangeDays + " days, not " + days);
+        }
+        return walletDailyAggregateRepository.findByWalletIdAndActivityDateBetweenOrderByActivityDate(walletId, from, to).stream()
+                .map(a -> new WalletDailyActivity(a.getActivityDate(), a.getTopupCount(), a.getTopupTotal(), a.getConsumeCount(), a.getConsumeTotal()))
+                .toList();
+    }
+}
@@ -0,0 +1,68 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.dto.BatchOperation;
+import com.wallet.wallet.dto.BatchOperationResult;
+import com.wallet.wallet.exception.InsufficientBalanceException;
+import com.wallet.wallet.exception.InvalidAmountException;
+import com.wallet.wallet.exception.TransactionAlreadyExistsException;
+import com.wallet.wallet.exception.WalletNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies bulk topups/consumes from upstream settlement systems in a single transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WalletBatchService {
+
+    private final LedgerBatchWriter ledgerBatchWriter;
+
+    /**
+     * Applies the operations in order and reports a result for each one.
+     * Rejected operations do not affect the others; if the database fails, nothing is applied.
+     */
+    @Transactional
+    public List<BatchOperationResult> process(List<BatchOperation> operations) {
+        List<RuntimeException> failures = ledgerBatchWriter.apply(operations);
+
+        List<BatchOperationResult> results = new ArrayList<>(operations.size());
+        int rejected = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            RuntimeException failure = failures.get(i);
+            if (failure != null) {
+                rejected++;
+            }
+            results.add(new BatchOperationResult(operation.getTransactionId(), operation.getWalletId(),
+                    toStatus(failure), failure == null ? null : failure.getMessage()));
+        }
+        log.info("Processed batch of {} wallet operations ({} rejected)", operations.size(), rejected);
+        return results;
+    }
+
+    private BatchOperationResult.Status toStatus(RuntimeException failure) {
+        if (failure == null) {
+            return BatchOperationResult.Status.SUCCESS;
+        }
+        if (failure instanceof TransactionAlreadyExistsException) {
+            return BatchOperationResult.Status.DUPLICATE_TRANSACTION;
+        }
+        if (failure instanceof InsufficientBalanceException) {
+            return BatchOperationResult.Status.INSUFFICIENT_BALANCE;
+        }
+        if (failure instanceof WalletNotFoundException) {
+            return BatchOperationResult.Status.WALLET_NOT_FOUND;
+        }
+        if (failure instanceof InvalidAmountException) {
+            return BatchOperationResult.Status.INVALID_AMOUNT;
+        }
+        throw failure;
+    }
+}
@@ -0,0 +1,102 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.model.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-phase timers and outcome counters for {@link WalletService} topups and consumes.
+ * Every meter is registered up front, so recording on the hot path is a couple of clock reads and
+ * no registry lookups. Timers are tagged {@code operation} and {@code phase}; rejections are counted
+ * by {@code operation} and {@code reason}.
+ */
+@Component
+public class WalletMetrics {
+
+    public enum Phase {
+        /** In-memory check of recently committed transaction IDs. */
+        DUPLICATE_CHECK,
+        /** Conditional UPDATE of the balance (or load, modify and save in the legacy mode). */
+        BALANCE_UPDATE,
+        /** Insert of the ledger row, flushed so unique-constraint violations surface here. */
+        LEDGER_INSERT,
+        /** Insert of the outbox event that the relay publishes to RabbitMQ. */
+        OUTBOX_ENQUEUE,
+        /** From the start of the commit until the database has acknowledged it. */
+        COMMIT
+    }
+
+    public enum Rejection {
+        DUPLICATE,
+        INSUFFICIENT_BALANCE,
+        WALLET_NOT_FOUND
+    }
+
+    private final Map<TransactionType, Map<Phase, Timer>> phaseTimers = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionType, Map<Rejection, Counter>> rejections = new EnumMap<>(TransactionType.class);
+
+    public WalletMetrics(MeterRegistry meterRegistry) {
+        for (TransactionType type : TransactionType.values()) {
+            String operation = type.name().toLowerCase(Locale.ROOT);
+            Map<Phase, Timer> timers = new EnumMap<>(Phase.class);
+            for (Phase phase : Phase.values()) {
+                timers.put(phase, Timer.builder("wallet.operation.phase")
+                        .description("Time spent in one phase of a wallet operation")
+                        .tag("operation", operation)
+                        .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry));
+            }
+            phaseTimers.put(type, timers);
+
+            Map<Rejection, Counter> counters = new EnumMap<>(Rejection.class);
+            for (Rejection rejection : Rejection.values()) {
+                counters.put(rejection, Counter.builder("wallet.operation.rejected")
+                        .description("Wallet operations turned down by a business rule")
+                        .tag("operation", operation)
+                        .tag("reason", rejection.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry));
+            }
+            rejections.put(type, counters);
+        }
+    }
+
+    public Timer phase(TransactionType type, Phase phase) {
+        return phaseTimers.get(type).get(phase);
+    }
+
+    public void rejected(TransactionType type, Rejection rejection) {
+        rejections.get(type).get(rejection).increment();
+    }
+
+    /**
+     * Times the commit of the surrounding transaction, if there is one.
+     */
+    public void timeCommit(TransactionType type) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Timer commit = phase(type, Phase.COMMIT);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long started;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                started = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                commit.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+}
@@ -1,19 +1,23 @@
 package com.wallet.wallet.service;
 
 import com.wallet.wallet.config.RabbitMQConfig;
-import com.wallet.wallet.dto.ConsumeRequest;
-import com.wallet.wallet.dto.TopupRequest;
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.TransactionEvent;
 import com.wallet.wallet.exception.InsufficientBalanceException;
 import com.wallet.wallet.exception.TransactionAlreadyExistsException;
 import com.wallet.wallet.exception.WalletNotFoundException;
+import com.wallet.wallet.model.Money;
 import com.wallet.wallet.model.Transaction;
+import com.wallet.wallet.model.TransactionKey;
 import com.wallet.wallet.model.TransactionType;
 import com.wallet.wallet.model.Wallet;
+import com.wallet.wallet.repository.TransactionKeyRepository;
 import com.wallet.wallet.repository.TransactionRepository;
 import com.wallet.wallet.repository.WalletRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,68 +30,172 @@ import java.time.LocalDateTime;
 public class WalletService {
     private final WalletRepository walletRepository;
     private final TransactionRepository transactionRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final TransactionKeyRepository transactionKeyRepository;
+    private final OutboxWriter outboxWriter;
+    private final WalletProperties walletProperties;
+    private final RecentTransactionIdFilter recentTransactionIdFilter;
+    private final BalanceCache balanceCache;
+    private final WalletMetrics walletMetrics;
+    private final LiveReconciliation liveReconciliation;
 
     @Transactional
-    public void topup(Long walletId, BigDecimal amount, String transactionId) {
-        transactionRepository.findByTransactionId(transactionId).ifPresent(t -> {
-            throw new TransactionAlreadyExistsException("Transaction with ID " + transactionId + " already exists.");
-        });
-
-        Wallet wallet = walletRepository.findById(walletId)
-                .orElseGet(() -> createNewWallet(walletId));
+    public void topup(Long walletId, BigDecimal requestedAmount, String transactionId) {
+        TransactionType type = TransactionType.TOPUP;
+        Money amount = Money.of(requestedAmount);
+        try {
+            walletMetrics.phase(type, WalletMetrics.Phase.DUPLICATE_CHECK).record(() -> rejectKnownDuplicate(transactionId));
+            walletMetrics.timeCommit(type);
+            balanceCache.invalidateOnCompletion(walletId);
+
+            Wallet wallet = walletMetrics.phase(type, WalletMetrics.Phase.BALANCE_UPDATE).record(() -> credit(walletId, amount));
+            Transaction transaction = walletMetrics.phase(type, WalletMetrics.Phase.LEDGER_INSERT).record(() -> createAndSaveTransaction(wallet, amount, transactionId, type));
+
+            log.info("Wallet {} topped up by {}", walletId, amount);
+            TransactionEvent event = TransactionEvent.of(transaction);
+            walletMetrics.phase(type, WalletMetrics.Phase.OUTBOX_ENQUEUE)
+                    .record(() -> outboxWriter.enqueue(RabbitMQConfig.QUEUE_NAME, event));
+            liveReconciliation.recordAfterCommit(event);
+        } catch (RuntimeException e) {
+            countRejection(type, e);
+            throw e;
+        }
+    }
 
-        wallet.setBalance(wallet.getBalance().add(amount));
-        walletRepository.save(wallet);
+    @Transactional
+    public void consume(Long walletId, BigDecimal requestedAmount, String transactionId) {
+        TransactionType type = TransactionType.CONSUME;
+        Money amount = Money.of(requestedAmount);
+        try {
+            walletMetrics.phase(type, WalletMetrics.Phase.DUPLICATE_CHECK).record(() -> rejectKnownDuplicate(transactionId));
+            walletMetrics.timeCommit(type);
+            balanceCache.invalidateOnCompletion(walletId);
+
+            Wallet wallet = walletMetrics.phase(type, WalletMetrics.Phase.BALANCE_UPDATE).record(() -> debit(walletId, amount, transactionId));
+            Transaction transaction = walletMetrics.phase(type, WalletMetrics.Phase.LEDGER_INSERT).record(() -> createAndSaveTransaction(wallet, amount, transactionId, type));
+
+            log.info("Wallet {} consumed by {}", walletId, amount);
+            TransactionEvent event = TransactionEvent.of(transaction);
+            walletMetrics.phase(type, WalletMetrics.Phase.OUTBOX_ENQUEUE)
+                    .record(() -> outboxWriter.enqueue(RabbitMQConfig.QUEUE_NAME, event));
+            liveReconciliation.recordAfterCommit(event);
+        } catch (RuntimeException e) {
+            countRejection(type, e);
+            throw e;
+        }
+    }
 
-        createAndSaveTransaction(wallet, amount, transactionId, TransactionType.TOPUP);
+    public BigDecimal getBalance(Long walletId) {
+        return balanceCache.get(walletId, this::loadBalance);
+    }
 
-        log.info("Wallet {} topped up by {}", walletId, amount);
-        rabbitTemplate.convertAndSend(RabbitMQConfig.QUEUE_NAME, new TopupRequest(amount, transactionId));
+    private BigDecimal loadBalance(Long walletId) {
+        return walletRepository.findById(walletId)
+                .map(wallet -> wallet.getBalance().toBigDecimal())
+                .orElseThrow(() -> new WalletNotFoundException("Wallet with ID " + walletId + " not found."));
     }
 
-    @Transactional
-    public void consume(Long walletId, BigDecimal amount, String transactionId) {
-        transactionRepository.findByTransactionId(transactionId).ifPresent(t -> {
-            throw new TransactionAlreadyExistsException("Transaction with ID " + transactionId + " already exists.");
-        });
+    /**
+     * Rejects retries of transactions this node has recently committed without a database round trip.
+     * Anything the filter does not know about is caught by the transaction_keys primary key on insert.
+     */
+    private void rejectKnownDuplicate(String transactionId) {
+        if (recentTransactionIdFilter.contains(transactionId)) {
+            throw duplicateTransaction(transactionId);
+        }
+    }
 
+    private Wallet credit(Long walletId, Money amount) {
+        if (isAtomic()) {
+            walletRepository.creditOrCreate(walletId, amount.toBigDecimal());
+            return walletRepository.getReferenceById(walletId);
+        }
         Wallet wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> new WalletNotFoundException("Wallet with ID " + walletId + " not found."));
+                .orElseGet(() -> createNewWallet(walletId));
+        wallet.setBalance(wallet.getBalance().plus(amount));
+        return walletRepository.save(wallet);
+    }
 
-        if (wallet.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientBalanceException("Insufficient balance for wallet ID " + walletId);
+    private Wallet debit(Long walletId, Money amount, String transactionId) {
+        try {
+            return isAtomic() ? debitAtomically(walletId, amount) : debitByReadModifyWrite(walletId, amount);
+        } catch (InsufficientBalanceException | WalletNotFoundException e) {
+            // A retry of a consume that already went through must still be reported as a duplicate
+            if (transactionKeyRepository.existsById(transactionId)) {
+                throw duplicateTransaction(transactionId);
+            }
+            throw e;
         }
+    }
 
-        wallet.setBalance(wallet.getBalance().subtract(amount));
-        walletRepository.save(wallet);
+    private void countRejection(TransactionType type, RuntimeException e) {
+        if (e instanceof TransactionAlreadyExistsException) {
+            walletMetrics.rejected(type, WalletMetrics.Rejection.DUPLICATE);
+        } else if (e instanceof InsufficientBalanceException) {
+            walletMetrics.rejected(type, WalletMetrics.Rejection.INSUFFICIENT_BALANCE);
+        } else if (e instanceof WalletNotFoundException) {
+            walletMetrics.rejected(type, WalletMetrics.Rejection.WALLET_NOT_FOUND);
+        }
+    }
 
-        createAndSaveTransaction(wallet, amount, transactionId, TransactionType.CONSUME);
+    private TransactionAlreadyExistsException duplicateTransaction(String transactionId) {
+        return new TransactionAlreadyExistsException("Transaction with ID " + transactionId + " already exists.");
+    }
 
-        log.info("Wallet {} consumed by {}", walletId, amount);
-        rabbitTemplate.convertAndSend(RabbitMQConfig.QUEUE_NAME, new ConsumeRequest(amount, transactionId));
+    private boolean isAtomic() {
+        return walletProperties.getBalanceUpdateMode() == WalletProperties.BalanceUpdateMode.ATOMIC;
     }
 
-    public BigDecimal getBalance(Long walletId) {
-        return walletRepository.findById(walletId)
-                .map(Wallet::getBalance)
+    /**
+     * Performs the funds check and the debit as one conditional UPDATE. Only when it affects no rows
+     * do we go back to the database to tell a missing wallet apart from insufficient funds.
+     */
+    private Wallet debitAtomically(Long walletId, Money amount) {
+        if (walletRepository.debitIfSufficient(walletId, amount) == 0) {
+            if (!walletRepository.existsById(walletId)) {
+                throw new WalletNotFoundException("Wallet with ID " + walletId + " not found.");
+            }
+            throw new InsufficientBalanceException("Insufficient balance for wallet ID " + walletId);
+        }
+        return walletRepository.getReferenceById(walletId);
+    }
+
+    private Wallet debitByReadModifyWrite(Long walletId, Money amount) {
+        Wallet wallet = walletRepository.findById(walletId)
                 .orElseThrow(() -> new WalletNotFoundException("Wallet with ID " + walletId + " not found."));
+
+        if (wallet.getBalance().isLessThan(amount)) {
+            throw new InsufficientBalanceException("Insufficient balance for wallet ID " + walletId);
+        }
+
+        wallet.setBalance(wallet.getBalance().minus(amount));
+        return walletRepository.save(wallet);
     }
 
     private Wallet createNewWallet(Long walletId) {
         Wallet newWallet = new Wallet();
         newWallet.setId(walletId);
-        newWallet.setBalance(BigDecimal.ZERO);
+        newWallet.setBalance(Money.ZERO);
         return walletRepository.save(newWallet);
     }
 
-    private void createAndSaveTransaction(Wallet wallet, BigDecimal amount, String transactionId, TransactionType type) {
+    private Transaction createAndSaveTransaction(Wallet wallet, Money amount, String transactionId, TransactionType type) {
         Transaction transaction = new Transaction();
         transaction.setWallet(wallet);
         transaction.setAmount(amount);
         transaction.setTransactionId(transactionId);
         transaction.setType(type);
         transaction.setCreatedAt(LocalDateTime.now());
-        transactionRepository.save(transaction);
+        try {
+            transactionKeyRepository.save(new TransactionKey(transactionId));
+            transactionRepository.saveAndFlush(transaction);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                throw duplicateTransaction(transactionId);
+            }
+            throw e;
+        }
+        recentTransactionIdFilter.rememberAfterCommit(transactionId);
+        return transaction;
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.wallet.wallet.controller;
+
+import com.wallet.wallet.dto.LedgerAuditReport;
+import com.wallet.wallet.dto.LedgerDiscrepancyView;
+import com.wallet.wallet.model.LedgerAuditRun;
+import com.wallet.wallet.service.LedgerAuditService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Unit tests for the LedgerAuditController.
+ */
+@WebMvcTest(LedgerAuditController.class)
+class LedgerAuditControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LedgerAuditService ledgerAuditService;
+
+    @Test
+    void getLatestRun_returnsTheLatestAuditWithItsDiscrepancies() throws Exception {
+        when(ledgerAuditService.latest(LedgerAuditRun.Kind.AUDIT)).thenReturn(Optional.of(LedgerAuditReport.builder()
+                .runId(7L)
+                .kind("AUDIT")
+                .status("COMPLETED")
+                .walletsProcessed(2)
+                .discrepancyCount(1)
+                .discrepancies(List.of(new LedgerDiscrepancyView(2L, new BigDecimal("55.00"), new BigDecimal("50.00"))))
+                .build()));
+
+        mockMvc.perform(get("/api/v1/ledger-audit/latest"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.runId").value(7))
+                .andExpect(jsonPath("$.discrepancyCount").value(1))
+                .andExpect(jsonPath("$.discrepancies[0].walletId").value(2))
+                .andExpect(jsonPath("$.discrepancies[0].expectedBalance").value(50.00));
+    }
+
+    @Test
+    void getLatestRun_returns404BeforeTheFirstRun() throws Exception {
+        when(ledgerAuditService.latest(LedgerAuditRun.Kind.SNAPSHOT)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/ledger-audit/latest").param("kind", "SNAPSHOT"))
+                .andExpect(status().isNotFound());
+    }
+}
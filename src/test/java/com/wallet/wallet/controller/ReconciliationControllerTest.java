@@ -0,0 +1,186 @@
+package com.wallet.wallet.controller;
+
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.LiveReconciliationStatus;
+import com.wallet.wallet.exception.ExactMatchingRequiredException;
+import com.wallet.wallet.exception.InvalidDateRangeException;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationSummary;
+import com.wallet.wallet.service.LiveReconciliation;
+import com.wallet.wallet.service.ReconciliationCsvExporter;
+import com.wallet.wallet.service.ReconciliationRangeService;
+import com.wallet.wallet.service.ReconciliationResultService;
+import com.wallet.wallet.service.ReconciliationService;
+import com.wallet.wallet.service.ReconciliationSink;
+import com.wallet.wallet.service.ReconciliationStreamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Unit tests for the ReconciliationController.
+ * The ReconciliationService is mocked; the CSV exporter is the real one.
+ */
+@WebMvcTest(ReconciliationController.class)
+@Import(ReconciliationCsvExporter.class)
+class ReconciliationControllerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 9, 12);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReconciliationService reconciliationService;
+
+    @MockBean
+    private ReconciliationResultService reconciliationResultService;
+
+    @MockBean
+    private ReconciliationRangeService reconciliationRangeService;
+
+    @MockBean
+    private ReconciliationStreamService reconciliationStreamService;
+
+    @MockBean
+    private LiveReconciliation liveReconciliation;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(reconciliationService.reconcile(eq(DATE), any())).thenAnswer(invocation -> {
+            ReconciliationSink sink = invocation.getArgument(1);
+            sink.accept(new ReconciliationRecord(ReconciliationRecord.Status.MISSING_IN_INTERNAL, "EXT-ONLY-TRX-888",
+                    null, new ExternalTransaction("EXT-ONLY-TRX-888", new BigDecimal("500.00"))));
+            return ReconciliationSummary.builder().reportDate(DATE.toString()).totalExternalTransactions(1).missingInInternalCount(1).build();
+        });
+    }
+
+    @Test
+    void exportCsv_streamsThePlainReport() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/reconciliation/report/csv").param("date", "2025-09-12"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reconciliation_report_2025-09-12.csv\""))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+
+        String csv = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(csv.contains("\"MISSING_IN_INTERNAL\",\"EXT-ONLY-TRX-888\""));
+        assertTrue(csv.contains("\"Missing in Internal:\",\"1\""));
+    }
+
+    @Test
+    void exportCsv_isGzippedWhenTheClientAcceptsIt() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/reconciliation/report/csv").param("date", "2025-09-12")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(csv.contains("\"EXT-ONLY-TRX-888\""));
+    }
+
+    @Test
+    void exportCsv_ignoresGzipWithZeroQuality() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/reconciliation/report/csv").param("date", "2025-09-12")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void rangeReport_rejectsTooLongRanges() throws Exception {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 3, 1);
+        when(reconciliationRangeService.reconcile(from, to)).thenThrow(new InvalidDateRangeException("A reconciliation range must cover 1 to 31 days, not 60"));
+
+        mockMvc.perform(get("/api/v1/reconciliation/report/range").param("from", "2025-01-01").param("to", "2025-03-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("A reconciliation range must cover 1 to 31 days, not 60"));
+    }
+
+    @Test
+    void streamedOutputs_answerConflictWhileTolerantRulesAreConfigured() throws Exception {
+        doThrow(new ExactMatchingRequiredException("/report/csv pairs by exact transaction ID only"))
+                .when(reconciliationService).requireExactMatching("/report/csv");
+
+        mockMvc.perform(get("/api/v1/reconciliation/report/csv").param("date", "2025-09-12"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("/report/csv pairs by exact transaction ID only"));
+    }
+
+    @Test
+    void streamReport_writesOneJsonRecordPerLine() throws Exception {
+        when(reconciliationStreamService.records(DATE)).thenReturn(Flux.just(
+                new ReconciliationRecord(ReconciliationRecord.Status.MISSING_IN_INTERNAL, "EXT-ONLY-TRX-888",
+                        null, new ExternalTransaction("EXT-ONLY-TRX-888", new BigDecimal("500.00"))),
+                new ReconciliationRecord(ReconciliationRecord.Status.MISSING_IN_INTERNAL, "EXT-ONLY-TRX-889",
+                        null, new ExternalTransaction("EXT-ONLY-TRX-889", new BigDecimal("1.00")))));
+
+        MvcResult started = mockMvc.perform(get("/api/v1/reconciliation/report/stream").param("date", "2025-09-12")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"transactionId\":\"EXT-ONLY-TRX-888\""));
+        assertTrue(lines[1].contains("\"transactionId\":\"EXT-ONLY-TRX-889\""));
+    }
+
+    @Test
+    void liveStatus_returnsTheCurrentCountsOfTheDay() throws Exception {
+        when(liveReconciliation.status(DATE)).thenReturn(LiveReconciliationStatus.builder()
+                .date(DATE.toString()).enabled(true).matchedCount(40).mismatchedCount(1).pendingExternalCount(3).build());
+
+        mockMvc.perform(get("/api/v1/reconciliation/live").param("date", "2025-09-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matchedCount").value(40))
+                .andExpect(jsonPath("$.mismatchedCount").value(1))
+                .andExpect(jsonPath("$.pendingExternalCount").value(3));
+    }
+}
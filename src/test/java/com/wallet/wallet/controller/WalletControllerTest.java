@@ -1,23 +1,54 @@
 package com.wallet.wallet.controller;
 
+import com.wallet.wallet.dto.BatchOperation;
+import com.wallet.wallet.dto.BatchOperationRequest;
+import com.wallet.wallet.dto.BatchOperationResult;
 import com.wallet.wallet.dto.ConsumeRequest;
 import com.wallet.wallet.dto.TopupRequest;
+import com.wallet.wallet.dto.TransactionHistoryEntry;
+import com.wallet.wallet.dto.TransactionHistoryPage;
+import com.wallet.wallet.dto.WalletDailyActivity;
+import com.wallet.wallet.exception.AdmissionRejectedException;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.service.AdmissionControl;
+import com.wallet.wallet.service.HotWalletBatcher;
+import com.wallet.wallet.service.TransactionHistoryService;
+import com.wallet.wallet.service.WalletActivityService;
+import com.wallet.wallet.service.WalletBatchService;
 import com.wallet.wallet.service.WalletService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -36,6 +67,30 @@ class WalletControllerTest {
     @MockBean
     private WalletService walletService;
 
+    @MockBean
+    private HotWalletBatcher hotWalletBatcher;
+
+    @MockBean
+    private WalletBatchService walletBatchService;
+
+    @MockBean
+    private AdmissionControl admissionControl;
+
+    @MockBean
+    private TransactionHistoryService transactionHistoryService;
+
+    @MockBean
+    private WalletActivityService walletActivityService;
+
+    @BeforeEach
+    void admitEverything() {
+        when(admissionControl.call(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(admissionControl).run(any());
+    }
+
     @Test
     void topupWallet_shouldReturnSuccess() throws Exception {
         // Arrange
@@ -79,10 +134,137 @@ class WalletControllerTest {
         // Mock the service call to return a specific balance
         when(walletService.getBalance(walletId)).thenReturn(expectedBalance);
 
-        // Act & Assert
-        mockMvc.perform(get("/api/v1/wallets/{walletId}/balance", walletId))
+        // Act & Assert: the balance is read off the request thread
+        MvcResult started = mockMvc.perform(get("/api/v1/wallets/{walletId}/balance", walletId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(objectMapper.writeValueAsString(expectedBalance)));
     }
+
+    @Test
+    void processBatch_shouldReturnPerOperationResults() throws Exception {
+        // Arrange
+        BatchOperationRequest request = new BatchOperationRequest(List.of(
+                new BatchOperation(1L, TransactionType.TOPUP, new BigDecimal("10.00"), "txn-batch-1"),
+                new BatchOperation(2L, TransactionType.CONSUME, new BigDecimal("5.00"), "txn-batch-2")));
+
+        when(walletBatchService.process(anyList())).thenReturn(List.of(
+                new BatchOperationResult("txn-batch-1", 1L, BatchOperationResult.Status.SUCCESS, null),
+                new BatchOperationResult("txn-batch-2", 2L, BatchOperationResult.Status.WALLET_NOT_FOUND, "Wallet with ID 2 not found.")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/wallets/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("SUCCESS"))
+                .andExpect(jsonPath("$[1].status").value("WALLET_NOT_FOUND"));
+    }
+
+    @Test
+    void processBatch_shouldRejectInvalidOperations() throws Exception {
+        // Arrange: negative amount
+        BatchOperationRequest request = new BatchOperationRequest(List.of(
+                new BatchOperation(1L, TransactionType.TOPUP, new BigDecimal("-1.00"), "txn-batch-3")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/wallets/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void topupWallet_shouldReturnTooManyRequestsWhenShed() throws Exception {
+        // Arrange
+        TopupRequest topupRequest = new TopupRequest(new BigDecimal("100.00"), "txn-topup-2");
+        doAnswer(invocation -> {
+            throw new AdmissionRejectedException("Too many concurrent requests, try again shortly.", true);
+        }).when(admissionControl).run(any());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/wallets/{walletId}/topup", 123L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(topupRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value(429));
+    }
+
+    @Test
+    void getTransactions_shouldReturnPageWithNextCursor() throws Exception {
+        // Arrange
+        TransactionHistoryService.Filter filter = new TransactionHistoryService.Filter(
+                TransactionType.TOPUP, LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 30));
+        when(transactionHistoryService.page(123L, filter, "abc", 2)).thenReturn(TransactionHistoryPage.builder()
+                .transactions(List.of(
+                        new TransactionHistoryEntry(9L, "txn-9", new BigDecimal("10.00"), TransactionType.TOPUP, LocalDateTime.of(2025, 9, 12, 10, 0)),
+                        new TransactionHistoryEntry(7L, "txn-7", new BigDecimal("5.00"), TransactionType.TOPUP, LocalDateTime.of(2025, 9, 11, 10, 0))))
+                .nextCursor("def")
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/transactions", 123L)
+                        .param("type", "TOPUP")
+                        .param("from", "2025-09-01")
+                        .param("to", "2025-09-30")
+                        .param("cursor", "abc")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("txn-9"))
+                .andExpect(jsonPath("$.transactions[1].id").value(7))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
+    }
+
+    @Test
+    void getTransactions_shouldRejectRangeEndingBeforeItStarts() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/transactions", 123L)
+                        .param("from", "2025-09-30")
+                        .param("to", "2025-09-01"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(transactionHistoryService);
+    }
+
+    @Test
+    void exportTransactions_shouldStreamNdjson() throws Exception {
+        // Arrange
+        when(transactionHistoryService.export(eq(123L), any())).thenReturn(Flux.just(
+                new TransactionHistoryEntry(9L, "txn-9", new BigDecimal("10.00"), TransactionType.TOPUP, LocalDateTime.of(2025, 9, 12, 10, 0)),
+                new TransactionHistoryEntry(7L, "txn-7", new BigDecimal("5.00"), TransactionType.CONSUME, LocalDateTime.of(2025, 9, 11, 10, 0))));
+
+        // Act & Assert
+        MvcResult started = mockMvc.perform(get("/api/v1/wallets/{walletId}/transactions/export", 123L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("\"txn-7\""));
+    }
+
+    @Test
+    void getDailyActivity_shouldReturnAggregatesPerDay() throws Exception {
+        // Arrange
+        LocalDate day = LocalDate.of(2025, 9, 12);
+        when(walletActivityService.daily(123L, day, day.plusDays(6))).thenReturn(List.of(
+                new WalletDailyActivity(day, 2, new BigDecimal("120.00"), 1, new BigDecimal("30.00"))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/activity", 123L)
+                        .param("from", "2025-09-12")
+                        .param("to", "2025-09-18"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date").value("2025-09-12"))
+                .andExpect(jsonPath("$[0].topupCount").value(2))
+                .andExpect(jsonPath("$[0].consumeTotal").value(30.00));
+    }
 }
@@ -0,0 +1,139 @@
+package com.wallet.wallet.load;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.exception.InsufficientBalanceException;
+import com.wallet.wallet.service.WalletService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of the ATOMIC and READ_MODIFY_WRITE balance update modes with many threads writing to one wallet
+ * through {@link WalletService}, against the database of the offline "local" profile (embedded H2).
+ * Each mode gets its own wallet and runs for the same time after a warm-up. Prints ops/sec per mode and how far
+ * the stored balance drifted from the ledger, then checks that nothing failed and that ATOMIC did not drift.
+ * Run with {@code mvn -Pload test -Dtest=BalanceUpdateModeLoadTest}; tune with -Dload.threads and
+ * -Dload.durationSeconds.
+ */
+@Tag("load")
+@SpringBootTest
+@ActiveProfiles("local")
+class BalanceUpdateModeLoadTest {
+
+    private static final int THREADS = Integer.getInteger("load.threads", 200);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 10);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 2);
+    private static final BigDecimal TOPUP_AMOUNT = new BigDecimal("10.00");
+    private static final BigDecimal CONSUME_AMOUNT = new BigDecimal("7.00");
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletProperties walletProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong transactionSequence = new AtomicLong();
+
+    @AfterEach
+    void restoreMode() {
+        walletProperties.setBalanceUpdateMode(WalletProperties.BalanceUpdateMode.ATOMIC);
+    }
+
+    @Test
+    void atomicAgainstReadModifyWrite() throws Exception {
+        Result atomic = measure(WalletProperties.BalanceUpdateMode.ATOMIC, 40_001L);
+        Result readModifyWrite = measure(WalletProperties.BalanceUpdateMode.READ_MODIFY_WRITE, 40_002L);
+
+        System.out.printf("[load] %d threads on one wallet for %d s each%n", THREADS, DURATION_SECONDS);
+        System.out.printf("[load] %-18s %9s %9s %9s %12s%n", "mode", "applied", "ops/s", "rejected", "drift");
+        for (Result result : List.of(atomic, readModifyWrite)) {
+            System.out.printf("[load] %-18s %9d %9.0f %9d %12s%n", result.mode, result.applied,
+                    result.applied / (result.nanos / 1e9), result.rejected, result.drift.toPlainString());
+        }
+
+        assertEquals(0, atomic.errors, "ATOMIC operations failed");
+        assertEquals(0, readModifyWrite.errors, "READ_MODIFY_WRITE operations failed");
+        assertEquals(0, atomic.drift.signum(), "ATOMIC must not lose updates");
+    }
+
+    private Result measure(WalletProperties.BalanceUpdateMode mode, long walletId) throws Exception {
+        walletProperties.setBalanceUpdateMode(mode);
+        walletService.topup(walletId, new BigDecimal("1000.00"), "mode-seed-" + walletId);
+        run(walletId, Duration.ofSeconds(WARMUP_SECONDS), new Counts());
+
+        Counts counts = new Counts();
+        long nanos = run(walletId, Duration.ofSeconds(DURATION_SECONDS), counts);
+
+        BigDecimal ledger = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(CASE WHEN type = 'TOPUP' THEN amount ELSE -amount END), 0) FROM transactions WHERE wallet_id = ?",
+                BigDecimal.class, walletId);
+        BigDecimal balance = jdbcTemplate.queryForObject("SELECT balance FROM wallets WHERE id = ?", BigDecimal.class, walletId);
+        return new Result(mode, counts.applied.sum(), counts.rejected.sum(), counts.errors.sum(), nanos, balance.subtract(ledger));
+    }
+
+    private long run(long walletId, Duration duration, Counts counts) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(threads.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long sequence = transactionSequence.incrementAndGet();
+                    String transactionId = "mode-" + sequence;
+                    try {
+                        if (sequence % 2 == 0) {
+                            walletService.topup(walletId, TOPUP_AMOUNT, transactionId);
+                        } else {
+                            walletService.consume(walletId, CONSUME_AMOUNT, transactionId);
+                        }
+                        counts.applied.increment();
+                    } catch (InsufficientBalanceException e) {
+                        counts.rejected.increment();
+                    } catch (RuntimeException e) {
+                        counts.errors.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        }
+        threads.shutdown();
+        return System.nanoTime() - started;
+    }
+
+    private static final class Counts {
+        private final LongAdder applied = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * @param drift stored balance minus what the ledger implies
+     */
+    private record Result(WalletProperties.BalanceUpdateMode mode, long applied, long rejected, long errors, long nanos,
+                          BigDecimal drift) {
+    }
+}
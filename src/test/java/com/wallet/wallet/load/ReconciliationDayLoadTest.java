@@ -0,0 +1,137 @@
+package com.wallet.wallet.load;
+
+import com.sun.management.ThreadMXBean;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.dto.TransactionView;
+import com.wallet.wallet.model.Transaction;
+import com.wallet.wallet.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reads one large day of ledger rows the way the in-memory reconciliation report used to (managed entities in a
+ * read-write transaction) and the way it does now (the {@link TransactionView} projection), on the offline
+ * "local" profile. Prints the best time of several runs, the bytes each read allocates and the heap its result
+ * keeps alive, then checks both return the same rows.
+ * Run with {@code mvn -Pload test -Dtest=ReconciliationDayLoadTest}; tune with -Dload.dayRows and -Dload.runs.
+ */
+@Tag("load")
+@SpringBootTest
+@ActiveProfiles("local")
+class ReconciliationDayLoadTest {
+
+    private static final int ROWS = Integer.getInteger("load.dayRows", 500_000);
+    private static final int RUNS = Integer.getInteger("load.runs", 3);
+    private static final LocalDate DATE = LocalDate.of(2025, 10, 1);
+    private static final long FIRST_ID = 50_000_000L;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void entitiesAgainstProjection() {
+        seedDay();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDateTime from = DATE.atStartOfDay();
+        LocalDateTime to = DATE.plusDays(1).atStartOfDay();
+
+        Measurement<List<TransactionDTO>> entities = measure(() -> transactionTemplate.execute(status ->
+                entityManager.createQuery("SELECT t FROM Transaction t WHERE t.createdAt BETWEEN :from AND :to", Transaction.class)
+                        .setParameter("from", from)
+                        .setParameter("to", to.minusNanos(1))
+                        .getResultList().stream()
+                        .map(t -> TransactionDTO.builder()
+                                .transactionId(t.getTransactionId())
+                                .amount(t.getAmount().toBigDecimal())
+                                .type(t.getType())
+                                .createdAt(t.getCreatedAt())
+                                .walletId(t.getWallet().getId())
+                                .build())
+                        .toList()));
+        Measurement<List<TransactionView>> views = measure(() -> transactionTemplate.execute(status ->
+                transactionRepository.findViewsCreatedBetween(from, to)));
+
+        System.out.printf("[load] one day of %d ledger rows, best of %d runs%n", ROWS, RUNS);
+        System.out.printf("[load] %-12s %9s %14s %14s%n", "read", "ms", "allocated MB", "retained MB");
+        entities.print("entities");
+        views.print("projection");
+
+        assertEquals(ROWS, views.result.size());
+        assertEquals(entities.result, views.result.stream().map(TransactionView::toDTO).toList());
+    }
+
+    private void seedDay() {
+        jdbcTemplate.update("INSERT INTO wallets (id, balance) VALUES (900, 0), (901, 0)");
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{FIRST_ID + i, 900 + i % 2, BigDecimal.valueOf(i % 100_000, 2), i % 3 == 0 ? "CONSUME" : "TOPUP",
+                    "DAY-" + i, Timestamp.valueOf(DATE.atStartOfDay().plusNanos(i * (86_400_000_000_000L / ROWS)))});
+            if (rows.size() == 10_000 || i == ROWS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO transactions (id, wallet_id, amount, type, transaction_id, created_at) VALUES (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    /**
+     * Runs the read {@code RUNS} times on the calling thread, so the thread's allocation counter covers all of it,
+     * and keeps the fastest. The retained figure is the heap in use after a GC while the last result is still held.
+     */
+    private static <T> Measurement<T> measure(Supplier<T> read) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        T result = null;
+        long bestNanos = Long.MAX_VALUE;
+        long allocated = 0;
+        long retained = 0;
+        for (int run = 0; run < RUNS; run++) {
+            result = null;
+            System.gc();
+            long heapBefore = memory.getHeapMemoryUsage().getUsed();
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long started = System.nanoTime();
+            result = read.get();
+            long nanos = System.nanoTime() - started;
+            allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            System.gc();
+            retained = memory.getHeapMemoryUsage().getUsed() - heapBefore;
+            bestNanos = Math.min(bestNanos, nanos);
+        }
+        return new Measurement<>(result, bestNanos, allocated, retained);
+    }
+
+    private record Measurement<T>(T result, long nanos, long allocatedBytes, long retainedBytes) {
+
+        void print(String read) {
+            System.out.printf("[load] %-12s %9.0f %14.1f %14.1f%n", read, nanos / 1e6, allocatedBytes / 1048576.0, retainedBytes / 1048576.0);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.wallet.wallet.load;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallet.wallet.dto.BatchOperationResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of the bulk endpoint over HTTP on the offline "local" profile, next to the same operations sent
+ * one request each. Every round posts one batch of alternating topup and consume passes over a set of wallets;
+ * the single-request run sends an equal number of operations from concurrent clients, retrying requests shed
+ * by admission control. Prints ops/sec for both, then checks every operation was applied and the balances add up.
+ * Run with {@code mvn -Pload test -Dtest=WalletBatchLoadTest}; tune with -Dload.batchSize, -Dload.batchRounds,
+ * -Dload.batchWallets and -Dload.clients.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("local")
+class WalletBatchLoadTest {
+
+    private static final int BATCH_SIZE = Integer.getInteger("load.batchSize", 10_000);
+    private static final int ROUNDS = Integer.getInteger("load.batchRounds", 3);
+    private static final int WALLETS = Integer.getInteger("load.batchWallets", 100);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 32);
+
+    private static final long FIRST_BATCH_WALLET = 20_000L;
+    private static final long FIRST_SINGLE_WALLET = 30_000L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    void tenThousandOperationBatches() throws Exception {
+        postBatch(FIRST_BATCH_WALLET, "warmup");
+        sendSingly(FIRST_SINGLE_WALLET, "warmup");
+
+        long batchNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long nanos = postBatch(FIRST_BATCH_WALLET, "round-" + round);
+            System.out.printf("[load] batch round %d: %d operations in %.0f ms, %.0f ops/s%n",
+                    round, BATCH_SIZE, nanos / 1e6, BATCH_SIZE / (nanos / 1e9));
+            batchNanos += nanos;
+        }
+        long singleNanos = sendSingly(FIRST_SINGLE_WALLET, "single");
+
+        System.out.printf("[load] %-22s %9s %9s %9s%n", "mode", "ops", "seconds", "ops/s");
+        System.out.printf("[load] %-22s %9d %9.2f %9.0f%n", "batch of " + BATCH_SIZE, BATCH_SIZE * ROUNDS,
+                batchNanos / 1e9, BATCH_SIZE * ROUNDS / (batchNanos / 1e9));
+        System.out.printf("[load] %-22s %9d %9.2f %9.0f%n", "single, " + CLIENTS + " clients", BATCH_SIZE,
+                singleNanos / 1e9, BATCH_SIZE / (singleNanos / 1e9));
+
+        // Each round leaves every wallet with half its share as topups of 10.00 and half as consumes of 1.00
+        int perWallet = BATCH_SIZE / WALLETS;
+        assertBalance(FIRST_BATCH_WALLET, perWallet * (ROUNDS + 1));
+        assertBalance(FIRST_SINGLE_WALLET, perWallet * 2);
+    }
+
+    private long postBatch(long firstWallet, String prefix) throws Exception {
+        StringBuilder body = new StringBuilder("{\"operations\":[");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"walletId\":").append(firstWallet + i % WALLETS)
+                    .append(",\"type\":\"").append(isTopup(i) ? "TOPUP" : "CONSUME")
+                    .append("\",\"amount\":").append(amount(i))
+                    .append(",\"transactionId\":\"batch-").append(prefix).append('-').append(i).append("\"}");
+        }
+        body.append("]}");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/wallets/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+
+        long started = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        long nanos = System.nanoTime() - started;
+
+        assertEquals(200, response.statusCode(), response.body());
+        List<BatchOperationResult> results = objectMapper.readValue(response.body(), new TypeReference<>() {
+        });
+        assertEquals(BATCH_SIZE, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == BatchOperationResult.Status.SUCCESS));
+        return nanos;
+    }
+
+    /**
+     * Sends the same operations a batch holds as single requests, in batch order per pass over the wallets so
+     * that a pass of consumes only starts once the pass of topups before it is done.
+     */
+    private long sendSingly(long firstWallet, String prefix) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long started = System.nanoTime();
+        try {
+            for (int pass = 0; pass < BATCH_SIZE / WALLETS; pass++) {
+                AtomicInteger next = new AtomicInteger(pass * WALLETS);
+                int end = (pass + 1) * WALLETS;
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    futures.add(clients.submit(() -> {
+                        for (int i = next.getAndIncrement(); i < end; i = next.getAndIncrement()) {
+                            postSingle(firstWallet + i % WALLETS, i, "single-" + prefix + "-" + i);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            clients.shutdown();
+        }
+        return System.nanoTime() - started;
+    }
+
+    private void postSingle(long walletId, int i, String transactionId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/wallets/" + walletId
+                        + (isTopup(i) ? "/topup" : "/consume")))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":" + amount(i) + ",\"transactionId\":\"" + transactionId + "\"}"))
+                .build();
+        while (true) {
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status != 429 && status != 503) {
+                assertEquals(200, status, transactionId);
+                return;
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean isTopup(int i) {
+        return (i / WALLETS) % 2 == 0;
+    }
+
+    private static String amount(int i) {
+        return isTopup(i) ? "10.00" : "1.00";
+    }
+
+    /**
+     * @param operations operations each wallet received, half of them topups of 10.00 and half consumes of 1.00
+     */
+    private void assertBalance(long firstWallet, int operations) {
+        BigDecimal expected = new BigDecimal("4.50").multiply(BigDecimal.valueOf(operations));
+        for (long walletId = firstWallet; walletId < firstWallet + WALLETS; walletId++) {
+            BigDecimal balance = jdbcTemplate.queryForObject("SELECT balance FROM wallets WHERE id = ?", BigDecimal.class, walletId);
+            assertEquals(0, expected.compareTo(balance), "balance of wallet " + walletId);
+        }
+    }
+}
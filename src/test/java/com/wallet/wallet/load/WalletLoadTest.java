@@ -0,0 +1,247 @@
+package com.wallet.wallet.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load run over HTTP against the app on the offline "local" profile (embedded H2, no broker).
+ * Concurrent clients send a mixed workload: contention on one hot wallet, operations spread over many
+ * wallets, retries of already committed transaction IDs, balance reads and reconciliation reports.
+ * Prints throughput and p50/p95/p99 latency per operation, then checks that no request failed with a
+ * server error, every retry was rejected as a duplicate and every wallet's balance adds up. Requests shed by
+ * admission control (429/503) are reported but not counted as failures.
+ * Run with {@code mvn -Pload test}; tune with -Dload.clients, -Dload.durationSeconds, -Dload.wallets,
+ * -Dload.hotRatio, -Dload.duplicateRatio and -Dload.reconciliationRatio.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("local")
+class WalletLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 32);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 10);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 2);
+    private static final int WALLETS = Integer.getInteger("load.wallets", 1_000);
+    private static final double HOT_RATIO = Double.parseDouble(System.getProperty("load.hotRatio", "0.2"));
+    private static final double DUPLICATE_RATIO = Double.parseDouble(System.getProperty("load.duplicateRatio", "0.05"));
+    private static final double RECONCILIATION_RATIO = Double.parseDouble(System.getProperty("load.reconciliationRatio", "0.01"));
+    private static final double BALANCE_RATIO = 0.05;
+
+    private static final long HOT_WALLET = 1L;
+    private static final long FIRST_SPREAD_WALLET = 1_000L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final AtomicLong transactionSequence = new AtomicLong();
+    /** Recently committed transaction IDs with their wallet, replayed as client retries. */
+    private final AtomicReferenceArray<String[]> committed = new AtomicReferenceArray<>(4_096);
+    private final AtomicLong committedCount = new AtomicLong();
+    /** Net amount in cents each wallet should hold, from the operations that returned 200. */
+    private final Map<Long, LongAdder> expectedCents = new ConcurrentHashMap<>();
+
+    @Test
+    void mixedWorkload() throws Exception {
+        run(Duration.ofSeconds(WARMUP_SECONDS), new Stats());
+        Stats stats = new Stats();
+        long elapsedNanos = run(Duration.ofSeconds(DURATION_SECONDS), stats);
+
+        stats.print(elapsedNanos);
+        stats.operations.forEach((operation, recorded) ->
+                assertEquals(0, recorded.serverErrors.sum(), operation + " requests failed with a server error"));
+        Operation.Recorded duplicates = stats.operations.get(Operation.DUPLICATE);
+        assertEquals(duplicates.count() - duplicates.shed(), duplicates.statusCount(409), "every retry of a committed transaction must be rejected");
+        expectedCents.forEach((walletId, cents) -> {
+            BigDecimal balance = jdbcTemplate.queryForObject("SELECT balance FROM wallets WHERE id = ?", BigDecimal.class, walletId);
+            assertEquals(0, BigDecimal.valueOf(cents.sum(), 2).compareTo(balance), "balance of wallet " + walletId);
+        });
+        assertTrue(stats.total() > 0);
+    }
+
+    private long run(Duration duration, Stats stats) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            futures.add(clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    send(stats);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        }
+        clients.shutdown();
+        return System.nanoTime() - started;
+    }
+
+    private void send(Stats stats) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+        if (roll < RECONCILIATION_RATIO) {
+            stats.record(Operation.RECONCILIATION, get("/api/v1/reconciliation/report?date=" + LocalDate.now()));
+            return;
+        }
+        roll -= RECONCILIATION_RATIO;
+        if (roll < BALANCE_RATIO) {
+            stats.record(Operation.BALANCE, get("/api/v1/wallets/" + spreadWallet(random) + "/balance"));
+            return;
+        }
+        roll -= BALANCE_RATIO;
+        if (roll < DUPLICATE_RATIO && committedCount.get() > 0) {
+            String[] retry = committed.get((int) (random.nextLong(Math.min(committedCount.get(), committed.length()))));
+            if (retry != null) {
+                stats.record(Operation.DUPLICATE, post("/api/v1/wallets/" + retry[0] + "/" + retry[1], retry[2], retry[3]));
+                return;
+            }
+        }
+        roll -= DUPLICATE_RATIO;
+
+        boolean hot = roll < HOT_RATIO;
+        long walletId = hot ? HOT_WALLET : spreadWallet(random);
+        // Twice as many topups as consumes keeps most consumes funded
+        boolean topup = random.nextInt(3) > 0;
+        String amount = topup ? "10.00" : "7.00";
+        String transactionId = "load-" + transactionSequence.incrementAndGet();
+        String path = topup ? "topup" : "consume";
+        Timed response = post("/api/v1/wallets/" + walletId + "/" + path, amount, transactionId);
+        stats.record(hot ? Operation.HOT_WALLET : Operation.SPREAD, response);
+
+        if (response.status == 200) {
+            long cents = new BigDecimal(amount).movePointRight(2).longValueExact();
+            expectedCents.computeIfAbsent(walletId, id -> new LongAdder()).add(topup ? cents : -cents);
+            long slot = committedCount.getAndIncrement() % committed.length();
+            committed.set((int) slot, new String[]{String.valueOf(walletId), path, amount, transactionId});
+        }
+    }
+
+    private static long spreadWallet(ThreadLocalRandom random) {
+        return FIRST_SPREAD_WALLET + random.nextInt(WALLETS);
+    }
+
+    private Timed post(String path, String amount, String transactionId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":" + amount + ",\"transactionId\":\"" + transactionId + "\"}"))
+                .build();
+        return send(request);
+    }
+
+    private Timed get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build());
+    }
+
+    private Timed send(HttpRequest request) throws Exception {
+        long started = System.nanoTime();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        return new Timed(response.statusCode(), System.nanoTime() - started);
+    }
+
+    private record Timed(int status, long nanos) {
+    }
+
+    private enum Operation {
+        HOT_WALLET, SPREAD, DUPLICATE, BALANCE, RECONCILIATION;
+
+        private static final class Recorded {
+            private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+            private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+            private final LongAdder serverErrors = new LongAdder();
+
+            long count() {
+                return latencies.size();
+            }
+
+            long shed() {
+                return statusCount(429) + statusCount(503);
+            }
+
+            long statusCount(int status) {
+                LongAdder count = statuses.get(status);
+                return count == null ? 0 : count.sum();
+            }
+        }
+    }
+
+    private static final class Stats {
+        private final Map<Operation, Operation.Recorded> operations = new EnumMap<>(Operation.class);
+
+        Stats() {
+            for (Operation operation : Operation.values()) {
+                operations.put(operation, new Operation.Recorded());
+            }
+        }
+
+        void record(Operation operation, Timed response) {
+            Operation.Recorded recorded = operations.get(operation);
+            recorded.latencies.add(response.nanos);
+            recorded.statuses.computeIfAbsent(response.status, status -> new LongAdder()).increment();
+            if (response.status >= 500 && response.status != 503) {
+                recorded.serverErrors.increment();
+            }
+        }
+
+        long total() {
+            return operations.values().stream().mapToLong(Operation.Recorded::count).sum();
+        }
+
+        void print(long elapsedNanos) {
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("[load] %d clients for %.1f s: %d requests, %.0f req/s%n", CLIENTS, seconds, total(), total() / seconds);
+            System.out.printf("[load] %-15s %9s %9s %9s %9s %9s %9s  %s%n", "operation", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "statuses");
+            operations.forEach((operation, recorded) -> {
+                long[] sorted = recorded.latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+                if (sorted.length == 0) {
+                    return;
+                }
+                System.out.printf("[load] %-15s %9d %9.0f %9.2f %9.2f %9.2f %9.2f  %s%n", operation, sorted.length, sorted.length / seconds,
+                        percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), sorted[sorted.length - 1] / 1e6,
+                        Arrays.toString(recorded.statuses.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue().sum()).sorted().toArray()));
+            });
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
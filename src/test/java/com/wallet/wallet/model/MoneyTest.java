@@ -0,0 +1,46 @@
+package com.wallet.wallet.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for Money and its MoneyConverter.
+ */
+class MoneyTest {
+
+    @Test
+    void amounts_areHeldInMinorUnitsAndRoundedLikeTheColumns() {
+        assertEquals(1_050L, Money.of("10.5").minorUnits());
+        assertEquals(1_001L, Money.of("10.005").minorUnits());
+        assertEquals(1_000L, Money.of(new BigDecimal("1E+1")).minorUnits());
+        assertEquals(new BigDecimal("10.50"), Money.of("10.5").toBigDecimal());
+        assertEquals("10.50", Money.of("10.5").toString());
+    }
+
+    @Test
+    void arithmetic_isExact_andFailsOnOverflow() {
+        Money balance = Money.of("100.00").plus(Money.of("0.10")).minus(Money.of("40.05"));
+
+        assertEquals(Money.of("60.05"), balance);
+        assertTrue(balance.isLessThan(Money.of("60.06")));
+        assertThrows(ArithmeticException.class, () -> new Money(Long.MAX_VALUE).plus(Money.of("0.01")));
+        assertThrows(ArithmeticException.class, () -> new Money(Long.MIN_VALUE).minus(Money.of("0.01")));
+        assertThrows(ArithmeticException.class, () -> Money.of("1E+20"));
+    }
+
+    @Test
+    void converter_mapsToTheDecimalColumn() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertEquals(new BigDecimal("17.50"), converter.convertToDatabaseColumn(Money.of("17.5")));
+        assertEquals(Money.of("17.50"), converter.convertToEntityAttribute(new BigDecimal("17.50")));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -1,7 +1,6 @@
 package com.wallet.wallet.model;
 
 import org.junit.jupiter.api.Test;
-import java.math.BigDecimal;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -15,7 +14,7 @@ class WalletTest {
     void testWalletCreationAndProperties() {
         // test data
         Long walletId = 12345L;
-        BigDecimal initialBalance = new BigDecimal("150.75");
+        Money initialBalance = Money.of("150.75");
 
         // Create a new Wallet instance and set its properties
         Wallet wallet = new Wallet();
@@ -26,8 +25,7 @@ class WalletTest {
         assertNotNull(wallet, "The wallet object should not be null.");
         assertEquals(walletId, wallet.getId(), "The wallet ID should match the set value.");
 
-        // Use compareTo for BigDecimal equality checks for accuracy
-        assertEquals(0, initialBalance.compareTo(wallet.getBalance()), "The balance should match the set value.");
+        assertEquals(initialBalance, wallet.getBalance(), "The balance should match the set value.");
     }
 
     @Test
@@ -36,8 +34,8 @@ class WalletTest {
         Wallet wallet = new Wallet();
         wallet.setId(999L);
 
-        // Assert: Verify that the default balance is BigDecimal.ZERO
+        // Assert: Verify that the default balance is Money.ZERO
         assertNotNull(wallet.getBalance(), "Balance should not be null.");
-        assertEquals(0, BigDecimal.ZERO.compareTo(wallet.getBalance()), "The default balance should be zero.");
+        assertEquals(Money.ZERO, wallet.getBalance(), "The default balance should be zero.");
     }
 }
\ No newline at end of file
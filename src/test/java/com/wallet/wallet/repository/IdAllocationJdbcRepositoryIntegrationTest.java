@@ -0,0 +1,89 @@
+package com.wallet.wallet.repository;
+
+import com.wallet.wallet.IntegrationTestBase;
+import com.wallet.wallet.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Integration tests for id block allocation under a small connection pool. Admission control is off, so
+ * every client holds a pooled connection and a wallet row lock while it needs an id; with ids reserved on a
+ * pooled connection this used to exhaust the pool and time out.
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=5000",
+        "wallet.admission.enabled=false",
+        "wallet.id-allocation.block-size=10"
+})
+public class IdAllocationJdbcRepositoryIntegrationTest extends IntegrationTestBase {
+
+    private static final int CLIENTS = 32;
+    private static final int OPERATIONS_PER_CLIENT = 20;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private IdAllocationJdbcRepository idAllocationJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void moreClientsThanPooledConnections_allGetIds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            final int client = c;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_CLIENT; i++) {
+                    // Two clients per wallet, so row locks are held while ids are reserved
+                    walletService.topup(9_000L + client / 2, new BigDecimal("1.00"), "ids-" + client + "-" + i);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT id) FROM transactions WHERE transaction_id LIKE 'ids-%'", Integer.class);
+        assertEquals(CLIENTS * OPERATIONS_PER_CLIENT, rows);
+    }
+
+    @Test
+    void blocks_continueAboveTheStoredValue() {
+        long first = idAllocationJdbcRepository.next("id_allocation_test");
+        Long stored = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_allocations WHERE sequence_name = 'id_allocation_test'", Long.class);
+
+        long previous = first;
+        for (int i = 1; i < 3 * idAllocationJdbcRepository.getBlockSize(); i++) {
+            long next = idAllocationJdbcRepository.next("id_allocation_test");
+            assertEquals(previous + 1, next);
+            previous = next;
+        }
+        assertEquals(1, first);
+        assertEquals(idAllocationJdbcRepository.getBlockSize(), stored);
+    }
+}
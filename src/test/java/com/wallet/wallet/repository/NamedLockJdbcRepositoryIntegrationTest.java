@@ -0,0 +1,76 @@
+package com.wallet.wallet.repository;
+
+import com.wallet.wallet.IntegrationTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for MySQL named locks. Each holder takes its own pooled connection, as separate nodes would.
+ */
+public class NamedLockJdbcRepositoryIntegrationTest extends IntegrationTestBase {
+
+    private static final String LOCK_NAME = "wallet.test.named-lock";
+
+    @Autowired
+    private NamedLockJdbcRepository namedLocks;
+
+    @Test
+    void heldLock_turnsOtherConnectionsAwayUntilReleased() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Optional<String>> holder = CompletableFuture.supplyAsync(() ->
+                namedLocks.withLock(LOCK_NAME, Duration.ZERO, jdbc -> {
+                    held.countDown();
+                    await(release);
+                    return "first";
+                }));
+        assertTrue(held.await(10, TimeUnit.SECONDS));
+
+        Optional<String> whileHeld = namedLocks.withLock(LOCK_NAME, Duration.ZERO, jdbc -> "second");
+        release.countDown();
+
+        assertEquals(Optional.empty(), whileHeld);
+        assertEquals(Optional.of("first"), holder.get(10, TimeUnit.SECONDS));
+        assertEquals(Optional.of("third"), namedLocks.withLock(LOCK_NAME, Duration.ZERO, jdbc -> "third"));
+    }
+
+    @Test
+    void waitingHolder_getsTheLockOnceReleased() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CompletableFuture<Optional<String>> holder = CompletableFuture.supplyAsync(() ->
+                namedLocks.withLock(LOCK_NAME, Duration.ZERO, jdbc -> {
+                    held.countDown();
+                    sleep(500);
+                    return "first";
+                }));
+        assertTrue(held.await(10, TimeUnit.SECONDS));
+
+        assertEquals(Optional.of("second"), namedLocks.withLock(LOCK_NAME, Duration.ofSeconds(5), jdbc -> "second"));
+        assertEquals(Optional.of("first"), holder.get(10, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
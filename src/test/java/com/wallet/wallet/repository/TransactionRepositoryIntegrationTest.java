@@ -0,0 +1,125 @@
+package com.wallet.wallet.repository;
+
+import com.sun.management.ThreadMXBean;
+import com.wallet.wallet.IntegrationTestBase;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.dto.TransactionView;
+import com.wallet.wallet.model.Transaction;
+import com.wallet.wallet.model.TransactionType;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the projection query behind the in-memory reconciliation report with the entity query it replaced:
+ * the same rows, no managed entities and less allocation.
+ * The day size defaults to a quick run; pass {@code -Dreconciliation.measurement.rows=1000000} for a full day.
+ * Time and heap for a large day are measured by {@link com.wallet.wallet.load.ReconciliationDayLoadTest}.
+ */
+public class TransactionRepositoryIntegrationTest extends IntegrationTestBase {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 10, 1);
+    private static final int ROWS = Integer.getInteger("reconciliation.measurement.rows", 20_000);
+    private static final long FIRST_ID = 20_000_000L;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seedDay() {
+        jdbcTemplate.update("INSERT IGNORE INTO wallets (id, balance) VALUES (800, 0), (801, 0)");
+        Integer seeded = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE id >= ? AND id < ?",
+                Integer.class, FIRST_ID, FIRST_ID + ROWS + 2);
+        if (seeded != null && seeded > 0) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{FIRST_ID + i, 800 + i % 2, BigDecimal.valueOf(i % 100_000, 2), i % 3 == 0 ? "CONSUME" : "TOPUP",
+                    "PRJ-" + i, Timestamp.valueOf(DATE.atStartOfDay().plusSeconds(i % 86_400))});
+            if (rows.size() == 10_000 || i == ROWS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO transactions (id, wallet_id, amount, type, transaction_id, created_at) VALUES (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        // Just outside the day on both ends
+        jdbcTemplate.update("INSERT INTO transactions (id, wallet_id, amount, type, transaction_id, created_at) VALUES (?, 800, 1.00, 'TOPUP', 'PRJ-NEXT-DAY', ?), (?, 800, 1.00, 'TOPUP', 'PRJ-PREVIOUS-DAY', ?)",
+                FIRST_ID + ROWS, Timestamp.valueOf(DATE.plusDays(1).atStartOfDay()),
+                FIRST_ID + ROWS + 1, Timestamp.valueOf(DATE.atStartOfDay().minusNanos(1_000)));
+    }
+
+    @Test
+    void findViewsCreatedBetween_returnsTheDayWithoutManagedEntities() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDateTime from = DATE.atStartOfDay();
+        LocalDateTime to = DATE.plusDays(1).atStartOfDay();
+
+        // Before: what generateReport used to do, entities plus the wallet proxy, in a read-write transaction
+        Measurement<List<TransactionDTO>> entities = measure(() -> transactionTemplate.execute(status ->
+                entityManager.createQuery("SELECT t FROM Transaction t WHERE t.createdAt BETWEEN :from AND :to", Transaction.class)
+                        .setParameter("from", from)
+                        .setParameter("to", to.minusNanos(1))
+                        .getResultList().stream()
+                        .map(t -> TransactionDTO.builder()
+                                .transactionId(t.getTransactionId())
+                                .amount(t.getAmount().toBigDecimal())
+                                .type(t.getType())
+                                .createdAt(t.getCreatedAt())
+                                .walletId(t.getWallet().getId())
+                                .build())
+                        .toList()));
+
+        // After
+        Measurement<List<TransactionView>> views = measure(() -> transactionTemplate.execute(status -> {
+            List<TransactionView> result = transactionRepository.findViewsCreatedBetween(from, to);
+            assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+            return result;
+        }));
+
+        assertEquals(ROWS, views.result.size());
+        assertEquals(entities.result, views.result.stream().map(TransactionView::toDTO).toList());
+        TransactionView sample = views.result.stream().filter(v -> v.transactionId().equals("PRJ-3")).findFirst().orElseThrow();
+        assertEquals(new TransactionView("PRJ-3", new BigDecimal("0.03"), TransactionType.CONSUME, from.plusSeconds(3), 801L), sample);
+        assertTrue(views.allocatedBytes < entities.allocatedBytes,
+                () -> "projection allocated " + views.allocatedBytes + " bytes, entities " + entities.allocatedBytes);
+    }
+
+    /**
+     * Runs the query on the calling thread, so the thread's allocation counter covers all of it.
+     */
+    private static <T> Measurement<T> measure(Supplier<T> query) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        T result = query.get();
+        return new Measurement<>(result, threads.getCurrentThreadAllocatedBytes() - allocatedBefore);
+    }
+
+    private record Measurement<T>(T result, long allocatedBytes) {
+    }
+}
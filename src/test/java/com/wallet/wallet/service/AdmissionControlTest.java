@@ -0,0 +1,129 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.exception.AdmissionRejectedException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the AdmissionControl bulkhead.
+ * One slot and one queue place make it easy to hold the bulkhead full from another thread.
+ */
+class AdmissionControlTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControl admissionControl;
+    private ExecutorService executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        WalletProperties properties = new WalletProperties();
+        properties.getAdmission().setMaxConcurrent(1);
+        properties.getAdmission().setMaxQueued(1);
+        properties.getAdmission().setMaxWait(Duration.ofSeconds(5));
+        admissionControl = new AdmissionControl(properties, mock(DataSource.class), meterRegistry);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void defaultLimit_keepsTheReservedConnectionsOutOfReach() {
+        WalletProperties properties = new WalletProperties();
+        try (HikariDataSource pool = new HikariDataSource()) {
+            pool.setMaximumPoolSize(10);
+
+            assertEquals(6, new AdmissionControl(properties, pool, new SimpleMeterRegistry()).maxConcurrent());
+
+            properties.getAdmission().setReservedConnections(20);
+            assertEquals(1, new AdmissionControl(properties, pool, new SimpleMeterRegistry()).maxConcurrent());
+        }
+    }
+
+    @Test
+    void queuedRequest_isAdmittedOnceTheSlotFrees() throws Exception {
+        // Arrange: the only slot is taken
+        CompletableFuture<Void> holder = holdSlot();
+
+        // Act
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> admissionControl.call(() -> "done"), executor);
+        awaitQueueDepth(1);
+        release.countDown();
+
+        // Assert
+        assertEquals("done", queued.get(5, TimeUnit.SECONDS));
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals(0.0, meterRegistry.get("wallet.admission.queue.depth").gauge().value());
+        assertEquals(0.0, meterRegistry.get("wallet.admission.active").gauge().value());
+    }
+
+    @Test
+    void requestBeyondTheQueue_isRejectedWithoutWaiting() throws Exception {
+        // Arrange: the slot is taken and the single queue place is occupied
+        holdSlot();
+        CompletableFuture.runAsync(() -> admissionControl.run(() -> { }), executor);
+        awaitQueueDepth(1);
+
+        // Act & Assert
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> admissionControl.call(() -> "late"));
+        assertTrue(e.isQueueFull());
+        assertEquals(1.0, meterRegistry.get("wallet.admission.rejected").tag("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void requestWaitingTooLong_isRejectedAsUnavailable() throws Exception {
+        // Arrange
+        WalletProperties properties = new WalletProperties();
+        properties.getAdmission().setMaxConcurrent(1);
+        properties.getAdmission().setMaxWait(Duration.ofMillis(20));
+        admissionControl = new AdmissionControl(properties, mock(DataSource.class), meterRegistry = new SimpleMeterRegistry());
+        holdSlot();
+
+        // Act & Assert
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> admissionControl.call(() -> "late"));
+        assertFalse(e.isQueueFull());
+        assertEquals(1.0, meterRegistry.get("wallet.admission.rejected").tag("reason", "timeout").counter().count());
+    }
+
+    private CompletableFuture<Void> holdSlot() throws InterruptedException {
+        CountDownLatch admitted = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> admissionControl.run(() -> {
+            admitted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), executor);
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        return holder;
+    }
+
+    private void awaitQueueDepth(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("wallet.admission.queue.depth").gauge().value() != expected) {
+            assertTrue(System.nanoTime() < deadline, "queue never reached " + expected);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.RabbitMQConfig;
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.BalanceInvalidation;
+import com.wallet.wallet.exception.WalletNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the BalanceCache.
+ * Transaction completion is simulated through TransactionSynchronizationManager.
+ */
+class BalanceCacheTest {
+
+    private static final Long WALLET_ID = 1L;
+
+    private WalletProperties properties;
+    private RabbitTemplate rabbitTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private BalanceCache balanceCache;
+
+    private final AtomicReference<BigDecimal> storedBalance = new AtomicReference<>(new BigDecimal("10.00"));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new WalletProperties();
+        rabbitTemplate = mock(RabbitTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        balanceCache = new BalanceCache(properties, rabbitTemplate, meterRegistry);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void repeatedReads_areServedFromTheCache() {
+        assertEquals(new BigDecimal("10.00"), balanceCache.get(WALLET_ID, this::load));
+        assertEquals(new BigDecimal("10.00"), balanceCache.get(WALLET_ID, this::load));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void committedWrite_evictsAndIsBroadcast() {
+        properties.getBalanceCache().setBroadcastInvalidations(true);
+        balanceCache.get(WALLET_ID, this::load);
+
+        // Act: a write starts, reads bypass the cache until it completes
+        TransactionSynchronizationManager.initSynchronization();
+        balanceCache.invalidateOnCompletion(WALLET_ID);
+        storedBalance.set(new BigDecimal("15.00"));
+        assertEquals(new BigDecimal("15.00"), balanceCache.get(WALLET_ID, this::load), "Reads during a write go to the database.");
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertEquals(new BigDecimal("15.00"), balanceCache.get(WALLET_ID, this::load));
+        assertEquals(new BigDecimal("15.00"), balanceCache.get(WALLET_ID, this::load));
+        assertEquals(3, loads.get());
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.BALANCE_INVALIDATION_EXCHANGE), eq(""), any(BalanceInvalidation.class));
+    }
+
+    @Test
+    void rolledBackWrite_isNotBroadcast() {
+        properties.getBalanceCache().setBroadcastInvalidations(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        balanceCache.invalidateOnCompletion(WALLET_ID);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verifyNoInteractions(rabbitTemplate);
+        balanceCache.get(WALLET_ID, this::load);
+        balanceCache.get(WALLET_ID, this::load);
+        assertEquals(1, loads.get(), "Caching resumes once the write has completed.");
+    }
+
+    @Test
+    void loadRacingWithAWrite_isNotCached() {
+        // Arrange: the write commits while the read is still loading the old balance
+        BigDecimal result = balanceCache.get(WALLET_ID, walletId -> {
+            BigDecimal old = load(walletId);
+            storedBalance.set(new BigDecimal("0.00"));
+            balanceCache.invalidateOnCompletion(WALLET_ID);
+            return old;
+        });
+
+        // Assert: the reader sees its value, but the next read reloads instead of serving it
+        assertEquals(new BigDecimal("10.00"), result);
+        assertEquals(new BigDecimal("0.00"), balanceCache.get(WALLET_ID, this::load));
+    }
+
+    @Test
+    void remoteInvalidation_evictsUnlessItCameFromThisNode() {
+        balanceCache.get(WALLET_ID, this::load);
+
+        balanceCache.onRemoteInvalidation(new BalanceInvalidation("another-node", List.of(WALLET_ID)));
+        balanceCache.get(WALLET_ID, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void unknownWallet_isNotCached() {
+        assertThrows(WalletNotFoundException.class, () -> balanceCache.get(2L, walletId -> {
+            loads.incrementAndGet();
+            throw new WalletNotFoundException("Wallet with ID 2 not found.");
+        }));
+        assertThrows(WalletNotFoundException.class, () -> balanceCache.get(2L, walletId -> {
+            loads.incrementAndGet();
+            throw new WalletNotFoundException("Wallet with ID 2 not found.");
+        }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void disabledCache_alwaysLoads() {
+        properties.getBalanceCache().setEnabled(false);
+
+        balanceCache.get(WALLET_ID, this::load);
+        balanceCache.get(WALLET_ID, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private BigDecimal load(Long walletId) {
+        loads.incrementAndGet();
+        return storedBalance.get();
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+}
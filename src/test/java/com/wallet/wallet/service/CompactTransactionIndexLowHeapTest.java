@@ -0,0 +1,78 @@
+package com.wallet.wallet.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Indexes a million-row settlement file and probes it with the day's ledger, both generated on the fly.
+ * Runs with a 64 MB heap (see the "low-heap" execution in pom.xml): a {@code HashMap} of
+ * {@code ExternalTransaction}s for the same day takes well over 150 MB, so this fails with an
+ * OutOfMemoryError if the index stops being compact.
+ */
+@Tag("low-heap")
+class CompactTransactionIndexLowHeapTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int SCRAMBLE = 7_919;
+    private static final int MAX_BYTES_PER_TRANSACTION = 64;
+
+    @Test
+    void aMillionRowDay_isIndexedInUnder64BytesPerTransaction() {
+        // Arrange: per 100 IDs, #1 is external only, #2 internal only and #3 differs in amount
+        CompactTransactionIndex index = new CompactTransactionIndex(ROWS, true);
+        for (int n = 0; n < ROWS; n++) {
+            int i = (int) ((long) n * SCRAMBLE % ROWS);
+            if (i % 100 != 2) {
+                index.add(id(i), i % 100 == 3 ? amount(i).add(BigDecimal.ONE) : amount(i), null, null);
+            }
+        }
+
+        // Act
+        long matched = 0;
+        long mismatched = 0;
+        long missingInExternal = 0;
+        for (int i = 0; i < ROWS; i++) {
+            if (i % 100 == 1) {
+                continue;
+            }
+            int entry = index.find(id(i));
+            if (entry < 0) {
+                missingInExternal++;
+                continue;
+            }
+            index.markPaired(entry);
+            if (index.amountEquals(entry, amount(i))) {
+                matched++;
+            } else {
+                mismatched++;
+            }
+        }
+        long missingInInternal = 0;
+        for (int entry = 0; entry < index.size(); entry++) {
+            if (!index.isPaired(entry)) {
+                missingInInternal++;
+            }
+        }
+
+        // Assert
+        assertEquals(ROWS / 100 * 97, matched);
+        assertEquals(ROWS / 100, mismatched);
+        assertEquals(ROWS / 100, missingInExternal);
+        assertEquals(ROWS / 100, missingInInternal);
+        long bytesPerTransaction = index.footprintBytes() / index.size();
+        assertTrue(bytesPerTransaction < MAX_BYTES_PER_TRANSACTION, bytesPerTransaction + " bytes per transaction");
+    }
+
+    private static String id(int i) {
+        return String.format("TXN-%08d", i);
+    }
+
+    private static BigDecimal amount(int i) {
+        return BigDecimal.valueOf(i % 100_000, 2);
+    }
+}
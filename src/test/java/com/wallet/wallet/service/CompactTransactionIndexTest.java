@@ -0,0 +1,113 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationReport;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the CompactTransactionIndex.
+ */
+class CompactTransactionIndexTest {
+
+    @Test
+    void entries_growPastTheExpectedSize_andAreFoundById() {
+        CompactTransactionIndex index = new CompactTransactionIndex(4, false);
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, index.add("TXN-" + i, BigDecimal.valueOf(i, 2), TransactionType.TOPUP, (long) i));
+        }
+
+        assertEquals(100_000, index.size());
+        int entry = index.find("TXN-41234");
+        assertEquals("TXN-41234", index.transactionId(entry));
+        assertEquals(new BigDecimal("412.34"), index.amount(entry));
+        assertEquals(TransactionType.TOPUP, index.type(entry));
+        assertEquals(41_234L, index.walletId(entry));
+        assertEquals(-1, index.find("TXN-100000"));
+    }
+
+    @Test
+    void duplicateId_isRejected() {
+        CompactTransactionIndex index = new CompactTransactionIndex(16, false);
+        index.add("TXN-1", new BigDecimal("10.00"), null, null);
+
+        assertThrows(IllegalStateException.class, () -> index.add("TXN-1", new BigDecimal("20.00"), null, null));
+        assertEquals(-1, index.addIfAbsent("TXN-1", new BigDecimal("20.00"), null, null));
+        assertEquals(1, index.size());
+        assertEquals(new BigDecimal("10.00"), index.amount(0));
+    }
+
+    @Test
+    void amounts_compareNumerically_andKeepTheirScale() {
+        CompactTransactionIndex index = new CompactTransactionIndex(16, false);
+        int cents = index.add("TXN-1", new BigDecimal("10.50"), null, null);
+        int huge = index.add("TXN-2", new BigDecimal("123456789012345678901234567890.12"), null, null);
+
+        assertTrue(index.amountEquals(cents, new BigDecimal("10.5")));
+        assertFalse(index.amountEquals(cents, new BigDecimal("10.51")));
+        assertEquals("10.50", index.amount(cents).toPlainString());
+        assertTrue(index.amountEquals(huge, new BigDecimal("123456789012345678901234567890.120")));
+        assertEquals(new BigDecimal("123456789012345678901234567890.12"), index.amount(huge));
+    }
+
+    @Test
+    void offHeapIds_roundTripMultiByteCharacters() {
+        CompactTransactionIndex index = new CompactTransactionIndex(16, true);
+        int entry = index.add("TXN-Ünïcødé-€", BigDecimal.ONE, null, null);
+
+        assertEquals(entry, index.find("TXN-Ünïcødé-€"));
+        assertEquals("TXN-Ünïcødé-€", index.transactionId(entry));
+        assertNull(index.type(entry));
+        assertNull(index.walletId(entry));
+    }
+
+    @Test
+    void buildReport_classifiesEveryTransaction() {
+        List<TransactionDTO> internal = List.of(internal("TXN-1", "10.00"), internal("TXN-2", "20.00"), internal("TXN-3", "30.00"));
+        List<ExternalTransaction> external = List.of(
+                new ExternalTransaction("TXN-4", new BigDecimal("40.00")),
+                new ExternalTransaction("TXN-2", new BigDecimal("25.00")),
+                new ExternalTransaction("TXN-1", new BigDecimal("10.0")));
+
+        ReconciliationReport report = ReconciliationService.buildReport(LocalDate.of(2025, 9, 12), internal, external);
+
+        assertEquals(3, report.getTotalExternalTransactions());
+        assertEquals("TXN-1", report.getMatched().get(0).getTransactionId());
+        assertEquals(new BigDecimal("25.00"), report.getMismatched().get("TXN-2").getExternalAmount());
+        assertEquals("TXN-3", report.getMissingInExternal().get(0).getTransactionId());
+        assertEquals(List.of(new ExternalTransaction("TXN-4", new BigDecimal("40.00"))), report.getMissingInInternal());
+    }
+
+    @Test
+    void buildReport_keepsTheFirstOfARepeatedExternalId() {
+        List<TransactionDTO> internal = List.of(internal("TXN-1", "10.00"));
+        List<ExternalTransaction> external = List.of(
+                new ExternalTransaction("TXN-1", new BigDecimal("10.00")),
+                new ExternalTransaction("TXN-1", new BigDecimal("11.00")));
+
+        ReconciliationReport report = ReconciliationService.buildReport(LocalDate.of(2025, 9, 12), internal, external);
+
+        assertEquals(1, report.getMatchedCount());
+        assertEquals(List.of(new ExternalTransaction("TXN-1", new BigDecimal("11.00"))), report.getMissingInInternal());
+    }
+
+    private static TransactionDTO internal(String transactionId, String amount) {
+        return TransactionDTO.builder()
+                .transactionId(transactionId)
+                .amount(new BigDecimal(amount))
+                .type(TransactionType.TOPUP)
+                .walletId(1L)
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.exception.MalformedExternalFileException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ExternalTransactionFileParser.
+ * Tiny chunk sizes force every file to be split into many chunks parsed in parallel.
+ */
+class ExternalTransactionFileParserTest {
+
+    @TempDir
+    Path directory;
+
+    private ExternalTransactionFileParser parser;
+
+    @AfterEach
+    void tearDown() {
+        if (parser != null) {
+            parser.shutdown();
+        }
+    }
+
+    @Test
+    void manyChunks_areParsedInFileOrder() throws IOException {
+        // Arrange
+        parser = parser(64);
+        String content = "transaction_id,amount\n" + IntStream.range(0, 1_000)
+                .mapToObj(i -> "TXN-" + i + "," + i + "." + (i % 100))
+                .collect(Collectors.joining("\n"));
+        Path file = write(content);
+
+        // Act
+        List<ExternalTransaction> transactions = parse(file);
+
+        // Assert
+        assertEquals(1_000, transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            assertEquals("TXN-" + i, transactions.get(i).getTransactionId());
+            assertEquals(new BigDecimal(i + "." + (i % 100)), transactions.get(i).getAmount());
+        }
+    }
+
+    @Test
+    void quotesWindowsLineEndingsAndBlankLines_areAccepted() throws IOException {
+        parser = parser(16);
+        Path file = write("\"transaction_id\",\"amount\"\r\n\"TXN-TOPUP-001\",\"100.00\"\r\n\r\nTXN-CONSUME-002, 15\r\nTXN-NEG,-3.5\r\n");
+
+        List<ExternalTransaction> transactions = parse(file);
+
+        assertEquals(List.of("TXN-TOPUP-001", "TXN-CONSUME-002", "TXN-NEG"),
+                transactions.stream().map(ExternalTransaction::getTransactionId).toList());
+        assertEquals(new BigDecimal("100.00"), transactions.get(0).getAmount());
+        assertEquals(new BigDecimal("15"), transactions.get(1).getAmount());
+        assertEquals(new BigDecimal("-3.5"), transactions.get(2).getAmount());
+    }
+
+    @Test
+    void malformedLines_areReportedWithFileLineNumbers() throws IOException {
+        // Arrange: problems on lines 302 and 305, several chunks into the file
+        parser = parser(256);
+        StringBuilder content = new StringBuilder("transaction_id,amount\n");
+        for (int i = 0; i < 300; i++) {
+            content.append("TXN-").append(i).append(",1.00\n");
+        }
+        content.append("TXN-BAD,12x.00\n").append("TXN-301,1.00\n").append("TXN-302,1.00\n").append("TXN-NO-AMOUNT\n");
+        Path file = write(content.toString());
+
+        // Act & Assert
+        MalformedExternalFileException e = assertThrows(MalformedExternalFileException.class, () -> parse(file));
+        assertTrue(e.getMessage().contains("line 302: invalid amount '12x.00'"), e.getMessage());
+        assertTrue(e.getMessage().contains("line 305: expected transaction_id,amount"), e.getMessage());
+    }
+
+    @Test
+    void amounts_areParsedExactlyIncludingBeyondLongPrecision() {
+        assertEquals(new BigDecimal("25.50"), amount("25.50"));
+        assertEquals(new BigDecimal("0.07"), amount("+0.07"));
+        assertEquals(new BigDecimal("12345678901234567890.12"), amount("12345678901234567890.12"));
+        assertThrows(IllegalArgumentException.class, () -> amount("1.2.3"));
+        assertThrows(IllegalArgumentException.class, () -> amount("-"));
+    }
+
+    @Test
+    void emptyFile_yieldsNothing() throws IOException {
+        parser = parser(64);
+        assertTrue(parse(write("")).isEmpty());
+    }
+
+    private List<ExternalTransaction> parse(Path file) {
+        try (Stream<ExternalTransaction> transactions = parser.parse(file)) {
+            return transactions.toList();
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(directory.resolve("external_transactions_2025-09-12.csv"), content);
+    }
+
+    private static BigDecimal amount(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return ExternalTransactionFileParser.parseAmount(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private static ExternalTransactionFileParser parser(int chunkBytes) {
+        WalletProperties properties = new WalletProperties();
+        properties.getReconciliation().setParseChunkBytes(chunkBytes);
+        properties.getReconciliation().setParseParallelism(4);
+        return new ExternalTransactionFileParser(properties);
+    }
+}
@@ -0,0 +1,76 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the ExternalTransactionSorter.
+ */
+class ExternalTransactionSorterTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void inputLargerThanOneChunk_isSortedThroughSpilledRunsThatAreDeletedOnClose() throws IOException {
+        // Arrange: 1000 rows in a scrambled order, sorted in runs of 64
+        ExternalTransactionSorter sorter = sorter(64);
+        List<ExternalTransaction> unsorted = IntStream.range(0, 1000)
+                .map(i -> (i * 7919) % 1000)
+                .mapToObj(i -> new ExternalTransaction(String.format("TXN-%05d", i), BigDecimal.valueOf(i, 2)))
+                .toList();
+
+        // Act
+        List<ExternalTransaction> sorted = new ArrayList<>();
+        try (Stream<ExternalTransaction> stream = sorter.sort(unsorted.iterator())) {
+            try (Stream<Path> files = Files.list(spillDirectory)) {
+                assertEquals(16, files.count(), "Runs are spilled while sorting.");
+            }
+            stream.forEach(sorted::add);
+        }
+
+        // Assert
+        assertEquals(1000, sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(String.format("TXN-%05d", i), sorted.get(i).getTransactionId());
+            assertEquals(BigDecimal.valueOf(i, 2), sorted.get(i).getAmount());
+        }
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count(), "Runs are deleted once the stream is closed.");
+        }
+    }
+
+    @Test
+    void inputWithinOneChunk_isSortedInMemory() throws IOException {
+        ExternalTransactionSorter sorter = sorter(64);
+
+        try (Stream<ExternalTransaction> stream = sorter.sort(List.of(
+                new ExternalTransaction("B", BigDecimal.ONE),
+                new ExternalTransaction("A", BigDecimal.TEN)).iterator())) {
+            assertEquals(List.of("A", "B"), stream.map(ExternalTransaction::getTransactionId).toList());
+        }
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private ExternalTransactionSorter sorter(int chunkSize) {
+        WalletProperties properties = new WalletProperties();
+        properties.getReconciliation().setSortChunkSize(chunkSize);
+        properties.getReconciliation().setSpillDirectory(spillDirectory.toString());
+        return new ExternalTransactionSorter(properties);
+    }
+}
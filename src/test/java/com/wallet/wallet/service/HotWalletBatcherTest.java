@@ -0,0 +1,144 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.BatchOperation;
+import com.wallet.wallet.exception.AdmissionRejectedException;
+import com.wallet.wallet.exception.InsufficientBalanceException;
+import com.wallet.wallet.model.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the HotWalletBatcher.
+ * The LedgerBatchWriter is mocked so the tests focus on how operations are coalesced and how each caller's outcome is reported.
+ */
+class HotWalletBatcherTest {
+
+    private static final Long WALLET_ID = 42L;
+
+    private LedgerBatchWriter ledgerBatchWriter;
+    private SimpleMeterRegistry meterRegistry;
+    private WalletProperties properties;
+    private HotWalletBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        ledgerBatchWriter = mock(LedgerBatchWriter.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        properties = new WalletProperties();
+        properties.getBatching().setEnabled(true);
+        properties.getBatching().setWindow(Duration.ofMillis(50));
+        properties.getBatching().setMaxBatchSize(10);
+        properties.getBatching().setHotWallets(Set.of(WALLET_ID));
+
+        batcher = new HotWalletBatcher(ledgerBatchWriter, mock(PlatformTransactionManager.class), properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+    }
+
+    @Test
+    void operationsWithinWindow_areAppliedAsOneBatchInArrivalOrder() throws Exception {
+        // Arrange: the second operation is rejected by the writer
+        when(ledgerBatchWriter.apply(anyList())).thenReturn(
+                Arrays.asList(null, new InsufficientBalanceException("Insufficient balance for wallet ID 42"), null));
+
+        // Act
+        CompletableFuture<Void> topup = batcher.submit(WALLET_ID, TransactionType.TOPUP, new BigDecimal("5.00"), "txn-1");
+        CompletableFuture<Void> tooLarge = batcher.submit(WALLET_ID, TransactionType.CONSUME, new BigDecimal("20.00"), "txn-2");
+        CompletableFuture<Void> consume = batcher.submit(WALLET_ID, TransactionType.CONSUME, new BigDecimal("15.00"), "txn-3");
+
+        // Assert: each caller sees its own outcome
+        topup.get(5, TimeUnit.SECONDS);
+        consume.get(5, TimeUnit.SECONDS);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> tooLarge.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(InsufficientBalanceException.class, e.getCause());
+
+        // All three were handed to the writer together, in arrival order
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BatchOperation>> applied = ArgumentCaptor.forClass(List.class);
+        verify(ledgerBatchWriter, times(1)).apply(applied.capture());
+        assertEquals(List.of("txn-1", "txn-2", "txn-3"), applied.getValue().stream().map(BatchOperation::getTransactionId).toList());
+
+        assertEquals(1, meterRegistry.get("wallet.batch.size").summary().count());
+        assertEquals(3.0, meterRegistry.get("wallet.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void failedBatch_failsEveryCaller() {
+        // Arrange
+        when(ledgerBatchWriter.apply(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+
+        // Act
+        CompletableFuture<Void> first = batcher.submit(WALLET_ID, TransactionType.TOPUP, new BigDecimal("5.00"), "txn-1");
+        CompletableFuture<Void> second = batcher.submit(WALLET_ID, TransactionType.TOPUP, new BigDecimal("5.00"), "txn-2");
+
+        // Assert
+        assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void callerStillQueuedAfterMaxWait_isTurnedAwayAndItsOperationWithdrawn() {
+        // Arrange: the window outlasts the wait
+        properties.getBatching().setWindow(Duration.ofSeconds(1));
+        properties.getBatching().setMaxWait(Duration.ofMillis(20));
+
+        // Act
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                () -> batcher.topup(WALLET_ID, new BigDecimal("5.00"), "txn-1"));
+
+        // Assert: the flush at the end of the window finds nothing to apply
+        assertFalse(e.isQueueFull());
+        verify(ledgerBatchWriter, after(1_500).never()).apply(anyList());
+        assertEquals(1, meterRegistry.get("wallet.batch.await.timeout").counter().count());
+    }
+
+    @Test
+    void callerWhoseBatchStalls_isTurnedAwayAfterMaxWait() {
+        // Arrange: the flush blocks until the test releases it
+        properties.getBatching().setMaxWait(Duration.ofMillis(200));
+        properties.getBatching().setMaxBatchSize(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(ledgerBatchWriter.apply(anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Arrays.asList((RuntimeException) null);
+        });
+
+        // Act
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                () -> batcher.topup(WALLET_ID, new BigDecimal("5.00"), "txn-1"));
+        release.countDown();
+
+        // Assert
+        assertFalse(e.isQueueFull());
+        assertTrue(e.getMessage().contains("txn-1"));
+    }
+
+    @Test
+    void isHot_onlyForConfiguredWallets() {
+        assertTrue(batcher.isHot(WALLET_ID));
+        assertFalse(batcher.isHot(7L));
+    }
+}
@@ -0,0 +1,89 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the LedgerArchive.
+ */
+class LedgerArchiveTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 6, 30);
+
+    @TempDir
+    Path archiveDirectory;
+
+    @Test
+    void committedDay_readsBackUnchangedAndInOrder() throws IOException {
+        LedgerArchive archive = archive(archiveDirectory.toString());
+        List<TransactionDTO> day = List.of(
+                transaction("TXN-1", "10.00", TransactionType.TOPUP, 7L),
+                transaction("TXN-2,\"quoted\"", "0.50", TransactionType.CONSUME, 8L),
+                transaction("TXN-3", "1234567.89", TransactionType.TOPUP, 7L));
+
+        try (LedgerArchive.DayWriter writer = archive.write(DATE)) {
+            day.forEach(writer::add);
+            writer.commit();
+            assertEquals(3, writer.rows());
+        }
+
+        assertTrue(archive.contains(DATE));
+        assertFalse(archive.contains(DATE.plusDays(1)));
+        try (Stream<TransactionDTO> archived = archive.read(DATE)) {
+            assertEquals(day, archived.toList());
+        }
+    }
+
+    @Test
+    void uncommittedDay_leavesNoFileBehind() throws IOException {
+        LedgerArchive archive = archive(archiveDirectory.toString());
+
+        try (LedgerArchive.DayWriter writer = archive.write(DATE)) {
+            writer.add(transaction("TXN-1", "10.00", TransactionType.TOPUP, 7L));
+        }
+
+        assertFalse(archive.contains(DATE));
+        try (Stream<Path> files = Files.list(archiveDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void withoutArchiveDirectory_nothingIsArchived() {
+        LedgerArchive archive = archive("");
+
+        assertFalse(archive.isEnabled());
+        assertFalse(archive.contains(DATE));
+    }
+
+    private static LedgerArchive archive(String directory) {
+        WalletProperties properties = new WalletProperties();
+        properties.getPartitioning().setArchiveDirectory(directory);
+        return new LedgerArchive(properties);
+    }
+
+    private static TransactionDTO transaction(String transactionId, String amount, TransactionType type, long walletId) {
+        return TransactionDTO.builder()
+                .transactionId(transactionId)
+                .amount(new BigDecimal(amount))
+                .type(type)
+                .createdAt(DATE.atTime(12, 30, 15, 123_456_000))
+                .walletId(walletId)
+                .build();
+    }
+}
@@ -0,0 +1,153 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.IntegrationTestBase;
+import com.wallet.wallet.dto.LedgerAuditReport;
+import com.wallet.wallet.dto.LedgerDiscrepancyView;
+import com.wallet.wallet.model.LedgerAuditRun;
+import com.wallet.wallet.repository.LedgerAuditRunRepository;
+import com.wallet.wallet.repository.NamedLockJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the ledger snapshot and audit jobs. The database is shared with other tests,
+ * so only this test's own wallets are asserted on.
+ */
+public class LedgerAuditServiceIntegrationTest extends IntegrationTestBase {
+
+    private static final long CLEAN_WALLET = 40_000_001L;
+    private static final long CORRUPTED_WALLET = 40_000_002L;
+
+    @Autowired
+    private LedgerAuditService ledgerAuditService;
+
+    @Autowired
+    private LedgerAuditRunRepository ledgerAuditRunRepository;
+
+    @Autowired
+    private NamedLockJdbcRepository namedLocks;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long nextId = 40_000_000L;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM transactions WHERE wallet_id IN (?, ?)", CLEAN_WALLET, CORRUPTED_WALLET);
+        jdbcTemplate.update("DELETE FROM wallet_snapshots WHERE wallet_id IN (?, ?)", CLEAN_WALLET, CORRUPTED_WALLET);
+        jdbcTemplate.update("DELETE FROM wallets WHERE id IN (?, ?)", CLEAN_WALLET, CORRUPTED_WALLET);
+        jdbcTemplate.queryForList("SELECT COALESCE(MAX(id), 0) FROM transactions WHERE id >= 40000000", Long.class)
+                .forEach(max -> nextId = Math.max(nextId, max));
+
+        LocalDateTime settled = LocalDateTime.now().minusHours(1);
+        insertWallet(CLEAN_WALLET, "70.00");
+        insert(CLEAN_WALLET, "TOPUP", "100.00", settled);
+        insert(CLEAN_WALLET, "CONSUME", "30.00", settled);
+        insertWallet(CORRUPTED_WALLET, "50.00");
+        insert(CORRUPTED_WALLET, "TOPUP", "50.00", settled);
+    }
+
+    @Test
+    void audit_flagsOnlyWalletsWhoseBalanceDisagreesWithSnapshotPlusLaterLedger() {
+        LedgerAuditReport snapshot = ledgerAuditService.snapshot();
+        assertEquals("COMPLETED", snapshot.getStatus());
+        assertEquals(0, new BigDecimal("70.00").compareTo(snapshotBalance(CLEAN_WALLET)));
+        assertEquals(0, new BigDecimal("50.00").compareTo(snapshotBalance(CORRUPTED_WALLET)));
+
+        // A write after the snapshot keeps the wallet consistent; a direct balance change does not
+        insert(CLEAN_WALLET, "TOPUP", "5.00", LocalDateTime.now());
+        jdbcTemplate.update("UPDATE wallets SET balance = 75.00 WHERE id = ?", CLEAN_WALLET);
+        jdbcTemplate.update("UPDATE wallets SET balance = 55.00 WHERE id = ?", CORRUPTED_WALLET);
+
+        LedgerAuditReport audit = ledgerAuditService.audit();
+        assertEquals("COMPLETED", audit.getStatus());
+        List<LedgerDiscrepancyView> ours = ownDiscrepancies(audit);
+        assertEquals(1, ours.size());
+        assertEquals(CORRUPTED_WALLET, ours.get(0).walletId());
+        assertEquals(0, new BigDecimal("55.00").compareTo(ours.get(0).balance()));
+        assertEquals(0, new BigDecimal("50.00").compareTo(ours.get(0).expectedBalance()));
+
+        // Rows inside the settle grace are not folded in, and nothing is folded twice
+        ledgerAuditService.snapshot();
+        assertEquals(0, new BigDecimal("70.00").compareTo(snapshotBalance(CLEAN_WALLET)));
+    }
+
+    @Test
+    void audit_resumesAnInterruptedRunAfterItsLastCompletedChunk() {
+        jdbcTemplate.update("UPDATE wallets SET balance = 55.00 WHERE id = ?", CORRUPTED_WALLET);
+        LedgerAuditRun interrupted = new LedgerAuditRun();
+        interrupted.setKind(LedgerAuditRun.Kind.AUDIT);
+        interrupted.setStatus(LedgerAuditRun.Status.FAILED);
+        interrupted.setStartedAt(LocalDateTime.now());
+        interrupted.setCutoff(interrupted.getStartedAt());
+        interrupted.setResumeAfterWalletId(CLEAN_WALLET);
+        interrupted = ledgerAuditRunRepository.save(interrupted);
+
+        LedgerAuditReport resumed = ledgerAuditService.audit();
+
+        assertEquals(interrupted.getId(), resumed.getRunId());
+        assertEquals("COMPLETED", resumed.getStatus());
+        assertTrue(resumed.getDiscrepancies().stream().allMatch(d -> d.walletId() > CLEAN_WALLET));
+        assertEquals(List.of(CORRUPTED_WALLET), ownDiscrepancies(resumed).stream().map(LedgerDiscrepancyView::walletId).toList());
+    }
+
+    @Test
+    void audit_whileAnotherNodeHoldsTheRun_reportsItWithoutDrivingIt() throws Exception {
+        long runsBefore = ledgerAuditRunRepository.count();
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Another node's run, on a connection of its own
+        CompletableFuture<Optional<Boolean>> otherNode = CompletableFuture.supplyAsync(() ->
+                namedLocks.withLock("wallet.audit.audit", Duration.ZERO, jdbc -> {
+                    held.countDown();
+                    try {
+                        return release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }));
+        assertTrue(held.await(10, TimeUnit.SECONDS));
+
+        LedgerAuditReport report = ledgerAuditService.audit();
+        release.countDown();
+
+        assertEquals("RUNNING", report.getStatus());
+        assertEquals(runsBefore, ledgerAuditRunRepository.count());
+        assertEquals(Optional.of(true), otherNode.get(10, TimeUnit.SECONDS));
+    }
+
+    private List<LedgerDiscrepancyView> ownDiscrepancies(LedgerAuditReport report) {
+        return report.getDiscrepancies().stream()
+                .filter(d -> d.walletId() == CLEAN_WALLET || d.walletId() == CORRUPTED_WALLET)
+                .toList();
+    }
+
+    private BigDecimal snapshotBalance(long walletId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM wallet_snapshots WHERE wallet_id = ?", BigDecimal.class, walletId);
+    }
+
+    private void insertWallet(long walletId, String balance) {
+        jdbcTemplate.update("INSERT INTO wallets (id, balance) VALUES (?, ?)", walletId, new BigDecimal(balance));
+    }
+
+    private void insert(long walletId, String type, String amount, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO transactions (id, wallet_id, amount, type, transaction_id, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                ++nextId, walletId, new BigDecimal(amount), type, "AUDIT-" + nextId, createdAt);
+    }
+}
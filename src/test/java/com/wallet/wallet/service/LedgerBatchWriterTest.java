@@ -0,0 +1,125 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.BatchOperation;
+import com.wallet.wallet.exception.InsufficientBalanceException;
+import com.wallet.wallet.exception.InvalidAmountException;
+import com.wallet.wallet.exception.TransactionAlreadyExistsException;
+import com.wallet.wallet.exception.WalletNotFoundException;
+import com.wallet.wallet.model.Money;
+import com.wallet.wallet.model.Transaction;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.model.Wallet;
+import com.wallet.wallet.repository.TransactionKeyRepository;
+import com.wallet.wallet.repository.TransactionRepository;
+import com.wallet.wallet.repository.WalletRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the LedgerBatchWriter.
+ * Repositories are mocked so the tests focus on in-order validation against running balances.
+ */
+class LedgerBatchWriterTest {
+
+    private WalletRepository walletRepository;
+    private TransactionRepository transactionRepository;
+    private TransactionKeyRepository transactionKeyRepository;
+    private OutboxWriter outboxWriter;
+    private EntityManager entityManager;
+    private LedgerBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        walletRepository = mock(WalletRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        transactionKeyRepository = mock(TransactionKeyRepository.class);
+        outboxWriter = mock(OutboxWriter.class);
+        entityManager = mock(EntityManager.class);
+        writer = new LedgerBatchWriter(walletRepository, transactionRepository, transactionKeyRepository, outboxWriter,
+                new RecentTransactionIdFilter(new WalletProperties()), mock(BalanceCache.class), mock(LiveReconciliation.class));
+        ReflectionTestUtils.setField(writer, "entityManager", entityManager);
+    }
+
+    @Test
+    void operationsAreValidatedInOrderAgainstRunningBalances() {
+        // Arrange: wallet 1 holds 10.00, wallet 2 does not exist yet
+        Wallet existing = wallet(1L, "10.00");
+        when(walletRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(existing));
+        when(transactionKeyRepository.findExistingTransactionIds(anyCollection())).thenReturn(Set.of("txn-old"));
+
+        List<BatchOperation> operations = List.of(
+                new BatchOperation(1L, TransactionType.TOPUP, new BigDecimal("5.00"), "txn-1"),
+                new BatchOperation(1L, TransactionType.CONSUME, new BigDecimal("20.00"), "txn-2"),
+                new BatchOperation(1L, TransactionType.CONSUME, new BigDecimal("15.00"), "txn-3"),
+                new BatchOperation(1L, TransactionType.TOPUP, new BigDecimal("1.00"), "txn-old"),
+                new BatchOperation(2L, TransactionType.CONSUME, new BigDecimal("1.00"), "txn-4"),
+                new BatchOperation(2L, TransactionType.TOPUP, new BigDecimal("3.00"), "txn-5"),
+                new BatchOperation(2L, TransactionType.CONSUME, new BigDecimal("2.00"), "txn-6"),
+                new BatchOperation(2L, TransactionType.TOPUP, new BigDecimal("3.00"), "txn-5"));
+
+        // Act
+        List<RuntimeException> failures = writer.apply(operations);
+
+        // Assert: per-operation outcomes
+        assertNull(failures.get(0));
+        assertInstanceOf(InsufficientBalanceException.class, failures.get(1));
+        assertNull(failures.get(2));
+        assertInstanceOf(TransactionAlreadyExistsException.class, failures.get(3));
+        assertInstanceOf(WalletNotFoundException.class, failures.get(4), "Wallet 2 does not exist before its first topup.");
+        assertNull(failures.get(5));
+        assertNull(failures.get(6));
+        assertInstanceOf(TransactionAlreadyExistsException.class, failures.get(7), "Duplicates within a batch are rejected too.");
+
+        // Balances: 10 + 5 - 15 = 0 and 3 - 2 = 1; the new wallet is persisted
+        assertEquals(Money.ZERO, existing.getBalance());
+        ArgumentCaptor<Wallet> created = ArgumentCaptor.forClass(Wallet.class);
+        verify(entityManager).persist(created.capture());
+        assertEquals(2L, created.getValue().getId());
+        assertEquals(Money.of("1.00"), created.getValue().getBalance());
+
+        // Ledger rows and events only for applied operations
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(saved.capture());
+        assertEquals(List.of("txn-1", "txn-3", "txn-5", "txn-6"),
+                saved.getValue().stream().map(Transaction::getTransactionId).toList());
+        verify(outboxWriter, times(4)).enqueue(any(), any());
+    }
+
+    @Test
+    void outOfRangeAmount_failsOnlyItsOwnOperation() {
+        Wallet existing = wallet(1L, "10.00");
+        when(walletRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(existing));
+        BigDecimal tooLarge = BigDecimal.valueOf(Long.MAX_VALUE);
+
+        List<RuntimeException> failures = writer.apply(List.of(
+                new BatchOperation(1L, TransactionType.TOPUP, tooLarge, "txn-1"),
+                new BatchOperation(1L, TransactionType.TOPUP, new BigDecimal("5.00"), "txn-2"),
+                new BatchOperation(1L, TransactionType.TOPUP, new BigDecimal("1.00"), "txn-1")));
+
+        assertInstanceOf(InvalidAmountException.class, failures.get(0));
+        assertNull(failures.get(1));
+        assertNull(failures.get(2), "A rejected operation does not claim its transaction ID.");
+        assertEquals(Money.of("16.00"), existing.getBalance());
+    }
+
+    private static Wallet wallet(Long id, String balance) {
+        Wallet wallet = new Wallet();
+        wallet.setId(id);
+        wallet.setBalance(Money.of(balance));
+        return wallet;
+    }
+}
@@ -0,0 +1,155 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.LiveReconciliationStatus;
+import com.wallet.wallet.dto.TransactionEvent;
+import com.wallet.wallet.dto.TransactionView;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the LiveReconciliation.
+ */
+class LiveReconciliationTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private TransactionRepository transactionRepository;
+    private WalletProperties properties;
+    private LiveReconciliation live;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        properties = new WalletProperties();
+        properties.getLiveReconciliation().setEnabled(true);
+        live = new LiveReconciliation(transactionRepository, properties);
+    }
+
+    @Test
+    void pairs_areClassifiedAsSoonAsTheSecondHalfArrives() {
+        live.recordAllAfterCommit(List.of(internal("TXN-1", "10.00"), internal("TXN-2", "20.00")));
+        live.recordExternal(new ExternalTransaction("TXN-3", new BigDecimal("30.00")));
+
+        LiveReconciliationStatus waiting = live.status(TODAY);
+        assertEquals(2, waiting.getPendingInternalCount());
+        assertEquals(1, waiting.getPendingExternalCount());
+
+        live.recordExternal(new ExternalTransaction("TXN-1", new BigDecimal("10.00")));
+        live.recordExternal(new ExternalTransaction("TXN-2", new BigDecimal("25.00")));
+        live.recordAfterCommit(internal("TXN-3", "30.00"));
+
+        LiveReconciliationStatus status = live.status(TODAY);
+        assertEquals(2, status.getMatchedCount());
+        assertEquals(1, status.getMismatchedCount());
+        assertEquals(0, status.getPendingInternalCount());
+        assertEquals(0, status.getPendingExternalCount());
+    }
+
+    @Test
+    void repeatedSettlementRecord_isMissingInInternal() {
+        live.recordExternal(new ExternalTransaction("TXN-1", new BigDecimal("10.00")));
+        live.recordExternal(new ExternalTransaction("TXN-1", new BigDecimal("10.00")));
+        live.recordAfterCommit(internal("TXN-1", "10.00"));
+
+        LiveReconciliationStatus status = live.status(TODAY);
+        assertEquals(1, status.getMatchedCount());
+        assertEquals(1, status.getMissingInInternalCount());
+    }
+
+    @Test
+    void unmatchedItems_ageOutAfterTheGrace_settlementRecordsAfterALedgerLookup() {
+        live.recordAfterCommit(internal("TXN-1", "10.00"));
+        live.recordExternal(new ExternalTransaction("TXN-ELSEWHERE", new BigDecimal("5.00")));
+        live.recordExternal(new ExternalTransaction("TXN-UNKNOWN", new BigDecimal("7.00")));
+        when(transactionRepository.findViewsByTransactionIdInCreatedBetween(anyCollection(), any(), any())).thenReturn(List.of(
+                new TransactionView("TXN-ELSEWHERE", new BigDecimal("5.00"), TransactionType.TOPUP, LocalDateTime.now(), 9L)));
+
+        live.sweep(Instant.now());
+        assertEquals(1, live.status(TODAY).getPendingInternalCount());
+
+        live.sweep(Instant.now().plus(properties.getLiveReconciliation().getGrace()).plusSeconds(1));
+
+        LiveReconciliationStatus status = live.status(TODAY);
+        assertEquals(1, status.getMissingInExternalCount());
+        assertEquals(1, status.getMatchedCount());
+        assertEquals(1, status.getMissingInInternalCount());
+        assertEquals(0, status.getPendingInternalCount());
+        assertEquals(0, status.getPendingExternalCount());
+    }
+
+    @Test
+    void lateCounterpart_movesTheAgedOutCountInsteadOfAddingOne() {
+        Instant afterGrace = Instant.now().plus(properties.getLiveReconciliation().getGrace()).plusSeconds(1);
+        live.recordAfterCommit(internal("TXN-1", "10.00"));
+        live.recordExternal(new ExternalTransaction("TXN-2", new BigDecimal("20.00")));
+        live.sweep(afterGrace);
+        assertEquals(1, live.status(TODAY).getMissingInExternalCount());
+        assertEquals(1, live.status(TODAY).getMissingInInternalCount());
+
+        live.recordExternal(new ExternalTransaction("TXN-1", new BigDecimal("10.00")));
+        live.recordAfterCommit(internal("TXN-2", "25.00"));
+        live.sweep(afterGrace.plus(properties.getLiveReconciliation().getGrace()).plusSeconds(1));
+
+        LiveReconciliationStatus status = live.status(TODAY);
+        assertEquals(1, status.getMatchedCount());
+        assertEquals(1, status.getMismatchedCount());
+        assertEquals(0, status.getMissingInExternalCount());
+        assertEquals(0, status.getMissingInInternalCount());
+        assertEquals(0, status.getPendingInternalCount());
+        assertEquals(0, status.getPendingExternalCount());
+
+        live.recordExternal(new ExternalTransaction("TXN-1", new BigDecimal("10.00")));
+        assertEquals(1, live.status(TODAY).getMissingInInternalCount());
+    }
+
+    @Test
+    void fullIndex_dropsNewItems() {
+        properties.getLiveReconciliation().setMaxPending(1);
+
+        live.recordAfterCommit(internal("TXN-1", "10.00"));
+        live.recordAfterCommit(internal("TXN-2", "10.00"));
+        live.recordExternal(new ExternalTransaction("TXN-1", new BigDecimal("10.00")));
+
+        LiveReconciliationStatus status = live.status(TODAY);
+        assertEquals(1, status.getDroppedCount());
+        assertEquals(1, status.getMatchedCount());
+    }
+
+    @Test
+    void disabled_indexesNothing() {
+        properties.getLiveReconciliation().setEnabled(false);
+
+        live.recordAfterCommit(internal("TXN-1", "10.00"));
+        live.recordExternal(new ExternalTransaction("TXN-1", new BigDecimal("10.00")));
+
+        LiveReconciliationStatus status = live.status(TODAY);
+        assertEquals(0, status.getMatchedCount());
+        assertEquals(0, status.getPendingInternalCount());
+    }
+
+    private static TransactionEvent internal(String transactionId, String amount) {
+        return TransactionEvent.builder()
+                .walletId(1L)
+                .transactionId(transactionId)
+                .type(TransactionType.TOPUP)
+                .amount(new BigDecimal(amount))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
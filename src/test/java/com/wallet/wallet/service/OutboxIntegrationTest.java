@@ -0,0 +1,57 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.IntegrationTestBase;
+import com.wallet.wallet.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration tests for the transactional outbox.
+ * The broker is replaced by a stand-in that takes two seconds per publish to show that wallet requests
+ * no longer wait for RabbitMQ, and that events stay queued in the outbox instead of being lost.
+ */
+public class OutboxIntegrationTest extends IntegrationTestBase {
+
+    private static final long BROKER_DELAY_MILLIS = 2_000;
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void slowBroker_doesNotAddLatencyToRequests() {
+        // Arrange: every publish attempt blocks as if the broker were unresponsive
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation -> {
+            Thread.sleep(BROKER_DELAY_MILLIS);
+            throw new org.springframework.amqp.AmqpTimeoutException("broker stand-in timed out");
+        });
+        long outboxBefore = outboxEventRepository.count();
+
+        // Act
+        long started = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            walletService.topup(7001L, new BigDecimal("5.00"), "outbox-slow-" + i);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // Assert
+        assertTrue(elapsedMillis < BROKER_DELAY_MILLIS,
+                "10 topups took " + elapsedMillis + " ms, they should not wait for the broker.");
+        assertEquals(outboxBefore + 10, outboxEventRepository.count(), "Unpublished events must stay in the outbox.");
+    }
+}
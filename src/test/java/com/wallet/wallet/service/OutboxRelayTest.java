@@ -0,0 +1,83 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.RabbitMQConfig;
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.model.OutboxEvent;
+import com.wallet.wallet.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.net.ConnectException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the OutboxRelay.
+ * The broker is replaced by a mocked RabbitTemplate so both a healthy and a stopped broker can be simulated.
+ */
+class OutboxRelayTest {
+
+    private OutboxEventRepository outboxEventRepository;
+    private RabbitTemplate rabbitTemplate;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        relay = new OutboxRelay(outboxEventRepository, rabbitTemplate, mock(PlatformTransactionManager.class), new WalletProperties());
+    }
+
+    @Test
+    void confirmedBatch_isDeletedFromTheOutbox() throws Exception {
+        // Arrange
+        List<OutboxEvent> batch = List.of(event(1L), event(2L));
+        when(outboxEventRepository.findByOrderByIdAsc(any(Limit.class))).thenReturn(batch).thenReturn(List.of());
+        RabbitOperations channel = mock(RabbitOperations.class);
+        ArgumentCaptor<RabbitOperations.OperationsCallback<Object>> callback = ArgumentCaptor.captor();
+        when(rabbitTemplate.invoke(callback.capture())).thenAnswer(invocation -> callback.getValue().doInRabbit(channel));
+
+        // Act
+        relay.relay();
+
+        // Assert
+        verify(channel, times(2)).send(eq(RabbitMQConfig.QUEUE_NAME), any(Message.class));
+        verify(channel).waitForConfirmsOrDie(anyLong());
+        verify(outboxEventRepository).deleteAllInBatch(batch);
+    }
+
+    @Test
+    void stoppedBroker_leavesEventsInTheOutboxForTheNextRun() {
+        // Arrange
+        when(outboxEventRepository.findByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(event(1L)));
+        when(rabbitTemplate.invoke(any())).thenThrow(new AmqpConnectException(new ConnectException("Connection refused")));
+
+        // Act: the failure is logged, not propagated to the scheduler
+        relay.relay();
+
+        // Assert
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+    }
+
+    private static OutboxEvent event(Long id) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setDestination(RabbitMQConfig.QUEUE_NAME);
+        event.setPayloadType("com.wallet.wallet.dto.TopupRequest");
+        event.setPayload("{\"amount\":10.00,\"transactionId\":\"txn-" + id + "\"}");
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+}
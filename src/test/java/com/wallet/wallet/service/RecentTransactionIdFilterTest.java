@@ -0,0 +1,39 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the RecentTransactionIdFilter.
+ */
+class RecentTransactionIdFilterTest {
+
+    @Test
+    void remembersIdsUpToCapacityAndForgetsTheOldestFirst() {
+        WalletProperties properties = new WalletProperties();
+        properties.getIdempotency().setRecentIdCapacity(2);
+        RecentTransactionIdFilter filter = new RecentTransactionIdFilter(properties);
+
+        filter.remember("txn-1");
+        filter.remember("txn-2");
+        filter.remember("txn-3");
+
+        assertFalse(filter.contains("txn-1"), "The oldest ID should have been evicted.");
+        assertTrue(filter.contains("txn-2"));
+        assertTrue(filter.contains("txn-3"));
+    }
+
+    @Test
+    void zeroCapacity_disablesTheFilter() {
+        WalletProperties properties = new WalletProperties();
+        properties.getIdempotency().setRecentIdCapacity(0);
+        RecentTransactionIdFilter filter = new RecentTransactionIdFilter(properties);
+
+        filter.remember("txn-1");
+
+        assertFalse(filter.contains("txn-1"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationSummary;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ReconciliationCsvExporter.
+ * The ReconciliationService is mocked to control when records are produced.
+ */
+class ReconciliationCsvExporterTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 9, 12);
+
+    private ReconciliationService reconciliationService;
+    private ReconciliationCsvExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = mock(ReconciliationService.class);
+        exporter = new ReconciliationCsvExporter(reconciliationService);
+    }
+
+    @Test
+    void firstBytesArriveBeforeTheReconciliationFinishes() throws Exception {
+        // Arrange: the reconciliation emits a few thousand records, then stalls until the test releases it
+        CountDownLatch release = new CountDownLatch(1);
+        when(reconciliationService.reconcile(eq(DATE), any())).thenAnswer(invocation -> {
+            ReconciliationSink sink = invocation.getArgument(1);
+            for (int i = 0; i < 2_500; i++) {
+                sink.accept(matched(String.format("TXN-%05d", i)));
+            }
+            assertTrue(release.await(10, TimeUnit.SECONDS), "The test never released the reconciliation.");
+            return summary(2_500);
+        });
+        PipedInputStream in = new PipedInputStream(1 << 20);
+        PipedOutputStream out = new PipedOutputStream(in);
+
+        // Act
+        CompletableFuture<Void> export = CompletableFuture.runAsync(() -> {
+            try (out) {
+                exporter.export(DATE, out, false);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        // Assert: the header and the flushed records are readable while the reconciliation is still running
+        assertEquals("\"Reconciliation Report\"", reader.readLine());
+        assertEquals("\"Report Date:\",\"2025-09-12\"", reader.readLine());
+        reader.readLine();
+        assertTrue(reader.readLine().startsWith("\"Status\""));
+        assertTrue(reader.readLine().startsWith("\"MATCHED\",\"TXN-00000\""));
+        assertFalse(export.isDone(), "The reconciliation should still be running.");
+
+        release.countDown();
+        export.get(10, TimeUnit.SECONDS);
+        String rest = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(rest.contains("\"Matched:\",\"2500\""), "The summary is written as a trailer.");
+    }
+
+    @Test
+    void gzipOutput_decompressesToTheFullReport() throws Exception {
+        // Arrange
+        when(reconciliationService.reconcile(eq(DATE), any())).thenAnswer(invocation -> {
+            ReconciliationSink sink = invocation.getArgument(1);
+            sink.accept(matched("TXN-1"));
+            sink.accept(new ReconciliationRecord(ReconciliationRecord.Status.MISSING_IN_INTERNAL, "EXT-1",
+                    null, new ExternalTransaction("EXT-1", new BigDecimal("500.00"))));
+            return summary(1);
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exporter.export(DATE, out, true);
+
+        // Assert
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(csv.contains("\"MATCHED\",\"TXN-1\",\"10.00\",\"10.00\",\"TOPUP\""));
+        assertTrue(csv.contains("\"MISSING_IN_INTERNAL\",\"EXT-1\",\"\",\"500.00\""));
+        assertTrue(csv.contains("\"Reconciliation Summary\""));
+    }
+
+    @Test
+    void failedReconciliation_leavesAnIncompleteMarker() throws Exception {
+        when(reconciliationService.reconcile(eq(DATE), any())).thenThrow(new IllegalStateException("cursor lost"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(IllegalStateException.class, () -> exporter.export(DATE, out, false));
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.contains("\"Reconciliation Failed\""));
+        assertFalse(csv.contains("\"Reconciliation Summary\""));
+    }
+
+    private static ReconciliationRecord matched(String transactionId) {
+        TransactionDTO internal = TransactionDTO.builder()
+                .transactionId(transactionId)
+                .amount(new BigDecimal("10.00"))
+                .type(TransactionType.TOPUP)
+                .createdAt(LocalDateTime.of(2025, 9, 12, 10, 0))
+                .walletId(1L)
+                .build();
+        return new ReconciliationRecord(ReconciliationRecord.Status.MATCHED, transactionId, internal,
+                new ExternalTransaction(transactionId, new BigDecimal("10.00")));
+    }
+
+    private static ReconciliationSummary summary(long matched) {
+        return ReconciliationSummary.builder()
+                .reportDate(DATE.toString())
+                .totalInternalTransactions(matched)
+                .totalExternalTransactions(matched)
+                .matchedCount(matched)
+                .build();
+    }
+}
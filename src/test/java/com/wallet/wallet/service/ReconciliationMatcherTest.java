@@ -0,0 +1,154 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationReport;
+import com.wallet.wallet.dto.ReconciliationReport.MatchRule;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the ReconciliationMatcher.
+ */
+class ReconciliationMatcherTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 9, 12);
+    private static final BigDecimal CENT = new BigDecimal("0.01");
+
+    @Test
+    void exactOnly_keepsTheIdAndAmountSemantics() {
+        ReconciliationReport report = ReconciliationMatcher.exact().match(DATE,
+                List.of(internal("TXN-1", "10.00"), internal("TXN-2", "20.00"), internal("txn_3", "30.00")),
+                index(external("TXN-1", "10.0"), external("TXN-2", "20.01"), external("TXN-3", "30.00")));
+
+        assertEquals(1, report.getMatchedCount());
+        assertEquals(Map.of(MatchRule.EXACT_ID, 1), report.getMatchedCountByRule());
+        assertEquals(new BigDecimal("20.01"), report.getMismatched().get("TXN-2").getExternalAmount());
+        assertEquals("txn_3", report.getMissingInExternal().get(0).getTransactionId());
+        assertEquals("TXN-3", report.getMissingInInternal().get(0).getTransactionId());
+        assertTrue(report.getTolerantMatches().isEmpty());
+    }
+
+    @Test
+    void normalizedIds_pairReformattedIds_butNotAmbiguousOnes() {
+        ReconciliationMatcher matcher = new ReconciliationMatcher(EnumSet.of(MatchRule.NORMALIZED_ID), BigDecimal.ZERO);
+
+        ReconciliationReport report = matcher.match(DATE,
+                List.of(internal("txn_00042", "10.00"), internal("TXN-7", "7.00"), internal("TXN-9", "9.00")),
+                index(external("TXN-00042", "10.00"), external("txn 7", "7.00"), external("TXN.7", "7.00"), external("txn-9", "9.50")));
+
+        assertEquals(1, report.getMatchedCount());
+        ReconciliationReport.TolerantMatch match = report.getTolerantMatches().get(0);
+        assertEquals("txn_00042", match.getInternalTransactionId());
+        assertEquals("TXN-00042", match.getExternalTransactionId());
+        assertEquals(MatchRule.NORMALIZED_ID, match.getRule());
+        assertEquals("txn-9", report.getMismatched().get("TXN-9").getExternalTransactionId());
+        assertEquals(List.of("TXN-7"), report.getMissingInExternal().stream().map(TransactionDTO::getTransactionId).toList());
+        assertEquals(2, report.getMissingInInternalCount());
+    }
+
+    @Test
+    void amountTolerance_turnsSmallDifferencesIntoMatches() {
+        ReconciliationMatcher matcher = new ReconciliationMatcher(EnumSet.of(MatchRule.NORMALIZED_ID, MatchRule.AMOUNT_TOLERANCE), CENT);
+
+        ReconciliationReport report = matcher.match(DATE,
+                List.of(internal("TXN-1", "10.00"), internal("TXN-2", "20.00"), internal("txn-3", "30.00")),
+                index(external("TXN-1", "9.99"), external("TXN-2", "19.98"), external("TXN3", "30.01")));
+
+        assertEquals(2, report.getMatchedCount());
+        assertEquals(Map.of(MatchRule.AMOUNT_TOLERANCE, 2), report.getMatchedCountByRule());
+        assertEquals(List.of("TXN-1", "txn-3"), report.getTolerantMatches().stream()
+                .map(ReconciliationReport.TolerantMatch::getInternalTransactionId).toList());
+        assertEquals(1, report.getMismatchedCount());
+    }
+
+    @Test
+    void uniqueAmounts_pairLeftoversOnlyWhenEachIsTheOthersOnlyCandidate() {
+        ReconciliationMatcher matcher = new ReconciliationMatcher(EnumSet.of(MatchRule.AMOUNT_TOLERANCE, MatchRule.UNIQUE_AMOUNT), CENT);
+
+        ReconciliationReport report = matcher.match(DATE,
+                List.of(internal("TXN-A", "12.34"), internal("TXN-B", "50.00"), internal("TXN-C", "50.00"), internal("TXN-D", "70.00")),
+                index(external("REF-1", "12.35"), external("REF-2", "50.00"), external("REF-3", "69.00")));
+
+        assertEquals(1, report.getMatchedCount());
+        ReconciliationReport.TolerantMatch match = report.getTolerantMatches().get(0);
+        assertEquals("TXN-A", match.getInternalTransactionId());
+        assertEquals("REF-1", match.getExternalTransactionId());
+        assertEquals(MatchRule.UNIQUE_AMOUNT, match.getRule());
+        assertEquals(3, report.getMissingInExternalCount());
+        assertEquals(2, report.getMissingInInternalCount());
+    }
+
+    @Test
+    void uniqueAmounts_scaleToLargeLeftoverSets() {
+        ReconciliationMatcher matcher = new ReconciliationMatcher(EnumSet.of(MatchRule.UNIQUE_AMOUNT), BigDecimal.ZERO);
+        int rows = 200_000;
+        List<TransactionDTO> internal = new ArrayList<>(rows);
+        CompactTransactionIndex external = new CompactTransactionIndex(rows, false);
+        for (int i = 0; i < rows; i++) {
+            internal.add(internal("TXN-" + i, BigDecimal.valueOf(i, 2).toPlainString()));
+            external.add("REF-" + i, BigDecimal.valueOf(i, 2), null, null);
+        }
+
+        ReconciliationReport report = matcher.match(DATE, internal, external);
+
+        assertEquals(rows, report.getMatchedCountByRule().get(MatchRule.UNIQUE_AMOUNT));
+    }
+
+    @Test
+    void uniqueAmounts_bucketAmountsBeyondALongOfMinorUnits() {
+        ReconciliationMatcher matcher = new ReconciliationMatcher(EnumSet.of(MatchRule.AMOUNT_TOLERANCE, MatchRule.UNIQUE_AMOUNT), CENT);
+
+        ReconciliationReport report = matcher.match(DATE,
+                List.of(internal("TXN-HUGE", "123456789012345678901234567890.12"), internal("TXN-NEGATIVE", "-99999999999999999999.00"),
+                        internal("TXN-MAX", "92233720368547758.07")),
+                index(external("REF-1", "123456789012345678901234567890.13"), external("REF-2", "99999999999999999999.00"),
+                        external("REF-3", "92233720368547758.06")));
+
+        assertEquals(Map.of(MatchRule.UNIQUE_AMOUNT, 2), report.getMatchedCountByRule());
+        assertEquals(List.of("TXN-NEGATIVE"), report.getMissingInExternal().stream().map(TransactionDTO::getTransactionId).toList());
+    }
+
+    @Test
+    void repeatedExternalIds_areMissingInInternalAfterTheFirst() {
+        ReconciliationReport report = ReconciliationMatcher.exact().match(DATE,
+                List.of(internal("TXN-1", "10.00")),
+                index(external("TXN-1", "10.00")),
+                List.of(external("TXN-1", "12.00")));
+
+        assertEquals(1, report.getMatchedCount());
+        assertEquals(2, report.getTotalExternalTransactions());
+        assertEquals(List.of(external("TXN-1", "12.00")), report.getMissingInInternal());
+    }
+
+    private static CompactTransactionIndex index(ExternalTransaction... transactions) {
+        CompactTransactionIndex index = new CompactTransactionIndex(transactions.length, false);
+        for (ExternalTransaction transaction : transactions) {
+            index.add(transaction.getTransactionId(), transaction.getAmount(), null, null);
+        }
+        return index;
+    }
+
+    private static ExternalTransaction external(String transactionId, String amount) {
+        return new ExternalTransaction(transactionId, new BigDecimal(amount));
+    }
+
+    private static TransactionDTO internal(String transactionId, String amount) {
+        return TransactionDTO.builder()
+                .transactionId(transactionId)
+                .amount(new BigDecimal(amount))
+                .type(TransactionType.TOPUP)
+                .walletId(1L)
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ReconciliationMerger.
+ */
+class ReconciliationMergerTest {
+
+    @Test
+    void mergesBothSidesInTransactionIdOrder() {
+        // Arrange
+        List<TransactionDTO> internal = List.of(
+                internal("A", "10.00"), internal("B", "20.00"), internal("D", "40.00"), internal("E", "50.00"));
+        List<ExternalTransaction> external = List.of(
+                external("A", "10"), external("B", "25.00"), external("C", "30.00"), external("E", "50.0"), external("F", "60.00"));
+
+        // Act
+        List<ReconciliationRecord> records = merge(internal, external);
+
+        // Assert
+        assertEquals(List.of("A", "B", "C", "D", "E", "F"), records.stream().map(ReconciliationRecord::getTransactionId).toList());
+        assertEquals(List.of(
+                ReconciliationRecord.Status.MATCHED,
+                ReconciliationRecord.Status.MISMATCHED,
+                ReconciliationRecord.Status.MISSING_IN_INTERNAL,
+                ReconciliationRecord.Status.MISSING_IN_EXTERNAL,
+                ReconciliationRecord.Status.MATCHED,
+                ReconciliationRecord.Status.MISSING_IN_INTERNAL), records.stream().map(ReconciliationRecord::getStatus).toList());
+        assertEquals(new BigDecimal("25.00"), records.get(1).getExternal().getAmount());
+        assertNull(records.get(2).getInternal());
+        assertNull(records.get(3).getExternal());
+    }
+
+    @Test
+    void repeatedExternalId_isPairedOnceAndThenReportedAsMissingInInternal() {
+        List<ReconciliationRecord> records = merge(
+                List.of(internal("A", "10.00")),
+                List.of(external("A", "10.00"), external("A", "10.00")));
+
+        assertEquals(List.of(ReconciliationRecord.Status.MATCHED, ReconciliationRecord.Status.MISSING_IN_INTERNAL),
+                records.stream().map(ReconciliationRecord::getStatus).toList());
+    }
+
+    @Test
+    void unsortedInput_failsInsteadOfReportingWrongResults() {
+        assertThrows(IllegalStateException.class,
+                () -> merge(List.of(internal("B", "1.00"), internal("A", "1.00")), List.of()));
+        assertThrows(IllegalStateException.class,
+                () -> merge(List.of(), List.of(external("B", "1.00"), external("A", "1.00"))));
+    }
+
+    @Test
+    void emptyInputs_produceNoRecords() {
+        assertTrue(merge(List.of(), List.of()).isEmpty());
+    }
+
+    private static List<ReconciliationRecord> merge(List<TransactionDTO> internal, List<ExternalTransaction> external) {
+        ReconciliationMerger merger = new ReconciliationMerger(internal.iterator(), external.iterator());
+        List<ReconciliationRecord> records = new ArrayList<>();
+        merger.forEachRemaining(records::add);
+        return records;
+    }
+
+    private static TransactionDTO internal(String transactionId, String amount) {
+        return TransactionDTO.builder()
+                .transactionId(transactionId)
+                .amount(new BigDecimal(amount))
+                .type(TransactionType.TOPUP)
+                .walletId(1L)
+                .build();
+    }
+
+    private static ExternalTransaction external(String transactionId, String amount) {
+        return new ExternalTransaction(transactionId, new BigDecimal(amount));
+    }
+}
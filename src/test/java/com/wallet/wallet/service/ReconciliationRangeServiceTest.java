@@ -0,0 +1,145 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRangeReport;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationSummary;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.exception.InvalidDateRangeException;
+import com.wallet.wallet.model.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ReconciliationRangeService.
+ * Each day's records are scripted, so the tests focus on the boundary pass and the range totals.
+ */
+class ReconciliationRangeServiceTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2025, 9, 30);
+    private static final LocalDate DAY_2 = LocalDate.of(2025, 10, 1);
+
+    private final Map<LocalDate, List<ReconciliationRecord>> days = new HashMap<>();
+    private ReconciliationRangeService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void transactionsNearMidnight_arePairedWithTheAdjacentDaysFile() {
+        // Arrange
+        days.put(DAY_1, List.of(
+                internalOnly("LATE-MATCH", "10.00", DAY_2.atStartOfDay().minusSeconds(1)),
+                internalOnly("LATE-TOO-EARLY", "10.00", DAY_2.atStartOfDay().minusMinutes(30)),
+                externalOnly("EARLY-MISMATCH", "21.00")));
+        days.put(DAY_2, List.of(
+                externalOnly("LATE-MATCH", "10.00"),
+                externalOnly("LATE-TOO-EARLY", "10.00"),
+                internalOnly("EARLY-MISMATCH", "20.00", DAY_2.atStartOfDay().plusSeconds(2))));
+        service = service(2);
+
+        // Act
+        ReconciliationRangeReport report = service.reconcile(DAY_1, DAY_2);
+
+        // Assert
+        assertEquals(List.of("LATE-MATCH", "EARLY-MISMATCH"),
+                report.getCrossDayMatches().stream().map(ReconciliationRangeReport.CrossDayMatch::getTransactionId).toList());
+        ReconciliationRangeReport.CrossDayMatch late = report.getCrossDayMatches().get(0);
+        assertEquals(ReconciliationRecord.Status.MATCHED, late.getStatus());
+        assertEquals(DAY_1, late.getInternalDate());
+        assertEquals(DAY_2, late.getExternalDate());
+        ReconciliationRangeReport.CrossDayMatch early = report.getCrossDayMatches().get(1);
+        assertEquals(ReconciliationRecord.Status.MISMATCHED, early.getStatus());
+        assertEquals(DAY_2, early.getInternalDate());
+        assertEquals(DAY_1, early.getExternalDate());
+
+        // Outside the tolerance window stays missing on both days
+        assertEquals(1, report.getMatchedCount());
+        assertEquals(1, report.getMismatchedCount());
+        assertEquals(1, report.getMissingInExternalCount());
+        assertEquals(1, report.getMissingInInternalCount());
+        assertEquals(List.of(DAY_1.toString(), DAY_2.toString()),
+                report.getDays().stream().map(ReconciliationSummary::getReportDate).toList());
+        assertEquals(1, report.getDays().get(0).getMissingInInternalCount());
+    }
+
+    @Test
+    void days_areReconciledConcurrently() {
+        // Both days block until the other one has started
+        CountDownLatch started = new CountDownLatch(2);
+        WalletProperties properties = properties(2);
+        service = new ReconciliationRangeService((date, sink) -> {
+            started.countDown();
+            try {
+                assertTrue(started.await(5, TimeUnit.SECONDS), "days should overlap");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ReconciliationSummary.builder().reportDate(date.toString()).build();
+        }, properties);
+
+        assertEquals(2, service.reconcile(DAY_1, DAY_2).getDays().size());
+    }
+
+    @Test
+    void invalidRanges_areRejected() {
+        service = service(1);
+
+        assertThrows(InvalidDateRangeException.class, () -> service.reconcile(DAY_2, DAY_1));
+        assertThrows(InvalidDateRangeException.class, () -> service.reconcile(DAY_1, DAY_1.plusDays(31)));
+    }
+
+    private ReconciliationRangeService service(int parallelism) {
+        return new ReconciliationRangeService((date, sink) -> {
+            long[] counts = new long[ReconciliationRecord.Status.values().length];
+            for (ReconciliationRecord record : days.getOrDefault(date, List.of())) {
+                counts[record.getStatus().ordinal()]++;
+                sink.accept(record);
+            }
+            return ReconciliationSummary.builder()
+                    .reportDate(date.toString())
+                    .missingInExternalCount(counts[ReconciliationRecord.Status.MISSING_IN_EXTERNAL.ordinal()])
+                    .missingInInternalCount(counts[ReconciliationRecord.Status.MISSING_IN_INTERNAL.ordinal()])
+                    .build();
+        }, properties(parallelism));
+    }
+
+    private static WalletProperties properties(int parallelism) {
+        WalletProperties properties = new WalletProperties();
+        properties.getReconciliation().setRangeParallelism(parallelism);
+        properties.getReconciliation().setCrossMidnightTolerance(Duration.ofMinutes(5));
+        return properties;
+    }
+
+    private static ReconciliationRecord internalOnly(String transactionId, String amount, LocalDateTime createdAt) {
+        TransactionDTO internal = TransactionDTO.builder()
+                .transactionId(transactionId)
+                .amount(new BigDecimal(amount))
+                .type(TransactionType.TOPUP)
+                .createdAt(createdAt)
+                .walletId(1L)
+                .build();
+        return ReconciliationRecord.of(transactionId, internal, null);
+    }
+
+    private static ReconciliationRecord externalOnly(String transactionId, String amount) {
+        return ReconciliationRecord.of(transactionId, null, new ExternalTransaction(transactionId, new BigDecimal(amount)));
+    }
+}
@@ -0,0 +1,132 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.IntegrationTestBase;
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ReconciliationReport;
+import com.wallet.wallet.dto.TransactionDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Integration tests for the stored reconciliation results: the first request reconciles the day in full,
+ * later ones pick up late ledger rows and corrected external files.
+ */
+public class ReconciliationResultServiceIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private ReconciliationResultService reconciliationResultService;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private WalletProperties walletProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path externalDirectory;
+
+    private long nextId = 30_000_000L;
+
+    @BeforeEach
+    void setUp() {
+        walletProperties.getReconciliation().setExternalDirectory(externalDirectory.toString());
+        jdbcTemplate.update("INSERT IGNORE INTO wallets (id, balance) VALUES (900, 0)");
+        jdbcTemplate.queryForList("SELECT COALESCE(MAX(id), 0) FROM transactions WHERE id >= 30000000", Long.class)
+                .forEach(max -> nextId = Math.max(nextId, max));
+    }
+
+    @AfterEach
+    void tearDown() {
+        walletProperties.getReconciliation().setExternalDirectory(null);
+    }
+
+    @Test
+    void openDay_picksUpLateLedgerRowsAndCorrectedFiles() throws Exception {
+        LocalDate date = LocalDate.now();
+        insert("RES-A-" + date, "10.00", date.atStartOfDay().plusMinutes(1));
+        insert("RES-B-" + date, "20.00", date.atStartOfDay().plusMinutes(2));
+        insert("RES-C-" + date, "30.00", date.atStartOfDay().plusMinutes(3));
+        writeFile(date, 1, "RES-A-" + date + ",10.00", "RES-B-" + date + ",21.00", "RES-X-" + date + ",40.00");
+
+        // First request reconciles the day in full
+        ReconciliationReport first = reconciliationResultService.getReport(date);
+        assertCounts(first, 1, 1, 1, 1);
+        assertEquals(Map.of("RES-B-" + date, new BigDecimal("21.00")),
+                Map.of("RES-B-" + date, first.getMismatched().get("RES-B-" + date).getExternalAmount()));
+
+        // Late ledger rows: X now has its internal side, D is new
+        insert("RES-X-" + date, "40.00", date.atStartOfDay().plusMinutes(4));
+        insert("RES-D-" + date, "50.00", date.atStartOfDay().plusMinutes(5));
+        ReconciliationReport second = reconciliationResultService.getReport(date);
+        assertCounts(second, 2, 1, 2, 0);
+
+        // Corrected file: A dropped, B fixed, D added
+        writeFile(date, 2, "RES-B-" + date + ",20.00", "RES-X-" + date + ",40.00", "RES-D-" + date + ",50.00");
+        ReconciliationReport third = reconciliationResultService.getReport(date);
+        assertCounts(third, 3, 0, 2, 0);
+        assertEquals(List.of("RES-A-" + date, "RES-C-" + date),
+                third.getMissingInExternal().stream().map(TransactionDTO::getTransactionId).sorted().toList());
+
+        // The incremental result equals a reconciliation from scratch
+        ReconciliationReport fromScratch = reconciliationService.generateReport(date);
+        assertCounts(fromScratch, 3, 0, 2, 0);
+    }
+
+    @Test
+    void settledDayWithUnchangedFile_isServedFromStoredResults() throws Exception {
+        LocalDate date = LocalDate.now().minusDays(3);
+        insert("RES-SETTLED-" + date, "10.00", date.atTime(12, 0));
+        writeFile(date, 1, "RES-SETTLED-" + date + ",10.00");
+        assertCounts(reconciliationResultService.getReport(date), 1, 0, 0, 0);
+
+        // Not a real scenario for a settled day; shows the ledger is no longer consulted
+        insert("RES-SETTLED-LATE-" + date, "10.00", date.atTime(13, 0));
+        assertCounts(reconciliationResultService.getReport(date), 1, 0, 0, 0);
+
+        // A new file version is still picked up
+        writeFile(date, 2, "RES-SETTLED-" + date + ",11.00");
+        assertCounts(reconciliationResultService.getReport(date), 0, 1, 0, 0);
+    }
+
+    private void assertCounts(ReconciliationReport report, int matched, int mismatched, int missingInExternal, int missingInInternal) {
+        assertEquals(matched, report.getMatchedCount(), "matched");
+        assertEquals(mismatched, report.getMismatchedCount(), "mismatched");
+        assertEquals(missingInExternal, report.getMissingInExternalCount(), "missing in external");
+        assertEquals(missingInInternal, report.getMissingInInternalCount(), "missing in internal");
+        assertEquals(matched, report.getMatched().size());
+        assertEquals(missingInExternal, report.getMissingInExternal().size());
+        assertEquals(missingInInternal, report.getMissingInInternal().size());
+    }
+
+    private void writeFile(LocalDate date, int version, String... lines) throws IOException {
+        Path file = externalDirectory.resolve("external_transactions_" + date + ".csv");
+        Files.writeString(file, "transaction_id,amount\n" + String.join("\n", lines) + "\n");
+        // Distinct modification times even when versions are written within the same second
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2025-01-01T00:00:00Z").plusSeconds(version)));
+    }
+
+    private void insert(String transactionId, String amount, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO transactions (id, wallet_id, amount, type, transaction_id, created_at) VALUES (?, 900, ?, 'TOPUP', ?, ?)",
+                ++nextId, new BigDecimal(amount), transactionId, createdAt);
+    }
+}
@@ -0,0 +1,70 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.IntegrationTestBase;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Integration tests for the streaming reconciliation against MySQL and the bundled
+ * external_transactions_2025-09-12.csv file.
+ */
+public class ReconciliationServiceIntegrationTest extends IntegrationTestBase {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 9, 12);
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedLedger() {
+        jdbcTemplate.update("INSERT IGNORE INTO wallets (id, balance) VALUES (700, 0)");
+        insert(9_000_001L, "TXN-TOPUP-001", "100.00", "TOPUP", DATE.atTime(9, 0));
+        insert(9_000_002L, "TXN-CONSUME-001", "25.50", "CONSUME", DATE.atTime(10, 0));
+        insert(9_000_003L, "TXN-CONSUME-002", "20.00", "CONSUME", DATE.atTime(11, 0));
+        insert(9_000_004L, "TXN-INTERNAL-ONLY", "5.00", "TOPUP", DATE.atTime(23, 59, 59));
+        // Outside the day on both ends
+        insert(9_000_005L, "TXN-TOPUP-002", "75.00", "TOPUP", DATE.plusDays(1).atStartOfDay());
+        insert(9_000_006L, "TXN-PREVIOUS-DAY", "1.00", "TOPUP", DATE.minusDays(1).atTime(23, 59, 59));
+    }
+
+    @Test
+    void reconcile_streamsRecordsInTransactionIdOrder() throws Exception {
+        List<ReconciliationRecord> records = new ArrayList<>();
+
+        ReconciliationSummary summary = reconciliationService.reconcile(DATE, records::add);
+
+        assertEquals(List.of("EXT-ONLY-TRX-888", "TXN-CONSUME-001", "TXN-CONSUME-002", "TXN-INTERNAL-ONLY", "TXN-TOPUP-001", "TXN-TOPUP-002"),
+                records.stream().map(ReconciliationRecord::getTransactionId).toList());
+        assertEquals(List.of(
+                ReconciliationRecord.Status.MISSING_IN_INTERNAL,
+                ReconciliationRecord.Status.MATCHED,
+                ReconciliationRecord.Status.MISMATCHED,
+                ReconciliationRecord.Status.MISSING_IN_EXTERNAL,
+                ReconciliationRecord.Status.MATCHED,
+                ReconciliationRecord.Status.MISSING_IN_INTERNAL), records.stream().map(ReconciliationRecord::getStatus).toList());
+        assertEquals(4, summary.getTotalInternalTransactions());
+        assertEquals(5, summary.getTotalExternalTransactions());
+        assertEquals(2, summary.getMatchedCount());
+        assertEquals(700L, records.get(1).getInternal().getWalletId());
+    }
+
+    private void insert(long id, String transactionId, String amount, String type, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT IGNORE INTO transactions (id, wallet_id, amount, type, transaction_id, created_at) VALUES (?, 700, ?, ?, ?, ?)",
+                id, new BigDecimal(amount), type, transactionId, createdAt);
+    }
+}
@@ -0,0 +1,113 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.ReconciliationSummary;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.exception.AdmissionRejectedException;
+import com.wallet.wallet.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ReconciliationStreamService.
+ * The ReconciliationService is mocked to hand out cursors over in-memory sides whose reads and closing are observed.
+ */
+class ReconciliationStreamServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 9, 12);
+
+    private final AtomicInteger internalRead = new AtomicInteger();
+    private final AtomicBoolean internalClosed = new AtomicBoolean();
+
+    private ReconciliationService reconciliationService;
+    private ReconciliationStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = mock(ReconciliationService.class);
+        WalletProperties properties = new WalletProperties();
+        properties.getReconciliation().setMaxConcurrentStreams(1);
+        streamService = new ReconciliationStreamService(reconciliationService, properties);
+        when(reconciliationService.openCursor(DATE)).thenAnswer(invocation -> {
+            Stream<TransactionDTO> internal = IntStream.range(0, 1_000)
+                    .mapToObj(i -> internal(String.format("TXN-%05d", i)))
+                    .peek(transaction -> internalRead.incrementAndGet())
+                    .onClose(() -> internalClosed.set(true));
+            Stream<ExternalTransaction> external = Stream.of(new ExternalTransaction("TXN-00000", new BigDecimal("10.00")));
+            return new ReconciliationCursor(DATE, internal, external);
+        });
+    }
+
+    @Test
+    void records_arePulledOnlyAsFastAsTheyAreRequested() {
+        StepVerifier.create(streamService.records(DATE), 2)
+                .assertNext(record -> assertEquals(ReconciliationRecord.Status.MATCHED, record.getStatus()))
+                .assertNext(record -> assertEquals(ReconciliationRecord.Status.MISSING_IN_EXTERNAL, record.getStatus()))
+                .expectNoEvent(Duration.ofMillis(50))
+                .then(() -> assertTrue(internalRead.get() <= 3, "read " + internalRead.get() + " rows for 2 records"))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertTrue(internalClosed.get(), "the cursor must be closed when the client goes away");
+    }
+
+    @Test
+    void events_endWithTheSummary() {
+        StepVerifier.create(streamService.events(DATE))
+                .assertNext(event -> {
+                    assertEquals("record", event.event());
+                    assertEquals("TXN-00000", event.id());
+                })
+                .expectNextCount(999)
+                .assertNext(event -> {
+                    assertEquals("summary", event.event());
+                    assertEquals(1_000L, ((ReconciliationSummary) event.data()).getTotalInternalTransactions());
+                    assertEquals(1L, ((ReconciliationSummary) event.data()).getMatchedCount());
+                })
+                .verifyComplete();
+
+        assertTrue(internalClosed.get());
+    }
+
+    @Test
+    void streamsBeyondTheLimit_areTurnedAwayUntilOneCloses() {
+        Flux<ReconciliationRecord> first = streamService.records(DATE);
+
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> streamService.records(DATE));
+        assertTrue(e.isQueueFull());
+
+        StepVerifier.create(first, 1)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(streamService.records(DATE))
+                .expectNextCount(1_000)
+                .verifyComplete();
+    }
+
+    private static TransactionDTO internal(String transactionId) {
+        return TransactionDTO.builder()
+                .transactionId(transactionId)
+                .amount(new BigDecimal("10.00"))
+                .type(TransactionType.TOPUP)
+                .createdAt(LocalDateTime.of(2025, 9, 12, 10, 0))
+                .walletId(1L)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ExternalTransaction;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.model.TransactionType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reconciles several million synthetic rows through the external sort and the merge join.
+ * Runs in its own surefire execution with a 64 MB heap (see the "low-heap" execution in pom.xml),
+ * far too small to hold either side of the day, so it fails with an OutOfMemoryError if anything
+ * starts materializing the day. Data still live after a collection must also stay under half the heap.
+ */
+@Tag("low-heap")
+class StreamingReconciliationLowHeapTest {
+
+    private static final int ROWS = 3_000_000;
+    private static final int SCRAMBLE = 7_919;
+    private static final long LIVE_HEAP_LIMIT_BYTES = 32L << 20;
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void severalMillionRows_areReconciledWithBoundedHeap() {
+        // Arrange: per 100 IDs, #1 is external only, #2 internal only and #3 differs in amount
+        WalletProperties properties = new WalletProperties();
+        properties.getReconciliation().setSpillDirectory(spillDirectory.toString());
+        ExternalTransactionSorter sorter = new ExternalTransactionSorter(properties);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 9, 12, 12, 0);
+
+        Iterator<TransactionDTO> internal = IntStream.range(0, ROWS)
+                .filter(i -> i % 100 != 1)
+                .mapToObj(i -> TransactionDTO.builder()
+                        .transactionId(id(i))
+                        .amount(amount(i))
+                        .type(TransactionType.TOPUP)
+                        .createdAt(createdAt)
+                        .walletId((long) i % 1_000)
+                        .build())
+                .iterator();
+        // External rows arrive in a scrambled order and have to be sorted on disk
+        Iterator<ExternalTransaction> external = IntStream.range(0, ROWS)
+                .map(i -> (int) ((long) i * SCRAMBLE % ROWS))
+                .filter(i -> i % 100 != 2)
+                .mapToObj(i -> new ExternalTransaction(id(i), i % 100 == 3 ? amount(i).add(BigDecimal.ONE) : amount(i)))
+                .iterator();
+
+        // Pools smaller than the limit, like the young generation, cannot exceed it
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported())
+                .filter(pool -> pool.getUsage().getMax() < 0 || pool.getUsage().getMax() > LIVE_HEAP_LIMIT_BYTES)
+                .toList();
+        heapPools.forEach(pool -> pool.setCollectionUsageThreshold(LIVE_HEAP_LIMIT_BYTES));
+
+        // Act
+        long[] counts = new long[ReconciliationRecord.Status.values().length];
+        try (Stream<ExternalTransaction> sorted = sorter.sort(external)) {
+            ReconciliationMerger merger = new ReconciliationMerger(internal, sorted.iterator());
+            merger.forEachRemaining(record -> counts[record.getStatus().ordinal()]++);
+        }
+
+        // Assert
+        assertEquals(ROWS / 100 * 97, counts[ReconciliationRecord.Status.MATCHED.ordinal()]);
+        assertEquals(ROWS / 100, counts[ReconciliationRecord.Status.MISMATCHED.ordinal()]);
+        assertEquals(ROWS / 100, counts[ReconciliationRecord.Status.MISSING_IN_EXTERNAL.ordinal()]);
+        assertEquals(ROWS / 100, counts[ReconciliationRecord.Status.MISSING_IN_INTERNAL.ordinal()]);
+        for (MemoryPoolMXBean pool : heapPools) {
+            assertEquals(0, pool.getCollectionUsageThresholdCount(), () -> pool.getName() + " held over "
+                    + (LIVE_HEAP_LIMIT_BYTES >> 20) + " MB after a collection, last " + (pool.getCollectionUsage().getUsed() >> 20) + " MB");
+        }
+    }
+
+    private static String id(int i) {
+        return String.format("TXN-%08d", i);
+    }
+
+    private static BigDecimal amount(int i) {
+        return BigDecimal.valueOf(i % 100_000, 2);
+    }
+}
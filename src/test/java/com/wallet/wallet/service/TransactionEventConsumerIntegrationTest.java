@@ -0,0 +1,60 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.IntegrationTestBase;
+import com.wallet.wallet.dto.WalletDailyActivity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Integration tests for the daily aggregates: wallet writes travel through the outbox relay and
+ * RabbitMQ to the batch consumer, and the activity report reads the result.
+ */
+public class TransactionEventConsumerIntegrationTest extends IntegrationTestBase {
+
+    private static final long WALLET = 42_000_001L;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletActivityService walletActivityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM wallet_daily_aggregates WHERE wallet_id = ?", WALLET);
+    }
+
+    @Test
+    void walletWrites_areAggregatedPerDay() throws InterruptedException {
+        String run = String.valueOf(System.nanoTime());
+        walletService.topup(WALLET, new BigDecimal("100.00"), "AGG-" + run + "-1");
+        walletService.topup(WALLET, new BigDecimal("20.00"), "AGG-" + run + "-2");
+        walletService.consume(WALLET, new BigDecimal("30.00"), "AGG-" + run + "-3");
+
+        LocalDate today = LocalDate.now();
+        List<WalletDailyActivity> activity = List.of();
+        for (int attempt = 0; attempt < 100 && (activity.isEmpty() || activity.get(0).consumeCount() == 0); attempt++) {
+            Thread.sleep(100);
+            activity = walletActivityService.daily(WALLET, today, today);
+        }
+
+        assertEquals(1, activity.size());
+        WalletDailyActivity day = activity.get(0);
+        assertEquals(today, day.date());
+        assertEquals(2, day.topupCount());
+        assertEquals(0, new BigDecimal("120.00").compareTo(day.topupTotal()));
+        assertEquals(1, day.consumeCount());
+        assertEquals(0, new BigDecimal("30.00").compareTo(day.consumeTotal()));
+    }
+}
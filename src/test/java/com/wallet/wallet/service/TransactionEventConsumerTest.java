@@ -0,0 +1,74 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.dto.TransactionEvent;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.model.WalletDailyAggregate;
+import com.wallet.wallet.repository.WalletDailyAggregateJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the TransactionEventConsumer.
+ */
+class TransactionEventConsumerTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 9, 12, 12, 0);
+
+    private final WalletDailyAggregateJdbcRepository repository = mock(WalletDailyAggregateJdbcRepository.class);
+    private final TransactionEventConsumer consumer = new TransactionEventConsumer(repository, mock(PlatformTransactionManager.class));
+
+    @Test
+    void batch_isFoldedIntoOneDeltaPerWalletAndDayInKeyOrder() {
+        consumer.onEvents(List.of(
+                event(2L, TransactionType.TOPUP, "10.00", NOON),
+                event(1L, TransactionType.TOPUP, "5.00", NOON),
+                event(2L, TransactionType.CONSUME, "3.50", NOON.plusHours(1)),
+                event(2L, TransactionType.TOPUP, "1.00", NOON),
+                event(2L, TransactionType.TOPUP, "7.00", NOON.minusDays(1))));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WalletDailyAggregate>> written = ArgumentCaptor.forClass(List.class);
+        verify(repository).add(written.capture());
+        List<WalletDailyAggregate> deltas = written.getValue();
+
+        assertEquals(3, deltas.size());
+        assertEquals(1L, deltas.get(0).getWalletId());
+        assertEquals(LocalDate.of(2025, 9, 11), deltas.get(1).getActivityDate());
+        WalletDailyAggregate busyDay = deltas.get(2);
+        assertEquals(2L, busyDay.getWalletId());
+        assertEquals(LocalDate.of(2025, 9, 12), busyDay.getActivityDate());
+        assertEquals(2, busyDay.getTopupCount());
+        assertEquals(new BigDecimal("11.00"), busyDay.getTopupTotal());
+        assertEquals(1, busyDay.getConsumeCount());
+        assertEquals(new BigDecimal("3.50"), busyDay.getConsumeTotal());
+    }
+
+    @Test
+    void eventsWithoutWallet_areSkipped() {
+        consumer.onEvents(List.of(TransactionEvent.builder().transactionId("legacy").amount(new BigDecimal("1.00")).build()));
+
+        verify(repository, never()).add(anyList());
+    }
+
+    private static TransactionEvent event(long walletId, TransactionType type, String amount, LocalDateTime createdAt) {
+        return TransactionEvent.builder()
+                .walletId(walletId)
+                .transactionId(walletId + "-" + type + "-" + amount)
+                .type(type)
+                .amount(new BigDecimal(amount))
+                .createdAt(createdAt)
+                .build();
+    }
+}
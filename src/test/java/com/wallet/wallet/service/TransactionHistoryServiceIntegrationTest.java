@@ -0,0 +1,111 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.IntegrationTestBase;
+import com.wallet.wallet.dto.TransactionHistoryEntry;
+import com.wallet.wallet.dto.TransactionHistoryPage;
+import com.wallet.wallet.exception.InvalidCursorException;
+import com.wallet.wallet.exception.WalletNotFoundException;
+import com.wallet.wallet.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for the keyset-paginated transaction history.
+ */
+public class TransactionHistoryServiceIntegrationTest extends IntegrationTestBase {
+
+    private static final long WALLET = 41_000_001L;
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2025, 9, 1, 12, 0);
+    private static final LocalDateTime DAY_TWO = LocalDateTime.of(2025, 9, 2, 12, 0);
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionHistoryService.Filter everything = new TransactionHistoryService.Filter(null, null, null);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM transactions WHERE wallet_id = ?", WALLET);
+        jdbcTemplate.update("DELETE FROM wallets WHERE id = ?", WALLET);
+        jdbcTemplate.update("INSERT INTO wallets (id, balance) VALUES (?, ?)", WALLET, new BigDecimal("0.00"));
+
+        // Three rows share a timestamp, so the id has to break the tie between pages
+        insert(41_000_001L, "TOPUP", DAY_ONE);
+        insert(41_000_002L, "TOPUP", DAY_TWO);
+        insert(41_000_003L, "CONSUME", DAY_TWO);
+        insert(41_000_004L, "TOPUP", DAY_TWO);
+        insert(41_000_005L, "CONSUME", DAY_TWO.plusHours(1));
+    }
+
+    @Test
+    void pages_coverTheHistoryNewestFirstWithoutGapsOrRepeats() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionHistoryPage page = transactionHistoryService.page(WALLET, everything, cursor, 2);
+            page.getTransactions().forEach(t -> ids.add(t.id()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(41_000_005L, 41_000_004L, 41_000_003L, 41_000_002L, 41_000_001L), ids);
+    }
+
+    @Test
+    void rowsWrittenBetweenPages_doNotShiftLaterPages() {
+        TransactionHistoryPage first = transactionHistoryService.page(WALLET, everything, null, 2);
+        insert(41_000_006L, "TOPUP", DAY_TWO.plusHours(2));
+
+        TransactionHistoryPage second = transactionHistoryService.page(WALLET, everything, first.getNextCursor(), 2);
+
+        assertEquals(List.of(41_000_003L, 41_000_002L), second.getTransactions().stream().map(TransactionHistoryEntry::id).toList());
+    }
+
+    @Test
+    void filters_limitByTypeAndInclusiveDays() {
+        TransactionHistoryPage consumes = transactionHistoryService.page(WALLET,
+                new TransactionHistoryService.Filter(TransactionType.CONSUME, null, null), null, null);
+        TransactionHistoryPage dayOne = transactionHistoryService.page(WALLET,
+                new TransactionHistoryService.Filter(null, DAY_ONE.toLocalDate(), DAY_ONE.toLocalDate()), null, null);
+
+        assertEquals(List.of(41_000_005L, 41_000_003L), consumes.getTransactions().stream().map(TransactionHistoryEntry::id).toList());
+        assertEquals(List.of(41_000_001L), dayOne.getTransactions().stream().map(TransactionHistoryEntry::id).toList());
+        assertNull(dayOne.getNextCursor());
+    }
+
+    @Test
+    void export_streamsTheSameRowsAsThePages() {
+        List<Long> exported = transactionHistoryService.export(WALLET,
+                        new TransactionHistoryService.Filter(null, LocalDate.of(2025, 9, 2), null))
+                .map(TransactionHistoryEntry::id)
+                .collectList()
+                .block();
+
+        assertEquals(List.of(41_000_005L, 41_000_004L, 41_000_003L, 41_000_002L), exported);
+    }
+
+    @Test
+    void invalidRequests_areRejected() {
+        assertThrows(InvalidCursorException.class, () -> transactionHistoryService.page(WALLET, everything, "not-a-cursor", null));
+        assertThrows(WalletNotFoundException.class, () -> transactionHistoryService.page(41_000_999L, everything, null, null));
+    }
+
+    private void insert(long id, String type, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO transactions (id, wallet_id, amount, type, transaction_id, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                id, WALLET, new BigDecimal("10.00"), type, "HIST-" + id, createdAt);
+    }
+}
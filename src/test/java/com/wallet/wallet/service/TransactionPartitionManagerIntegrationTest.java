@@ -0,0 +1,131 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.IntegrationTestBase;
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.dto.ReconciliationRecord;
+import com.wallet.wallet.dto.TransactionDTO;
+import com.wallet.wallet.exception.TransactionAlreadyExistsException;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.repository.TransactionPartitionJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the day partitions of the ledger on MySQL. Archival is not exercised end to end
+ * here: the database is shared with other tests, whose old rows sit in the oldest partition.
+ */
+public class TransactionPartitionManagerIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private TransactionPartitionManager transactionPartitionManager;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private LedgerArchive ledgerArchive;
+
+    @Autowired
+    private WalletProperties walletProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path archiveDirectory;
+
+    @Test
+    void startup_partitionsTheLedgerByDayWithPartitionsReadyAhead() {
+        transactionPartitionManager.maintain(false);
+
+        List<String> partitions = partitions();
+        LocalDate today = LocalDate.now();
+        assertTrue(partitions.contains(TransactionPartitionJdbcRepository.partitionName(today)), partitions.toString());
+        assertTrue(partitions.contains(TransactionPartitionJdbcRepository.partitionName(
+                today.plusDays(walletProperties.getPartitioning().getPremakeDays()))), partitions.toString());
+        assertEquals(TransactionPartitionJdbcRepository.FUTURE_PARTITION, partitions.get(partitions.size() - 1));
+        assertEquals(0, jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.TABLE_CONSTRAINTS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND CONSTRAINT_TYPE IN ('UNIQUE', 'FOREIGN KEY')""", Integer.class));
+
+        // Running again changes nothing
+        transactionPartitionManager.maintain(false);
+        assertEquals(partitions, partitions());
+    }
+
+    @Test
+    void dayQuery_readsOnlyThatDaysPartition() {
+        LocalDate today = LocalDate.now();
+
+        Map<String, Object> plan = jdbcTemplate.queryForMap(
+                "EXPLAIN SELECT transaction_id FROM transactions WHERE created_at >= ? AND created_at < ?",
+                Timestamp.valueOf(today.atStartOfDay()), Timestamp.valueOf(today.plusDays(1).atStartOfDay()));
+
+        assertEquals(TransactionPartitionJdbcRepository.partitionName(today), plan.get("partitions"));
+    }
+
+    @Test
+    void claimedTransactionId_isRejectedWithoutAUniqueIndexOnTheLedger() {
+        jdbcTemplate.update("INSERT INTO transaction_keys (transaction_id) VALUES ('PART-CLAIMED')");
+
+        assertThrows(TransactionAlreadyExistsException.class,
+                () -> walletService.topup(950L, new BigDecimal("10.00"), "PART-CLAIMED"));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE transaction_id = 'PART-CLAIMED'", Integer.class));
+    }
+
+    @Test
+    void archivedDay_isReconciledFromTheArchive() throws Exception {
+        LocalDate date = LocalDate.of(2001, 2, 3);
+        walletProperties.getPartitioning().setArchiveDirectory(archiveDirectory.toString());
+        try {
+            try (LedgerArchive.DayWriter writer = ledgerArchive.write(date)) {
+                writer.add(archived("ARCH-A", "10.00"));
+                writer.add(archived("ARCH-B", "20.00"));
+                writer.commit();
+            }
+
+            List<ReconciliationRecord> records = new ArrayList<>();
+            reconciliationService.reconcile(date, records::add);
+
+            assertEquals(List.of("ARCH-A", "ARCH-B"), records.stream().map(ReconciliationRecord::getTransactionId).toList());
+            assertTrue(records.stream().allMatch(r -> r.getStatus() == ReconciliationRecord.Status.MISSING_IN_EXTERNAL));
+            assertEquals(2, reconciliationService.generateReport(date).getTotalInternalTransactions());
+        } finally {
+            walletProperties.getPartitioning().setArchiveDirectory(null);
+        }
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT PARTITION_NAME FROM information_schema.PARTITIONS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' ORDER BY PARTITION_ORDINAL_POSITION""", String.class);
+    }
+
+    private static TransactionDTO archived(String transactionId, String amount) {
+        return TransactionDTO.builder()
+                .transactionId(transactionId)
+                .amount(new BigDecimal(amount))
+                .type(TransactionType.TOPUP)
+                .createdAt(LocalDate.of(2001, 2, 3).atTime(12, 0))
+                .walletId(950L)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.IntegrationTestBase;
+import com.wallet.wallet.dto.BatchOperation;
+import com.wallet.wallet.dto.BatchOperationResult;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.repository.WalletRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for bulk wallet operations.
+ * Applies 10k-item batches against MySQL and checks every item lands.
+ * Their throughput is measured by {@link com.wallet.wallet.load.WalletBatchLoadTest}.
+ */
+public class WalletBatchServiceIntegrationTest extends IntegrationTestBase {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int WALLETS = 100;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private WalletBatchService walletBatchService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Test
+    void tenThousandItemBatches_areAppliedCompletely() {
+        long firstWallet = 8_000L;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            List<BatchOperation> operations = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                long walletId = firstWallet + (i % WALLETS);
+                // Each pass over the wallets alternates topups and consumes, so every consume is covered
+                TransactionType type = (i / WALLETS) % 2 == 0 ? TransactionType.TOPUP : TransactionType.CONSUME;
+                BigDecimal amount = type == TransactionType.TOPUP ? new BigDecimal("10.00") : new BigDecimal("1.00");
+                operations.add(new BatchOperation(walletId, type, amount, "bulk-" + round + "-" + i));
+            }
+
+            List<BatchOperationResult> results = walletBatchService.process(operations);
+
+            assertEquals(BATCH_SIZE, results.size());
+            assertTrue(results.stream().allMatch(r -> r.getStatus() == BatchOperationResult.Status.SUCCESS));
+        }
+
+        // Per round each wallet gets 50 topups of 10.00 and 50 consumes of 1.00
+        BigDecimal expected = new BigDecimal("450.00").multiply(BigDecimal.valueOf(ROUNDS));
+        assertEquals(0, expected.compareTo(walletRepository.findById(firstWallet).orElseThrow().getBalance().toBigDecimal()));
+    }
+}
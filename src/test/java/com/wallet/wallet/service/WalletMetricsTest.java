@@ -0,0 +1,78 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.model.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the WalletMetrics.
+ * Transaction synchronization is driven by hand to stand in for a committing transaction.
+ */
+class WalletMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WalletMetrics walletMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        walletMetrics = new WalletMetrics(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void everyPhaseAndRejectionIsRegisteredUpFront() {
+        assertEquals(TransactionType.values().length * WalletMetrics.Phase.values().length,
+                meterRegistry.find("wallet.operation.phase").timers().size());
+        assertEquals(TransactionType.values().length * WalletMetrics.Rejection.values().length,
+                meterRegistry.find("wallet.operation.rejected").counters().size());
+    }
+
+    @Test
+    void commitIsTimedOnlyWhenTheTransactionCommits() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        walletMetrics.timeCommit(TransactionType.TOPUP);
+        walletMetrics.timeCommit(TransactionType.CONSUME);
+
+        // Act: the topup's transaction commits, the consume's rolls back
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+        TransactionSynchronizationManager.getSynchronizations().get(0).afterCommit();
+
+        // Assert
+        assertEquals(1, meterRegistry.get("wallet.operation.phase").tags("operation", "topup", "phase", "commit").timer().count());
+        assertEquals(0, meterRegistry.get("wallet.operation.phase").tags("operation", "consume", "phase", "commit").timer().count());
+    }
+
+    @Test
+    void commitIsNotTimedOutsideATransaction() {
+        walletMetrics.timeCommit(TransactionType.TOPUP);
+
+        assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+    }
+
+    @Test
+    void rejectionsAreCountedByOperationAndReason() {
+        walletMetrics.rejected(TransactionType.CONSUME, WalletMetrics.Rejection.INSUFFICIENT_BALANCE);
+        walletMetrics.rejected(TransactionType.CONSUME, WalletMetrics.Rejection.INSUFFICIENT_BALANCE);
+
+        assertEquals(2.0, meterRegistry.get("wallet.operation.rejected")
+                .tags("operation", "consume", "reason", "insufficient_balance").counter().count());
+        assertEquals(0.0, meterRegistry.get("wallet.operation.rejected")
+                .tags("operation", "topup", "reason", "insufficient_balance").counter().count());
+    }
+}
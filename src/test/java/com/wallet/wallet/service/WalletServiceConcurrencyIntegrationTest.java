@@ -0,0 +1,141 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.IntegrationTestBase;
+import com.wallet.wallet.config.WalletProperties;
+import com.wallet.wallet.exception.InsufficientBalanceException;
+import com.wallet.wallet.repository.WalletRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress tests hammering a single wallet from hundreds of threads.
+ * Verifies the atomic balance update path never loses an update, and that the legacy
+ * read-modify-write path, which may lose updates to the balance, still records every applied operation
+ * in the ledger and never overdraws or creates money.
+ * Their throughput under contention is compared by {@link com.wallet.wallet.load.BalanceUpdateModeLoadTest}.
+ */
+public class WalletServiceConcurrencyIntegrationTest extends IntegrationTestBase {
+
+    private static final int THREADS = 200;
+    private static final int OPERATIONS_PER_THREAD = 10;
+    private static final BigDecimal TOPUP_AMOUNT = new BigDecimal("10.00");
+    private static final BigDecimal CONSUME_AMOUNT = new BigDecimal("7.00");
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletProperties walletProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void restoreMode() {
+        walletProperties.setBalanceUpdateMode(WalletProperties.BalanceUpdateMode.ATOMIC);
+    }
+
+    @Test
+    void atomicMode_finalBalanceIsExactUnderContention() throws Exception {
+        walletProperties.setBalanceUpdateMode(WalletProperties.BalanceUpdateMode.ATOMIC);
+        Long walletId = 5001L;
+        // A consume that ran before the first topup would otherwise find no wallet
+        walletService.topup(walletId, TOPUP_AMOUNT, "atomic-seed");
+
+        RunResult result = hammer(walletId, "atomic");
+        BigDecimal expected = TOPUP_AMOUNT.multiply(BigDecimal.valueOf(result.topups + 1L))
+                .subtract(CONSUME_AMOUNT.multiply(BigDecimal.valueOf(result.consumes)));
+        BigDecimal actual = walletRepository.findById(walletId).orElseThrow().getBalance().toBigDecimal();
+
+        assertEquals(0, result.unexpectedErrors, "No operation should fail with anything but insufficient funds.");
+        assertEquals(0, expected.compareTo(actual), "Final balance must reflect every successful operation.");
+        assertTrue(actual.signum() >= 0, "Balance must never go negative.");
+    }
+
+    @Test
+    void readModifyWriteMode_mayLoseUpdatesButStaysWithinBounds() throws Exception {
+        walletProperties.setBalanceUpdateMode(WalletProperties.BalanceUpdateMode.READ_MODIFY_WRITE);
+        Long walletId = 5002L;
+        walletService.topup(walletId, TOPUP_AMOUNT, "rmw-seed");
+
+        RunResult result = hammer(walletId, "rmw");
+        BigDecimal credited = TOPUP_AMOUNT.multiply(BigDecimal.valueOf(result.topups + 1L));
+        BigDecimal applied = credited.subtract(CONSUME_AMOUNT.multiply(BigDecimal.valueOf(result.consumes)));
+        BigDecimal actual = walletRepository.findById(walletId).orElseThrow().getBalance().toBigDecimal();
+
+        assertEquals(0, result.unexpectedErrors, "No operation should fail with anything but insufficient funds.");
+        assertEquals(0, applied.compareTo(ledgerBalance(walletId)), "The ledger must hold every successful operation.");
+        // Lost updates make the stored balance drift either way, but every write is derived from a balance read
+        assertTrue(actual.signum() >= 0, "Balance must never go negative.");
+        assertTrue(actual.compareTo(credited) <= 0, "Balance must never exceed everything credited.");
+    }
+
+    private BigDecimal ledgerBalance(Long walletId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(CASE WHEN type = 'TOPUP' THEN amount ELSE -amount END), 0) FROM transactions WHERE wallet_id = ?",
+                BigDecimal.class, walletId);
+    }
+
+    private RunResult hammer(Long walletId, String prefix) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger topups = new AtomicInteger();
+        AtomicInteger consumes = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    String transactionId = prefix + "-" + walletId + "-" + thread + "-" + i;
+                    try {
+                        if ((thread + i) % 2 == 0) {
+                            walletService.topup(walletId, TOPUP_AMOUNT, transactionId);
+                            topups.incrementAndGet();
+                        } else {
+                            walletService.consume(walletId, CONSUME_AMOUNT, transactionId);
+                            consumes.incrementAndGet();
+                        }
+                    } catch (InsufficientBalanceException e) {
+                        rejected.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        return new RunResult(topups.get(), consumes.get(), rejected.get(), errors.get());
+    }
+
+    private record RunResult(int topups, int consumes, int rejected, int unexpectedErrors) {
+    }
+}
@@ -41,7 +41,7 @@ public class WalletServiceIntegrationTest extends IntegrationTestBase {
         // Check if the balance is correct in the database
         Optional<Wallet> walletAfterTopup = walletRepository.findById(walletId);
         assertTrue(walletAfterTopup.isPresent(), "Wallet should be created after topup.");
-        assertEquals(0, topupAmount.compareTo(walletAfterTopup.get().getBalance()), "Balance after topup should be correct.");
+        assertEquals(0, topupAmount.compareTo(walletAfterTopup.get().getBalance().toBigDecimal()), "Balance after topup should be correct.");
 
         // Consume from the wallet
         walletService.consume(walletId, consumeAmount, "txn-integ-2");
@@ -49,7 +49,7 @@ public class WalletServiceIntegrationTest extends IntegrationTestBase {
         // Check the final balance
         Optional<Wallet> walletAfterConsume = walletRepository.findById(walletId);
         assertTrue(walletAfterConsume.isPresent());
-        assertEquals(0, expectedFinalBalance.compareTo(walletAfterConsume.get().getBalance()), "Final balance after consume should be correct.");
+        assertEquals(0, expectedFinalBalance.compareTo(walletAfterConsume.get().getBalance().toBigDecimal()), "Final balance after consume should be correct.");
     }
 
     @Test
@@ -78,4 +78,24 @@ public class WalletServiceIntegrationTest extends IntegrationTestBase {
             walletService.topup(walletId, new BigDecimal("10.00"), duplicateTransactionId);
         });
     }
+
+    @Test
+    void testGetBalance_reflectsEveryCommittedWrite() {
+        // Arrange: the balance is cached by the first read
+        Long walletId = 4L;
+        walletService.topup(walletId, new BigDecimal("30.00"), "txn-integ-cache-1");
+        assertEquals(0, new BigDecimal("30.00").compareTo(walletService.getBalance(walletId)));
+
+        // Act & Assert: reads right after each write see it
+        walletService.consume(walletId, new BigDecimal("12.50"), "txn-integ-cache-2");
+        assertEquals(0, new BigDecimal("17.50").compareTo(walletService.getBalance(walletId)));
+
+        walletService.topup(walletId, new BigDecimal("2.50"), "txn-integ-cache-3");
+        assertEquals(0, new BigDecimal("20.00").compareTo(walletService.getBalance(walletId)));
+
+        // A rejected consume leaves the cached balance untouched
+        assertThrows(InsufficientBalanceException.class,
+                () -> walletService.consume(walletId, new BigDecimal("25.00"), "txn-integ-cache-4"));
+        assertEquals(0, new BigDecimal("20.00").compareTo(walletService.getBalance(walletId)));
+    }
 }
@@ -0,0 +1,141 @@
+package com.wallet.wallet.service;
+
+import com.wallet.wallet.IntegrationTestBase;
+import com.wallet.wallet.exception.InsufficientBalanceException;
+import com.wallet.wallet.exception.TransactionAlreadyExistsException;
+import com.wallet.wallet.model.Money;
+import com.wallet.wallet.model.Transaction;
+import com.wallet.wallet.model.TransactionType;
+import com.wallet.wallet.repository.TransactionRepository;
+import com.wallet.wallet.repository.WalletRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Counts the JDBC statements each wallet operation issues, using Hibernate statistics.
+ * The select-first numbers replay the path every write took before insert-first idempotency: a SELECT by
+ * transactionId, the balance update and the ledger insert, with the event published straight to the broker.
+ */
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // The relay's polling would show up in the same statistics
+        "wallet.outbox.relay-enabled=false"
+})
+public class WalletServiceStatementCountIntegrationTest extends IntegrationTestBase {
+
+    private static final int REQUESTS = 50;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Select-first: SELECT by transactionId, balance upsert, ledger INSERT.
+     * Insert-first: balance upsert, transaction_keys INSERT, ledger INSERT, outbox INSERT.
+     * The key INSERT takes the place of the SELECT; the extra statement is the outbox row.
+     */
+    @Test
+    void topup_replacesTheSelectByTheKeyInsertAndAddsTheOutboxRow() {
+        Long walletId = 6001L;
+
+        double selectFirst = statementsPerRequest(i -> selectFirstWrite(walletId, "select-first-topup-" + i, TransactionType.TOPUP));
+        double insertFirst = statementsPerRequest(i -> walletService.topup(walletId, new BigDecimal("10.00"), "topup-" + i));
+
+        assertEquals(3, selectFirst, 0.001);
+        assertEquals(4, insertFirst, 0.001);
+    }
+
+    /**
+     * Select-first: SELECT by transactionId, conditional debit, ledger INSERT.
+     * Insert-first: conditional debit, transaction_keys INSERT, ledger INSERT, outbox INSERT.
+     */
+    @Test
+    void consume_replacesTheSelectByTheKeyInsertAndAddsTheOutboxRow() {
+        Long walletId = 6003L;
+        walletService.topup(walletId, new BigDecimal("1000.00"), "consume-funding");
+
+        double selectFirst = statementsPerRequest(i -> selectFirstWrite(walletId, "select-first-consume-" + i, TransactionType.CONSUME));
+        double insertFirst = statementsPerRequest(i -> walletService.consume(walletId, new BigDecimal("1.00"), "consume-" + i));
+
+        assertEquals(3, selectFirst, 0.001);
+        assertEquals(4, insertFirst, 0.001);
+    }
+
+    @Test
+    void recentRetry_isRejectedWithoutTouchingTheDatabase() {
+        Long walletId = 6002L;
+        walletService.topup(walletId, new BigDecimal("10.00"), "retry-1");
+
+        long before = statistics.getPrepareStatementCount();
+        assertThrows(TransactionAlreadyExistsException.class,
+                () -> walletService.topup(walletId, new BigDecimal("10.00"), "retry-1"));
+
+        assertEquals(0, statistics.getPrepareStatementCount() - before);
+    }
+
+    private double statementsPerRequest(IntConsumer request) {
+        long before = statistics.getPrepareStatementCount();
+        for (int i = 0; i < REQUESTS; i++) {
+            request.accept(i);
+        }
+        return (statistics.getPrepareStatementCount() - before) / (double) REQUESTS;
+    }
+
+    /**
+     * What topup and consume did before insert-first idempotency, with the same repositories.
+     */
+    private void selectFirstWrite(Long walletId, String transactionId, TransactionType type) {
+        transactionTemplate.executeWithoutResult(status -> {
+            transactionRepository.findByTransactionId(transactionId).ifPresent(existing -> {
+                throw new TransactionAlreadyExistsException("Transaction with ID " + transactionId + " already exists.");
+            });
+            Money amount = type == TransactionType.TOPUP ? Money.of(new BigDecimal("10.00")) : Money.of(new BigDecimal("1.00"));
+            if (type == TransactionType.TOPUP) {
+                walletRepository.creditOrCreate(walletId, amount.toBigDecimal());
+            } else if (walletRepository.debitIfSufficient(walletId, amount) == 0) {
+                throw new InsufficientBalanceException("Insufficient balance for wallet ID " + walletId);
+            }
+            Transaction transaction = new Transaction();
+            transaction.setWallet(walletRepository.getReferenceById(walletId));
+            transaction.setAmount(amount);
+            transaction.setTransactionId(transactionId);
+            transaction.setType(type);
+            transaction.setCreatedAt(LocalDateTime.now());
+            transactionRepository.saveAndFlush(transaction);
+        });
+    }
+}